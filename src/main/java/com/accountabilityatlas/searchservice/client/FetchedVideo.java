@@ -0,0 +1,10 @@
+package com.accountabilityatlas.searchservice.client;
+
+/**
+ * A video fetched from video-service.
+ *
+ * @param video the video details
+ * @param notModified whether video-service answered 304 and {@code video} is the cached copy from
+ *     an earlier fetch
+ */
+public record FetchedVideo(VideoDetail video, boolean notModified) {}
@@ -0,0 +1,43 @@
+package com.accountabilityatlas.searchservice.client;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Hedged video-service requests.
+ *
+ * @param enabled whether a second request is sent when the first is slow
+ * @param percentile recent response-time percentile after which the second request is sent
+ * @param minDelay shortest wait before hedging, however fast video-service has been
+ * @param maxDelay longest wait before hedging, also used until {@code minSamples} responses are
+ *     recorded
+ * @param budgetRatio extra requests allowed as a share of all requests
+ * @param minSamples responses recorded before the percentile is trusted
+ */
+@ConfigurationProperties(prefix = "app.video-service.hedging")
+public record HedgingProperties(
+    boolean enabled,
+    double percentile,
+    Duration minDelay,
+    Duration maxDelay,
+    double budgetRatio,
+    int minSamples) {
+
+  public HedgingProperties {
+    if (percentile <= 0 || percentile >= 1) {
+      percentile = 0.95;
+    }
+    if (minDelay == null) {
+      minDelay = Duration.ofMillis(20);
+    }
+    if (maxDelay == null) {
+      maxDelay = Duration.ofSeconds(1);
+    }
+    if (budgetRatio <= 0) {
+      budgetRatio = 0.05;
+    }
+    if (minSamples <= 0) {
+      minSamples = 100;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.accountabilityatlas.searchservice.client;
+
+/**
+ * The number of approved videos with ids in a range and the md5 of their {@code id:version} pairs
+ * joined with commas in id order, or null when the range is empty.
+ */
+public record RangeDigest(long count, String digest) {
+
+  /** Whether both sides hold the same videos at the same versions. */
+  public boolean matches(RangeDigest other) {
+    return count == other.count && (count == 0 || digest.equals(other.digest));
+  }
+}
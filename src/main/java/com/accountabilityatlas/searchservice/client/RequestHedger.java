@@ -0,0 +1,146 @@
+package com.accountabilityatlas.searchservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Sends a second, identical video-service request when the first has not answered within the
+ * recent {@code percentile} response time, and takes whichever answers first. A single slow pod
+ * then costs one percentile-length wait rather than its full response time.
+ *
+ * <p>Hedges are paid for from a budget that grows by {@code budgetRatio} per request, so they add
+ * at most that share of extra load even when video-service as a whole slows down. Only the first
+ * request's errors are reported; a failed hedge is ignored. Requests must be idempotent.
+ */
+@Component
+public class RequestHedger {
+
+  private static final int WINDOW_SIZE = 1024;
+  private static final double MAX_BUDGET = 10;
+  private static final int REFRESH_EVERY = 32;
+
+  private record Response<T>(T value, boolean hedge) {}
+
+  private final HedgingProperties properties;
+  private final Timer latency;
+  private final Counter hedgesWon;
+  private final Counter hedgesLost;
+  private final Counter hedgesDenied;
+
+  // Recent response times in nanoseconds; the delay is recomputed every REFRESH_EVERY of them
+  private final long[] window = new long[WINDOW_SIZE];
+  private long recorded;
+  private double budget;
+  private volatile Duration delay;
+
+  public RequestHedger(HedgingProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.delay = properties.maxDelay();
+    latency =
+        Timer.builder("search.video_service.latency")
+            .description("Response time of individual video-service requests, hedges included")
+            .register(meterRegistry);
+    hedgesWon = hedgeCounter("won", meterRegistry);
+    hedgesLost = hedgeCounter("lost", meterRegistry);
+    hedgesDenied = hedgeCounter("denied", meterRegistry);
+    Gauge.builder("search.video_service.hedge.delay", this, h -> h.delay.toMillis())
+        .description("Milliseconds a request waits before it is hedged")
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Subscribes to {@code request} and, if enabled and nothing has arrived after the hedging delay,
+   * subscribes to a second one from the same supplier.
+   */
+  public <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+    if (!properties.enabled()) {
+      return timed(request.get());
+    }
+    Duration hedgeDelay = delay;
+    deposit();
+    AtomicBoolean hedged = new AtomicBoolean();
+    Mono<Response<T>> primary = timed(request.get()).map(value -> new Response<>(value, false));
+    Mono<Response<T>> secondary =
+        Mono.delay(hedgeDelay)
+            .flatMap(
+                tick -> {
+                  if (!withdraw()) {
+                    hedgesDenied.increment();
+                    return Mono.never();
+                  }
+                  hedged.set(true);
+                  return timed(request.get())
+                      .map(value -> new Response<>(value, true))
+                      .onErrorResume(e -> Mono.never());
+                });
+    return Mono.firstWithSignal(primary, secondary)
+        .doOnNext(
+            response -> {
+              if (hedged.get()) {
+                (response.hedge() ? hedgesWon : hedgesLost).increment();
+              }
+            })
+        .map(Response::value);
+  }
+
+  private <T> Mono<T> timed(Mono<T> request) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          // A cancelled request took at least this long, so it still counts towards the tail
+          return request.doFinally(
+              signal -> {
+                if (signal != SignalType.ON_ERROR) {
+                  record(System.nanoTime() - start);
+                }
+              });
+        });
+  }
+
+  private synchronized void record(long nanos) {
+    window[(int) (recorded++ % WINDOW_SIZE)] = nanos;
+    latency.record(nanos, TimeUnit.NANOSECONDS);
+    if (recorded >= properties.minSamples() && recorded % REFRESH_EVERY == 0) {
+      int samples = (int) Math.min(recorded, WINDOW_SIZE);
+      long[] sorted = Arrays.copyOf(window, samples);
+      Arrays.sort(sorted);
+      int rank = (int) Math.ceil(properties.percentile() * samples) - 1;
+      delay =
+          Duration.ofNanos(
+              Math.clamp(
+                  sorted[Math.max(rank, 0)],
+                  properties.minDelay().toNanos(),
+                  properties.maxDelay().toNanos()));
+    }
+  }
+
+  private synchronized void deposit() {
+    budget = Math.min(MAX_BUDGET, budget + properties.budgetRatio());
+  }
+
+  private synchronized boolean withdraw() {
+    if (budget < 1) {
+      return false;
+    }
+    budget--;
+    return true;
+  }
+
+  private static Counter hedgeCounter(String result, MeterRegistry meterRegistry) {
+    return Counter.builder("search.video_service.hedges")
+        .description("Slow video-service requests, by whether their hedge won, lost or was denied")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
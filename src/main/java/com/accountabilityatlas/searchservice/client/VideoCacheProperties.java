@@ -0,0 +1,19 @@
+package com.accountabilityatlas.searchservice.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Conditional-GET cache for single video fetches.
+ *
+ * @param enabled whether fetched videos are cached and revalidated with their validators
+ * @param capacity videos kept, least recently fetched evicted first
+ */
+@ConfigurationProperties(prefix = "app.video-service.cache")
+public record VideoCacheProperties(boolean enabled, int capacity) {
+
+  public VideoCacheProperties {
+    if (capacity <= 0) {
+      capacity = 10_000;
+    }
+  }
+}
@@ -19,7 +19,8 @@ public record VideoDetail(
     List<String> participants,
     String status,
     OffsetDateTime createdAt,
-    List<VideoLocationDetail> locations) {
+    List<VideoLocationDetail> locations,
+    Long version) {
 
   public record VideoLocationDetail(
       UUID id, UUID locationId, boolean isPrimary, LocationSummary location) {}
@@ -0,0 +1,109 @@
+package com.accountabilityatlas.searchservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * The last {@link VideoDetail} fetched per video, with the ETag and Last-Modified it came with.
+ *
+ * <p>{@link VideoServiceClient} sends these back as {@code If-None-Match} and {@code
+ * If-Modified-Since}; on a 304 the cached body is reused instead of transferring and decoding it
+ * again. Videos without either validator are not cached.
+ */
+@Component
+public class VideoDetailCache {
+
+  private record Entry(String etag, long lastModified, VideoDetail video) {}
+
+  private final boolean enabled;
+  private final Map<UUID, Entry> entries;
+  private final Counter revalidated;
+  private final Counter replaced;
+  private final Counter uncached;
+
+  public VideoDetailCache(VideoCacheProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    int capacity = properties.capacity();
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > capacity;
+          }
+        };
+    revalidated = requestCounter("not_modified", meterRegistry);
+    replaced = requestCounter("modified", meterRegistry);
+    uncached = requestCounter("uncached", meterRegistry);
+    Gauge.builder("search.video_service.cache.size", this, VideoDetailCache::size)
+        .description("Videos held for conditional requests")
+        .register(meterRegistry);
+  }
+
+  /** Adds the validators of the cached copy of {@code videoId}, if any, to {@code headers}. */
+  public void addConditions(UUID videoId, HttpHeaders headers) {
+    Entry entry = get(videoId);
+    if (entry == null) {
+      return;
+    }
+    if (entry.etag() != null) {
+      headers.setIfNoneMatch(entry.etag());
+    }
+    if (entry.lastModified() >= 0) {
+      headers.setIfModifiedSince(entry.lastModified());
+    }
+  }
+
+  /**
+   * Returns the cached copy after video-service answered 304 to a request sent with {@link
+   * #addConditions}, or null if it has since been evicted.
+   */
+  public VideoDetail notModified(UUID videoId) {
+    Entry entry = get(videoId);
+    if (entry != null) {
+      revalidated.increment();
+    }
+    return entry != null ? entry.video() : null;
+  }
+
+  /** Caches a video returned with a full 200 response, replacing any earlier copy. */
+  public void modified(UUID videoId, HttpHeaders headers, VideoDetail video) {
+    if (!enabled) {
+      return;
+    }
+    String etag = headers.getETag();
+    long lastModified = headers.getLastModified();
+    synchronized (this) {
+      Entry previous =
+          etag != null || lastModified >= 0
+              ? entries.put(videoId, new Entry(etag, lastModified, video))
+              : entries.remove(videoId);
+      (previous != null ? replaced : uncached).increment();
+    }
+  }
+
+  /** Forgets {@code videoId}, such as after video-service reported it missing. */
+  public synchronized void evict(UUID videoId) {
+    entries.remove(videoId);
+  }
+
+  private synchronized Entry get(UUID videoId) {
+    return enabled ? entries.get(videoId) : null;
+  }
+
+  private synchronized int size() {
+    return entries.size();
+  }
+
+  private static Counter requestCounter(String result, MeterRegistry meterRegistry) {
+    return Counter.builder("search.video_service.cache.requests")
+        .description("Video fetches, by whether a cached copy was revalidated or replaced")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
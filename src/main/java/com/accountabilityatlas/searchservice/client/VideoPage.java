@@ -0,0 +1,6 @@
+package com.accountabilityatlas.searchservice.client;
+
+import java.util.List;
+
+/** One page of a video-service listing. */
+public record VideoPage(List<VideoDetail> content, boolean last) {}
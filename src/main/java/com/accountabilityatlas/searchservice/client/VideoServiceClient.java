@@ -1,22 +1,76 @@
 package com.accountabilityatlas.searchservice.client;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
 
+/**
+ * Client for video-service.
+ *
+ * <p>Every call goes through the {@value #RESILIENCE_NAME} retry and circuit breaker. Transient
+ * 503/504 responses are retried in place with jittered backoff; outages open the breaker, after
+ * which calls fail fast with a retryable {@link VideoServiceException} until video-service
+ * recovers. Single video fetches, which are on the indexing path, may be hedged; see {@link
+ * RequestHedger}.
+ */
 @Component
 @Slf4j
 public class VideoServiceClient {
 
+  /** Name of the resilience4j circuit breaker and retry instances guarding video-service. */
+  public static final String RESILIENCE_NAME = "video-service";
+
   private final WebClient webClient;
+  private final CircuitBreaker circuitBreaker;
+  private final Retry retry;
+  private final RequestHedger hedger;
+  private final VideoDetailCache cache;
 
   public VideoServiceClient(
-      WebClient.Builder webClientBuilder, @Value("${app.video-service.base-url}") String baseUrl) {
+      WebClient.Builder webClientBuilder,
+      @Value("${app.video-service.base-url}") String baseUrl,
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      RetryRegistry retryRegistry,
+      RequestHedger hedger,
+      VideoDetailCache cache) {
     this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    this.hedger = hedger;
+    this.cache = cache;
+    this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_NAME);
+    this.retry = retryRegistry.retry(RESILIENCE_NAME);
+  }
+
+  /** Whether {@code failure} is a transient 503/504 worth retrying straight away. */
+  public static boolean isTransient(Throwable failure) {
+    return failure instanceof VideoServiceException
+        && (failure.getCause() instanceof WebClientResponseException.ServiceUnavailable
+            || failure.getCause() instanceof WebClientResponseException.GatewayTimeout);
+  }
+
+  /**
+   * Whether {@code failure} means video-service itself is unhealthy, as opposed to a missing video
+   * or a rejected request. Only these count towards opening the circuit breaker.
+   */
+  public static boolean isOutage(Throwable failure) {
+    return failure instanceof VideoServiceException e && e.isRetryable();
   }
 
   /**
@@ -28,22 +82,53 @@ public class VideoServiceClient {
    * @throws VideoServiceException if video-service is unavailable or returns an error - retryable
    */
   public VideoDetail getVideo(UUID videoId) {
+    return fetchVideo(videoId).video();
+  }
+
+  /**
+   * Fetches video details from video-service, revalidating the copy in {@link VideoDetailCache}
+   * if there is one.
+   *
+   * @param videoId the video ID to fetch
+   * @return the video details, flagged if they are unchanged since the last fetch
+   * @throws VideoNotFoundException if the video does not exist (404) - not retryable
+   * @throws VideoServiceException if video-service is unavailable or returns an error - retryable
+   */
+  public FetchedVideo fetchVideo(UUID videoId) {
+    return call(videoId, () -> requestVideo(videoId));
+  }
+
+  private FetchedVideo requestVideo(UUID videoId) {
     try {
-      VideoDetail video =
-          webClient
-              .get()
-              .uri("/videos/{id}", videoId)
-              .retrieve()
-              .bodyToMono(VideoDetail.class)
+      ResponseEntity<VideoDetail> response =
+          hedger
+              .hedge(
+                  () ->
+                      webClient
+                          .get()
+                          .uri("/videos/{id}", videoId)
+                          .headers(headers -> cache.addConditions(videoId, headers))
+                          .retrieve()
+                          .toEntity(VideoDetail.class))
               .block();
 
-      if (video == null) {
+      if (response == null) {
         throw new VideoNotFoundException(videoId);
       }
-      return video;
+      if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+        VideoDetail cached = cache.notModified(videoId);
+        // Evicted while the request was in flight, so ask again without validators
+        return cached != null ? new FetchedVideo(cached, true) : requestVideo(videoId);
+      }
+      if (response.getBody() == null) {
+        throw new VideoNotFoundException(videoId);
+      }
+      cache.modified(videoId, response.getHeaders(), response.getBody());
+      return new FetchedVideo(response.getBody(), false);
 
     } catch (WebClientResponseException.NotFound e) {
       log.warn("Video {} not found in video-service (404)", videoId);
+      cache.evict(videoId);
       throw new VideoNotFoundException(videoId);
 
     } catch (WebClientResponseException.ServiceUnavailable
@@ -77,4 +162,110 @@ public class VideoServiceClient {
       throw new VideoServiceException(videoId, "Unexpected error fetching video", e, true);
     }
   }
+
+  /**
+   * Fetches one page of approved videos, ordered by video-service so that consecutive pages do not
+   * overlap.
+   *
+   * @param page zero-based page number
+   * @param size videos per page
+   * @return the page, with {@code last} set on the final one
+   * @throws VideoServiceException if video-service is unavailable or returns an error
+   */
+  public VideoPage getApprovedVideos(int page, int size) {
+    VideoPage videos =
+        list(
+            "page " + page,
+            uriBuilder ->
+                uriBuilder
+                    .path("/videos")
+                    .queryParam("status", "APPROVED")
+                    .queryParam("page", page)
+                    .queryParam("size", size)
+                    .build(),
+            new ParameterizedTypeReference<VideoPage>() {});
+
+    if (videos == null || videos.content() == null) {
+      return new VideoPage(List.of(), true);
+    }
+    return videos;
+  }
+
+  /**
+   * Digests the approved videos with ids in {@code [from, to)}, in PostgreSQL uuid order.
+   *
+   * @param from inclusive lower bound
+   * @param to exclusive upper bound, or null for no upper bound
+   * @throws VideoServiceException if video-service is unavailable or returns an error
+   */
+  public RangeDigest getApprovedDigest(UUID from, UUID to) {
+    RangeDigest digest =
+        list(
+            "digest from " + from,
+            uriBuilder -> rangeUri(uriBuilder.path("/videos/digest"), from, to),
+            new ParameterizedTypeReference<RangeDigest>() {});
+    return digest != null ? digest : new RangeDigest(0, null);
+  }
+
+  /**
+   * Lists the id and version of each approved video with an id in {@code [from, to)}.
+   *
+   * @param from inclusive lower bound
+   * @param to exclusive upper bound, or null for no upper bound
+   * @throws VideoServiceException if video-service is unavailable or returns an error
+   */
+  public List<VideoVersion> getApprovedVersions(UUID from, UUID to) {
+    List<VideoVersion> versions =
+        list(
+            "versions from " + from,
+            uriBuilder -> rangeUri(uriBuilder.path("/videos/versions"), from, to),
+            new ParameterizedTypeReference<List<VideoVersion>>() {});
+    return versions != null ? versions : List.of();
+  }
+
+  private static URI rangeUri(UriBuilder uriBuilder, UUID from, UUID to) {
+    return uriBuilder
+        .queryParam("status", "APPROVED")
+        .queryParam("from", from)
+        .queryParamIfPresent("to", Optional.ofNullable(to))
+        .build();
+  }
+
+  private <T> T list(
+      String description,
+      Function<UriBuilder, URI> uri,
+      ParameterizedTypeReference<T> responseType) {
+    return call(null, () -> fetchList(description, uri, responseType));
+  }
+
+  private <T> T fetchList(
+      String description,
+      Function<UriBuilder, URI> uri,
+      ParameterizedTypeReference<T> responseType) {
+    try {
+      return webClient.get().uri(uri).retrieve().bodyToMono(responseType).block();
+
+    } catch (WebClientRequestException e) {
+      log.error("Failed to connect to video-service listing {}: {}", description, e.getMessage());
+      throw new VideoServiceException(null, "Failed to connect to video-service", e, true);
+
+    } catch (WebClientResponseException e) {
+      log.error(
+          "Video-service returned error {} listing {}: {}",
+          e.getStatusCode(),
+          description,
+          e.getMessage());
+      boolean retryable = e.getStatusCode().is5xxServerError();
+      throw new VideoServiceException(
+          null, "Video-service error: " + e.getStatusCode(), e, retryable);
+    }
+  }
+
+  private <T> T call(UUID videoId, Supplier<T> request) {
+    try {
+      return circuitBreaker.executeSupplier(Retry.decorateSupplier(retry, request));
+    } catch (CallNotPermittedException e) {
+      throw new VideoServiceException(videoId, "Video-service circuit breaker is open", e, true);
+    }
+  }
 }
@@ -0,0 +1,5 @@
+package com.accountabilityatlas.searchservice.client;
+
+import java.util.UUID;
+
+public record VideoVersion(UUID id, Long version) {}
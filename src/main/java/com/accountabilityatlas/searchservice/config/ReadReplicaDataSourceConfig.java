@@ -0,0 +1,85 @@
+package com.accountabilityatlas.searchservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends read-only transactions to read replicas and everything else to the primary. Enabled with
+ * {@code app.datasource.read-replicas.enabled=true}.
+ *
+ * <p>The application {@link DataSource} is a {@link LazyConnectionDataSourceProxy} that only
+ * fetches a connection at the first statement, once the transaction's read-only flag is known.
+ * Read-only connections come from a {@link ReplicaRoutingDataSource}; writes, non-transactional
+ * access and Flyway migrations use the primary pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(
+    prefix = "app.datasource.read-replicas",
+    name = "enabled",
+    havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+  @Bean
+  @FlywayDataSource
+  @ConfigurationProperties(prefix = "spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    HikariDataSource dataSource =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      HikariDataSource primaryDataSource,
+      DataSourceProperties dataSourceProperties,
+      ReadReplicaProperties replicaProperties,
+      MeterRegistry meterRegistry) {
+    if (replicaProperties.urls().isEmpty()) {
+      throw new IllegalStateException(
+          "app.datasource.read-replicas.enabled is true but no urls are configured");
+    }
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    for (int i = 0; i < replicaProperties.urls().size(); i++) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + (i + 1));
+      replica.setJdbcUrl(replicaProperties.urls().get(i));
+      replica.setUsername(
+          replicaProperties.username() != null
+              ? replicaProperties.username()
+              : dataSourceProperties.determineUsername());
+      replica.setPassword(
+          replicaProperties.password() != null
+              ? replicaProperties.password()
+              : dataSourceProperties.determinePassword());
+      replica.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+      replica.setReadOnly(true);
+      // The primary is a bean and gets its pool metrics from Boot; replicas are registered here
+      replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      replicas.put(replica.getPoolName(), replica);
+    }
+    return new ReplicaRoutingDataSource(
+        primaryDataSource, replicas, replicaProperties.maxLag(), meterRegistry);
+  }
+
+  @Bean
+  @Primary
+  public LazyConnectionDataSourceProxy dataSource(
+      HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+    dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+    return dataSource;
+  }
+}
@@ -0,0 +1,42 @@
+package com.accountabilityatlas.searchservice.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica settings.
+ *
+ * @param enabled route read-only transactions to {@code urls}
+ * @param urls JDBC URLs of the replicas, one pool each
+ * @param username replica user; defaults to the primary's
+ * @param password replica password; defaults to the primary's
+ * @param maximumPoolSize maximum connections per replica pool
+ * @param maxLag replay lag above which a replica stops receiving reads until it catches up
+ * @param lagCheckInterval how often each replica's replay lag is measured
+ */
+@ConfigurationProperties(prefix = "app.datasource.read-replicas")
+public record ReadReplicaProperties(
+    boolean enabled,
+    List<String> urls,
+    String username,
+    String password,
+    int maximumPoolSize,
+    Duration maxLag,
+    Duration lagCheckInterval) {
+
+  public ReadReplicaProperties {
+    if (urls == null) {
+      urls = List.of();
+    }
+    if (maximumPoolSize <= 0) {
+      maximumPoolSize = 10;
+    }
+    if (maxLag == null) {
+      maxLag = Duration.ofSeconds(10);
+    }
+    if (lagCheckInterval == null) {
+      lagCheckInterval = Duration.ofSeconds(5);
+    }
+  }
+}
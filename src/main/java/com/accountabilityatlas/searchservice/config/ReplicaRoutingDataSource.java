@@ -0,0 +1,148 @@
+package com.accountabilityatlas.searchservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Read-only {@link DataSource} that spreads connections round-robin over the replicas whose replay
+ * lag is within the configured maximum, and falls back to the primary when none are.
+ *
+ * <p>Replicas start out unhealthy and only receive reads once a lag check has succeeded. A replica
+ * whose check fails or exceeds the maximum lag is skipped until a later check passes.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+  static final String PRIMARY = "primary";
+
+  // Zero when the replica has replayed everything it received; otherwise the age of the last
+  // replayed transaction. Zero on a server that is not in recovery at all.
+  private static final String LAG_QUERY =
+      """
+      SELECT CASE
+               WHEN NOT pg_is_in_recovery() THEN 0
+               WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+               ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+             END
+      """;
+
+  private final List<Replica> replicas = new ArrayList<>();
+  private final Duration maxLag;
+  private final Counter primaryFallbacks;
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * @param primary used when no replica is healthy
+   * @param replicas replica pools by name, in routing order
+   */
+  public ReplicaRoutingDataSource(
+      DataSource primary,
+      Map<String, DataSource> replicas,
+      Duration maxLag,
+      MeterRegistry meterRegistry) {
+    this.maxLag = maxLag;
+    Map<Object, Object> targets = new HashMap<>(replicas);
+    targets.put(PRIMARY, primary);
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    setLenientFallback(false);
+
+    replicas.forEach(
+        (name, dataSource) -> {
+          Replica replica = new Replica(name, dataSource);
+          this.replicas.add(replica);
+          Gauge.builder("search.datasource.replica.lag", replica, r -> r.lagSeconds)
+              .description("Replay lag of a read replica; NaN while its lag check is failing")
+              .baseUnit("seconds")
+              .tag("pool", name)
+              .register(meterRegistry);
+        });
+    primaryFallbacks =
+        Counter.builder("search.datasource.replica.fallbacks")
+            .description("Read-only connections routed to the primary, no replica being healthy")
+            .register(meterRegistry);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    int size = replicas.size();
+    int start = Math.floorMod(next.getAndIncrement(), size);
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+      if (replica.healthy) {
+        return replica.name;
+      }
+    }
+    primaryFallbacks.increment();
+    return PRIMARY;
+  }
+
+  /** Measures each replica's replay lag and updates which replicas receive reads. */
+  @Scheduled(
+      fixedDelayString = "${app.datasource.read-replicas.lag-check-interval:PT5S}",
+      initialDelay = 0)
+  public void checkLag() {
+    for (Replica replica : replicas) {
+      boolean wasHealthy = replica.healthy;
+      try (Connection connection = replica.dataSource.getConnection();
+          Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+        resultSet.next();
+        replica.lagSeconds = resultSet.getDouble(1);
+        replica.healthy = replica.lagSeconds <= maxLag.toMillis() / 1000.0;
+      } catch (SQLException e) {
+        replica.lagSeconds = Double.NaN;
+        replica.healthy = false;
+        if (wasHealthy) {
+          log.warn("Lag check failed for read replica {}: {}", replica.name, e.getMessage());
+        }
+      }
+      if (wasHealthy && !replica.healthy && !Double.isNaN(replica.lagSeconds)) {
+        log.warn(
+            "Read replica {} is {}s behind (max {}), routing its reads elsewhere",
+            replica.name,
+            replica.lagSeconds,
+            maxLag);
+      } else if (!wasHealthy && replica.healthy) {
+        log.info("Read replica {} is healthy, routing reads to it", replica.name);
+      }
+    }
+  }
+
+  /** Closes the replica pools; the primary is managed by its own bean. */
+  @Override
+  public void close() throws Exception {
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private static final class Replica {
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile double lagSeconds = Double.NaN;
+
+    private Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+  }
+}
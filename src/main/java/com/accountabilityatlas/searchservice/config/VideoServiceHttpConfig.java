@@ -0,0 +1,56 @@
+package com.accountabilityatlas.searchservice.config;
+
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The reactor-netty client behind the auto-configured {@code WebClient.Builder}, which only {@code
+ * VideoServiceClient} uses. Replacing Boot's default connector bean sizes the connection pool,
+ * bounds connect, acquire and response waits, and enables gzip and optionally h2c.
+ *
+ * <p>Pool metrics are published as {@code reactor.netty.connection.provider.*} with {@code
+ * name=video-service}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class VideoServiceHttpConfig {
+
+  private static final String POOL_NAME = "video-service";
+
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider videoServiceConnectionProvider(VideoServiceHttpProperties properties) {
+    return ConnectionProvider.builder(POOL_NAME)
+        .maxConnections(properties.maxConnections())
+        .pendingAcquireMaxCount(properties.pendingAcquireMaxCount())
+        .pendingAcquireTimeout(properties.pendingAcquireTimeout())
+        .maxIdleTime(properties.maxIdleTime())
+        .maxLifeTime(properties.maxLifeTime())
+        // Close idle and expired connections even when no request touches the pool
+        .evictInBackground(Duration.ofSeconds(30))
+        .metrics(true)
+        .build();
+  }
+
+  @Bean
+  public ClientHttpConnector videoServiceHttpConnector(
+      ConnectionProvider videoServiceConnectionProvider, VideoServiceHttpProperties properties) {
+    HttpClient httpClient =
+        HttpClient.create(videoServiceConnectionProvider)
+            .option(
+                ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+            .responseTimeout(properties.responseTimeout())
+            .keepAlive(true)
+            .compress(properties.compression());
+    if (properties.h2c()) {
+      // Upgrades from HTTP/1.1, so a video-service without h2c still works
+      httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+    return new ReactorClientHttpConnector(httpClient);
+  }
+}
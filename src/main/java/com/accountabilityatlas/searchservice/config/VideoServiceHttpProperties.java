@@ -0,0 +1,55 @@
+package com.accountabilityatlas.searchservice.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * HTTP connection settings for video-service.
+ *
+ * @param maxConnections pooled connections, or streams per connection with {@code h2c}
+ * @param pendingAcquireMaxCount requests allowed to wait for a pooled connection
+ * @param pendingAcquireTimeout how long a request waits for a pooled connection
+ * @param maxIdleTime idle time after which a pooled connection is closed
+ * @param maxLifeTime age after which a pooled connection is closed, so load rebalances across
+ *     video-service pods
+ * @param connectTimeout TCP connect timeout
+ * @param responseTimeout time allowed between sending a request and each read of its response
+ * @param compression whether to accept gzip-encoded responses
+ * @param h2c whether to upgrade connections to cleartext HTTP/2 and multiplex requests on them
+ */
+@ConfigurationProperties(prefix = "app.video-service.http")
+public record VideoServiceHttpProperties(
+    int maxConnections,
+    int pendingAcquireMaxCount,
+    Duration pendingAcquireTimeout,
+    Duration maxIdleTime,
+    Duration maxLifeTime,
+    Duration connectTimeout,
+    Duration responseTimeout,
+    boolean compression,
+    boolean h2c) {
+
+  public VideoServiceHttpProperties {
+    if (maxConnections <= 0) {
+      maxConnections = 50;
+    }
+    if (pendingAcquireMaxCount <= 0) {
+      pendingAcquireMaxCount = 500;
+    }
+    if (pendingAcquireTimeout == null) {
+      pendingAcquireTimeout = Duration.ofSeconds(5);
+    }
+    if (maxIdleTime == null) {
+      maxIdleTime = Duration.ofSeconds(30);
+    }
+    if (maxLifeTime == null) {
+      maxLifeTime = Duration.ofMinutes(5);
+    }
+    if (connectTimeout == null) {
+      connectTimeout = Duration.ofSeconds(2);
+    }
+    if (responseTimeout == null) {
+      responseTimeout = Duration.ofSeconds(5);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.accountabilityatlas.searchservice.config;
+
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Decides which video-service failures the retry and circuit breaker act on. Timings and
+ * thresholds are configured under {@code resilience4j.*.instances.video-service}.
+ *
+ * <p>Only transient 503/504 responses are retried in the client; anything longer is left to the
+ * SQS redelivery. Only outages count towards opening the breaker, so a burst of deleted videos
+ * (404) or rejected requests does not stop indexing.
+ */
+@Configuration(proxyBeanMethods = false)
+public class VideoServiceResilienceConfig {
+
+  @Bean
+  public RetryConfigCustomizer videoServiceRetryCustomizer() {
+    return RetryConfigCustomizer.of(
+        VideoServiceClient.RESILIENCE_NAME,
+        builder -> builder.retryOnException(VideoServiceClient::isTransient));
+  }
+
+  @Bean
+  public CircuitBreakerConfigCustomizer videoServiceCircuitBreakerCustomizer() {
+    return CircuitBreakerConfigCustomizer.of(
+        VideoServiceClient.RESILIENCE_NAME,
+        builder -> builder.recordException(VideoServiceClient::isOutage));
+  }
+}
@@ -1,5 +1,10 @@
 package com.accountabilityatlas.searchservice.domain;
 
+/**
+ * Constitutional amendments a video can be tagged with.
+ *
+ * <p>Stored as a bitmask by ordinal (see {@link EnumMasks}); only append new constants.
+ */
 public enum Amendment {
   FIRST,
   SECOND,
@@ -0,0 +1,20 @@
+package com.accountabilityatlas.searchservice.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.EnumSet;
+
+/** Persists a set of {@link Amendment}s as the {@code amendments_mask} integer column. */
+@Converter
+public class AmendmentMaskConverter implements AttributeConverter<EnumSet<Amendment>, Integer> {
+
+  @Override
+  public Integer convertToDatabaseColumn(EnumSet<Amendment> attribute) {
+    return EnumMasks.toMask(attribute);
+  }
+
+  @Override
+  public EnumSet<Amendment> convertToEntityAttribute(Integer dbData) {
+    return EnumMasks.fromMask(dbData != null ? dbData : 0, Amendment.class);
+  }
+}
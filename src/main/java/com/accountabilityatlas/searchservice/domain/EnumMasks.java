@@ -0,0 +1,63 @@
+package com.accountabilityatlas.searchservice.domain;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Encodes sets of small, closed enums as integer bitmasks.
+ *
+ * <p>Each constant occupies the bit at its ordinal position, so enums encoded this way must only
+ * ever have constants appended - reordering or removing a constant changes the meaning of every
+ * stored mask.
+ */
+public final class EnumMasks {
+
+  private EnumMasks() {}
+
+  /** Returns the single-bit mask for {@code value}. */
+  public static int bit(Enum<?> value) {
+    return 1 << value.ordinal();
+  }
+
+  /** Encodes {@code values} as a bitmask; {@code null} or empty encodes as {@code 0}. */
+  public static <E extends Enum<E>> int toMask(Collection<E> values) {
+    int mask = 0;
+    if (values != null) {
+      for (E value : values) {
+        mask |= bit(value);
+      }
+    }
+    return mask;
+  }
+
+  /** Decodes a bitmask into an {@link EnumSet}, ignoring bits that have no matching constant. */
+  public static <E extends Enum<E>> EnumSet<E> fromMask(int mask, Class<E> type) {
+    EnumSet<E> values = EnumSet.noneOf(type);
+    for (E constant : type.getEnumConstants()) {
+      if ((mask & bit(constant)) != 0) {
+        values.add(constant);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Parses constant names into an {@link EnumSet}. Unknown names are dropped rather than rejected,
+   * which keeps user-supplied filters and upstream payloads from ever reaching SQL unvalidated.
+   */
+  public static <E extends Enum<E>> EnumSet<E> parse(Collection<String> names, Class<E> type) {
+    EnumSet<E> values = EnumSet.noneOf(type);
+    if (names == null) {
+      return values;
+    }
+    for (String name : names) {
+      for (E constant : type.getEnumConstants()) {
+        if (constant.name().equals(name)) {
+          values.add(constant);
+          break;
+        }
+      }
+    }
+    return values;
+  }
+}
@@ -1,5 +1,10 @@
 package com.accountabilityatlas.searchservice.domain;
 
+/**
+ * Types of participants appearing in a video.
+ *
+ * <p>Stored as a bitmask by ordinal (see {@link EnumMasks}); only append new constants.
+ */
 public enum Participant {
   POLICE,
   GOVERNMENT,
@@ -0,0 +1,20 @@
+package com.accountabilityatlas.searchservice.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.EnumSet;
+
+/** Persists a set of {@link Participant}s as the {@code participants_mask} integer column. */
+@Converter
+public class ParticipantMaskConverter implements AttributeConverter<EnumSet<Participant>, Integer> {
+
+  @Override
+  public Integer convertToDatabaseColumn(EnumSet<Participant> attribute) {
+    return EnumMasks.toMask(attribute);
+  }
+
+  @Override
+  public EnumSet<Participant> convertToEntityAttribute(Integer dbData) {
+    return EnumMasks.fromMask(dbData != null ? dbData : 0, Participant.class);
+  }
+}
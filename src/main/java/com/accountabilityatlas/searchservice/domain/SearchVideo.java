@@ -1,11 +1,13 @@
 package com.accountabilityatlas.searchservice.domain;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -44,11 +46,13 @@ public class SearchVideo {
   @Column(name = "video_date")
   private LocalDate videoDate;
 
-  @Column(name = "amendments", columnDefinition = "VARCHAR(20)[]")
-  private String[] amendments;
+  @Convert(converter = AmendmentMaskConverter.class)
+  @Column(name = "amendments_mask", nullable = false)
+  private EnumSet<Amendment> amendments = EnumSet.noneOf(Amendment.class);
 
-  @Column(name = "participants", columnDefinition = "VARCHAR(20)[]")
-  private String[] participants;
+  @Convert(converter = ParticipantMaskConverter.class)
+  @Column(name = "participants_mask", nullable = false)
+  private EnumSet<Participant> participants = EnumSet.noneOf(Participant.class);
 
   @Column(name = "primary_location_id")
   private UUID primaryLocationId;
@@ -68,6 +72,9 @@ public class SearchVideo {
   @Column(name = "primary_location_lng")
   private Double primaryLocationLng;
 
+  @Column(name = "source_version")
+  private Long sourceVersion;
+
   @Column(name = "indexed_at", nullable = false)
   private Instant indexedAt;
 
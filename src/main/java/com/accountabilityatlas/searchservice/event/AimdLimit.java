@@ -0,0 +1,56 @@
+package com.accountabilityatlas.searchservice.event;
+
+/**
+ * A concurrency limit that grows by one while a lane is backlogged and healthy, and is cut by a
+ * constant ratio as soon as events get slow, start failing or the database pool runs dry.
+ */
+final class AimdLimit {
+
+  private final ModerationLaneProperties.Adaptive settings;
+  private int limit;
+  private long samples;
+  private long failures;
+  private long totalNanos;
+
+  AimdLimit(int initial, ModerationLaneProperties.Adaptive settings) {
+    this.settings = settings;
+    this.limit = Math.clamp(initial, settings.minConcurrency(), settings.maxConcurrency());
+  }
+
+  synchronized int limit() {
+    return limit;
+  }
+
+  /** Records how long one event took to apply and whether it failed. */
+  synchronized void record(long nanos, boolean failed) {
+    samples++;
+    totalNanos += nanos;
+    if (failed) {
+      failures++;
+    }
+  }
+
+  /**
+   * Adjusts the limit from the events recorded since the last call.
+   *
+   * @param backlogged whether events are waiting for a thread, so a higher limit would be used
+   * @param poolSaturated whether threads are waiting for a database connection
+   * @return the new limit
+   */
+  synchronized int update(boolean backlogged, boolean poolSaturated) {
+    boolean overloaded =
+        poolSaturated
+            || samples > 0
+                && ((double) failures / samples > settings.errorRateThreshold()
+                    || totalNanos / samples > settings.latencyTarget().toNanos());
+    if (overloaded) {
+      limit = Math.max(settings.minConcurrency(), (int) (limit * settings.backoffRatio()));
+    } else if (backlogged && samples > 0) {
+      limit = Math.min(settings.maxConcurrency(), limit + 1);
+    }
+    samples = 0;
+    failures = 0;
+    totalNanos = 0;
+    return limit;
+  }
+}
@@ -0,0 +1,24 @@
+package com.accountabilityatlas.searchservice.event;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Moderation event coalescing settings.
+ *
+ * @param window how long an event waits for a newer one when its video already had an event that
+ *     recently; zero applies every event at once
+ * @param capacity videos and processed events remembered for coalescing and duplicate detection
+ */
+@ConfigurationProperties(prefix = "app.sqs.coalescing")
+public record CoalescingProperties(Duration window, int capacity) {
+
+  public CoalescingProperties {
+    if (window == null) {
+      window = Duration.ofSeconds(2);
+    }
+    if (capacity <= 0) {
+      capacity = 10_000;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.accountabilityatlas.searchservice.event;
+
+import com.accountabilityatlas.searchservice.service.IndexChangeNotifier;
+import com.accountabilityatlas.searchservice.service.RemoteIndexChangedEvent;
+import com.accountabilityatlas.searchservice.service.RemoteIndexResyncEvent;
+import com.accountabilityatlas.searchservice.service.SearchIndexRebuiltEvent;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives index change notifications sent by other instances through {@link
+ * IndexChangeNotifier} and republishes them as {@link RemoteIndexChangedEvent}s, or a {@link
+ * SearchIndexRebuiltEvent} when another instance swapped in a full reindex.
+ *
+ * <p>Listens on a dedicated connection opened from the primary datasource settings rather than
+ * borrowed from the pool, so it neither occupies a pool slot nor gets retired by the pool's max
+ * lifetime while listening. Notifications sent while that connection is down are not redelivered,
+ * so after reconnecting a {@link RemoteIndexResyncEvent} tells listeners to catch up from the last
+ * moment the connection was known to be healthy.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "app.search.invalidation",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class IndexChangeListener implements SmartLifecycle {
+
+  private static final int POLL_TIMEOUT_MILLIS = 1000;
+  private static final long INITIAL_RECONNECT_DELAY_MILLIS = 1000;
+  private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+  private final DataSourceProperties dataSourceProperties;
+  private final IndexChangeNotifier indexChangeNotifier;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private volatile boolean running;
+  private volatile Connection connection;
+
+  @Override
+  public void start() {
+    running = true;
+    Thread.ofPlatform().name("index-change-listener").daemon().start(this::listen);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    Connection current = connection;
+    if (current != null) {
+      try {
+        // Unblocks getNotifications
+        current.close();
+      } catch (SQLException e) {
+        log.debug("Error closing index change listener connection", e);
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listen() {
+    Instant lastHealthy = Instant.now();
+    boolean missedNotifications = false;
+    long reconnectDelay = INITIAL_RECONNECT_DELAY_MILLIS;
+    while (running) {
+      try (Connection listening = openConnection()) {
+        connection = listening;
+        try (Statement statement = listening.createStatement()) {
+          statement.execute("LISTEN " + IndexChangeNotifier.CHANNEL);
+        }
+        log.info("Listening for index changes on channel {}", IndexChangeNotifier.CHANNEL);
+        if (missedNotifications) {
+          eventPublisher.publishEvent(new RemoteIndexResyncEvent(lastHealthy));
+          missedNotifications = false;
+        }
+        reconnectDelay = INITIAL_RECONNECT_DELAY_MILLIS;
+
+        PGConnection pgConnection = listening.unwrap(PGConnection.class);
+        while (running) {
+          Instant pollStarted = Instant.now();
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+          lastHealthy = pollStarted;
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              handle(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        missedNotifications = true;
+        log.warn(
+            "Index change listener connection failed, reconnecting in {}ms: {}",
+            reconnectDelay,
+            e.getMessage());
+        try {
+          Thread.sleep(reconnectDelay);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+      } finally {
+        connection = null;
+      }
+    }
+  }
+
+  private void handle(String payload) {
+    String[] parts = payload.split(",");
+    if (parts.length != 3) {
+      log.warn("Ignoring malformed index change notification '{}'", payload);
+      return;
+    }
+    if (parts[2].equals(indexChangeNotifier.instanceId())) {
+      // Already applied locally when the transaction committed
+      return;
+    }
+    try {
+      long generation = Long.parseLong(parts[1]);
+      if (IndexChangeNotifier.REBUILT.equals(parts[0])) {
+        eventPublisher.publishEvent(new SearchIndexRebuiltEvent(generation));
+      } else {
+        eventPublisher.publishEvent(
+            new RemoteIndexChangedEvent(UUID.fromString(parts[0]), generation));
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to apply index change notification '{}'", payload, e);
+    }
+  }
+
+  private Connection openConnection() throws SQLException {
+    return DriverManager.getConnection(
+        dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword());
+  }
+}
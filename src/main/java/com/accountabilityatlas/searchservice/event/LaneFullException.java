@@ -0,0 +1,19 @@
+package com.accountabilityatlas.searchservice.event;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Thrown when a moderation lane has no room for another event. The message is left on the queue,
+ * hidden for {@code retryAfter}, rather than holding one of the listener's in-flight slots.
+ */
+@Getter
+public class LaneFullException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public LaneFullException(String lane, Duration retryAfter) {
+    super("Moderation " + lane + " lane is full");
+    this.retryAfter = retryAfter;
+  }
+}
@@ -2,6 +2,7 @@ package com.accountabilityatlas.searchservice.event;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -16,4 +17,7 @@ import java.util.UUID;
 })
 public sealed interface ModerationEvent permits VideoApprovedEvent, VideoRejectedEvent {
   UUID videoId();
+
+  /** When the moderation decision was made; orders events for the same video. */
+  Instant timestamp();
 }
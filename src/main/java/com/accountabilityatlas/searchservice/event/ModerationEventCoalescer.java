@@ -0,0 +1,106 @@
+package com.accountabilityatlas.searchservice.event;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which moderation events are worth applying on this instance.
+ *
+ * <p>A redelivery of an event that was already applied is a duplicate. An event is superseded when
+ * a later event for the same video has arrived. A video that gets several events in quick
+ * succession, such as an approval, rejection and re-approval, is a burst: each event after the
+ * first waits out the coalescing window, so that only the last one is applied. Isolated events are
+ * applied without waiting. The wait is a scheduled re-check rather than a sleeping thread, so a
+ * burst never ties up a lane or listener thread.
+ *
+ * <p>Both memories are bounded LRU maps, so ordering across restarts and instances is left to the
+ * watermarks checked by {@code IndexingService}.
+ */
+@Component
+public class ModerationEventCoalescer implements AutoCloseable {
+
+  private record Latest(Instant timestamp, long arrivedAt) {}
+
+  private final CoalescingProperties properties;
+  private final Map<ModerationEvent, Boolean> processed;
+  private final Map<UUID, Latest> latest;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("moderation-coalescer").daemon().factory());
+
+  public ModerationEventCoalescer(CoalescingProperties properties) {
+    this.properties = properties;
+    this.processed = lruMap(properties.capacity());
+    this.latest = lruMap(properties.capacity());
+  }
+
+  /** Whether an equal event has already been applied or superseded here. */
+  public synchronized boolean isDuplicate(ModerationEvent event) {
+    return processed.containsKey(event);
+  }
+
+  /** Remembers that {@code event} was applied or superseded, so a redelivery is dropped. */
+  public synchronized void markProcessed(ModerationEvent event) {
+    processed.put(event, Boolean.TRUE);
+  }
+
+  /**
+   * Records the arrival of {@code event} and, if its video is in a burst, waits out the coalescing
+   * window without blocking the caller.
+   *
+   * @return completes with false if a later event for the same video has arrived, so this one
+   *     should be dropped
+   */
+  public CompletableFuture<Boolean> awaitNewest(ModerationEvent event) {
+    Instant timestamp = event.timestamp();
+    if (timestamp == null) {
+      return CompletableFuture.completedFuture(true);
+    }
+    long now = System.nanoTime();
+    synchronized (this) {
+      Latest current = latest.get(event.videoId());
+      if (current != null && current.timestamp().isAfter(timestamp)) {
+        return CompletableFuture.completedFuture(false);
+      }
+      boolean burst = current != null && now - current.arrivedAt() < properties.window().toNanos();
+      latest.put(event.videoId(), new Latest(timestamp, now));
+      if (!burst) {
+        return CompletableFuture.completedFuture(true);
+      }
+    }
+
+    CompletableFuture<Boolean> newest = new CompletableFuture<>();
+    scheduler.schedule(
+        () -> newest.complete(isNewest(event)),
+        properties.window().toNanos(),
+        TimeUnit.NANOSECONDS);
+    return newest;
+  }
+
+  /** Abandons pending waits; their messages are redelivered once their visibility times out. */
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private synchronized boolean isNewest(ModerationEvent event) {
+    Latest current = latest.get(event.videoId());
+    return current == null || !current.timestamp().isAfter(event.timestamp());
+  }
+
+  private static <K, V> Map<K, V> lruMap(int capacity) {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+}
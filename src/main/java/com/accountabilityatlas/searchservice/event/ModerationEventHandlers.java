@@ -2,6 +2,9 @@ package com.accountabilityatlas.searchservice.event;
 
 import com.accountabilityatlas.searchservice.service.IndexingService;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.Visibility;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -10,6 +13,12 @@ import org.springframework.stereotype.Component;
  * SQS listener for moderation events.
  *
  * <p>Handles VideoApproved and VideoRejected events from the moderation-events SQS queue.
+ * Duplicate and superseded deliveries are acknowledged without doing any work; see {@link
+ * ModerationEventCoalescer}, which delays an event in a burst before it is handed to a lane. Events
+ * are applied on {@link ModerationLanes}, rejections ahead of approvals, and each message is
+ * acknowledged when its future completes. An event that finds its lane full is hidden on the
+ * queue for the lane's overflow delay instead, so it does not hold an in-flight slot that a
+ * rejection could use.
  */
 @Component
 @RequiredArgsConstructor
@@ -17,24 +26,81 @@ import org.springframework.stereotype.Component;
 public class ModerationEventHandlers {
 
   private final IndexingService indexingService;
+  private final ModerationEventCoalescer coalescer;
+  private final ModerationLanes lanes;
 
   /**
    * Handles moderation events by routing to the appropriate handler based on event type.
    *
    * @param event the moderation event (VideoApproved or VideoRejected)
+   * @param visibility the message's visibility, extended while it is queued or its lane is full
+   * @return completes once the event is applied or dropped; fails to trigger retry/DLQ
    */
-  @SqsListener("${app.sqs.moderation-events-queue:moderation-events}")
-  public void handleModerationEvent(ModerationEvent event) {
+  @SqsListener(
+      value = "${app.sqs.moderation-events-queue:moderation-events}",
+      maxConcurrentMessages = "${app.sqs.max-concurrent-messages:50}")
+  public CompletableFuture<Void> handleModerationEvent(
+      ModerationEvent event, Visibility visibility) {
+    // A redelivery skips the coalescing wait, so it cannot extend a burst it is not part of
+    CompletableFuture<Boolean> newest =
+        coalescer.isDuplicate(event)
+            ? CompletableFuture.completedFuture(true)
+            : coalescer.awaitNewest(event);
+    return newest
+        .thenCompose(
+            isNewest ->
+                lanes.submit(
+                    event, visibility, () -> admit(event, isNewest), () -> apply(event)))
+        .exceptionallyCompose(error -> deferIfLaneFull(event, visibility, error));
+  }
+
+  private CompletableFuture<Void> deferIfLaneFull(
+      ModerationEvent event, Visibility visibility, Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    if (!(cause instanceof LaneFullException full)) {
+      return CompletableFuture.failedFuture(error);
+    }
+    log.info(
+        "{} for video {} returned to the queue for {}: {}",
+        event.getClass().getSimpleName(),
+        event.videoId(),
+        full.getRetryAfter(),
+        full.getMessage());
+    // Still fail, so the message is not deleted and is received again once visible
+    return visibility
+        .changeToAsync((int) full.getRetryAfter().toSeconds())
+        .thenCompose(ignored -> CompletableFuture.failedFuture(error));
+  }
+
+  private boolean admit(ModerationEvent event, boolean isNewest) {
+    if (coalescer.isDuplicate(event)) {
+      log.info(
+          "Dropping duplicate {} for video {}", event.getClass().getSimpleName(), event.videoId());
+      return false;
+    }
+    if (!isNewest) {
+      log.info(
+          "Dropping {} for video {}, superseded by a later event",
+          event.getClass().getSimpleName(),
+          event.videoId());
+      coalescer.markProcessed(event);
+      return false;
+    }
+    return true;
+  }
+
+  private void apply(ModerationEvent event) {
     switch (event) {
       case VideoApprovedEvent approved -> handleVideoApproved(approved);
       case VideoRejectedEvent rejected -> handleVideoRejected(rejected);
     }
+    coalescer.markProcessed(event);
   }
 
   private void handleVideoApproved(VideoApprovedEvent event) {
     log.info("Received VideoApproved event for video {}", event.videoId());
     try {
-      indexingService.indexVideo(event.videoId());
+      indexingService.approveVideo(event.videoId(), event.timestamp());
     } catch (Exception e) {
       log.error("Failed to index video {}: {}", event.videoId(), e.getMessage());
       throw e; // Re-throw to trigger retry/DLQ
@@ -44,7 +110,7 @@ public class ModerationEventHandlers {
   private void handleVideoRejected(VideoRejectedEvent event) {
     log.info("Received VideoRejected event for video {}", event.videoId());
     try {
-      indexingService.removeVideo(event.videoId());
+      indexingService.rejectVideo(event.videoId(), event.timestamp());
     } catch (Exception e) {
       log.error("Failed to remove video {}: {}", event.videoId(), e.getMessage());
       throw e;
@@ -0,0 +1,97 @@
+package com.accountabilityatlas.searchservice.event;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Moderation event lane settings.
+ *
+ * @param removalConcurrency threads applying rejections, or the starting point when adaptive
+ * @param approvalConcurrency threads applying approvals, each of which fetches from video-service,
+ *     or the starting point when adaptive
+ * @param approvalCapacity approvals queued or running at once; kept below {@code
+ *     app.sqs.max-concurrent-messages} so the remaining in-flight messages are left for rejections
+ * @param overflowDelay how long an event received while its lane is full stays hidden on the
+ *     queue before it is received again
+ * @param queuedVisibility visibility timeout kept on the message of an event waiting for a lane
+ *     thread, renewed every half of it
+ * @param adaptive how lane concurrency follows downstream health
+ */
+@ConfigurationProperties(prefix = "app.sqs.lanes")
+public record ModerationLaneProperties(
+    int removalConcurrency,
+    int approvalConcurrency,
+    int approvalCapacity,
+    Duration overflowDelay,
+    Duration queuedVisibility,
+    Adaptive adaptive) {
+
+  public ModerationLaneProperties {
+    if (removalConcurrency <= 0) {
+      removalConcurrency = 2;
+    }
+    if (approvalConcurrency <= 0) {
+      approvalConcurrency = 4;
+    }
+    if (approvalCapacity <= 0) {
+      approvalCapacity = 40;
+    }
+    if (overflowDelay == null) {
+      overflowDelay = Duration.ofSeconds(30);
+    }
+    if (queuedVisibility == null || queuedVisibility.toSeconds() < 2) {
+      queuedVisibility = Duration.ofSeconds(60);
+    }
+    if (adaptive == null) {
+      adaptive = new Adaptive(false, null, 0, 0, null, 0, 0, 0);
+    }
+  }
+
+  /**
+   * Additive-increase/multiplicative-decrease concurrency per lane.
+   *
+   * @param enabled whether lane concurrency is adjusted at all
+   * @param interval how often each lane's limit is reconsidered
+   * @param minConcurrency lowest limit a lane backs off to
+   * @param maxConcurrency highest limit a lane grows to
+   * @param latencyTarget mean time to apply an event above which a lane backs off
+   * @param errorRateThreshold share of failed events above which a lane backs off
+   * @param backoffRatio factor a lane's limit is multiplied by when backing off
+   * @param queuedPerThread events, queued or running, a lane admits per thread of its limit; any
+   *     more are left on the queue, so a lane that backs off also stops taking messages
+   */
+  public record Adaptive(
+      boolean enabled,
+      Duration interval,
+      int minConcurrency,
+      int maxConcurrency,
+      Duration latencyTarget,
+      double errorRateThreshold,
+      double backoffRatio,
+      int queuedPerThread) {
+
+    public Adaptive {
+      if (interval == null) {
+        interval = Duration.ofSeconds(5);
+      }
+      if (minConcurrency <= 0) {
+        minConcurrency = 1;
+      }
+      if (maxConcurrency <= 0) {
+        maxConcurrency = 16;
+      }
+      if (latencyTarget == null) {
+        latencyTarget = Duration.ofSeconds(2);
+      }
+      if (errorRateThreshold <= 0) {
+        errorRateThreshold = 0.1;
+      }
+      if (backoffRatio <= 0 || backoffRatio >= 1) {
+        backoffRatio = 0.5;
+      }
+      if (queuedPerThread <= 0) {
+        queuedPerThread = 4;
+      }
+    }
+  }
+}
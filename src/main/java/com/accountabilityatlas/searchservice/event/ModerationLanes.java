@@ -0,0 +1,305 @@
+package com.accountabilityatlas.searchservice.event;
+
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Separate executors for removals and approvals, so that a backlog of approvals, each waiting on
+ * video-service, never delays a takedown that has already been received.
+ *
+ * <p>Each lane has its own threads and queue. A message is acknowledged once its lane has applied
+ * it, so it holds one of the listener's {@code app.sqs.max-concurrent-messages} in-flight slots
+ * until then. The approval lane therefore admits at most {@code app.sqs.lanes.approval-capacity}
+ * events, queued or running, and hands any further approval back to the queue with a {@link
+ * LaneFullException}. The slots above that capacity stay free for rejections, which the listener
+ * keeps receiving however deep the approval backlog is.
+ *
+ * <p>While an event waits for a lane thread, its message's visibility timeout is renewed to
+ * {@code app.sqs.lanes.queued-visibility}, so a slow lane never lets SQS redeliver a message that
+ * is still queued here.
+ *
+ * <p>With {@code app.sqs.lanes.adaptive.enabled}, each lane's thread count follows an {@link
+ * AimdLimit} fed by the time and outcome of every event it applies and by {@code
+ * hikaricp.connections.pending}. Indexing then speeds up while video-service and the database keep
+ * up, and backs off when they don't. Admission follows the same limit: a lane takes at most {@code
+ * queued-per-thread} events per thread, so when it backs off, the excess stays on the queue
+ * instead of piling up behind fewer threads.
+ */
+@Component
+@Slf4j
+public class ModerationLanes implements AutoCloseable {
+
+  enum Lane {
+    REMOVAL,
+    APPROVAL;
+
+    static Lane of(ModerationEvent event) {
+      return event instanceof VideoRejectedEvent ? REMOVAL : APPROVAL;
+    }
+
+    String tag() {
+      return name().toLowerCase();
+    }
+  }
+
+  private record LaneMeters(
+      Timer queueWait,
+      Timer lag,
+      Counter applied,
+      Counter dropped,
+      Counter failed,
+      Counter deferred) {}
+
+  private final ModerationLaneProperties.Adaptive adaptive;
+  private final MeterRegistry meterRegistry;
+  private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+  private final Map<Lane, LaneMeters> meters = new EnumMap<>(Lane.class);
+  private final Map<Lane, AimdLimit> limits = new EnumMap<>(Lane.class);
+  private final Map<Lane, Integer> capacities = new EnumMap<>(Lane.class);
+  private final Map<Lane, AtomicInteger> admitted = new EnumMap<>(Lane.class);
+  private final Duration overflowDelay;
+  private final Duration queuedVisibility;
+  private final Set<Visibility> queued = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService heartbeat =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("moderation-visibility").daemon().factory());
+
+  public ModerationLanes(ModerationLaneProperties properties, MeterRegistry meterRegistry) {
+    this.adaptive = properties.adaptive();
+    this.meterRegistry = meterRegistry;
+    this.overflowDelay = properties.overflowDelay();
+    this.queuedVisibility = properties.queuedVisibility();
+    // Rejections are few and quick, and are what the listener's remaining slots are kept for
+    capacities.put(Lane.REMOVAL, Integer.MAX_VALUE);
+    capacities.put(Lane.APPROVAL, properties.approvalCapacity());
+    limits.put(Lane.REMOVAL, new AimdLimit(properties.removalConcurrency(), adaptive));
+    limits.put(Lane.APPROVAL, new AimdLimit(properties.approvalConcurrency(), adaptive));
+    executors.put(Lane.REMOVAL, executor(Lane.REMOVAL, properties.removalConcurrency()));
+    executors.put(Lane.APPROVAL, executor(Lane.APPROVAL, properties.approvalConcurrency()));
+    if (adaptive.enabled()) {
+      executors.forEach((lane, executor) -> resize(executor, limits.get(lane).limit()));
+    }
+    for (Lane lane : Lane.values()) {
+      ThreadPoolExecutor executor = executors.get(lane);
+      admitted.put(lane, new AtomicInteger());
+      Gauge.builder("search.moderation.lane.limit", executor, ThreadPoolExecutor::getCorePoolSize)
+          .description("Threads a lane may use")
+          .tag("lane", lane.tag())
+          .register(meterRegistry);
+      Gauge.builder("search.moderation.lane.queued", executor, e -> e.getQueue().size())
+          .description("Moderation events waiting for a lane thread")
+          .tag("lane", lane.tag())
+          .register(meterRegistry);
+      Gauge.builder("search.moderation.lane.active", executor, ThreadPoolExecutor::getActiveCount)
+          .description("Moderation events being applied")
+          .tag("lane", lane.tag())
+          .register(meterRegistry);
+      meters.put(
+          lane,
+          new LaneMeters(
+              Timer.builder("search.moderation.lane.wait")
+                  .description("Time moderation events spent queued in their lane")
+                  .tag("lane", lane.tag())
+                  .register(meterRegistry),
+              Timer.builder("search.moderation.lane.lag")
+                  .description("Time from a moderation decision until it was applied")
+                  .tag("lane", lane.tag())
+                  .register(meterRegistry),
+              eventCounter(lane, "applied", meterRegistry),
+              eventCounter(lane, "dropped", meterRegistry),
+              eventCounter(lane, "failed", meterRegistry),
+              eventCounter(lane, "deferred", meterRegistry)));
+    }
+    long renewEvery = queuedVisibility.toMillis() / 2;
+    heartbeat.scheduleWithFixedDelay(
+        this::renewQueuedVisibility, renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs {@code handler} for {@code event} on the event's lane, unless {@code admit} drops it.
+   *
+   * <p>Only {@code handler} is timed for the lane's {@link AimdLimit}, so time spent deciding
+   * whether to apply the event is not mistaken for a slow dependency.
+   *
+   * @param visibility the event's message, kept hidden while the event is queued
+   * @param admit returns false if the event should be dropped instead of applied
+   * @param handler applies the event
+   * @return completes when the event has been handled, or exceptionally if handling failed or
+   *     with a {@link LaneFullException} if the lane had no room for it
+   */
+  public CompletableFuture<Void> submit(
+      ModerationEvent event, Visibility visibility, BooleanSupplier admit, Runnable handler) {
+    Lane lane = Lane.of(event);
+    LaneMeters laneMeters = meters.get(lane);
+    AtomicInteger laneAdmitted = admitted.get(lane);
+    int capacity = capacity(lane);
+    if (laneAdmitted.getAndUpdate(n -> n < capacity ? n + 1 : n) >= capacity) {
+      laneMeters.deferred().increment();
+      return CompletableFuture.failedFuture(new LaneFullException(lane.tag(), overflowDelay));
+    }
+    long queuedAt = System.nanoTime();
+    queued.add(visibility);
+    ThreadPoolExecutor executor = executors.get(lane);
+    if (executor.getActiveCount() >= executor.getCorePoolSize()) {
+      // It will wait for a thread, possibly longer than the queue's own visibility timeout
+      renew(visibility);
+    }
+    return CompletableFuture.runAsync(
+        () -> {
+          queued.remove(visibility);
+          try {
+            apply(event, admit, handler, queuedAt);
+          } finally {
+            laneAdmitted.decrementAndGet();
+          }
+        },
+        executor);
+  }
+
+  private int capacity(Lane lane) {
+    int configured = capacities.get(lane);
+    if (!adaptive.enabled()) {
+      return configured;
+    }
+    long limited = (long) limits.get(lane).limit() * adaptive.queuedPerThread();
+    return (int) Math.min(configured, limited);
+  }
+
+  /** Keeps the messages of events still waiting for a lane thread from becoming visible again. */
+  void renewQueuedVisibility() {
+    queued.forEach(this::renew);
+  }
+
+  private void renew(Visibility visibility) {
+    visibility
+        .changeToAsync((int) queuedVisibility.toSeconds())
+        .exceptionally(
+            e -> {
+              log.warn("Could not renew visibility of a queued moderation event", e);
+              return null;
+            });
+  }
+
+  private void apply(
+      ModerationEvent event, BooleanSupplier admit, Runnable handler, long queuedAt) {
+    Lane lane = Lane.of(event);
+    LaneMeters laneMeters = meters.get(lane);
+    AimdLimit limit = limits.get(lane);
+    laneMeters.queueWait().record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+    boolean accepted;
+    try {
+      accepted = admit.getAsBoolean();
+    } catch (RuntimeException e) {
+      laneMeters.failed().increment();
+      throw e;
+    }
+    if (!accepted) {
+      laneMeters.dropped().increment();
+      return;
+    }
+    long startedAt = System.nanoTime();
+    try {
+      handler.run();
+    } catch (RuntimeException e) {
+      limit.record(System.nanoTime() - startedAt, true);
+      laneMeters.failed().increment();
+      throw e;
+    }
+    limit.record(System.nanoTime() - startedAt, false);
+    laneMeters.applied().increment();
+    if (event.timestamp() != null) {
+      laneMeters.lag().record(Duration.between(event.timestamp(), Instant.now()));
+    }
+  }
+
+  /** Moves each lane's thread count to its {@link AimdLimit} when adaptive concurrency is on. */
+  @Scheduled(fixedDelayString = "${app.sqs.lanes.adaptive.interval:PT5S}")
+  public void adjustConcurrency() {
+    if (!adaptive.enabled()) {
+      return;
+    }
+    boolean poolSaturated = connectionsPending() > 0;
+    executors.forEach(
+        (lane, executor) -> {
+          int previous = executor.getCorePoolSize();
+          int limit = limits.get(lane).update(!executor.getQueue().isEmpty(), poolSaturated);
+          if (limit != previous) {
+            log.info("Moderation {} lane concurrency {} -> {}", lane.tag(), previous, limit);
+            resize(executor, limit);
+          }
+        });
+  }
+
+  /** Stops taking events and waits briefly for queued ones to finish. */
+  @Override
+  public void close() throws InterruptedException {
+    heartbeat.shutdownNow();
+    executors.values().forEach(ThreadPoolExecutor::shutdown);
+    for (Map.Entry<Lane, ThreadPoolExecutor> entry : executors.entrySet()) {
+      if (!entry.getValue().awaitTermination(10, TimeUnit.SECONDS)) {
+        log.warn("Moderation {} lane did not drain before shutdown", entry.getKey().tag());
+      }
+    }
+  }
+
+  private double connectionsPending() {
+    return meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+        .mapToDouble(Gauge::value)
+        .filter(Double::isFinite)
+        .sum();
+  }
+
+  private static void resize(ThreadPoolExecutor executor, int threads) {
+    // The core size may never exceed the maximum, so order the two updates by direction
+    if (threads > executor.getMaximumPoolSize()) {
+      executor.setMaximumPoolSize(threads);
+      executor.setCorePoolSize(threads);
+    } else {
+      executor.setCorePoolSize(threads);
+      executor.setMaximumPoolSize(threads);
+    }
+  }
+
+  private static ThreadPoolExecutor executor(Lane lane, int threads) {
+    AtomicInteger count = new AtomicInteger();
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        0,
+        TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(),
+        task ->
+            Thread.ofPlatform()
+                .name("moderation-" + lane.tag() + "-" + count.incrementAndGet())
+                .daemon()
+                .unstarted(task));
+  }
+
+  private static Counter eventCounter(Lane lane, String outcome, MeterRegistry meterRegistry) {
+    return Counter.builder("search.moderation.lane.events")
+        .description("Moderation events handled, by outcome")
+        .tag("lane", lane.tag())
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,64 @@
+package com.accountabilityatlas.searchservice.event;
+
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import io.awspring.cloud.sqs.listener.MessageListenerContainer;
+import io.awspring.cloud.sqs.listener.MessageListenerContainerRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops polling the moderation queue while the video-service circuit breaker is open, and starts
+ * again once it lets calls through.
+ *
+ * <p>Without this, every message received during an outage fails fast on the breaker and counts
+ * towards its redrive limit, dead-lettering events that would have succeeded a minute later. While
+ * paused, messages stay on the queue instead. Containers are stopped on a separate thread because
+ * stopping waits for in-flight messages, which may be the very listener threads that tripped the
+ * breaker.
+ */
+@Component
+@Slf4j
+public class ModerationListenerPauser implements AutoCloseable {
+
+  private final ObjectProvider<MessageListenerContainerRegistry> containerRegistry;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          Thread.ofPlatform().name("moderation-listener-pauser").daemon().factory());
+
+  public ModerationListenerPauser(
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      ObjectProvider<MessageListenerContainerRegistry> containerRegistry) {
+    this.containerRegistry = containerRegistry;
+    circuitBreakerRegistry
+        .circuitBreaker(VideoServiceClient.RESILIENCE_NAME)
+        .getEventPublisher()
+        .onStateTransition(event -> onStateChange(event.getStateTransition().getToState()));
+  }
+
+  void onStateChange(CircuitBreaker.State state) {
+    boolean pause = state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    executor.execute(() -> containerRegistry.ifAvailable(registry -> toggle(registry, pause)));
+  }
+
+  private void toggle(MessageListenerContainerRegistry registry, boolean pause) {
+    for (MessageListenerContainer<?> container : registry.getListenerContainers()) {
+      if (pause && container.isRunning()) {
+        log.warn("Video-service circuit breaker is open, pausing listener {}", container.getId());
+        container.stop();
+      } else if (!pause && !container.isRunning()) {
+        log.info("Video-service circuit breaker let calls through, resuming {}", container.getId());
+        container.start();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,76 @@
+package com.accountabilityatlas.searchservice.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns text into lexemes the way PostgreSQL's {@code english} text search configuration does:
+ * split into alphanumeric words, lowercase, drop snowball stop words, then stem. Tokens containing
+ * digits map to the {@code simple} dictionary in that configuration, so they are kept verbatim.
+ *
+ * <p>The default Postgres parser also recognises URLs, e-mail addresses and hyphenated compounds as
+ * whole tokens; those are only split into their word parts here, so they can match slightly
+ * differently than they do in Postgres.
+ */
+public final class EnglishAnalyzer {
+
+  /** PostgreSQL's {@code english.stop} list. */
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          ("i me my myself we our ours ourselves you your yours yourself yourselves he him "
+              + "his himself she her hers herself it its itself they them their theirs "
+              + "themselves what which who whom this that these those am is are was were be "
+              + "been being have has had having do does did doing a an the and but if or "
+              + "because as until while of at by for with about against between into through "
+              + "during before after above below to from up down in out on off over under again "
+              + "further then once here there when where why how all any both each few more "
+              + "most other some such no nor not only own same so than too very s t can will "
+              + "just don should now")
+              .split(" "));
+
+  private EnglishAnalyzer() {}
+
+  /** Returns the lexemes of {@code text} in order of appearance (duplicates included). */
+  static List<String> analyze(String text) {
+    List<String> lexemes = new ArrayList<>();
+    if (text == null) {
+      return lexemes;
+    }
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+        i++;
+      }
+      int start = i;
+      boolean hasDigit = false;
+      while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+        hasDigit |= Character.isDigit(text.charAt(i));
+        i++;
+      }
+      if (i == start) {
+        continue;
+      }
+      String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+      String lexeme = hasDigit ? token : lexeme(token);
+      if (lexeme != null) {
+        lexemes.add(lexeme);
+      }
+    }
+    return lexemes;
+  }
+
+  /**
+   * Returns the lexeme of a single lowercase word of letters and digits, or null for a stop word.
+   */
+  public static String lexeme(String word) {
+    for (int i = 0; i < word.length(); i++) {
+      if (Character.isDigit(word.charAt(i))) {
+        return word;
+      }
+    }
+    return STOP_WORDS.contains(word) ? null : EnglishStemmer.stem(word);
+  }
+}
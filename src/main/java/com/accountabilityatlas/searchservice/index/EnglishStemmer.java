@@ -0,0 +1,311 @@
+package com.accountabilityatlas.searchservice.index;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snowball English (Porter2) stemmer - the algorithm behind PostgreSQL's {@code english_stem}
+ * dictionary - so lexemes produced here line up with {@code to_tsvector('english', ...)}.
+ *
+ * <p>Input must be a single lowercase token without apostrophes, as produced by {@link
+ * EnglishAnalyzer}.
+ */
+final class EnglishStemmer {
+
+  private static final Map<String, String> EXCEPTIONS =
+      Map.ofEntries(
+          Map.entry("skis", "ski"),
+          Map.entry("skies", "sky"),
+          Map.entry("dying", "die"),
+          Map.entry("lying", "lie"),
+          Map.entry("tying", "tie"),
+          Map.entry("idly", "idl"),
+          Map.entry("gently", "gentl"),
+          Map.entry("ugly", "ugli"),
+          Map.entry("early", "earli"),
+          Map.entry("only", "onli"),
+          Map.entry("singly", "singl"),
+          Map.entry("sky", "sky"),
+          Map.entry("news", "news"),
+          Map.entry("howe", "howe"),
+          Map.entry("atlas", "atlas"),
+          Map.entry("cosmos", "cosmos"),
+          Map.entry("bias", "bias"),
+          Map.entry("andes", "andes"));
+
+  /** Words left untouched once step 1a has run. */
+  private static final Set<String> STEP_1A_INVARIANTS =
+      Set.of("inning", "outing", "canning", "herring", "earring", "proceed", "exceed", "succeed");
+
+  private static final String[] R1_PREFIXES = {"gener", "commun", "arsen"};
+
+  // Suffix tables are ordered longest first so the first match is the longest one.
+  private static final String[][] STEP_2 = {
+    {"ization", "ize"},
+    {"ational", "ate"},
+    {"fulness", "ful"},
+    {"ousness", "ous"},
+    {"iveness", "ive"},
+    {"tional", "tion"},
+    {"biliti", "ble"},
+    {"lessli", "less"},
+    {"entli", "ent"},
+    {"ation", "ate"},
+    {"alism", "al"},
+    {"aliti", "al"},
+    {"ousli", "ous"},
+    {"iviti", "ive"},
+    {"fulli", "ful"},
+    {"enci", "ence"},
+    {"anci", "ance"},
+    {"abli", "able"},
+    {"izer", "ize"},
+    {"ator", "ate"},
+    {"alli", "al"},
+    {"bli", "ble"},
+    {"ogi", "og"},
+    {"li", ""}
+  };
+
+  private static final String[][] STEP_3 = {
+    {"ational", "ate"},
+    {"tional", "tion"},
+    {"alize", "al"},
+    {"icate", "ic"},
+    {"iciti", "ic"},
+    {"ative", ""},
+    {"ical", "ic"},
+    {"ness", ""},
+    {"ful", ""}
+  };
+
+  private static final String[] STEP_4 =
+      "ement ance ence able ible ment ant ent ism ate iti ous ive ize ion al er ic".split(" ");
+
+  private EnglishStemmer() {}
+
+  static String stem(String word) {
+    if (word.length() <= 2) {
+      return word;
+    }
+    String exception = EXCEPTIONS.get(word);
+    if (exception != null) {
+      return exception;
+    }
+
+    StringBuilder w = new StringBuilder(word);
+    markConsonantY(w);
+    int r1 = r1(w);
+    int r2 = regionAfter(w, r1);
+
+    step1a(w);
+    if (STEP_1A_INVARIANTS.contains(w.toString())) {
+      return w.toString();
+    }
+    step1b(w, r1);
+    step1c(w);
+    step2(w, r1);
+    step3(w, r1, r2);
+    step4(w, r2);
+    step5(w, r1, r2);
+
+    return w.toString().replace('Y', 'y');
+  }
+
+  private static void markConsonantY(StringBuilder w) {
+    if (w.charAt(0) == 'y') {
+      w.setCharAt(0, 'Y');
+    }
+    for (int i = 1; i < w.length(); i++) {
+      if (w.charAt(i) == 'y' && isVowel(w.charAt(i - 1))) {
+        w.setCharAt(i, 'Y');
+      }
+    }
+  }
+
+  private static int r1(StringBuilder w) {
+    for (String prefix : R1_PREFIXES) {
+      if (w.indexOf(prefix) == 0) {
+        return prefix.length();
+      }
+    }
+    return regionAfter(w, 0);
+  }
+
+  /** Start of the region after the first vowel-then-consonant pair at or after {@code from}. */
+  private static int regionAfter(StringBuilder w, int from) {
+    for (int i = from + 1; i < w.length(); i++) {
+      if (!isVowel(w.charAt(i)) && isVowel(w.charAt(i - 1))) {
+        return i + 1;
+      }
+    }
+    return w.length();
+  }
+
+  private static void step1a(StringBuilder w) {
+    if (endsWith(w, "sses")) {
+      replaceSuffix(w, 4, "ss");
+    } else if (endsWith(w, "ied") || endsWith(w, "ies")) {
+      replaceSuffix(w, 3, w.length() > 4 ? "i" : "ie");
+    } else if (endsWith(w, "us") || endsWith(w, "ss")) {
+      return;
+    } else if (endsWith(w, "s") && containsVowel(w, 0, w.length() - 2)) {
+      w.setLength(w.length() - 1);
+    }
+  }
+
+  private static void step1b(StringBuilder w, int r1) {
+    if (endsWith(w, "eedly") || endsWith(w, "eed")) {
+      int suffix = endsWith(w, "eedly") ? 5 : 3;
+      if (w.length() - suffix >= r1) {
+        replaceSuffix(w, suffix, "ee");
+      }
+      return;
+    }
+    int suffix = 0;
+    for (String candidate : new String[] {"ingly", "edly", "ing", "ed"}) {
+      if (endsWith(w, candidate)) {
+        suffix = candidate.length();
+        break;
+      }
+    }
+    if (suffix == 0 || !containsVowel(w, 0, w.length() - suffix)) {
+      return;
+    }
+    w.setLength(w.length() - suffix);
+    if (endsWith(w, "at") || endsWith(w, "bl") || endsWith(w, "iz")) {
+      w.append('e');
+    } else if (endsWithDouble(w)) {
+      w.setLength(w.length() - 1);
+    } else if (r1 >= w.length() && endsWithShortSyllable(w, w.length())) {
+      w.append('e');
+    }
+  }
+
+  private static void step1c(StringBuilder w) {
+    int last = w.length() - 1;
+    char c = w.charAt(last);
+    if ((c == 'y' || c == 'Y') && last > 1 && !isVowel(w.charAt(last - 1))) {
+      w.setCharAt(last, 'i');
+    }
+  }
+
+  private static void step2(StringBuilder w, int r1) {
+    for (String[] rule : STEP_2) {
+      if (!endsWith(w, rule[0])) {
+        continue;
+      }
+      int start = w.length() - rule[0].length();
+      if (start < r1) {
+        return;
+      }
+      if (rule[0].equals("ogi") && (start == 0 || w.charAt(start - 1) != 'l')) {
+        return;
+      }
+      if (rule[0].equals("li") && (start == 0 || "cdeghkmnrt".indexOf(w.charAt(start - 1)) < 0)) {
+        return;
+      }
+      replaceSuffix(w, rule[0].length(), rule[1]);
+      return;
+    }
+  }
+
+  private static void step3(StringBuilder w, int r1, int r2) {
+    for (String[] rule : STEP_3) {
+      if (!endsWith(w, rule[0])) {
+        continue;
+      }
+      int start = w.length() - rule[0].length();
+      if (start < r1 || (rule[0].equals("ative") && start < r2)) {
+        return;
+      }
+      replaceSuffix(w, rule[0].length(), rule[1]);
+      return;
+    }
+  }
+
+  private static void step4(StringBuilder w, int r2) {
+    for (String suffix : STEP_4) {
+      if (!endsWith(w, suffix)) {
+        continue;
+      }
+      int start = w.length() - suffix.length();
+      if (start < r2) {
+        return;
+      }
+      if (suffix.equals("ion") && (start == 0 || "st".indexOf(w.charAt(start - 1)) < 0)) {
+        return;
+      }
+      w.setLength(start);
+      return;
+    }
+  }
+
+  private static void step5(StringBuilder w, int r1, int r2) {
+    int last = w.length() - 1;
+    if (w.charAt(last) == 'e') {
+      if (last >= r2 || (last >= r1 && !endsWithShortSyllable(w, last))) {
+        w.setLength(last);
+      }
+    } else if (w.charAt(last) == 'l' && last >= r2 && last > 0 && w.charAt(last - 1) == 'l') {
+      w.setLength(last);
+    }
+  }
+
+  /** Whether {@code w[0, end)} ends in a short syllable. */
+  private static boolean endsWithShortSyllable(StringBuilder w, int end) {
+    if (end == 2) {
+      return isVowel(w.charAt(0)) && !isVowel(w.charAt(1));
+    }
+    if (end < 3) {
+      return false;
+    }
+    char last = w.charAt(end - 1);
+    return !isVowel(w.charAt(end - 3))
+        && isVowel(w.charAt(end - 2))
+        && !isVowel(last)
+        && last != 'w'
+        && last != 'x'
+        && last != 'Y';
+  }
+
+  private static boolean endsWithDouble(StringBuilder w) {
+    int n = w.length();
+    if (n < 2) {
+      return false;
+    }
+    char c = w.charAt(n - 1);
+    return c == w.charAt(n - 2) && "bdfgmnprt".indexOf(c) >= 0;
+  }
+
+  private static boolean containsVowel(StringBuilder w, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (isVowel(w.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean endsWith(StringBuilder w, String suffix) {
+    int offset = w.length() - suffix.length();
+    if (offset < 0) {
+      return false;
+    }
+    for (int i = 0; i < suffix.length(); i++) {
+      if (w.charAt(offset + i) != suffix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void replaceSuffix(StringBuilder w, int length, String replacement) {
+    w.setLength(w.length() - length);
+    w.append(replacement);
+  }
+
+  private static boolean isVowel(char c) {
+    return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+  }
+}
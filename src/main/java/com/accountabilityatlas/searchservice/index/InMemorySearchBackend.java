@@ -0,0 +1,310 @@
+package com.accountabilityatlas.searchservice.index;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import com.accountabilityatlas.searchservice.service.DateBucket;
+import com.accountabilityatlas.searchservice.service.HistogramInterval;
+import com.accountabilityatlas.searchservice.service.PostgresSearchBackend;
+import com.accountabilityatlas.searchservice.service.RemoteIndexChangedEvent;
+import com.accountabilityatlas.searchservice.service.RemoteIndexResyncEvent;
+import com.accountabilityatlas.searchservice.service.SearchBackend;
+import com.accountabilityatlas.searchservice.service.SearchCriteria;
+import com.accountabilityatlas.searchservice.service.SearchIndexChangedEvent;
+import com.accountabilityatlas.searchservice.service.SearchIndexRebuiltEvent;
+import com.accountabilityatlas.searchservice.service.SearchSort;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves searches from an {@link InMemorySearchIndex} loaded from {@code search_videos} at startup
+ * and kept current from {@link SearchIndexChangedEvent}s. Enabled with {@code
+ * app.search.backend=memory}.
+ *
+ * <p>Until the first load completes, searches fall through to PostgreSQL. Changes committed while
+ * a load is in progress are queued and replayed onto the new index before it is swapped in, so no
+ * update is lost between the table scan and the swap.
+ *
+ * <p>With {@code app.search.snapshot.path} set, the index is also written to an {@link
+ * IndexSnapshot} periodically and on shutdown. Startup then maps the snapshot and replays only rows
+ * indexed since its watermark, dropping videos that were deleted in the meantime, instead of
+ * scanning the whole table.
+ *
+ * <p>Changes committed by other instances arrive as {@link RemoteIndexChangedEvent}s and are
+ * applied by re-reading the row. After a gap in those notifications, rows indexed since the gap
+ * are replayed the same way a restored snapshot is caught up. A {@link SearchIndexRebuiltEvent}
+ * reloads the index from the new table.
+ *
+ * <p>Loads, re-reads and catch-ups run in read-write transactions so that, with read replicas
+ * configured, they read from the primary: a notification means the row is committed there, but a
+ * replica may not have replayed it yet.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "app.search", name = "backend", havingValue = "memory")
+// Loads before the startup warm-up runners search it
+@Order(0)
+@RequiredArgsConstructor
+@Slf4j
+public class InMemorySearchBackend implements SearchBackend, ApplicationRunner {
+
+  private final SearchVideoRepository searchVideoRepository;
+  private final PostgresSearchBackend postgresSearchBackend;
+  private final IndexSnapshotProperties snapshotProperties;
+
+  private final Object monitor = new Object();
+  private final Queue<SearchIndexChangedEvent> pendingChanges = new ArrayDeque<>();
+  private Instant pendingResyncSince;
+  private boolean loading = true;
+  private volatile InMemorySearchIndex index;
+  private long snapshotVersion = -1;
+
+  @Override
+  @Transactional
+  public void run(ApplicationArguments args) {
+    swapIn(this::loadFromSnapshotOrTable);
+  }
+
+  /**
+   * Serves relevance order from memory. The other sorts, and date and duration ranges, which the
+   * index holds no postings for, are index scans in PostgreSQL.
+   */
+  @Override
+  public Page<SearchVideo> search(SearchCriteria criteria, Pageable pageable) {
+    InMemorySearchIndex current = index;
+    if (current == null
+        || criteria.sort() != SearchSort.RELEVANCE
+        || !criteria.ranges().isEmpty()) {
+      return postgresSearchBackend.search(criteria, pageable);
+    }
+    return current.search(criteria, pageable);
+  }
+
+  /** Always PostgreSQL: the index holds no video dates. */
+  @Override
+  public List<DateBucket> histogram(SearchCriteria criteria, HistogramInterval interval) {
+    return postgresSearchBackend.histogram(criteria, interval);
+  }
+
+  /** Always PostgreSQL, which answers most facet requests from its rollup table. */
+  @Override
+  public List<FacetCounts.Count> facets(SearchCriteria criteria) {
+    return postgresSearchBackend.facets(criteria);
+  }
+
+  /**
+   * Serves the ids held by the index from memory and loads the rest, such as videos committed but
+   * not yet applied here, from PostgreSQL in one query.
+   */
+  @Override
+  public List<SearchVideo> findByIds(Collection<UUID> videoIds) {
+    InMemorySearchIndex current = index;
+    if (current == null) {
+      return postgresSearchBackend.findByIds(videoIds);
+    }
+    Map<UUID, SearchVideo> found = current.get(videoIds);
+    List<SearchVideo> videos = new ArrayList<>(found.values());
+    if (found.size() < videoIds.size()) {
+      videos.addAll(
+          postgresSearchBackend.findByIds(
+              videoIds.stream().filter(id -> !found.containsKey(id)).toList()));
+    }
+    return videos;
+  }
+
+  /** Rebuilds the index from the table and swaps it in. */
+  @Transactional
+  public void reload() {
+    swapIn(this::loadFromTable);
+  }
+
+  /** Writes a snapshot if one is configured and the index changed since the last one. */
+  @Scheduled(
+      fixedDelayString = "${app.search.snapshot.interval:PT10M}",
+      initialDelayString = "${app.search.snapshot.interval:PT10M}")
+  public synchronized void writeSnapshot() {
+    InMemorySearchIndex current = index;
+    Path path = snapshotProperties.path();
+    if (current == null || path == null || current.version() == snapshotVersion) {
+      return;
+    }
+    long version = current.version();
+    long startTime = System.currentTimeMillis();
+    try {
+      IndexSnapshot.write(current, path);
+      snapshotVersion = version;
+      log.info(
+          "Wrote search index snapshot of {} videos to {} in {}ms",
+          current.size(),
+          path,
+          System.currentTimeMillis() - startTime);
+    } catch (IOException e) {
+      log.warn("Failed to write search index snapshot to {}", path, e);
+    }
+  }
+
+  @PreDestroy
+  public void writeSnapshotOnShutdown() {
+    writeSnapshot();
+  }
+
+  private void swapIn(Supplier<InMemorySearchIndex> loader) {
+    synchronized (monitor) {
+      loading = true;
+      pendingChanges.clear();
+      pendingResyncSince = null;
+    }
+
+    long startTime = System.currentTimeMillis();
+    InMemorySearchIndex fresh = loader.get();
+
+    synchronized (monitor) {
+      int replayed = pendingChanges.size();
+      pendingChanges.forEach(change -> apply(fresh, change));
+      pendingChanges.clear();
+      if (pendingResyncSince != null) {
+        catchUp(fresh, pendingResyncSince);
+        pendingResyncSince = null;
+      }
+      index = fresh;
+      loading = false;
+      log.info(
+          "Loaded {} videos into in-memory search index in {}ms ({} changes replayed)",
+          fresh.size(),
+          System.currentTimeMillis() - startTime,
+          replayed);
+    }
+  }
+
+  private InMemorySearchIndex loadFromTable() {
+    InMemorySearchIndex fresh = new InMemorySearchIndex();
+    for (SearchVideo video : searchVideoRepository.findAll(Sort.by("indexedAt"))) {
+      fresh.upsert(video);
+    }
+    return fresh;
+  }
+
+  private InMemorySearchIndex loadFromSnapshotOrTable() {
+    Path path = snapshotProperties.path();
+    if (path == null || !Files.exists(path)) {
+      return loadFromTable();
+    }
+    InMemorySearchIndex restored;
+    try {
+      restored = IndexSnapshot.read(path);
+    } catch (IOException e) {
+      log.warn("Ignoring unusable search index snapshot {}: {}", path, e.getMessage());
+      return loadFromTable();
+    }
+
+    log.info("Restored search index snapshot {} (watermark {})", path, restored.watermark());
+    catchUp(restored, restored.watermark());
+    return restored;
+  }
+
+  /**
+   * Replays rows indexed since {@code since} (minus the configured overlap) and removes videos that
+   * are no longer in the table.
+   */
+  private void catchUp(InMemorySearchIndex target, Instant since) {
+    List<SearchVideo> changed =
+        searchVideoRepository.findByIndexedAtAfterOrderByIndexedAtAsc(
+            since.minus(snapshotProperties.replayOverlap()));
+    changed.forEach(target::upsert);
+    Set<UUID> deleted = target.ids();
+    searchVideoRepository.findAllIds().forEach(deleted::remove);
+    deleted.forEach(target::remove);
+    log.info(
+        "Caught up in-memory search index since {}: {} rows replayed, {} removed",
+        since,
+        changed.size(),
+        deleted.size());
+  }
+
+  @TransactionalEventListener
+  public void onSearchIndexChanged(SearchIndexChangedEvent event) {
+    synchronized (monitor) {
+      if (loading) {
+        pendingChanges.add(event);
+      } else {
+        apply(index, event);
+      }
+    }
+  }
+
+  @EventListener
+  @Transactional
+  public void onRemoteIndexChanged(RemoteIndexChangedEvent event) {
+    // Read under the monitor so a concurrent local change cannot be overwritten by an older row
+    synchronized (monitor) {
+      SearchIndexChangedEvent change =
+          searchVideoRepository
+              .findById(event.videoId())
+              .map(video -> SearchIndexChangedEvent.indexed(video, event.generation()))
+              .orElseGet(
+                  () -> SearchIndexChangedEvent.removed(event.videoId(), event.generation()));
+      if (loading) {
+        pendingChanges.add(change);
+      } else {
+        apply(index, change);
+      }
+    }
+  }
+
+  @EventListener
+  @Transactional
+  public void onRemoteIndexResync(RemoteIndexResyncEvent event) {
+    synchronized (monitor) {
+      if (loading) {
+        pendingResyncSince =
+            pendingResyncSince == null || event.since().isBefore(pendingResyncSince)
+                ? event.since()
+                : pendingResyncSince;
+      } else {
+        catchUp(index, event.since());
+      }
+    }
+  }
+
+  @EventListener
+  @Transactional
+  public void onSearchIndexRebuilt(SearchIndexRebuiltEvent event) {
+    // Every row was rewritten by the swap, so reloading is cheaper than replaying them one by one
+    reload();
+  }
+
+  private static void apply(InMemorySearchIndex target, SearchIndexChangedEvent change) {
+    if (change.isRemoval()) {
+      target.remove(change.videoId());
+    } else {
+      target.upsert(change.video());
+    }
+  }
+}
@@ -0,0 +1,418 @@
+package com.accountabilityatlas.searchservice.index;
+
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.service.SearchCriteria;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * In-process inverted index over {@code search_videos}.
+ *
+ * <p>Every indexed video gets a dense int ordinal. Lexemes map to {@link PostingList}s of
+ * (ordinal, weighted frequency); amendments, participants and states map to compressed bitmaps of
+ * ordinals; coordinates live in one packed {@code double[]} and video dates, as epoch days, in an
+ * {@code int[]}. Updating a video tombstones its old ordinal and appends a new one, so ordinal
+ * order is indexing order and doubles as the {@code indexed_at DESC} tie-breaker. Stale postings
+ * are dropped by compaction once tombstones outnumber live documents.
+ *
+ * <p>Like Postgres' {@code static_score DESC, indexed_at DESC}, an empty query lists newer video
+ * dates first, and equal text scores are broken the same way. Videos without a date count as
+ * 1970-01-01, as {@code static_score} does.
+ *
+ * <p>Ranking mirrors {@code ts_rank_cd} with the default weights: each occurrence of a query lexeme
+ * scores 1.0 in the title (A), 0.4 in the channel name (B) and 0.2 in the description (C), kept as
+ * integers scaled by ten. Cover-density proximity is not modelled, so scores differ from Postgres
+ * for multi-word queries but preserve the title > channel > description ordering.
+ *
+ * <p>Reads share a read lock; writes take the write lock. The structures are package-private so
+ * {@link IndexSnapshot} can serialize them under the read lock.
+ */
+public class InMemorySearchIndex {
+
+  static final int TITLE_WEIGHT = 10;
+  static final int CHANNEL_WEIGHT = 4;
+  static final int DESCRIPTION_WEIGHT = 2;
+
+  private static final int MIN_TOMBSTONES_TO_COMPACT = 256;
+
+  final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  final Map<String, PostingList> postings = new HashMap<>();
+  final Map<UUID, Integer> ordinals = new HashMap<>();
+  final RoaringBitmap live = new RoaringBitmap();
+  final RoaringBitmap[] amendmentDocs = newBitmaps(Amendment.values().length);
+  final RoaringBitmap[] participantDocs = newBitmaps(Participant.values().length);
+  final Map<String, RoaringBitmap> stateDocs = new HashMap<>();
+  SearchVideo[] docs = new SearchVideo[64];
+  double[] coordinates = new double[128];
+  int[] videoDays = new int[64];
+  int nextOrdinal;
+
+  /** Documents restored from a snapshot that have not been replaced since; {@code null} if none. */
+  MappedDocTable mappedDocs;
+
+  /** Latest {@code indexed_at} of any document added so far. */
+  Instant watermark = Instant.EPOCH;
+
+  private long version;
+
+  /** Adds {@code video}, replacing any previously indexed version with the same id. */
+  public void upsert(SearchVideo video) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(video.getId());
+      addLocked(video);
+      version++;
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(UUID videoId) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(videoId);
+      version++;
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return live.getCardinality();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Ids of all indexed videos. */
+  public Set<UUID> ids() {
+    lock.readLock().lock();
+    try {
+      return new HashSet<>(ordinals.keySet());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Looks up indexed videos by id; ids that are not indexed are absent from the result. */
+  public Map<UUID, SearchVideo> get(Collection<UUID> videoIds) {
+    lock.readLock().lock();
+    try {
+      Map<UUID, SearchVideo> found = new HashMap<>();
+      for (UUID videoId : videoIds) {
+        Integer doc = ordinals.get(videoId);
+        if (doc != null) {
+          found.put(videoId, doc(doc));
+        }
+      }
+      return found;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Latest {@code indexed_at} seen; rows indexed after it may be missing from this index. */
+  public Instant watermark() {
+    lock.readLock().lock();
+    try {
+      return watermark;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Incremented by every upsert and removal. */
+  public long version() {
+    lock.readLock().lock();
+    try {
+      return version;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public Page<SearchVideo> search(SearchCriteria criteria, Pageable pageable) {
+    lock.readLock().lock();
+    try {
+      RoaringBitmap filter = filterLocked(criteria);
+      if (filter.isEmpty()) {
+        return Page.empty(pageable);
+      }
+      return criteria.hasQuery()
+          ? rankedLocked(criteria, filter, pageable)
+          : browseLocked(criteria, filter, pageable);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private RoaringBitmap filterLocked(SearchCriteria criteria) {
+    RoaringBitmap filter = live.clone();
+    if (criteria.amendmentsMask() != 0) {
+      filter.and(union(amendmentDocs, criteria.amendmentsMask()));
+    }
+    if (criteria.participantsMask() != 0) {
+      filter.and(union(participantDocs, criteria.participantsMask()));
+    }
+    if (criteria.state() != null) {
+      RoaringBitmap inState = stateDocs.get(criteria.state());
+      if (inState == null) {
+        return new RoaringBitmap();
+      }
+      filter.and(inState);
+    }
+    return filter;
+  }
+
+  /** Empty query: every match, newest video date first. */
+  private Page<SearchVideo> browseLocked(
+      SearchCriteria criteria, RoaringBitmap filter, Pageable pageable) {
+    BoundingBox box = BoundingBox.of(criteria);
+    long[] hits = new long[filter.getCardinality()];
+    int count = 0;
+    IntIterator it = filter.getIntIterator();
+    while (it.hasNext()) {
+      int doc = it.next();
+      if (box == null || box.contains(coordinates, doc)) {
+        hits[count++] = recencyKey(doc);
+      }
+    }
+    Arrays.sort(hits, 0, count);
+    return pageFromEnd(hits, count, pageable);
+  }
+
+  /** Text query: conjunctive match over all lexemes, ordered by score then video date. */
+  private Page<SearchVideo> rankedLocked(
+      SearchCriteria criteria, RoaringBitmap filter, Pageable pageable) {
+    List<String> terms =
+        new ArrayList<>(new LinkedHashSet<>(EnglishAnalyzer.analyze(criteria.query())));
+    if (terms.isEmpty()) {
+      // Postgres ignores queries made only of stop words, and such a query matches nothing
+      return Page.empty(pageable);
+    }
+    PostingList[] lists = new PostingList[terms.size()];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = postings.get(terms.get(i));
+      if (lists[i] == null) {
+        return Page.empty(pageable);
+      }
+    }
+    // Drive the intersection from the rarest lexeme
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+    PostingList driver = lists[0];
+    BoundingBox box = BoundingBox.of(criteria);
+
+    // (score << 32 | ordinal) sorts by score; runs of equal score are then re-sorted by recency
+    long[] hits = new long[Math.min(driver.size(), filter.getCardinality())];
+    int count = 0;
+    for (int i = 0; i < driver.size(); i++) {
+      int doc = driver.doc(i);
+      if (!filter.contains(doc) || (box != null && !box.contains(coordinates, doc))) {
+        continue;
+      }
+      int score = driver.weight(i);
+      boolean matchesAll = true;
+      for (int j = 1; j < lists.length && matchesAll; j++) {
+        int index = lists[j].indexOf(doc);
+        if (index < 0) {
+          matchesAll = false;
+        } else {
+          score += lists[j].weight(index);
+        }
+      }
+      if (matchesAll) {
+        hits[count++] = ((long) score << 32) | doc;
+      }
+    }
+    Arrays.sort(hits, 0, count);
+    int from = 0;
+    while (from < count) {
+      int score = (int) (hits[from] >>> 32);
+      int to = from;
+      while (to < count && (int) (hits[to] >>> 32) == score) {
+        hits[to] = recencyKey((int) hits[to]);
+        to++;
+      }
+      Arrays.sort(hits, from, to);
+      from = to;
+    }
+    return pageFromEnd(hits, count, pageable);
+  }
+
+  /** (epoch day << 32 | ordinal): sorts by video date, then by ordinal, i.e. indexing order. */
+  private long recencyKey(int doc) {
+    return ((long) videoDays[doc] << 32) | doc;
+  }
+
+  /** Pages through {@code hits} sorted ascending, best last; the ordinal is the low 32 bits. */
+  private Page<SearchVideo> pageFromEnd(long[] hits, int count, Pageable pageable) {
+    long end = Math.min(count, pageable.getOffset() + pageable.getPageSize());
+    List<SearchVideo> content = new ArrayList<>(pageable.getPageSize());
+    for (long rank = pageable.getOffset(); rank < end; rank++) {
+      content.add(doc((int) hits[count - 1 - (int) rank]));
+    }
+    return new PageImpl<>(content, pageable, count);
+  }
+
+  private void addLocked(SearchVideo video) {
+    int doc = nextOrdinal++;
+    if (doc == docs.length) {
+      docs = Arrays.copyOf(docs, doc * 2);
+      coordinates = Arrays.copyOf(coordinates, doc * 4);
+      videoDays = Arrays.copyOf(videoDays, doc * 2);
+    }
+    docs[doc] = video;
+    ordinals.put(video.getId(), doc);
+    live.add(doc);
+
+    Map<String, Integer> weights = new HashMap<>();
+    addTerms(weights, video.getTitle(), TITLE_WEIGHT);
+    addTerms(weights, video.getChannelName(), CHANNEL_WEIGHT);
+    addTerms(weights, video.getDescription(), DESCRIPTION_WEIGHT);
+    weights.forEach(
+        (term, weight) -> postings.computeIfAbsent(term, t -> new PostingList()).add(doc, weight));
+
+    setBits(amendmentDocs, EnumMasks.toMask(video.getAmendments()), doc, true);
+    setBits(participantDocs, EnumMasks.toMask(video.getParticipants()), doc, true);
+    if (video.getPrimaryLocationState() != null) {
+      stateDocs
+          .computeIfAbsent(video.getPrimaryLocationState(), s -> new RoaringBitmap())
+          .add(doc);
+    }
+    coordinates[2 * doc] = orNaN(video.getPrimaryLocationLat());
+    coordinates[2 * doc + 1] = orNaN(video.getPrimaryLocationLng());
+    videoDays[doc] = video.getVideoDate() != null ? (int) video.getVideoDate().toEpochDay() : 0;
+    if (video.getIndexedAt() != null && video.getIndexedAt().isAfter(watermark)) {
+      watermark = video.getIndexedAt();
+    }
+  }
+
+  private void removeLocked(UUID videoId) {
+    Integer doc = ordinals.remove(videoId);
+    if (doc == null) {
+      return;
+    }
+    SearchVideo video = doc(doc);
+    live.remove(doc);
+    setBits(amendmentDocs, EnumMasks.toMask(video.getAmendments()), doc, false);
+    setBits(participantDocs, EnumMasks.toMask(video.getParticipants()), doc, false);
+    if (video.getPrimaryLocationState() != null) {
+      RoaringBitmap inState = stateDocs.get(video.getPrimaryLocationState());
+      if (inState != null) {
+        inState.remove(doc);
+      }
+    }
+    docs[doc] = null;
+  }
+
+  /** Rebuilds all structures from live documents once tombstones dominate. */
+  private void compactIfNeeded() {
+    int tombstones = nextOrdinal - live.getCardinality();
+    if (tombstones < MIN_TOMBSTONES_TO_COMPACT || tombstones < live.getCardinality()) {
+      return;
+    }
+    List<SearchVideo> survivors = new ArrayList<>(live.getCardinality());
+    live.forEach((int doc) -> survivors.add(doc(doc)));
+
+    postings.clear();
+    ordinals.clear();
+    live.clear();
+    Arrays.stream(amendmentDocs).forEach(RoaringBitmap::clear);
+    Arrays.stream(participantDocs).forEach(RoaringBitmap::clear);
+    stateDocs.clear();
+    docs = new SearchVideo[Math.max(64, survivors.size() * 2)];
+    coordinates = new double[docs.length * 2];
+    videoDays = new int[docs.length];
+    mappedDocs = null;
+    nextOrdinal = 0;
+    survivors.forEach(this::addLocked);
+  }
+
+  /** Returns a live document, decoding it from the snapshot if it was never replaced. */
+  SearchVideo doc(int ordinal) {
+    SearchVideo video = docs[ordinal];
+    return video != null ? video : mappedDocs.get(ordinal);
+  }
+
+  private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+    for (String lexeme : EnglishAnalyzer.analyze(text)) {
+      weights.merge(lexeme, weight, Integer::sum);
+    }
+  }
+
+  private static void setBits(RoaringBitmap[] bitmaps, int mask, int doc, boolean value) {
+    for (int i = 0; i < bitmaps.length; i++) {
+      if ((mask & (1 << i)) != 0) {
+        if (value) {
+          bitmaps[i].add(doc);
+        } else {
+          bitmaps[i].remove(doc);
+        }
+      }
+    }
+  }
+
+  private static RoaringBitmap union(RoaringBitmap[] bitmaps, int mask) {
+    RoaringBitmap union = new RoaringBitmap();
+    for (int i = 0; i < bitmaps.length; i++) {
+      if ((mask & (1 << i)) != 0) {
+        union.or(bitmaps[i]);
+      }
+    }
+    return union;
+  }
+
+  private static RoaringBitmap[] newBitmaps(int count) {
+    RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+    for (int i = 0; i < count; i++) {
+      bitmaps[i] = new RoaringBitmap();
+    }
+    return bitmaps;
+  }
+
+  private static double orNaN(Double value) {
+    return value != null ? value : Double.NaN;
+  }
+
+  /** Inclusive lat/lng bounds; NaN coordinates (no location) never match. */
+  private record BoundingBox(double minLat, double maxLat, double minLng, double maxLng) {
+
+    static BoundingBox of(SearchCriteria criteria) {
+      if (!criteria.hasBoundingBox()) {
+        return null;
+      }
+      return new BoundingBox(
+          criteria.minLat(), criteria.maxLat(), criteria.minLng(), criteria.maxLng());
+    }
+
+    boolean contains(double[] coordinates, int doc) {
+      double lat = coordinates[2 * doc];
+      double lng = coordinates[2 * doc + 1];
+      return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+    }
+  }
+}
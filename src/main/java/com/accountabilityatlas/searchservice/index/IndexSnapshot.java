@@ -0,0 +1,396 @@
+package com.accountabilityatlas.searchservice.index;
+
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Binary snapshot of an {@link InMemorySearchIndex}, so a restarted instance can map the file and
+ * replay only rows indexed after the snapshot instead of scanning the whole table.
+ *
+ * <p>A fixed header (magic, format version, watermark, document table offset, payload length and
+ * CRC32 of the payload) is followed by the payload:
+ *
+ * <ol>
+ *   <li>document records for every ordinal that was live when the snapshot was taken
+ *   <li>document table: ordinal count, then per ordinal the record offset ({@code -1} if deleted)
+ *       and video id
+ *   <li>packed coordinates, then video dates as epoch days
+ *   <li>live, amendment, participant and state bitmaps in the portable RoaringBitmap format
+ *   <li>term dictionary with posting lists
+ * </ol>
+ *
+ * <p>Reading verifies the checksum once, then copies everything after the document records onto
+ * the heap; the records themselves stay in the mapping and are decoded by {@link MappedDocTable}.
+ * Snapshots are written to a temporary file and atomically renamed over the previous one, so a
+ * reader never sees a partial file and existing mappings of the old file stay valid. A single
+ * snapshot is limited to 2 GiB, the largest region one {@link MappedByteBuffer} can map.
+ */
+final class IndexSnapshot {
+
+  static final int MAGIC = 0x41415349; // "AASI"
+  static final int FORMAT_VERSION = 2;
+
+  /** Record offset plus the two halves of the video id. */
+  static final int DOC_ENTRY_BYTES = 3 * Long.BYTES;
+
+  private static final int HEADER_BYTES = 44;
+
+  private IndexSnapshot() {}
+
+  /** Writes {@code index} to {@code path}, replacing any previous snapshot. */
+  static void write(InMemorySearchIndex index, Path path) throws IOException {
+    Path directory = path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        CRC32 crc = new CRC32();
+        CountingOutputStream counter =
+            new CountingOutputStream(
+                new CheckedOutputStream(
+                    new BufferedOutputStream(
+                        Channels.newOutputStream(channel.position(HEADER_BYTES)), 1 << 16),
+                    crc));
+        DataOutputStream out = new DataOutputStream(counter);
+
+        Instant watermark;
+        long docTableOffset;
+        index.lock.readLock().lock();
+        try {
+          watermark = index.watermark;
+          docTableOffset = writePayload(index, out, counter);
+        } finally {
+          index.lock.readLock().unlock();
+        }
+        out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header
+            .putInt(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putLong(watermark.getEpochSecond())
+            .putInt(watermark.getNano())
+            .putLong(docTableOffset)
+            .putLong(counter.count())
+            .putLong(crc.getValue())
+            .flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+        channel.force(true);
+      }
+      Files.move(
+          temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Maps and validates the snapshot at {@code path}.
+   *
+   * @throws IOException if the file cannot be read, is truncated, fails its checksum, or was
+   *     written by an incompatible format version
+   */
+  static InMemorySearchIndex read(Path path) throws IOException {
+    MappedByteBuffer file;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Unexpected snapshot size " + channel.size());
+      }
+      // The mapping stays valid after the channel is closed
+      file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (file.getInt(0) != MAGIC) {
+      throw new IOException("Not an index snapshot");
+    }
+    if (file.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("Unsupported snapshot format version " + file.getInt(4));
+    }
+    Instant watermark = Instant.ofEpochSecond(file.getLong(8), file.getInt(16));
+    long docTableOffset = file.getLong(20);
+    long payloadLength = file.getLong(28);
+    long checksum = file.getLong(36);
+    if (payloadLength != file.capacity() - HEADER_BYTES) {
+      throw new IOException("Snapshot is truncated");
+    }
+    ByteBuffer payload = file.slice(HEADER_BYTES, (int) payloadLength);
+    CRC32 crc = new CRC32();
+    crc.update(payload.duplicate());
+    if (crc.getValue() != checksum) {
+      throw new IOException("Snapshot checksum mismatch");
+    }
+    return readPayload(payload, (int) docTableOffset, watermark);
+  }
+
+  private static long writePayload(
+      InMemorySearchIndex index, DataOutputStream out, CountingOutputStream counter)
+      throws IOException {
+    int count = index.nextOrdinal;
+    long[] offsets = new long[count];
+    UUID[] ids = new UUID[count];
+    for (int doc = 0; doc < count; doc++) {
+      if (index.live.contains(doc)) {
+        SearchVideo video = index.doc(doc);
+        offsets[doc] = counter.count();
+        ids[doc] = video.getId();
+        writeDoc(out, video);
+      } else {
+        offsets[doc] = -1;
+        ids[doc] = new UUID(0, 0);
+      }
+    }
+
+    long docTableOffset = counter.count();
+    out.writeInt(count);
+    for (int doc = 0; doc < count; doc++) {
+      out.writeLong(offsets[doc]);
+      out.writeLong(ids[doc].getMostSignificantBits());
+      out.writeLong(ids[doc].getLeastSignificantBits());
+    }
+    for (int i = 0; i < 2 * count; i++) {
+      out.writeDouble(index.coordinates[i]);
+    }
+    for (int doc = 0; doc < count; doc++) {
+      out.writeInt(index.videoDays[doc]);
+    }
+
+    writeBitmap(out, index.live);
+    writeBitmaps(out, index.amendmentDocs);
+    writeBitmaps(out, index.participantDocs);
+    out.writeInt(index.stateDocs.size());
+    for (Map.Entry<String, RoaringBitmap> state : index.stateDocs.entrySet()) {
+      writeString(out, state.getKey());
+      writeBitmap(out, state.getValue());
+    }
+
+    out.writeInt(index.postings.size());
+    for (Map.Entry<String, PostingList> term : index.postings.entrySet()) {
+      PostingList postings = term.getValue();
+      writeString(out, term.getKey());
+      out.writeInt(postings.size());
+      for (int i = 0; i < postings.size(); i++) {
+        out.writeInt(postings.doc(i));
+      }
+      for (int i = 0; i < postings.size(); i++) {
+        out.writeInt(postings.weight(i));
+      }
+    }
+    return docTableOffset;
+  }
+
+  private static InMemorySearchIndex readPayload(
+      ByteBuffer payload, int docTableOffset, Instant watermark) throws IOException {
+    ByteBuffer in = payload.duplicate().position(docTableOffset);
+    int count = in.getInt();
+    InMemorySearchIndex index = new InMemorySearchIndex();
+    index.mappedDocs = new MappedDocTable(payload, in.position());
+    for (int doc = 0; doc < count; doc++) {
+      long recordOffset = in.getLong();
+      UUID id = new UUID(in.getLong(), in.getLong());
+      if (recordOffset >= 0) {
+        index.ordinals.put(id, doc);
+      }
+    }
+    index.docs = new SearchVideo[Math.max(64, count)];
+    index.coordinates = new double[2 * index.docs.length];
+    in.asDoubleBuffer().get(index.coordinates, 0, 2 * count);
+    in.position(in.position() + 2 * count * Double.BYTES);
+    index.videoDays = new int[index.docs.length];
+    in.asIntBuffer().get(index.videoDays, 0, count);
+    in.position(in.position() + count * Integer.BYTES);
+
+    readBitmap(in, index.live);
+    readBitmaps(in, index.amendmentDocs);
+    readBitmaps(in, index.participantDocs);
+    int states = in.getInt();
+    for (int i = 0; i < states; i++) {
+      RoaringBitmap docs = new RoaringBitmap();
+      String state = readString(in);
+      readBitmap(in, docs);
+      index.stateDocs.put(state, docs);
+    }
+
+    int terms = in.getInt();
+    for (int i = 0; i < terms; i++) {
+      String term = readString(in);
+      int size = in.getInt();
+      int[] docs = new int[size];
+      int[] weights = new int[size];
+      in.asIntBuffer().get(docs);
+      in.position(in.position() + size * Integer.BYTES);
+      in.asIntBuffer().get(weights);
+      in.position(in.position() + size * Integer.BYTES);
+      index.postings.put(term, new PostingList(docs, weights));
+    }
+
+    index.nextOrdinal = count;
+    index.watermark = watermark;
+    return index;
+  }
+
+  private static void writeDoc(DataOutput out, SearchVideo video) throws IOException {
+    out.writeLong(video.getId().getMostSignificantBits());
+    out.writeLong(video.getId().getLeastSignificantBits());
+    writeString(out, video.getYoutubeId());
+    writeString(out, video.getTitle());
+    writeString(out, video.getDescription());
+    writeString(out, video.getThumbnailUrl());
+    out.writeInt(video.getDurationSeconds() != null ? video.getDurationSeconds() : -1);
+    writeString(out, video.getChannelId());
+    writeString(out, video.getChannelName());
+    out.writeLong(
+        video.getVideoDate() != null ? video.getVideoDate().toEpochDay() : Long.MIN_VALUE);
+    out.writeInt(EnumMasks.toMask(video.getAmendments()));
+    out.writeInt(EnumMasks.toMask(video.getParticipants()));
+    UUID locationId = video.getPrimaryLocationId();
+    out.writeBoolean(locationId != null);
+    if (locationId != null) {
+      out.writeLong(locationId.getMostSignificantBits());
+      out.writeLong(locationId.getLeastSignificantBits());
+    }
+    writeString(out, video.getPrimaryLocationName());
+    writeString(out, video.getPrimaryLocationCity());
+    writeString(out, video.getPrimaryLocationState());
+    out.writeDouble(orNaN(video.getPrimaryLocationLat()));
+    out.writeDouble(orNaN(video.getPrimaryLocationLng()));
+    out.writeLong(video.getIndexedAt() != null ? video.getIndexedAt().getEpochSecond() : 0);
+    out.writeInt(video.getIndexedAt() != null ? video.getIndexedAt().getNano() : 0);
+  }
+
+  static SearchVideo readDoc(ByteBuffer in) {
+    SearchVideo video = new SearchVideo();
+    video.setId(new UUID(in.getLong(), in.getLong()));
+    video.setYoutubeId(readString(in));
+    video.setTitle(readString(in));
+    video.setDescription(readString(in));
+    video.setThumbnailUrl(readString(in));
+    int durationSeconds = in.getInt();
+    video.setDurationSeconds(durationSeconds >= 0 ? durationSeconds : null);
+    video.setChannelId(readString(in));
+    video.setChannelName(readString(in));
+    long videoDate = in.getLong();
+    video.setVideoDate(videoDate != Long.MIN_VALUE ? LocalDate.ofEpochDay(videoDate) : null);
+    video.setAmendments(EnumMasks.fromMask(in.getInt(), Amendment.class));
+    video.setParticipants(EnumMasks.fromMask(in.getInt(), Participant.class));
+    if (in.get() != 0) {
+      video.setPrimaryLocationId(new UUID(in.getLong(), in.getLong()));
+    }
+    video.setPrimaryLocationName(readString(in));
+    video.setPrimaryLocationCity(readString(in));
+    video.setPrimaryLocationState(readString(in));
+    video.setPrimaryLocationLat(orNull(in.getDouble()));
+    video.setPrimaryLocationLng(orNull(in.getDouble()));
+    video.setIndexedAt(Instant.ofEpochSecond(in.getLong(), in.getInt()));
+    return video;
+  }
+
+  private static void writeBitmaps(DataOutput out, RoaringBitmap[] bitmaps) throws IOException {
+    out.writeInt(bitmaps.length);
+    for (RoaringBitmap bitmap : bitmaps) {
+      writeBitmap(out, bitmap);
+    }
+  }
+
+  /** Bitmaps for enum constants appended since the snapshot was written stay empty. */
+  private static void readBitmaps(ByteBuffer in, RoaringBitmap[] bitmaps) throws IOException {
+    int count = in.getInt();
+    if (count > bitmaps.length) {
+      throw new IOException(
+          "Snapshot has " + count + " filter values, expected at most " + bitmaps.length);
+    }
+    for (int i = 0; i < count; i++) {
+      readBitmap(in, bitmaps[i]);
+    }
+  }
+
+  private static void writeBitmap(DataOutput out, RoaringBitmap bitmap) throws IOException {
+    out.writeInt(bitmap.serializedSizeInBytes());
+    bitmap.serialize(out);
+  }
+
+  private static void readBitmap(ByteBuffer in, RoaringBitmap bitmap) throws IOException {
+    int size = in.getInt();
+    bitmap.deserialize(in.slice(in.position(), size).order(ByteOrder.LITTLE_ENDIAN));
+    in.position(in.position() + size);
+  }
+
+  private static void writeString(DataOutput out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static double orNaN(Double value) {
+    return value != null ? value : Double.NaN;
+  }
+
+  private static Double orNull(double value) {
+    return Double.isNaN(value) ? null : value;
+  }
+
+  /** Tracks payload offsets; {@link DataOutputStream#size()} overflows past 2 GiB. */
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    long count() {
+      return count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.accountabilityatlas.searchservice.index;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Snapshot settings for the in-memory search backend.
+ *
+ * @param path snapshot file on local disk; snapshots are disabled when unset
+ * @param interval how often the index is written if it changed since the last snapshot
+ * @param replayOverlap how far before the snapshot watermark rows are replayed on startup, to catch
+ *     rows whose transactions committed out of {@code indexed_at} order
+ */
+@ConfigurationProperties(prefix = "app.search.snapshot")
+public record IndexSnapshotProperties(Path path, Duration interval, Duration replayOverlap) {
+
+  public IndexSnapshotProperties {
+    if (interval == null) {
+      interval = Duration.ofMinutes(10);
+    }
+    if (replayOverlap == null) {
+      replayOverlap = Duration.ofMinutes(5);
+    }
+  }
+}
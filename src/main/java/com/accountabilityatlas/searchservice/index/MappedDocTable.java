@@ -0,0 +1,24 @@
+package com.accountabilityatlas.searchservice.index;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import java.nio.ByteBuffer;
+
+/**
+ * Document table of a memory-mapped {@link IndexSnapshot}. Records stay in the mapped file and are
+ * decoded on each access, so restored documents cost no heap until they are returned.
+ */
+final class MappedDocTable {
+
+  private final ByteBuffer payload;
+  private final int tableOffset;
+
+  MappedDocTable(ByteBuffer payload, int tableOffset) {
+    this.payload = payload;
+    this.tableOffset = tableOffset;
+  }
+
+  SearchVideo get(int ordinal) {
+    long recordOffset = payload.getLong(tableOffset + ordinal * IndexSnapshot.DOC_ENTRY_BYTES);
+    return IndexSnapshot.readDoc(payload.duplicate().position((int) recordOffset));
+  }
+}
@@ -0,0 +1,49 @@
+package com.accountabilityatlas.searchservice.index;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of (document ordinal, weighted term frequency) pairs for one lexeme, kept in
+ * ascending ordinal order because ordinals are only ever handed out in increasing order.
+ */
+final class PostingList {
+
+  private int[] docs = new int[4];
+  private int[] weights = new int[4];
+  private int size;
+
+  PostingList() {}
+
+  PostingList(int[] docs, int[] weights) {
+    this.docs = docs;
+    this.weights = weights;
+    this.size = docs.length;
+  }
+
+  void add(int doc, int weight) {
+    if (size == docs.length) {
+      docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+      weights = Arrays.copyOf(weights, Math.max(4, size * 2));
+    }
+    docs[size] = doc;
+    weights[size] = weight;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int doc(int index) {
+    return docs[index];
+  }
+
+  int weight(int index) {
+    return weights[index];
+  }
+
+  /** Returns the index of {@code doc}, or a negative value if it is not in this list. */
+  int indexOf(int doc) {
+    return Arrays.binarySearch(docs, 0, size, doc);
+  }
+}
@@ -0,0 +1,135 @@
+package com.accountabilityatlas.searchservice.repository;
+
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@code search.facet_counts}, the number of indexed videos per combination of primary location
+ * state, amendments and participants.
+ *
+ * <p>Kept exact by moving each written or removed video between combinations in the transaction
+ * that writes it, and by {@link #recount()} when a reindex swaps tables. Callers read the video's
+ * old combination with its row locked ({@link SearchVideoRepository#findByIdForUpdate}), so two
+ * writes to one video never both move it out of the same combination. A combination row stays
+ * locked until that transaction ends, so concurrent writes to videos of one combination queue on
+ * it; both rows of a move are always locked in the same order, so they cannot deadlock.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FacetCounts {
+
+  /** One cell of the rollup; {@code state} is null for videos without a primary location. */
+  public record Combination(String state, int amendmentsMask, int participantsMask) {
+
+    private static final Comparator<Combination> LOCK_ORDER =
+        Comparator.comparing(Combination::state, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(Combination::amendmentsMask)
+            .thenComparingInt(Combination::participantsMask);
+
+    public static Combination of(SearchVideo video) {
+      return new Combination(
+          video.getPrimaryLocationState(),
+          EnumMasks.toMask(video.getAmendments()),
+          EnumMasks.toMask(video.getParticipants()));
+    }
+  }
+
+  /** Number of videos in one combination. */
+  public record Count(Combination combination, long videos) {}
+
+  private static final String ADJUST_SQL =
+      """
+      INSERT INTO search.facet_counts AS f
+          (primary_location_state, amendments_mask, participants_mask, video_count)
+      VALUES (?, ?, ?, ?)
+      ON CONFLICT (primary_location_state, amendments_mask, participants_mask)
+      DO UPDATE SET video_count = f.video_count + EXCLUDED.video_count
+      """;
+
+  private static final String FIND_SQL =
+      """
+      SELECT primary_location_state, amendments_mask, participants_mask, video_count
+      FROM search.facet_counts
+      WHERE video_count > 0
+        AND (? = 0 OR (amendments_mask & ?) <> 0)
+        AND (? = 0 OR (participants_mask & ?) <> 0)
+        AND (CAST(? AS VARCHAR) IS NULL OR primary_location_state = ?)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Moves one video from {@code from} to {@code to}. Either is null when the video is newly
+   * indexed or removed.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void move(Combination from, Combination to) {
+    if (Objects.equals(from, to)) {
+      return;
+    }
+    Stream.of(from, to)
+        .filter(Objects::nonNull)
+        .sorted(Combination.LOCK_ORDER)
+        .forEach(combination -> adjust(combination, combination == to ? 1 : -1));
+  }
+
+  /**
+   * Counts per combination for videos matching every filter given, skipping empty combinations.
+   *
+   * @param state exact primary location state, or {@code null} for no filter
+   * @param amendmentsMask amendment bitmask to overlap with, or {@code 0} for no filter
+   * @param participantsMask participant bitmask to overlap with, or {@code 0} for no filter
+   */
+  public List<Count> find(String state, int amendmentsMask, int participantsMask) {
+    return jdbcTemplate.query(
+        FIND_SQL,
+        (rs, rowNum) ->
+            new Count(
+                new Combination(
+                    rs.getString("primary_location_state"),
+                    rs.getInt("amendments_mask"),
+                    rs.getInt("participants_mask")),
+                rs.getLong("video_count")),
+        amendmentsMask,
+        amendmentsMask,
+        participantsMask,
+        participantsMask,
+        state,
+        state);
+  }
+
+  /**
+   * Replaces every count with one taken from {@code search_videos}. Runs in the transaction that
+   * swaps a rebuilt table in, whose lock keeps writers out until both are committed.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recount() {
+    jdbcTemplate.execute("DELETE FROM search.facet_counts");
+    jdbcTemplate.execute(
+        """
+        INSERT INTO search.facet_counts
+            (primary_location_state, amendments_mask, participants_mask, video_count)
+        SELECT primary_location_state, amendments_mask, participants_mask, COUNT(*)
+        FROM search.search_videos
+        GROUP BY primary_location_state, amendments_mask, participants_mask
+        """);
+  }
+
+  private void adjust(Combination combination, long delta) {
+    jdbcTemplate.update(
+        ADJUST_SQL,
+        combination.state(),
+        combination.amendmentsMask(),
+        combination.participantsMask(),
+        delta);
+  }
+}
@@ -0,0 +1,52 @@
+package com.accountabilityatlas.searchservice.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@code search.moderation_watermarks}, the timestamp of the newest moderation event applied to
+ * each video.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ModerationWatermarks {
+
+  private static final String ADVANCE_SQL =
+      """
+      INSERT INTO search.moderation_watermarks AS w (video_id, event_at)
+      VALUES (?, ?)
+      ON CONFLICT (video_id) DO UPDATE SET event_at = EXCLUDED.event_at
+      WHERE w.event_at < EXCLUDED.event_at
+      """;
+
+  private static final String FIND_SQL =
+      "SELECT event_at FROM search.moderation_watermarks WHERE video_id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Moves the video's watermark up to {@code eventAt}. The row stays locked until the surrounding
+   * transaction ends, so concurrent events for one video are decided one at a time.
+   *
+   * @return false if an event at or after {@code eventAt} was already applied
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public boolean advance(UUID videoId, Instant eventAt) {
+    return jdbcTemplate.update(ADVANCE_SQL, videoId, Timestamp.from(eventAt)) > 0;
+  }
+
+  /** The video's watermark, read without locking; empty if no timed event was applied to it. */
+  public Optional<Instant> find(UUID videoId) {
+    return jdbcTemplate
+        .query(FIND_SQL, (rs, rowNum) -> rs.getTimestamp("event_at").toInstant(), videoId)
+        .stream()
+        .findFirst();
+  }
+}
@@ -1,50 +1,82 @@
 package com.accountabilityatlas.searchservice.repository;
 
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface SearchVideoRepository extends JpaRepository<SearchVideo, UUID> {
 
+  List<SearchVideo> findByIndexedAtAfterOrderByIndexedAtAsc(Instant indexedAt);
+
+  @Query("SELECT v.id FROM SearchVideo v")
+  List<UUID> findAllIds();
+
+  /**
+   * Loads a video with {@code SELECT ... FOR UPDATE}, so a concurrent write or removal of the same
+   * video waits for this transaction and then reads its result.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT v FROM SearchVideo v WHERE v.id = :id")
+  Optional<SearchVideo> findByIdForUpdate(UUID id);
+
+  /** Deletes a video, returning 0 if it was already gone. */
+  @Modifying
+  @Query("DELETE FROM SearchVideo v WHERE v.id = :id")
+  int deleteRowById(UUID id);
+
+  /** Loads the videos with the given ids in one query; ids that are not indexed are skipped. */
+  @Query(value = "SELECT * FROM search.search_videos WHERE id = ANY(:ids)", nativeQuery = true)
+  List<SearchVideo> findByIds(UUID[] ids);
+
+  /**
+   * Counts the videos with ids in {@code [from, to)} and digests their {@code id:source_version}
+   * pairs in id order, the same way video-service digests a range for reconciliation. A null
+   * {@code to} leaves the range open-ended; a missing version digests as {@code -1}.
+   */
   @Query(
       value =
           """
-          SELECT v.*, ts_rank_cd(v.search_vector, plainto_tsquery('english', :query)) AS rank
-          FROM search.search_videos v
-          WHERE (:query IS NULL OR :query = '' OR v.search_vector @@ plainto_tsquery('english', :query))
-            AND (:amendments IS NULL OR v.amendments && CAST(:amendments AS VARCHAR[]))
-            AND (:participants IS NULL OR v.participants && CAST(:participants AS VARCHAR[]))
-            AND (:state IS NULL OR v.primary_location_state = :state)
-            AND (:minLat IS NULL OR (v.primary_location_lat BETWEEN :minLat AND :maxLat
-                 AND v.primary_location_lng BETWEEN :minLng AND :maxLng))
-          ORDER BY CASE WHEN :query IS NULL OR :query = '' THEN 0 ELSE ts_rank_cd(v.search_vector, plainto_tsquery('english', :query)) END DESC,
-                   v.indexed_at DESC
+          SELECT COUNT(*) AS count,
+                 md5(string_agg(CAST(id AS text) || ':'
+                     || CAST(COALESCE(source_version, -1) AS text), ',' ORDER BY id)) AS digest
+          FROM search.search_videos
+          WHERE id >= CAST(:from AS uuid)
+            AND (CAST(:to AS text) IS NULL OR id < CAST(:to AS uuid))
           """,
-      countQuery =
+      nativeQuery = true)
+  RangeDigestView digestRange(String from, String to);
+
+  /** Lists the id and source version of each video with an id in {@code [from, to)}. */
+  @Query(
+      value =
           """
-          SELECT COUNT(*)
-          FROM search.search_videos v
-          WHERE (:query IS NULL OR :query = '' OR v.search_vector @@ plainto_tsquery('english', :query))
-            AND (:amendments IS NULL OR v.amendments && CAST(:amendments AS VARCHAR[]))
-            AND (:participants IS NULL OR v.participants && CAST(:participants AS VARCHAR[]))
-            AND (:state IS NULL OR v.primary_location_state = :state)
-            AND (:minLat IS NULL OR (v.primary_location_lat BETWEEN :minLat AND :maxLat
-                 AND v.primary_location_lng BETWEEN :minLng AND :maxLng))
+          SELECT id, source_version AS "sourceVersion"
+          FROM search.search_videos
+          WHERE id >= CAST(:from AS uuid)
+            AND (CAST(:to AS text) IS NULL OR id < CAST(:to AS uuid))
+          ORDER BY id
           """,
       nativeQuery = true)
-  Page<SearchVideo> searchWithFilters(
-      String query,
-      String amendments,
-      String participants,
-      String state,
-      Double minLat,
-      Double maxLat,
-      Double minLng,
-      Double maxLng,
-      Pageable pageable);
+  List<VersionView> findVersionsInRange(String from, String to);
+
+  interface RangeDigestView {
+    long getCount();
+
+    String getDigest();
+  }
+
+  interface VersionView {
+    UUID getId();
+
+    Long getSourceVersion();
+  }
 }
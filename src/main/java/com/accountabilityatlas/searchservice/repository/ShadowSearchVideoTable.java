@@ -0,0 +1,327 @@
+package com.accountabilityatlas.searchservice.repository;
+
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@code search.search_videos_shadow}, the table a full reindex is loaded into before it replaces
+ * {@code search.search_videos}.
+ *
+ * <p>The shadow copies the live table's columns, defaults, constraints and triggers, but only its
+ * primary key until the load finishes; the remaining indexes are copied from the live table's
+ * definitions afterwards, so they are built once instead of maintained row by row.
+ *
+ * <p>While a rebuild is loading, {@link #mirror} and {@link #mirrorRemoval} dual-write live index
+ * changes into the shadow. Every instance does so, not only the one running the rebuild: whether
+ * the shadow exists is checked in the writing transaction, and the swap's exclusive lock on the
+ * live table orders that check against the rename. The newest {@code indexed_at} wins between a
+ * live write and a bulk row, and removals are remembered in {@code
+ * search.search_videos_shadow_removed} so a bulk page fetched before a removal cannot resurrect the
+ * video.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ShadowSearchVideoTable {
+
+  static final String LIVE = "search_videos";
+  static final String SHADOW = "search_videos_shadow";
+  private static final String SHADOW_INDEX_PREFIX = "shadow_";
+
+  /** Columns written by the application; {@code search_vector} is filled by trigger. */
+  static final List<String> COLUMNS =
+      List.of(
+          "id",
+          "youtube_id",
+          "title",
+          "description",
+          "thumbnail_url",
+          "duration_seconds",
+          "channel_id",
+          "channel_name",
+          "video_date",
+          "amendments_mask",
+          "participants_mask",
+          "primary_location_id",
+          "primary_location_name",
+          "primary_location_city",
+          "primary_location_state",
+          "primary_location_lat",
+          "primary_location_lng",
+          "indexed_at",
+          "source_version");
+
+  private static final String COLUMN_LIST = String.join(", ", COLUMNS);
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO search.search_videos_shadow AS s ("
+          + COLUMN_LIST
+          + ") %s ON CONFLICT (id) DO UPDATE SET "
+          + String.join(
+              ", ", COLUMNS.stream().skip(1).map(c -> c + " = EXCLUDED." + c).toList())
+          + " WHERE s.indexed_at <= EXCLUDED.indexed_at";
+
+  private static final Pattern ON_LIVE_TABLE = Pattern.compile(" ON (search\\.)?search_videos ");
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Drops any shadow left by an interrupted rebuild, creates an empty one and starts dual-writing
+   * live changes into it. Writers see the shadow only once it is complete, triggers included.
+   */
+  @Transactional
+  public void create() {
+    drop();
+    jdbcTemplate.execute(
+        "CREATE TABLE search.search_videos_shadow"
+            + " (LIKE search.search_videos INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+    jdbcTemplate.execute("ALTER TABLE search.search_videos_shadow ADD PRIMARY KEY (id)");
+    for (String trigger : liveTriggerDefinitions()) {
+      jdbcTemplate.execute(onShadow(trigger));
+    }
+    jdbcTemplate.execute(
+        "CREATE UNLOGGED TABLE search.search_videos_shadow_removed"
+            + " (id UUID PRIMARY KEY, removed_at TIMESTAMPTZ NOT NULL)");
+  }
+
+  /** Stops dual-writing and drops the shadow tables. */
+  public void drop() {
+    jdbcTemplate.execute("DROP TABLE IF EXISTS search.search_videos_shadow");
+    jdbcTemplate.execute("DROP TABLE IF EXISTS search.search_videos_shadow_removed");
+  }
+
+  /**
+   * Streams {@code videos} into the shadow with {@code COPY} through a transaction-local staging
+   * table, then merges them in, skipping rows superseded by a newer live write or removal.
+   *
+   * @return the number of rows inserted or updated
+   */
+  @Transactional
+  public int load(List<SearchVideo> videos) {
+    jdbcTemplate.execute(
+        "CREATE TEMP TABLE reindex_staging ON COMMIT DROP AS SELECT "
+            + COLUMN_LIST
+            + " FROM search.search_videos_shadow WITH NO DATA");
+    byte[] rows = encodeCopyRows(videos);
+    jdbcTemplate.execute(
+        (ConnectionCallback<Long>)
+            connection -> {
+              CopyIn copy =
+                  connection
+                      .unwrap(PGConnection.class)
+                      .getCopyAPI()
+                      .copyIn("COPY reindex_staging (" + COLUMN_LIST + ") FROM STDIN");
+              try {
+                copy.writeToCopy(rows, 0, rows.length);
+                return copy.endCopy();
+              } finally {
+                if (copy.isActive()) {
+                  copy.cancelCopy();
+                }
+              }
+            });
+    return jdbcTemplate.update(
+        String.format(
+            UPSERT_SQL,
+            "SELECT "
+                + COLUMN_LIST
+                + " FROM reindex_staging r WHERE NOT EXISTS (SELECT 1 FROM"
+                + " search.search_videos_shadow_removed d"
+                + " WHERE d.id = r.id AND d.removed_at > r.indexed_at)"));
+  }
+
+  /**
+   * Builds the live table's secondary indexes on the shadow and refreshes its statistics.
+   * Concurrent builds keep dual-writes, and so live indexing, flowing while they run.
+   */
+  public void buildIndexes() {
+    for (Map<String, Object> index : liveIndexDefinitions()) {
+      String name = (String) index.get("name");
+      String definition =
+          onShadow((String) index.get("definition"))
+              .replaceFirst(
+                  "INDEX " + Pattern.quote(name) + " ",
+                  "INDEX CONCURRENTLY " + SHADOW_INDEX_PREFIX + name + " ");
+      long startTime = System.currentTimeMillis();
+      jdbcTemplate.execute(definition);
+      log.info("Built index {} on shadow in {}ms", name, System.currentTimeMillis() - startTime);
+    }
+    jdbcTemplate.execute("ANALYZE search.search_videos_shadow");
+  }
+
+  /**
+   * Replaces the live table with the shadow when the surrounding transaction commits. The exclusive
+   * lock waits for in-flight index writes (which hold locks on the live table from their initial
+   * read) to finish, and is bounded by {@code lockTimeout} so searches queued behind it are never
+   * held for long.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void swap(Duration lockTimeout) {
+    jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+    // Writers blocked on the lock find no shadow once it is released and write the new table only
+    jdbcTemplate.execute("LOCK TABLE search.search_videos IN ACCESS EXCLUSIVE MODE");
+    List<String> indexNames =
+        jdbcTemplate.queryForList(
+            """
+            SELECT i.relname
+            FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid
+            WHERE x.indrelid = 'search.search_videos_shadow'::regclass AND NOT x.indisprimary
+            """,
+            String.class);
+    jdbcTemplate.execute("ALTER TABLE search.search_videos RENAME TO search_videos_replaced");
+    jdbcTemplate.execute("ALTER TABLE search.search_videos_shadow RENAME TO search_videos");
+    jdbcTemplate.execute("DROP TABLE search.search_videos_replaced");
+    jdbcTemplate.execute("DROP TABLE search.search_videos_shadow_removed");
+    jdbcTemplate.execute(
+        "ALTER TABLE search.search_videos"
+            + " RENAME CONSTRAINT search_videos_shadow_pkey TO search_videos_pkey");
+    for (String indexName : indexNames) {
+      if (indexName.startsWith(SHADOW_INDEX_PREFIX)) {
+        jdbcTemplate.execute(
+            "ALTER INDEX search."
+                + indexName
+                + " RENAME TO "
+                + indexName.substring(SHADOW_INDEX_PREFIX.length()));
+      }
+    }
+  }
+
+  /** Whether a rebuild, on this or any other instance, is loading the shadow. */
+  public boolean isActive() {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "SELECT to_regclass('search.search_videos_shadow') IS NOT NULL", Boolean.class));
+  }
+
+  /** Dual-writes an indexed video into the shadow while a rebuild is loading it. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void mirror(SearchVideo video) {
+    if (!isActive()) {
+      return;
+    }
+    Object[] values = values(video);
+    String placeholders = String.join(", ", COLUMNS.stream().map(c -> "?").toList());
+    jdbcTemplate.update(String.format(UPSERT_SQL, "VALUES (" + placeholders + ")"), values);
+  }
+
+  /** Dual-writes a removal into the shadow while a rebuild is loading it. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void mirrorRemoval(UUID videoId) {
+    if (!isActive()) {
+      return;
+    }
+    jdbcTemplate.update("DELETE FROM search.search_videos_shadow WHERE id = ?", videoId);
+    jdbcTemplate.update(
+        """
+        INSERT INTO search.search_videos_shadow_removed (id, removed_at) VALUES (?, ?)
+        ON CONFLICT (id) DO UPDATE SET removed_at = EXCLUDED.removed_at
+        """,
+        videoId,
+        Timestamp.from(Instant.now()));
+  }
+
+  private List<String> liveTriggerDefinitions() {
+    return jdbcTemplate.queryForList(
+        """
+        SELECT pg_get_triggerdef(t.oid)
+        FROM pg_trigger t
+        WHERE t.tgrelid = 'search.search_videos'::regclass AND NOT t.tgisinternal
+        """,
+        String.class);
+  }
+
+  private List<Map<String, Object>> liveIndexDefinitions() {
+    return jdbcTemplate.queryForList(
+        """
+        SELECT i.relname AS name, pg_get_indexdef(i.oid) AS definition
+        FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid
+        WHERE x.indrelid = 'search.search_videos'::regclass AND NOT x.indisprimary
+        """);
+  }
+
+  /** Points a trigger or index definition taken from the live table at the shadow. */
+  static String onShadow(String definition) {
+    Matcher matcher = ON_LIVE_TABLE.matcher(definition);
+    if (!matcher.find()) {
+      throw new IllegalStateException("Unexpected definition on " + LIVE + ": " + definition);
+    }
+    return matcher.replaceFirst(" ON search." + SHADOW + " ");
+  }
+
+  private static Object[] values(SearchVideo video) {
+    return new Object[] {
+      video.getId(),
+      video.getYoutubeId(),
+      video.getTitle(),
+      video.getDescription(),
+      video.getThumbnailUrl(),
+      video.getDurationSeconds(),
+      video.getChannelId(),
+      video.getChannelName(),
+      video.getVideoDate(),
+      EnumMasks.toMask(video.getAmendments()),
+      EnumMasks.toMask(video.getParticipants()),
+      video.getPrimaryLocationId(),
+      video.getPrimaryLocationName(),
+      video.getPrimaryLocationCity(),
+      video.getPrimaryLocationState(),
+      video.getPrimaryLocationLat(),
+      video.getPrimaryLocationLng(),
+      video.getIndexedAt() != null ? Timestamp.from(video.getIndexedAt()) : null,
+      video.getSourceVersion()
+    };
+  }
+
+  /** Encodes rows in {@code COPY} text format, in {@link #COLUMNS} order. */
+  static byte[] encodeCopyRows(List<SearchVideo> videos) {
+    StringBuilder out = new StringBuilder(videos.size() * 512);
+    for (SearchVideo video : videos) {
+      Object[] values = values(video);
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          out.append('\t');
+        }
+        appendCopyValue(out, values[i]);
+      }
+      out.append('\n');
+    }
+    return out.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void appendCopyValue(StringBuilder out, Object value) {
+    if (value == null) {
+      out.append("\\N");
+      return;
+    }
+    String text =
+        value instanceof Timestamp timestamp ? timestamp.toInstant().toString() : value.toString();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\' -> out.append("\\\\");
+        case '\t' -> out.append("\\t");
+        case '\n' -> out.append("\\n");
+        case '\r' -> out.append("\\r");
+        default -> out.append(c);
+      }
+    }
+  }
+}
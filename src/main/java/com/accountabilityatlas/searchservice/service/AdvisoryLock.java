@@ -0,0 +1,55 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs work under a PostgreSQL session advisory lock, so that only one instance at a time does it.
+ * The lock is taken and released on one pooled connection that is held for the whole task.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdvisoryLock {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Runs {@code task} while holding the advisory lock {@code key}.
+   *
+   * @return false, without running {@code task}, if another session holds the lock
+   */
+  public boolean runExclusively(long key, Runnable task) {
+    Boolean ran =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Boolean>)
+                connection -> {
+                  if (!call(connection, "pg_try_advisory_lock", key)) {
+                    return false;
+                  }
+                  try {
+                    task.run();
+                    return true;
+                  } finally {
+                    call(connection, "pg_advisory_unlock", key);
+                  }
+                });
+    return Boolean.TRUE.equals(ran);
+  }
+
+  private static boolean call(Connection connection, String function, long key)
+      throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement("SELECT " + function + "(?)")) {
+      statement.setLong(1, key);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() && resultSet.getBoolean(1);
+      }
+    }
+  }
+}
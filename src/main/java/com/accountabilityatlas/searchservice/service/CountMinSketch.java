@@ -0,0 +1,67 @@
+package com.accountabilityatlas.searchservice.service;
+
+/**
+ * Approximate counts for any number of keys in a fixed {@code depth x width} array of counters.
+ *
+ * <p>Each key maps to one counter per row and is estimated by the smallest of them, so estimates
+ * never undercount; with probability {@code 1 - e^-depth} they overcount by at most {@code e /
+ * width} of everything added. Counters are raised conservatively, only as far as the new estimate,
+ * which keeps the overcount of rare keys well below that bound. Not thread-safe.
+ */
+final class CountMinSketch {
+
+  private final long[][] counters;
+  private final int width;
+
+  CountMinSketch(int width, int depth) {
+    this.width = width;
+    this.counters = new long[depth][width];
+  }
+
+  /** Adds {@code count} occurrences of {@code key} and returns its new estimate. */
+  long add(Object key, long count) {
+    long hash = mix(key.hashCode());
+    long estimate = estimate(hash) + count;
+    for (int row = 0; row < counters.length; row++) {
+      int cell = cell(hash, row);
+      counters[row][cell] = Math.max(counters[row][cell], estimate);
+    }
+    return estimate;
+  }
+
+  long estimate(Object key) {
+    return estimate(mix(key.hashCode()));
+  }
+
+  /** Halves every counter, so keys that stop arriving fade out instead of holding their place. */
+  void halve() {
+    for (long[] row : counters) {
+      for (int cell = 0; cell < width; cell++) {
+        row[cell] >>>= 1;
+      }
+    }
+  }
+
+  private long estimate(long hash) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < counters.length; row++) {
+      estimate = Math.min(estimate, counters[row][cell(hash, row)]);
+    }
+    return estimate;
+  }
+
+  // One hash split in two stands in for a hash function per row (Kirsch-Mitzenmacher)
+  private int cell(long hash, int row) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    return Math.floorMod(h1 + row * h2, width);
+  }
+
+  // SplitMix64 finalizer, so keys with close hash codes land in unrelated cells
+  private static long mix(int hashCode) {
+    long z = hashCode + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
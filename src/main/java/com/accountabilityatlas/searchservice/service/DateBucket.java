@@ -0,0 +1,11 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.LocalDate;
+
+/**
+ * Number of matching videos recorded in one histogram bucket.
+ *
+ * @param start first day of the month or year
+ * @param count matching videos whose {@code video_date} falls in the bucket
+ */
+public record DateBucket(LocalDate start, long count) {}
@@ -0,0 +1,6 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.List;
+
+/** Non-empty buckets in date order; videos without a {@code video_date} are not counted. */
+public record DateHistogram(List<DateBucket> buckets, long queryTimeMs) {}
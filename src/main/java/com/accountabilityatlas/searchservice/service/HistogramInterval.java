@@ -0,0 +1,28 @@
+package com.accountabilityatlas.searchservice.service;
+
+/** Bucket widths offered by {@code /search/histogram}, each a {@code date_trunc} field. */
+public enum HistogramInterval {
+  MONTH("month"),
+  YEAR("year");
+
+  private final String parameter;
+
+  HistogramInterval(String parameter) {
+    this.parameter = parameter;
+  }
+
+  /** The value of the {@code interval} request parameter, and the {@code date_trunc} field. */
+  public String parameter() {
+    return parameter;
+  }
+
+  /** Returns the interval selected by an {@code interval} request parameter, or null if unknown. */
+  public static HistogramInterval fromParameter(String parameter) {
+    for (HistogramInterval interval : values()) {
+      if (interval.parameter.equals(parameter)) {
+        return interval;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,4 @@
+package com.accountabilityatlas.searchservice.service;
+
+/** A search and its estimated number of requests since it was first seen, decayed over time. */
+public record HotQuery(SearchCriteria criteria, long count) {}
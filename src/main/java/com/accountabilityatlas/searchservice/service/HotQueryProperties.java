@@ -0,0 +1,57 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Hot-query tracking and cache warm-up settings.
+ *
+ * @param enabled whether searches are counted and the most frequent ones warmed
+ * @param width counters per row of the count-min sketch
+ * @param depth rows of the count-min sketch; memory is {@code 8 * width * depth} bytes
+ * @param topK most frequent searches tracked, persisted and shown on the actuator endpoint
+ * @param warmCount most frequent searches re-run on startup and after the index changes
+ * @param rewarmInterval how often the index generation is checked for changes to warm up after
+ * @param persistInterval how often the top searches are written to {@code search.hot_queries}
+ * @param decayInterval how often every count is halved, so yesterday's hot searches fade out
+ * @param retention persisted searches not written again for this long are dropped
+ */
+@ConfigurationProperties(prefix = "app.search.hot-queries")
+public record HotQueryProperties(
+    boolean enabled,
+    int width,
+    int depth,
+    int topK,
+    int warmCount,
+    Duration rewarmInterval,
+    Duration persistInterval,
+    Duration decayInterval,
+    Duration retention) {
+
+  public HotQueryProperties {
+    if (width <= 0) {
+      width = 2048;
+    }
+    if (depth <= 0) {
+      depth = 4;
+    }
+    if (topK <= 0) {
+      topK = 100;
+    }
+    if (warmCount <= 0) {
+      warmCount = 20;
+    }
+    if (rewarmInterval == null) {
+      rewarmInterval = Duration.ofSeconds(10);
+    }
+    if (persistInterval == null) {
+      persistInterval = Duration.ofMinutes(5);
+    }
+    if (decayInterval == null) {
+      decayInterval = Duration.ofHours(1);
+    }
+    if (retention == null) {
+      retention = Duration.ofDays(1);
+    }
+  }
+}
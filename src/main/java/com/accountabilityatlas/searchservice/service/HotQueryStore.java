@@ -0,0 +1,131 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@code search.hot_queries}, the most frequent searches as last written by any instance. Counts
+ * are not merged across instances; the latest write of a search wins.
+ *
+ * <p>Rows are keyed on an md5 of the criteria rather than the criteria columns, so a query of any
+ * length fits the unique index.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotQueryStore {
+
+  private static final String COLUMNS =
+      "query, amendments_mask, participants_mask, state, min_lat, max_lat, min_lng, max_lng,"
+          + " video_date_from, video_date_to, min_duration, max_duration, sort";
+
+  private static final String SAVE_SQL =
+      "INSERT INTO search.hot_queries ("
+          + COLUMNS
+          + ", hits, recorded_at, criteria_hash)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, md5(?))"
+          + " ON CONFLICT ON CONSTRAINT uq_hot_queries_criteria_hash"
+          + " DO UPDATE SET hits = EXCLUDED.hits, recorded_at = EXCLUDED.recorded_at";
+
+  private static final String FIND_TOP_SQL =
+      "SELECT " + COLUMNS + ", hits FROM search.hot_queries ORDER BY hits DESC LIMIT ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /** Writes {@code queries} and drops searches not written within {@code retention}. */
+  @Transactional
+  public void save(List<HotQuery> queries, Instant recordedAt, Duration retention) {
+    Timestamp at = Timestamp.from(recordedAt);
+    jdbcTemplate.batchUpdate(SAVE_SQL, queries.stream().map(hot -> toRow(hot, at)).toList());
+    jdbcTemplate.update(
+        "DELETE FROM search.hot_queries WHERE recorded_at < ?",
+        Timestamp.from(recordedAt.minus(retention)));
+  }
+
+  /** The {@code limit} searches with the highest counts, highest first. */
+  public List<HotQuery> findTop(int limit) {
+    return jdbcTemplate.query(FIND_TOP_SQL, (rs, rowNum) -> toHotQuery(rs), limit);
+  }
+
+  private static Object[] toRow(HotQuery hot, Timestamp recordedAt) {
+    SearchCriteria criteria = hot.criteria();
+    SearchRanges ranges = criteria.ranges();
+    return new Object[] {
+      criteria.query(),
+      criteria.amendmentsMask(),
+      criteria.participantsMask(),
+      criteria.state(),
+      criteria.minLat(),
+      criteria.maxLat(),
+      criteria.minLng(),
+      criteria.maxLng(),
+      ranges.from() != null ? Date.valueOf(ranges.from()) : null,
+      ranges.to() != null ? Date.valueOf(ranges.to()) : null,
+      ranges.minDuration(),
+      ranges.maxDuration(),
+      criteria.sort().name(),
+      hot.count(),
+      recordedAt,
+      criteriaKey(criteria)
+    };
+  }
+
+  /**
+   * One string per distinct search, hashed into {@code criteria_hash}. Each component is length
+   * prefixed, so no query text can make two different searches produce the same key.
+   */
+  private static String criteriaKey(SearchCriteria criteria) {
+    SearchRanges ranges = criteria.ranges();
+    StringBuilder key = new StringBuilder();
+    for (Object component :
+        new Object[] {
+          criteria.query(),
+          criteria.amendmentsMask(),
+          criteria.participantsMask(),
+          criteria.state(),
+          criteria.minLat(),
+          criteria.maxLat(),
+          criteria.minLng(),
+          criteria.maxLng(),
+          ranges.from(),
+          ranges.to(),
+          ranges.minDuration(),
+          ranges.maxDuration(),
+          criteria.sort()
+        }) {
+      String value = component != null ? component.toString() : null;
+      key.append(value != null ? value.length() + ":" + value : "-").append(';');
+    }
+    return key.toString();
+  }
+
+  private static HotQuery toHotQuery(ResultSet rs) throws SQLException {
+    Date from = rs.getDate("video_date_from");
+    Date to = rs.getDate("video_date_to");
+    SearchCriteria criteria =
+        new SearchCriteria(
+            rs.getString("query"),
+            rs.getInt("amendments_mask"),
+            rs.getInt("participants_mask"),
+            rs.getString("state"),
+            rs.getObject("min_lat", Double.class),
+            rs.getObject("max_lat", Double.class),
+            rs.getObject("min_lng", Double.class),
+            rs.getObject("max_lng", Double.class),
+            new SearchRanges(
+                from != null ? from.toLocalDate() : null,
+                to != null ? to.toLocalDate() : null,
+                rs.getObject("min_duration", Integer.class),
+                rs.getObject("max_duration", Integer.class)),
+            SearchSort.valueOf(rs.getString("sort")));
+    return new HotQuery(criteria, rs.getLong("hits"));
+  }
+}
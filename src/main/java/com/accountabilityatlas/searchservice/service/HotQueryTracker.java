@@ -0,0 +1,85 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts searches by their canonical criteria in a {@link CountMinSketch} and keeps the {@code
+ * topK} most frequent, in memory that does not grow with the number of distinct searches.
+ *
+ * <p>A search enters the top list when its estimate passes the smallest one held, which then drops
+ * out. Counts are halved every {@code decayInterval}, so the list follows current traffic.
+ */
+@Component
+public class HotQueryTracker {
+
+  private static final Comparator<HotQuery> BY_COUNT = Comparator.comparingLong(HotQuery::count);
+
+  private final HotQueryProperties properties;
+  private final CountMinSketch sketch;
+
+  // The same top-K entries by criteria and smallest count first, guarded by this
+  private final Map<SearchCriteria, Long> top = new HashMap<>();
+  private final PriorityQueue<HotQuery> smallest = new PriorityQueue<>(BY_COUNT);
+
+  public HotQueryTracker(HotQueryProperties properties) {
+    this.properties = properties;
+    this.sketch = new CountMinSketch(properties.width(), properties.depth());
+  }
+
+  /** Counts one request for {@code criteria}, which must be in canonical form. */
+  public void record(SearchCriteria criteria) {
+    if (properties.enabled()) {
+      add(criteria, 1);
+    }
+  }
+
+  /** Adds counts carried over from elsewhere, such as those persisted before a restart. */
+  public synchronized void seed(List<HotQuery> queries) {
+    for (HotQuery query : queries) {
+      add(query.criteria(), query.count());
+    }
+  }
+
+  /** The {@code limit} most frequent searches, most frequent first. */
+  public synchronized List<HotQuery> top(int limit) {
+    return smallest.stream().sorted(BY_COUNT.reversed()).limit(limit).toList();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.search.hot-queries.decay-interval:PT1H}",
+      initialDelayString = "${app.search.hot-queries.decay-interval:PT1H}")
+  public synchronized void decay() {
+    sketch.halve();
+    List<HotQuery> halved =
+        smallest.stream().map(query -> new HotQuery(query.criteria(), query.count() / 2)).toList();
+    top.clear();
+    smallest.clear();
+    for (HotQuery query : halved) {
+      if (query.count() > 0) {
+        top.put(query.criteria(), query.count());
+        smallest.add(query);
+      }
+    }
+  }
+
+  private synchronized void add(SearchCriteria criteria, long count) {
+    long estimate = sketch.add(criteria, count);
+    Long previous = top.get(criteria);
+    if (previous != null) {
+      smallest.remove(new HotQuery(criteria, previous));
+    } else if (top.size() >= properties.topK()) {
+      if (estimate <= smallest.element().count()) {
+        return;
+      }
+      top.remove(smallest.remove().criteria());
+    }
+    top.put(criteria, estimate);
+    smallest.add(new HotQuery(criteria, estimate));
+  }
+}
@@ -0,0 +1,142 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-runs the most frequent searches, so the first users after a deploy or an index change find
+ * their result pages cached instead of paying for them.
+ *
+ * <p>On startup the counts persisted by earlier runs are loaded and warmed after {@code
+ * StartupWarmup}, and before readiness. After that, every {@code rewarmInterval} the searches are
+ * warmed again in the background if the index generation moved since the last warm-up, which
+ * covers both single-video changes and full reindexes. The top searches are written back every
+ * {@code persistInterval}.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class HotQueryWarmer implements ApplicationRunner, AutoCloseable {
+
+  // The first page at GET /search's default size, which is what most requests ask for
+  private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+  private final HotQueryProperties properties;
+  private final HotQueryTracker tracker;
+  private final HotQueryStore store;
+  private final SearchService searchService;
+  private final IndexGeneration indexGeneration;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          Thread.ofPlatform().name("hot-query-warmer").daemon().factory());
+  private final AtomicBoolean running = new AtomicBoolean();
+  private volatile long warmedGeneration = -1;
+
+  public HotQueryWarmer(
+      HotQueryProperties properties,
+      HotQueryTracker tracker,
+      HotQueryStore store,
+      SearchService searchService,
+      IndexGeneration indexGeneration) {
+    this.properties = properties;
+    this.tracker = tracker;
+    this.store = store;
+    this.searchService = searchService;
+    this.indexGeneration = indexGeneration;
+  }
+
+  /** Warms the persisted top searches before the instance reports ready. */
+  @Override
+  public void run(ApplicationArguments args) {
+    if (properties.enabled()) {
+      loadPersisted();
+      warm();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.search.hot-queries.rewarm-interval:PT10S}")
+  public void rewarmIfIndexChanged() {
+    // Skipped until the startup warm-up has run once
+    if (properties.enabled()
+        && warmedGeneration >= 0
+        && indexGeneration.current() != warmedGeneration) {
+      submit(this::warm);
+    }
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.search.hot-queries.persist-interval:PT5M}",
+      initialDelayString = "${app.search.hot-queries.persist-interval:PT5M}")
+  public void persist() {
+    if (!properties.enabled()) {
+      return;
+    }
+    try {
+      store.save(tracker.top(properties.topK()), Instant.now(), properties.retention());
+    } catch (DataAccessException e) {
+      log.warn("Failed to persist hot queries", e);
+    }
+  }
+
+  /** Runs the top {@code warmCount} searches through the result cache, most frequent first. */
+  void warm() {
+    // Read first, so a change committed while warming is warmed again next time
+    long generation = indexGeneration.current();
+    long startTime = System.currentTimeMillis();
+    int warmed = 0;
+    for (HotQuery hot : tracker.top(properties.warmCount())) {
+      try {
+        searchService.warm(hot.criteria(), FIRST_PAGE);
+        warmed++;
+      } catch (RuntimeException e) {
+        log.warn("Failed to warm search {}", hot.criteria(), e);
+      }
+    }
+    warmedGeneration = generation;
+    if (warmed > 0) {
+      log.debug(
+          "Warmed {} hot searches at generation {} in {}ms",
+          warmed,
+          generation,
+          System.currentTimeMillis() - startTime);
+    }
+  }
+
+  private void loadPersisted() {
+    try {
+      tracker.seed(store.findTop(properties.topK()));
+    } catch (DataAccessException e) {
+      log.warn("Failed to load persisted hot queries, starting with none", e);
+    }
+  }
+
+  private void submit(Runnable task) {
+    if (!running.compareAndSet(false, true)) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          try {
+            task.run();
+          } finally {
+            running.set(false);
+          }
+        });
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
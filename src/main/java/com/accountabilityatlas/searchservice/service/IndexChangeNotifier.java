@@ -0,0 +1,65 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Announces changes to {@code search_videos} to every instance through PostgreSQL {@code NOTIFY}.
+ *
+ * <p>The payload is {@code videoId,generation,instanceId}, with {@code *} in place of the
+ * video id when the whole table was replaced by a reindex. Notifications are transactional: they
+ * are delivered to listeners when the surrounding transaction commits and dropped if it rolls back,
+ * so a listener never sees a change that did not happen.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexChangeNotifier {
+
+  public static final String CHANNEL = "search_index_changed";
+  public static final String REBUILT = "*";
+
+  private static final String NOTIFY_SQL =
+      """
+      SELECT g.generation
+      FROM (SELECT nextval('search.index_generation') AS generation) g,
+           LATERAL (SELECT pg_notify(?, concat_ws(',', ?::text, g.generation, ?::text))) n
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final String instanceId = UUID.randomUUID().toString();
+
+  /** Identifies this process in notification payloads, so it can skip its own changes. */
+  public String instanceId() {
+    return instanceId;
+  }
+
+  /**
+   * Allocates the next index generation and queues a notification for {@code videoId}.
+   *
+   * @return the generation assigned to this change
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public long notifyChanged(UUID videoId) {
+    return send(videoId.toString());
+  }
+
+  /**
+   * Allocates the next index generation and queues a notification that every row may have changed.
+   *
+   * @return the generation assigned to the rebuild
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public long notifyRebuilt() {
+    return send(REBUILT);
+  }
+
+  private long send(String subject) {
+    Long generation =
+        jdbcTemplate.queryForObject(NOTIFY_SQL, Long.class, CHANNEL, subject, instanceId);
+    return generation != null ? generation : 0;
+  }
+}
@@ -0,0 +1,51 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Highest index generation this instance has applied, from its own commits and from other
+ * instances' notifications. Per-node caches can include it in their keys so entries computed
+ * before a change are never served after it.
+ *
+ * <p>It also remembers when it last moved, starting from construction since changes made before
+ * are unknown, so caches can tell how long ago the latest change may have been committed.
+ */
+@Component
+public class IndexGeneration {
+
+  private final AtomicLong current = new AtomicLong();
+  private volatile long advancedAt = System.nanoTime();
+
+  public long current() {
+    return current.get();
+  }
+
+  /** {@link System#nanoTime()} when the generation last moved. */
+  public long advancedAt() {
+    return advancedAt;
+  }
+
+  @TransactionalEventListener
+  public void onSearchIndexChanged(SearchIndexChangedEvent event) {
+    advanceTo(event.generation());
+  }
+
+  @EventListener
+  public void onRemoteIndexChanged(RemoteIndexChangedEvent event) {
+    advanceTo(event.generation());
+  }
+
+  @EventListener
+  public void onSearchIndexRebuilt(SearchIndexRebuiltEvent event) {
+    advanceTo(event.generation());
+  }
+
+  private void advanceTo(long generation) {
+    if (current.getAndAccumulate(generation, Math::max) < generation) {
+      advancedAt = System.nanoTime();
+    }
+  }
+}
@@ -1,25 +1,79 @@
 package com.accountabilityatlas.searchservice.service;
 
+import com.accountabilityatlas.searchservice.client.FetchedVideo;
 import com.accountabilityatlas.searchservice.client.VideoDetail;
 import com.accountabilityatlas.searchservice.client.VideoNotFoundException;
 import com.accountabilityatlas.searchservice.client.VideoServiceClient;
 import com.accountabilityatlas.searchservice.client.VideoServiceException;
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.ModerationWatermarks;
 import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import com.accountabilityatlas.searchservice.repository.ShadowSearchVideoTable;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Applies moderation events and reconciliation repairs to {@code search_videos}.
+ *
+ * <p>Videos are fetched from video-service, with its retries, backoff and hedging, before any
+ * transaction starts. Only the watermark check and the write run in one, so the watermark and
+ * index rows are locked for milliseconds rather than for the length of a slow fetch.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IndexingService {
 
   private final SearchVideoRepository searchVideoRepository;
+  private final ShadowSearchVideoTable shadowTable;
+  private final ModerationWatermarks moderationWatermarks;
+  private final FacetCounts facetCounts;
   private final VideoServiceClient videoServiceClient;
+  private final IndexChangeNotifier indexChangeNotifier;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Indexes a video approved at {@code approvedAt}, unless a moderation event for it at or after
+   * that time was already applied.
+   *
+   * @throws VideoServiceException if video-service is unavailable (triggers retry/DLQ)
+   */
+  public void approveVideo(UUID videoId, Instant approvedAt) {
+    if (isAlreadyApplied(videoId, approvedAt)) {
+      return;
+    }
+    Optional<FetchedVideo> approved = fetchApproved(videoId);
+    // Checked again: an event applied while fetching wins over this one
+    transactionTemplate.executeWithoutResult(
+        tx -> {
+          if (isNewestEvent(videoId, approvedAt)) {
+            approved.ifPresent(this::save);
+          }
+        });
+  }
+
+  /**
+   * Removes a video rejected at {@code rejectedAt}, unless a moderation event for it at or after
+   * that time was already applied.
+   */
+  @Transactional
+  public void rejectVideo(UUID videoId, Instant rejectedAt) {
+    if (isNewestEvent(videoId, rejectedAt)) {
+      removeVideo(videoId);
+    }
+  }
 
   /**
    * Indexes a video in the search database.
@@ -27,47 +81,143 @@ public class IndexingService {
    * @param videoId the video ID to index
    * @throws VideoServiceException if video-service is unavailable (triggers retry/DLQ)
    */
-  @Transactional
   public void indexVideo(UUID videoId) {
+    fetchApproved(videoId)
+        .ifPresent(fetched -> transactionTemplate.executeWithoutResult(tx -> save(fetched)));
+  }
+
+  /**
+   * Brings one video's index entry in line with video-service: indexes it if it is approved there
+   * and removes it otherwise. Used by {@link ReconciliationService} to repair drift. Does nothing
+   * if a moderation event for the video is applied meanwhile, as that event is newer than the
+   * repair.
+   *
+   * @param videoId the video ID to reconcile
+   * @throws VideoServiceException if video-service is unavailable
+   */
+  public void reconcileVideo(UUID videoId) {
+    Optional<Instant> watermark = moderationWatermarks.find(videoId);
+    Optional<FetchedVideo> approved;
+    try {
+      approved =
+          Optional.of(videoServiceClient.fetchVideo(videoId))
+              .filter(fetched -> "APPROVED".equals(fetched.video().status()));
+    } catch (VideoNotFoundException e) {
+      approved = Optional.empty();
+    }
+
+    Optional<FetchedVideo> repair = approved;
+    transactionTemplate.executeWithoutResult(
+        tx -> {
+          // Row locked first: an event still writing it lands after this repair, and an event
+          // that has committed shows in the watermark
+          searchVideoRepository.findByIdForUpdate(videoId);
+          if (!moderationWatermarks.find(videoId).equals(watermark)) {
+            log.info("Skipping repair of video {}, a moderation event was applied", videoId);
+            return;
+          }
+          repair.ifPresentOrElse(this::save, () -> removeVideo(videoId));
+        });
+  }
+
+  @Transactional
+  public void removeVideo(UUID videoId) {
+    // Locked, so a concurrent removal waits and then finds nothing left to uncount
+    Optional<SearchVideo> existing = searchVideoRepository.findByIdForUpdate(videoId);
+    if (existing.isPresent() && searchVideoRepository.deleteRowById(videoId) > 0) {
+      FacetCounts.Combination removed = FacetCounts.Combination.of(existing.get());
+      shadowTable.mirrorRemoval(videoId);
+      facetCounts.move(removed, null);
+      long generation = indexChangeNotifier.notifyChanged(videoId);
+      eventPublisher.publishEvent(SearchIndexChangedEvent.removed(videoId, generation));
+      log.info("Removed video {} from index", videoId);
+    } else {
+      log.debug("Video {} not found in index, nothing to remove", videoId);
+    }
+  }
+
+  /**
+   * Fetches the video for indexing; empty if video-service no longer has it or it is not approved.
+   *
+   * @throws VideoServiceException if video-service is unavailable (triggers retry/DLQ)
+   */
+  private Optional<FetchedVideo> fetchApproved(UUID videoId) {
     log.info("Indexing video {}", videoId);
 
-    VideoDetail video;
+    FetchedVideo fetched;
     try {
-      video = videoServiceClient.getVideo(videoId);
+      fetched = videoServiceClient.fetchVideo(videoId);
     } catch (VideoNotFoundException e) {
       // Video doesn't exist - this is expected if video was deleted after approval
       // Don't retry, just skip indexing
       log.warn(
           "Video {} not found in video-service, skipping indexing (may have been deleted)",
           videoId);
-      return;
+      return Optional.empty();
     }
     // VideoServiceException propagates up to trigger retry/DLQ
 
+    VideoDetail video = fetched.video();
     if (!"APPROVED".equals(video.status())) {
       log.warn("Video {} is not approved (status={}), skipping indexing", videoId, video.status());
-      return;
+      return Optional.empty();
     }
+    return Optional.of(fetched);
+  }
 
-    SearchVideo searchVideo = searchVideoRepository.findById(videoId).orElseGet(SearchVideo::new);
-
-    mapVideoToSearchVideo(video, searchVideo);
-    searchVideoRepository.save(searchVideo);
+  /** Unlocked pre-check that spares the fetch for an event that is already outdated. */
+  private boolean isAlreadyApplied(UUID videoId, Instant eventAt) {
+    if (eventAt == null) {
+      return false;
+    }
+    Optional<Instant> watermark = moderationWatermarks.find(videoId);
+    if (watermark.isPresent() && !watermark.get().isBefore(eventAt)) {
+      log.info(
+          "Skipping moderation event for video {} at {}, a newer one was applied",
+          videoId,
+          eventAt);
+      return true;
+    }
+    return false;
+  }
 
-    log.info("Successfully indexed video {}", videoId);
+  private boolean isNewestEvent(UUID videoId, Instant eventAt) {
+    // Events without a timestamp cannot be ordered, so they are always applied
+    if (eventAt == null || moderationWatermarks.advance(videoId, eventAt)) {
+      return true;
+    }
+    log.info(
+        "Skipping moderation event for video {} at {}, a newer one was applied", videoId, eventAt);
+    return false;
   }
 
-  @Transactional
-  public void removeVideo(UUID videoId) {
-    if (searchVideoRepository.existsById(videoId)) {
-      searchVideoRepository.deleteById(videoId);
-      log.info("Removed video {} from index", videoId);
-    } else {
-      log.debug("Video {} not found in index, nothing to remove", videoId);
+  private void save(FetchedVideo fetched) {
+    VideoDetail video = fetched.video();
+    // Locked, so a concurrent write waits and then moves the counts from this write's combination
+    Optional<SearchVideo> existing = searchVideoRepository.findByIdForUpdate(video.id());
+    SearchVideo searchVideo = existing.orElseGet(SearchVideo::new);
+    // A 304 alone is not enough: the cached copy may be from a fetch whose write rolled back
+    if (fetched.notModified()
+        && video.version() != null
+        && video.version().equals(searchVideo.getSourceVersion())) {
+      log.debug("Video {} is unchanged since it was indexed, skipping write", video.id());
+      return;
     }
+
+    // Taken before the mapping overwrites the values the video is counted under
+    FacetCounts.Combination previous = existing.map(FacetCounts.Combination::of).orElse(null);
+    mapVideoToSearchVideo(video, searchVideo);
+    searchVideoRepository.save(searchVideo);
+    shadowTable.mirror(searchVideo);
+    facetCounts.move(previous, FacetCounts.Combination.of(searchVideo));
+    long generation = indexChangeNotifier.notifyChanged(video.id());
+    eventPublisher.publishEvent(SearchIndexChangedEvent.indexed(searchVideo, generation));
+
+    log.info("Successfully indexed video {}", video.id());
   }
 
-  private void mapVideoToSearchVideo(VideoDetail video, SearchVideo searchVideo) {
+  /** Copies {@code video} onto {@code searchVideo}; shared with {@link ReindexService}. */
+  static void mapVideoToSearchVideo(VideoDetail video, SearchVideo searchVideo) {
     searchVideo.setId(video.id());
     searchVideo.setYoutubeId(video.youtubeId());
     searchVideo.setTitle(video.title());
@@ -77,10 +227,9 @@ public class IndexingService {
     searchVideo.setChannelId(video.channelId());
     searchVideo.setChannelName(video.channelName());
     searchVideo.setVideoDate(video.videoDate());
-    searchVideo.setAmendments(
-        video.amendments() != null ? video.amendments().toArray(new String[0]) : new String[0]);
-    searchVideo.setParticipants(
-        video.participants() != null ? video.participants().toArray(new String[0]) : new String[0]);
+    searchVideo.setAmendments(EnumMasks.parse(video.amendments(), Amendment.class));
+    searchVideo.setParticipants(EnumMasks.parse(video.participants(), Participant.class));
+    searchVideo.setSourceVersion(video.version());
     searchVideo.setIndexedAt(Instant.now());
 
     // Find primary location
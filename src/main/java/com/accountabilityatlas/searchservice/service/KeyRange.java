@@ -0,0 +1,51 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.math.BigInteger;
+import java.util.UUID;
+
+/**
+ * A half-open range {@code [from, to)} of the 128-bit uuid keyspace. Uuids are treated as unsigned
+ * big-endian numbers, which is the order PostgreSQL sorts and compares them in.
+ */
+record KeyRange(BigInteger from, BigInteger to) {
+
+  static final BigInteger END = BigInteger.ONE.shiftLeft(128);
+
+  static KeyRange all() {
+    return new KeyRange(BigInteger.ZERO, END);
+  }
+
+  UUID fromUuid() {
+    return toUuid(from);
+  }
+
+  /** The exclusive upper bound, or null when the range runs to the end of the keyspace. */
+  UUID toUuid() {
+    return to.equals(END) ? null : toUuid(to);
+  }
+
+  boolean canSplit() {
+    return to.subtract(from).compareTo(BigInteger.ONE) > 0;
+  }
+
+  KeyRange lowerHalf() {
+    return new KeyRange(from, midpoint());
+  }
+
+  KeyRange upperHalf() {
+    return new KeyRange(midpoint(), to);
+  }
+
+  /** This range's share of the whole keyspace, between 0 and 1. */
+  double fraction() {
+    return to.subtract(from).doubleValue() / END.doubleValue();
+  }
+
+  private BigInteger midpoint() {
+    return from.add(to).shiftRight(1);
+  }
+
+  private static UUID toUuid(BigInteger value) {
+    return new UUID(value.shiftRight(64).longValue(), value.longValue());
+  }
+}
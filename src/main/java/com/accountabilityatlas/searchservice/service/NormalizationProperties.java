@@ -0,0 +1,12 @@
+package com.accountabilityatlas.searchservice.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Search criteria normalization settings.
+ *
+ * @param bboxGrid grid size in degrees that bounding boxes are widened to, so nearby map
+ *     viewports share cache entries; {@code 0} searches the exact box
+ */
+@ConfigurationProperties(prefix = "app.search.normalization")
+public record NormalizationProperties(double bboxGrid) {}
@@ -0,0 +1,106 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Default {@link SearchBackend}: PostgreSQL full-text search over {@code search_videos}, with SQL
+ * rendered per search by {@link SearchSql}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostgresSearchBackend implements SearchBackend {
+
+  private final SearchVideoRepository searchVideoRepository;
+  private final FacetCounts facetCounts;
+  private final EntityManager entityManager;
+  private final RankingProperties rankingProperties;
+
+  @Override
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public Page<SearchVideo> search(SearchCriteria criteria, Pageable pageable) {
+    SearchSql sql = new SearchSql(criteria, rankingProperties.recencyWeight());
+    Query select = entityManager.createNativeQuery(sql.select(), SearchVideo.class);
+    sql.selectParameters().forEach(select::setParameter);
+    select.setFirstResult((int) pageable.getOffset());
+    select.setMaxResults(pageable.getPageSize());
+    List<SearchVideo> content = select.getResultList();
+    // Skips the count when this page shows the total already
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(sql));
+  }
+
+  /** One aggregate over the same filters as {@link #search}, grouped by {@code date_trunc}. */
+  @Override
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public List<DateBucket> histogram(SearchCriteria criteria, HistogramInterval interval) {
+    SearchSql sql = new SearchSql(criteria, rankingProperties.recencyWeight());
+    Query histogram = entityManager.createNativeQuery(sql.histogram(interval));
+    sql.countParameters().forEach(histogram::setParameter);
+    List<Object[]> rows = histogram.getResultList();
+    return rows.stream()
+        .map(row -> new DateBucket(toLocalDate(row[0]), ((Number) row[1]).longValue()))
+        .toList();
+  }
+
+  /**
+   * Read from the {@link FacetCounts} rollup when only its own dimensions are filtered, so the cost
+   * follows the number of combinations rather than of videos; otherwise one aggregate over the
+   * matching rows.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public List<FacetCounts.Count> facets(SearchCriteria criteria) {
+    if (!criteria.hasQuery() && !criteria.hasBoundingBox() && criteria.ranges().isEmpty()) {
+      return facetCounts.find(
+          criteria.state(), criteria.amendmentsMask(), criteria.participantsMask());
+    }
+    SearchSql sql = new SearchSql(criteria, rankingProperties.recencyWeight());
+    Query facets = entityManager.createNativeQuery(sql.facets());
+    sql.countParameters().forEach(facets::setParameter);
+    List<Object[]> rows = facets.getResultList();
+    return rows.stream().map(PostgresSearchBackend::toCount).toList();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<SearchVideo> findByIds(Collection<UUID> videoIds) {
+    if (videoIds.isEmpty()) {
+      return List.of();
+    }
+    return searchVideoRepository.findByIds(videoIds.toArray(UUID[]::new));
+  }
+
+  private long count(SearchSql sql) {
+    Query count = entityManager.createNativeQuery(sql.count());
+    sql.countParameters().forEach(count::setParameter);
+    return ((Number) count.getSingleResult()).longValue();
+  }
+
+  private static FacetCounts.Count toCount(Object[] row) {
+    FacetCounts.Combination combination =
+        new FacetCounts.Combination(
+            (String) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+    return new FacetCounts.Count(combination, ((Number) row[3]).longValue());
+  }
+
+  private static LocalDate toLocalDate(Object value) {
+    return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+  }
+}
@@ -0,0 +1,90 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.index.EnglishAnalyzer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewrites search criteria into one canonical form per distinct search, so caches keyed on {@link
+ * SearchCriteria} see "First Amendment", "first  amendment " and "amendment first" as the same
+ * search.
+ *
+ * <p>Every rewrite leaves the matches and their ranking unchanged, except bounding boxes, which are
+ * widened outwards to the {@link NormalizationProperties#bboxGrid() grid}. Amendment and
+ * participant filters need nothing here; they are already order-free bitmasks.
+ */
+@Component
+public class QueryNormalizer {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern PLAIN_WORDS = Pattern.compile("[\\p{L}\\p{N}]+( [\\p{L}\\p{N}]+)*");
+
+  private final BigDecimal bboxGrid;
+
+  public QueryNormalizer(NormalizationProperties properties) {
+    this.bboxGrid = properties.bboxGrid() > 0 ? BigDecimal.valueOf(properties.bboxGrid()) : null;
+  }
+
+  public SearchCriteria normalize(SearchCriteria criteria) {
+    boolean snap = criteria.hasBoundingBox() && bboxGrid != null;
+    return new SearchCriteria(
+        canonicalQuery(criteria.query()),
+        criteria.amendmentsMask(),
+        criteria.participantsMask(),
+        criteria.state(),
+        snap ? snap(criteria.minLat(), RoundingMode.FLOOR) : criteria.minLat(),
+        snap ? snap(criteria.maxLat(), RoundingMode.CEILING) : criteria.maxLat(),
+        snap ? snap(criteria.minLng(), RoundingMode.FLOOR) : criteria.minLng(),
+        snap ? snap(criteria.maxLng(), RoundingMode.CEILING) : criteria.maxLng(),
+        criteria.ranges(),
+        criteria.sort());
+  }
+
+  /**
+   * Lowercases and collapses whitespace. A query of plain words, which {@code plainto_tsquery}
+   * ANDs together regardless of order, is also reduced to one word per lexeme, sorted by lexeme,
+   * without stop words. Queries with punctuation are left in order: Postgres parses hyphenated
+   * words, e-mail addresses and URLs as tokens of their own.
+   *
+   * @return the canonical query, or null for a missing or blank one
+   */
+  static String canonicalQuery(String query) {
+    if (query == null || query.isBlank()) {
+      return null;
+    }
+    String collapsed = WHITESPACE.matcher(query.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    if (!PLAIN_WORDS.matcher(collapsed).matches()) {
+      return collapsed;
+    }
+    Map<String, String> wordsByLexeme = new LinkedHashMap<>();
+    for (String word : collapsed.split(" ")) {
+      String lexeme = EnglishAnalyzer.lexeme(word);
+      if (lexeme != null) {
+        wordsByLexeme.merge(lexeme, word, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+      }
+    }
+    if (wordsByLexeme.isEmpty()) {
+      // Only stop words, which match nothing; keep the query as typed
+      return collapsed;
+    }
+    List<String> words =
+        wordsByLexeme.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .map(Map.Entry::getValue)
+            .toList();
+    return String.join(" ", words);
+  }
+
+  private double snap(double degrees, RoundingMode rounding) {
+    return BigDecimal.valueOf(degrees)
+        .divide(bboxGrid, 0, rounding)
+        .multiply(bboxGrid)
+        .doubleValue();
+  }
+}
@@ -0,0 +1,40 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * How the Postgres backend orders full-text matches.
+ *
+ * @param mode {@code text} ranks by text relevance alone; {@code blended} multiplies it by a decay
+ *     on the video's age
+ * @param halfLife age at which a video's blended rank is halved
+ */
+@ConfigurationProperties(prefix = "app.search.ranking")
+public record RankingProperties(Mode mode, Duration halfLife) {
+
+  private static final Duration YEAR = Duration.ofHours(8766);
+
+  public enum Mode {
+    TEXT,
+    BLENDED
+  }
+
+  public RankingProperties {
+    if (mode == null) {
+      mode = Mode.TEXT;
+    }
+    if (halfLife == null || halfLife.toSeconds() <= 0) {
+      halfLife = Duration.ofDays(730);
+    }
+  }
+
+  /**
+   * Weight of {@code static_score} against the log of the text rank. {@code static_score} is
+   * {@code ln(2)} per year of {@code video_date}, so dividing it by the half-life in years gives
+   * the log of the decay.
+   */
+  public double recencyWeight() {
+    return mode == Mode.BLENDED ? (double) YEAR.toSeconds() / halfLife.toSeconds() : 0;
+  }
+}
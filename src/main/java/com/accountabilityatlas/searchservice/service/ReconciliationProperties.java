@@ -0,0 +1,34 @@
+package com.accountabilityatlas.searchservice.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Reconciliation settings. The job itself is switched on by {@code enabled} and scheduled by
+ * {@code cron}, both read where the job is declared.
+ *
+ * @param enabled whether this instance takes part in reconciliation
+ * @param cron when reconciliation runs; only one instance runs it at a time
+ * @param leafSize id ranges holding at most this many videos on both sides are compared id by id
+ *     instead of being split further
+ * @param maxPending drifted ids queued before the comparison pauses to repair them
+ * @param repairsPerSecond most drifted videos re-indexed or removed per second
+ */
+@ConfigurationProperties(prefix = "app.search.reconciliation")
+public record ReconciliationProperties(
+    boolean enabled, String cron, int leafSize, int maxPending, int repairsPerSecond) {
+
+  public ReconciliationProperties {
+    if (cron == null || cron.isBlank()) {
+      cron = "0 30 3 * * *";
+    }
+    if (leafSize <= 0) {
+      leafSize = 256;
+    }
+    if (maxPending <= 0) {
+      maxPending = 1000;
+    }
+    if (repairsPerSecond <= 0) {
+      repairsPerSecond = 20;
+    }
+  }
+}
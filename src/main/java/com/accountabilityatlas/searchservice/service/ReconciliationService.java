@@ -0,0 +1,254 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.client.RangeDigest;
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import com.accountabilityatlas.searchservice.client.VideoServiceException;
+import com.accountabilityatlas.searchservice.client.VideoVersion;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds and repairs drift between {@code search_videos} and video-service's approved videos, such
+ * as videos whose moderation events were lost or dead-lettered.
+ *
+ * <p>Both sides digest their {@code (id, version)} pairs over a uuid range. Matching ranges are
+ * done with after one comparison; a mismatched range is halved until each half holds at most
+ * {@code leafSize} videos, and only then are ids listed and compared one by one. An unchanged index
+ * therefore costs a single digest per run.
+ *
+ * <p>Drifted ids are queued and handed to {@link IndexingService#reconcileVideo}, which re-reads
+ * the video and indexes or removes it, at no more than {@code repairsPerSecond}. Because each
+ * repair re-reads video-service, a difference caused by an event still in flight is harmless.
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.reconciliation.enabled", havingValue = "true")
+@Slf4j
+public class ReconciliationService {
+
+  // Arbitrary application-wide key for pg_try_advisory_lock
+  private static final long RECONCILIATION_LOCK_KEY = 0x5345_4152_4348_0002L;
+
+  enum Drift {
+    MISSING,
+    STALE,
+    ORPHANED
+  }
+
+  private final VideoServiceClient videoServiceClient;
+  private final SearchVideoRepository searchVideoRepository;
+  private final IndexingService indexingService;
+  private final AdvisoryLock advisoryLock;
+  private final ReconciliationProperties properties;
+
+  private final Queue<UUID> pending = new LinkedBlockingQueue<>();
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final Counter matchedRanges;
+  private final Counter mismatchedRanges;
+  private final Map<Drift, Counter> drift = new EnumMap<>(Drift.class);
+  private final Counter repairs;
+  private final Counter failedRepairs;
+  private final Timer duration;
+  private volatile double progress;
+  private long nextRepairAt;
+
+  public ReconciliationService(
+      VideoServiceClient videoServiceClient,
+      SearchVideoRepository searchVideoRepository,
+      IndexingService indexingService,
+      AdvisoryLock advisoryLock,
+      ReconciliationProperties properties,
+      MeterRegistry meterRegistry) {
+    this.videoServiceClient = videoServiceClient;
+    this.searchVideoRepository = searchVideoRepository;
+    this.indexingService = indexingService;
+    this.advisoryLock = advisoryLock;
+    this.properties = properties;
+
+    matchedRanges = rangeCounter("match", meterRegistry);
+    mismatchedRanges = rangeCounter("mismatch", meterRegistry);
+    for (Drift kind : Drift.values()) {
+      drift.put(
+          kind,
+          Counter.builder("search.reconciliation.drift")
+              .description("Ids found missing from, stale in or orphaned in the index")
+              .tag("kind", kind.name().toLowerCase())
+              .register(meterRegistry));
+    }
+    repairs = repairCounter("success", meterRegistry);
+    failedRepairs = repairCounter("failure", meterRegistry);
+    duration =
+        Timer.builder("search.reconciliation.duration")
+            .description("Time taken by reconciliation runs")
+            .register(meterRegistry);
+    Gauge.builder("search.reconciliation.progress", this, s -> s.progress)
+        .description("Share of the id keyspace compared by the current or last run")
+        .register(meterRegistry);
+    Gauge.builder("search.reconciliation.pending", pending, Queue::size)
+        .description("Drifted ids waiting to be repaired")
+        .register(meterRegistry);
+  }
+
+  /** Starts a run in the background unless one is already running here. */
+  @Scheduled(cron = "${app.search.reconciliation.cron:0 30 3 * * *}")
+  public void start() {
+    if (running.compareAndSet(false, true)) {
+      Thread.ofPlatform()
+          .name("search-reconciliation")
+          .start(
+              () -> {
+                try {
+                  reconcile();
+                } finally {
+                  running.set(false);
+                }
+              });
+    }
+  }
+
+  /** Runs reconciliation on the calling thread if no other instance is running it. */
+  void reconcile() {
+    long startTime = System.nanoTime();
+    try {
+      if (!advisoryLock.runExclusively(RECONCILIATION_LOCK_KEY, this::compareKeyspace)) {
+        log.info("Reconciliation is already running on another instance");
+        return;
+      }
+      log.info(
+          "Reconciliation finished in {}ms",
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    } catch (RuntimeException e) {
+      log.error("Reconciliation failed, the next run starts over", e);
+      pending.clear();
+    } finally {
+      duration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void compareKeyspace() {
+    progress = 0;
+    Deque<KeyRange> ranges = new ArrayDeque<>();
+    ranges.push(KeyRange.all());
+    while (!ranges.isEmpty()) {
+      KeyRange range = ranges.pop();
+      RangeDigest local = localDigest(range);
+      RangeDigest remote = videoServiceClient.getApprovedDigest(range.fromUuid(), range.toUuid());
+      if (local.matches(remote)) {
+        matchedRanges.increment();
+        progress += range.fraction();
+        continue;
+      }
+      mismatchedRanges.increment();
+
+      if (Math.max(local.count(), remote.count()) > properties.leafSize() && range.canSplit()) {
+        // Lower half on top, so the keyspace is covered in order
+        ranges.push(range.upperHalf());
+        ranges.push(range.lowerHalf());
+      } else {
+        compareIds(range);
+        progress += range.fraction();
+        if (pending.size() >= properties.maxPending()) {
+          repairPending();
+        }
+      }
+    }
+    repairPending();
+  }
+
+  private RangeDigest localDigest(KeyRange range) {
+    SearchVideoRepository.RangeDigestView view =
+        searchVideoRepository.digestRange(range.fromUuid().toString(), toString(range.toUuid()));
+    return new RangeDigest(view.getCount(), view.getDigest());
+  }
+
+  private void compareIds(KeyRange range) {
+    Map<UUID, Long> local = new HashMap<>();
+    for (SearchVideoRepository.VersionView row :
+        searchVideoRepository.findVersionsInRange(
+            range.fromUuid().toString(), toString(range.toUuid()))) {
+      local.put(row.getId(), row.getSourceVersion());
+    }
+    for (VideoVersion video :
+        videoServiceClient.getApprovedVersions(range.fromUuid(), range.toUuid())) {
+      if (!local.containsKey(video.id())) {
+        enqueue(video.id(), Drift.MISSING);
+      } else if (!Objects.equals(local.remove(video.id()), video.version())) {
+        enqueue(video.id(), Drift.STALE);
+      }
+    }
+    // Whatever video-service did not list is no longer approved there
+    local.keySet().forEach(videoId -> enqueue(videoId, Drift.ORPHANED));
+  }
+
+  private void enqueue(UUID videoId, Drift kind) {
+    log.debug("Video {} is {} in the index", videoId, kind.name().toLowerCase());
+    drift.get(kind).increment();
+    pending.add(videoId);
+  }
+
+  private void repairPending() {
+    UUID videoId;
+    while ((videoId = pending.poll()) != null) {
+      awaitRepairSlot();
+      try {
+        indexingService.reconcileVideo(videoId);
+        repairs.increment();
+      } catch (VideoServiceException e) {
+        failedRepairs.increment();
+        if (e.isRetryable()) {
+          throw e;
+        }
+        log.warn("Could not reconcile video {}: {}", videoId, e.getMessage());
+      }
+    }
+  }
+
+  private void awaitRepairSlot() {
+    long now = System.nanoTime();
+    if (nextRepairAt > now) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(nextRepairAt - now);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted during reconciliation", e);
+      }
+    }
+    nextRepairAt =
+        Math.max(nextRepairAt, now) + TimeUnit.SECONDS.toNanos(1) / properties.repairsPerSecond();
+  }
+
+  private static Counter rangeCounter(String result, MeterRegistry meterRegistry) {
+    return Counter.builder("search.reconciliation.ranges")
+        .description("Id ranges whose digests were compared with video-service")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  private static Counter repairCounter(String outcome, MeterRegistry meterRegistry) {
+    return Counter.builder("search.reconciliation.repairs")
+        .description("Drifted videos re-indexed or removed")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private static String toString(UUID uuid) {
+    return uuid != null ? uuid.toString() : null;
+  }
+}
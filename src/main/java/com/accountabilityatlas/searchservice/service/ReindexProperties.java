@@ -0,0 +1,28 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Full reindex settings.
+ *
+ * @param pageSize approved videos fetched from video-service and copied per batch
+ * @param swapLockTimeout longest the table swap may wait for its exclusive lock before retrying;
+ *     searches arriving meanwhile queue behind it
+ * @param swapAttempts how many times the swap is attempted before the rebuild is abandoned
+ */
+@ConfigurationProperties(prefix = "app.search.reindex")
+public record ReindexProperties(int pageSize, Duration swapLockTimeout, int swapAttempts) {
+
+  public ReindexProperties {
+    if (pageSize <= 0) {
+      pageSize = 500;
+    }
+    if (swapLockTimeout == null) {
+      swapLockTimeout = Duration.ofSeconds(2);
+    }
+    if (swapAttempts <= 0) {
+      swapAttempts = 5;
+    }
+  }
+}
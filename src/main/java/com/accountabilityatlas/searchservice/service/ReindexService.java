@@ -0,0 +1,183 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.client.VideoDetail;
+import com.accountabilityatlas.searchservice.client.VideoPage;
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import com.accountabilityatlas.searchservice.client.VideoServiceException;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.ShadowSearchVideoTable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds {@code search_videos} from every approved video in video-service.
+ *
+ * <p>Pages of approved videos are mapped exactly like {@link IndexingService} maps a single one,
+ * copied into a {@link ShadowSearchVideoTable}, indexed once loaded and then swapped in with a
+ * rename. Live searches keep reading the old table until the swap, and live index writes are
+ * dual-written into the shadow meanwhile, so nothing is lost or degraded during the rebuild.
+ *
+ * <p>An {@link AdvisoryLock} keeps a second instance from rebuilding at the same time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReindexService {
+
+  // Arbitrary application-wide key for pg_try_advisory_lock
+  private static final long REINDEX_LOCK_KEY = 0x5345_4152_4348_0001L;
+  private static final int FETCH_ATTEMPTS = 3;
+
+  private final VideoServiceClient videoServiceClient;
+  private final ShadowSearchVideoTable shadowTable;
+  private final FacetCounts facetCounts;
+  private final IndexChangeNotifier indexChangeNotifier;
+  private final AdvisoryLock advisoryLock;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ReindexProperties properties;
+
+  private final AtomicReference<ReindexStatus> status =
+      new AtomicReference<>(ReindexStatus.idle());
+
+  public ReindexStatus status() {
+    return status.get();
+  }
+
+  /**
+   * Starts a rebuild in the background unless one is already running here.
+   *
+   * @return the status of the rebuild now in progress
+   */
+  public synchronized ReindexStatus start() {
+    if (status.get().state() != ReindexStatus.State.RUNNING) {
+      status.set(ReindexStatus.running(Instant.now()));
+      Thread.ofPlatform().name("search-reindex").start(this::rebuild);
+    }
+    return status.get();
+  }
+
+  /** Runs a rebuild on the calling thread, recording the outcome in {@link #status()}. */
+  void rebuild() {
+    long startTime = System.currentTimeMillis();
+    status.updateAndGet(
+        current ->
+            current.state() == ReindexStatus.State.RUNNING
+                ? current
+                : ReindexStatus.running(Instant.now()));
+    try {
+      if (!advisoryLock.runExclusively(REINDEX_LOCK_KEY, this::rebuildShadow)) {
+        status.updateAndGet(
+            current -> current.failed("A reindex is already running on another instance"));
+        return;
+      }
+      status.updateAndGet(ReindexStatus::succeeded);
+      log.info(
+          "Reindexed {} videos in {}ms",
+          status.get().videosLoaded(),
+          System.currentTimeMillis() - startTime);
+    } catch (RuntimeException e) {
+      log.error("Reindex failed", e);
+      status.updateAndGet(current -> current.failed(e.getMessage()));
+    }
+  }
+
+  private void rebuildShadow() {
+    shadowTable.create();
+    try {
+      loadShadow();
+      shadowTable.buildIndexes();
+      long generation = swap();
+      eventPublisher.publishEvent(new SearchIndexRebuiltEvent(generation));
+    } catch (RuntimeException e) {
+      shadowTable.drop();
+      throw e;
+    }
+  }
+
+  private void loadShadow() {
+    long loaded = 0;
+    int page = 0;
+    VideoPage videos;
+    do {
+      // Stamp rows with the time they were fetched, so a live write of fresher data wins the merge
+      Instant fetchedAt = Instant.now();
+      videos = fetchPage(page++);
+      List<SearchVideo> rows = new ArrayList<>(videos.content().size());
+      for (VideoDetail video : videos.content()) {
+        if ("APPROVED".equals(video.status())) {
+          SearchVideo row = new SearchVideo();
+          IndexingService.mapVideoToSearchVideo(video, row);
+          row.setIndexedAt(fetchedAt);
+          rows.add(row);
+        }
+      }
+      if (!rows.isEmpty()) {
+        shadowTable.load(rows);
+        loaded += rows.size();
+        long total = loaded;
+        status.updateAndGet(current -> current.withVideosLoaded(total));
+      }
+    } while (!videos.last());
+
+    if (loaded == 0) {
+      throw new IllegalStateException("video-service listed no approved videos, keeping index");
+    }
+  }
+
+  private VideoPage fetchPage(int page) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return videoServiceClient.getApprovedVideos(page, properties.pageSize());
+      } catch (VideoServiceException e) {
+        if (!e.isRetryable() || attempt >= FETCH_ATTEMPTS) {
+          throw e;
+        }
+        log.warn("Retrying page {} of approved videos: {}", page, e.getMessage());
+        sleep(1000L * attempt);
+      }
+    }
+  }
+
+  private long swap() {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        Long generation =
+            transactionTemplate.execute(
+                tx -> {
+                  shadowTable.swap(properties.swapLockTimeout());
+                  facetCounts.recount();
+                  return indexChangeNotifier.notifyRebuilt();
+                });
+        return generation != null ? generation : 0;
+      } catch (PessimisticLockingFailureException e) {
+        if (attempt >= properties.swapAttempts()) {
+          throw e;
+        }
+        log.warn(
+            "Table swap timed out waiting for its lock (attempt {} of {}), retrying",
+            attempt,
+            properties.swapAttempts());
+        sleep(properties.swapLockTimeout().toMillis());
+      }
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during reindex", e);
+    }
+  }
+}
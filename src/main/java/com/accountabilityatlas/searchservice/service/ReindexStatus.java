@@ -0,0 +1,35 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Instant;
+
+/** Progress of the most recent full reindex on this instance. */
+public record ReindexStatus(
+    State state, Instant startedAt, Instant finishedAt, long videosLoaded, String error) {
+
+  public enum State {
+    IDLE,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+  }
+
+  static ReindexStatus idle() {
+    return new ReindexStatus(State.IDLE, null, null, 0, null);
+  }
+
+  static ReindexStatus running(Instant startedAt) {
+    return new ReindexStatus(State.RUNNING, startedAt, null, 0, null);
+  }
+
+  ReindexStatus withVideosLoaded(long videosLoaded) {
+    return new ReindexStatus(state, startedAt, finishedAt, videosLoaded, error);
+  }
+
+  ReindexStatus succeeded() {
+    return new ReindexStatus(State.SUCCEEDED, startedAt, Instant.now(), videosLoaded, null);
+  }
+
+  ReindexStatus failed(String error) {
+    return new ReindexStatus(State.FAILED, startedAt, Instant.now(), videosLoaded, error);
+  }
+}
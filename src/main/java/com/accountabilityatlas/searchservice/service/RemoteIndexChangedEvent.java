@@ -0,0 +1,12 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.UUID;
+
+/**
+ * Another instance committed a change to {@code search_videos}. Unlike {@link
+ * SearchIndexChangedEvent} it carries no row, so listeners must re-read the video.
+ *
+ * @param videoId the affected video
+ * @param generation the index generation assigned to the change
+ */
+public record RemoteIndexChangedEvent(UUID videoId, long generation) {}
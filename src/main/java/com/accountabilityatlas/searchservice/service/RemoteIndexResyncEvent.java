@@ -0,0 +1,12 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Instant;
+
+/**
+ * Change notifications from other instances may have been missed, because the listening connection
+ * was down. Listeners should re-read rows indexed since {@code since}, plus whatever overlap they
+ * need for transactions that committed out of {@code indexed_at} order.
+ *
+ * @param since when the listener last knew it was receiving notifications
+ */
+public record RemoteIndexResyncEvent(Instant since) {}
@@ -0,0 +1,25 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Search result cache settings.
+ *
+ * @param enabled whether result pages are cached at all
+ * @param capacity result pages kept, least recently used evicted first
+ * @param timeToLive longest a page is served for; index changes invalidate sooner, this bounds
+ *     staleness when another instance's change notification is missed
+ */
+@ConfigurationProperties(prefix = "app.search.result-cache")
+public record ResultCacheProperties(boolean enabled, int capacity, Duration timeToLive) {
+
+  public ResultCacheProperties {
+    if (capacity <= 0) {
+      capacity = 1000;
+    }
+    if (timeToLive == null) {
+      timeToLive = Duration.ofSeconds(30);
+    }
+  }
+}
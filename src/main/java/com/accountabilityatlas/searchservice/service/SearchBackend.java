@@ -0,0 +1,31 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Executes searches against one index implementation.
+ *
+ * <p>Every implementation must honour the same contract as the PostgreSQL query: all query lexemes
+ * must match, results are ordered by weighted relevance (title > channel > description) and then by
+ * newest video date, and an empty query returns everything newest video date first. Videos without
+ * a date sort as 1970-01-01, and remaining ties go to the most recently indexed.
+ */
+public interface SearchBackend {
+
+  Page<SearchVideo> search(SearchCriteria criteria, Pageable pageable);
+
+  /** Counts the videos matching {@code criteria} per {@code interval} of their video date. */
+  List<DateBucket> histogram(SearchCriteria criteria, HistogramInterval interval);
+
+  /** Counts the videos matching {@code criteria} per state, amendments and participants. */
+  List<FacetCounts.Count> facets(SearchCriteria criteria);
+
+  /** Loads indexed videos by id, in no particular order; ids that are not indexed are skipped. */
+  List<SearchVideo> findByIds(Collection<UUID> videoIds);
+}
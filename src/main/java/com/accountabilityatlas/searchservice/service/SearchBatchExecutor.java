@@ -0,0 +1,56 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the searches of batch requests on a fixed pool, {@link SearchBatchProperties#parallelism()}
+ * at a time across all requests. Each search runs in its own read-only transaction.
+ */
+@Component
+public class SearchBatchExecutor implements AutoCloseable {
+
+  private final SearchBatchProperties properties;
+  private final ExecutorService executor;
+
+  public SearchBatchExecutor(SearchBatchProperties properties) {
+    this.properties = properties;
+    this.executor =
+        Executors.newFixedThreadPool(
+            properties.parallelism(), Thread.ofPlatform().name("search-batch-", 0).factory());
+  }
+
+  public int maxSearches() {
+    return properties.maxSearches();
+  }
+
+  /**
+   * Runs every search concurrently and waits for all of them.
+   *
+   * @return the results in the order the searches were given
+   * @throws RuntimeException the first failure, after the remaining searches are cancelled
+   */
+  public <T> List<T> invokeAll(List<Supplier<T>> searches) {
+    List<CompletableFuture<T>> futures =
+        searches.stream().map(search -> CompletableFuture.supplyAsync(search, executor)).toList();
+    try {
+      return futures.stream().map(CompletableFuture::join).toList();
+    } catch (CompletionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
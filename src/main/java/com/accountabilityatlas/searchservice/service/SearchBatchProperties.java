@@ -0,0 +1,23 @@
+package com.accountabilityatlas.searchservice.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Batch search settings.
+ *
+ * @param maxSearches most searches accepted in one batch request
+ * @param parallelism searches from all batch requests run at once; the rest wait their turn, so
+ *     a burst of page loads cannot take every database connection
+ */
+@ConfigurationProperties(prefix = "app.search.batch")
+public record SearchBatchProperties(int maxSearches, int parallelism) {
+
+  public SearchBatchProperties {
+    if (maxSearches <= 0) {
+      maxSearches = 20;
+    }
+    if (parallelism <= 0) {
+      parallelism = 4;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.accountabilityatlas.searchservice.service;
+
+/**
+ * Validated search parameters handed to a {@link SearchBackend}.
+ *
+ * @param query full-text query in {@link QueryNormalizer#canonicalQuery canonical form}, or {@code
+ *     null} to match everything
+ * @param amendmentsMask amendment bitmask to overlap with, or {@code 0} for no filter
+ * @param participantsMask participant bitmask to overlap with, or {@code 0} for no filter
+ * @param state exact primary location state, or {@code null} for no filter
+ * @param minLat bounding box bounds; all {@code null} for no geo filter
+ * @param ranges video date and duration bounds
+ * @param sort result order
+ */
+public record SearchCriteria(
+    String query,
+    int amendmentsMask,
+    int participantsMask,
+    String state,
+    Double minLat,
+    Double maxLat,
+    Double minLng,
+    Double maxLng,
+    SearchRanges ranges,
+    SearchSort sort) {
+
+  public SearchCriteria {
+    if (ranges == null) {
+      ranges = SearchRanges.NONE;
+    }
+    if (sort == null) {
+      sort = SearchSort.RELEVANCE;
+    }
+  }
+
+  /** Criteria without date or duration bounds, in {@link SearchSort#RELEVANCE} order. */
+  public SearchCriteria(
+      String query,
+      int amendmentsMask,
+      int participantsMask,
+      String state,
+      Double minLat,
+      Double maxLat,
+      Double minLng,
+      Double maxLng) {
+    this(
+        query,
+        amendmentsMask,
+        participantsMask,
+        state,
+        minLat,
+        maxLat,
+        minLng,
+        maxLng,
+        SearchRanges.NONE,
+        SearchSort.RELEVANCE);
+  }
+
+  public boolean hasQuery() {
+    return query != null;
+  }
+
+  public boolean hasBoundingBox() {
+    return minLat != null && maxLat != null && minLng != null && maxLng != null;
+  }
+}
@@ -0,0 +1,46 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Matching videos per amendment, participant and primary location state. A video counts once under
+ * each of its amendments and participants, so those counts can add up to more than {@code
+ * totalMatching}; values no matching video has are left out.
+ */
+public record SearchFacets(
+    Map<String, Long> amendments,
+    Map<String, Long> participants,
+    Map<String, Long> states,
+    long totalMatching,
+    long queryTimeMs) {
+
+  /** Adds up per-combination counts into one count per value, with keys in sorted order. */
+  static SearchFacets tally(List<FacetCounts.Count> counts, long queryTimeMs) {
+    Map<String, Long> amendments = new TreeMap<>();
+    Map<String, Long> participants = new TreeMap<>();
+    Map<String, Long> states = new TreeMap<>();
+    long total = 0;
+    for (FacetCounts.Count count : counts) {
+      FacetCounts.Combination combination = count.combination();
+      for (Amendment amendment :
+          EnumMasks.fromMask(combination.amendmentsMask(), Amendment.class)) {
+        amendments.merge(amendment.name(), count.videos(), Long::sum);
+      }
+      for (Participant participant :
+          EnumMasks.fromMask(combination.participantsMask(), Participant.class)) {
+        participants.merge(participant.name(), count.videos(), Long::sum);
+      }
+      if (combination.state() != null) {
+        states.merge(combination.state(), count.videos(), Long::sum);
+      }
+      total += count.videos();
+    }
+    return new SearchFacets(amendments, participants, states, total, queryTimeMs);
+  }
+}
@@ -0,0 +1,28 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import java.util.UUID;
+
+/**
+ * Published by {@link IndexingService} when a row of {@code search_videos} is written or deleted.
+ * Listeners that mirror the table should use {@code @TransactionalEventListener} so they only see
+ * committed changes.
+ *
+ * @param videoId the affected video
+ * @param video the indexed row, or {@code null} if the video was removed
+ * @param generation the index generation assigned to the change
+ */
+public record SearchIndexChangedEvent(UUID videoId, SearchVideo video, long generation) {
+
+  public static SearchIndexChangedEvent indexed(SearchVideo video, long generation) {
+    return new SearchIndexChangedEvent(video.getId(), video, generation);
+  }
+
+  public static SearchIndexChangedEvent removed(UUID videoId, long generation) {
+    return new SearchIndexChangedEvent(videoId, null, generation);
+  }
+
+  public boolean isRemoval() {
+    return video == null;
+  }
+}
@@ -0,0 +1,8 @@
+package com.accountabilityatlas.searchservice.service;
+
+/**
+ * Published after a full reindex replaced {@code search_videos}, locally by {@link ReindexService}
+ * and on other instances from its notification. Every row may have changed, so per-row caches of
+ * the table must be rebuilt.
+ */
+public record SearchIndexRebuiltEvent(long generation) {}
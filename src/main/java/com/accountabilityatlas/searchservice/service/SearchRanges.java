@@ -0,0 +1,20 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.time.LocalDate;
+
+/**
+ * Inclusive bounds on a video's date and duration. A {@code null} bound leaves that side open.
+ *
+ * @param from earliest {@code video_date}
+ * @param to latest {@code video_date}
+ * @param minDuration shortest {@code duration_seconds}
+ * @param maxDuration longest {@code duration_seconds}
+ */
+public record SearchRanges(LocalDate from, LocalDate to, Integer minDuration, Integer maxDuration) {
+
+  public static final SearchRanges NONE = new SearchRanges(null, null, null, null);
+
+  public boolean isEmpty() {
+    return from == null && to == null && minDuration == null && maxDuration == null;
+  }
+}
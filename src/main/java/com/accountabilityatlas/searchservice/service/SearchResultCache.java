@@ -0,0 +1,144 @@
+package com.accountabilityatlas.searchservice.service;
+
+import com.accountabilityatlas.searchservice.config.ReadReplicaProperties;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recently served result pages and date histograms, keyed by criteria, page or interval and {@link
+ * IndexGeneration}.
+ *
+ * <p>Home page carousels ask the same handful of questions on every load, and timelines the same
+ * histograms, so most of them are answered here without a query. Entries computed before an index
+ * change are keyed by an older generation and are never served after it; they age out of the LRU
+ * order instead.
+ *
+ * <p>With read replicas, a search run just after a change may read a replica that has not replayed
+ * it yet, and would be cached under the new generation. Results are therefore not cached until the
+ * generation has been stable for the longest lag a routed replica can have: {@code
+ * app.datasource.read-replicas.max-lag} plus one {@code lag-check-interval}, since lag can grow
+ * between checks. Searches that read the primary, see {@link #getFromPrimary}, are cached at once.
+ */
+@Component
+public class SearchResultCache {
+
+  /** {@code request} is the {@link Pageable} of a page or the {@link HistogramInterval}. */
+  private record Key(SearchCriteria criteria, Object request, long generation) {}
+
+  private record Entry(Object value, long expiresAt) {}
+
+  private final ResultCacheProperties properties;
+  private final IndexGeneration indexGeneration;
+  private final long replicaSettleNanos;
+  private final Map<Key, Entry> entries;
+  private final Counter hits;
+  private final Counter misses;
+
+  public SearchResultCache(
+      ResultCacheProperties properties,
+      ReadReplicaProperties replicaProperties,
+      IndexGeneration indexGeneration,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.indexGeneration = indexGeneration;
+    this.replicaSettleNanos =
+        replicaProperties.enabled()
+            ? replicaProperties.maxLag().plus(replicaProperties.lagCheckInterval()).toNanos()
+            : 0;
+    int capacity = properties.capacity();
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > capacity;
+          }
+        };
+    hits = requestCounter("hit", meterRegistry);
+    misses = requestCounter("miss", meterRegistry);
+    Gauge.builder("search.result_cache.size", this, SearchResultCache::size)
+        .description("Search result pages and histograms held in the result cache")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached page for {@code criteria} and {@code pageable} at the current index
+   * generation, or runs {@code search} and caches what it returns.
+   */
+  public Page<SearchVideo> get(
+      SearchCriteria criteria, Pageable pageable, Supplier<Page<SearchVideo>> search) {
+    return cached(criteria, pageable, search, false);
+  }
+
+  /**
+   * Like {@link #get}, for a {@code search} that reads the primary, so its page is cached even
+   * right after an index change.
+   */
+  public Page<SearchVideo> getFromPrimary(
+      SearchCriteria criteria, Pageable pageable, Supplier<Page<SearchVideo>> search) {
+    return cached(criteria, pageable, search, true);
+  }
+
+  /**
+   * Returns the cached histogram for {@code criteria} and {@code interval} at the current index
+   * generation, or runs {@code histogram} and caches what it returns.
+   */
+  public List<DateBucket> histogram(
+      SearchCriteria criteria, HistogramInterval interval, Supplier<List<DateBucket>> histogram) {
+    return cached(criteria, interval, histogram, false);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T cached(
+      SearchCriteria criteria, Object request, Supplier<T> compute, boolean fromPrimary) {
+    if (!properties.enabled()) {
+      return compute.get();
+    }
+    // Read before computing, so a change committed meanwhile leaves this entry behind
+    Key key = new Key(criteria, request, indexGeneration.current());
+    long now = System.nanoTime();
+    Entry entry = lookup(key, now);
+    if (entry != null) {
+      hits.increment();
+      return (T) entry.value();
+    }
+    misses.increment();
+    T value = compute.get();
+    if (!fromPrimary && now - indexGeneration.advancedAt() < replicaSettleNanos) {
+      // Possibly read from a replica that is still behind the latest change
+      return value;
+    }
+    synchronized (this) {
+      entries.put(key, new Entry(value, now + properties.timeToLive().toNanos()));
+    }
+    return value;
+  }
+
+  private synchronized Entry lookup(Key key, long now) {
+    Entry entry = entries.get(key);
+    if (entry != null && now - entry.expiresAt() >= 0) {
+      entries.remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  private synchronized int size() {
+    return entries.size();
+  }
+
+  private static Counter requestCounter(String result, MeterRegistry meterRegistry) {
+    return Counter.builder("search.result_cache.requests")
+        .description("Searches and histograms, by whether they were served from the cache")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -1,12 +1,17 @@
 package com.accountabilityatlas.searchservice.service;
 
 import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
 import com.accountabilityatlas.searchservice.domain.Participant;
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
-import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
-import java.util.Arrays;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,15 +22,15 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class SearchService {
 
-  private static final Set<String> VALID_AMENDMENTS =
-      Arrays.stream(Amendment.values()).map(Enum::name).collect(Collectors.toSet());
+  private final SearchBackend searchBackend;
+  private final SearchResultCache resultCache;
+  private final QueryNormalizer queryNormalizer;
+  private final HotQueryTracker hotQueryTracker;
 
-  private static final Set<String> VALID_PARTICIPANTS =
-      Arrays.stream(Participant.values()).map(Enum::name).collect(Collectors.toSet());
-
-  private final SearchVideoRepository searchVideoRepository;
-
-  @Transactional(readOnly = true)
+  /**
+   * Searches with the given filters. {@code counted} is false for the startup warm-up's requests,
+   * which must not reach {@link HotQueryTracker} as if users had sent them.
+   */
   public SearchResult search(
       String query,
       Set<String> amendments,
@@ -35,25 +40,21 @@ public class SearchService {
       Double minLat,
       Double maxLng,
       Double maxLat,
-      Pageable pageable) {
+      SearchRanges ranges,
+      SearchSort sort,
+      Pageable pageable,
+      boolean counted) {
 
     long startTime = System.currentTimeMillis();
 
-    String amendmentsArray = toValidatedPostgresArray(amendments, VALID_AMENDMENTS);
-    String participantsArray = toValidatedPostgresArray(participants, VALID_PARTICIPANTS);
-    String searchQuery = query != null && !query.isBlank() ? query.trim() : null;
-
+    SearchCriteria criteria =
+        criteria(
+            query, amendments, participants, state, minLng, minLat, maxLng, maxLat, ranges, sort);
+    if (counted) {
+      hotQueryTracker.record(criteria);
+    }
     Page<SearchVideo> page =
-        searchVideoRepository.searchWithFilters(
-            searchQuery,
-            amendmentsArray,
-            participantsArray,
-            state,
-            minLat,
-            maxLat,
-            minLng,
-            maxLng,
-            pageable);
+        resultCache.get(criteria, pageable, () -> searchBackend.search(criteria, pageable));
 
     long queryTime = System.currentTimeMillis() - startTime;
 
@@ -67,18 +68,103 @@ public class SearchService {
   }
 
   /**
-   * Converts a set of values to a PostgreSQL array string, filtering to only valid enum values.
-   * This prevents SQL injection by ensuring only known-safe values are included.
+   * Fetches a page of {@code criteria} into the result cache unless it is cached already, without
+   * counting it as a request. Used by {@link HotQueryWarmer}.
+   *
+   * <p>Runs in a read-write transaction, which the backend's read-only one joins, so the page is
+   * read from the primary and can be cached right after the index change that prompted it.
    */
-  private String toValidatedPostgresArray(Set<String> values, Set<String> validValues) {
-    if (values == null || values.isEmpty()) {
-      return null;
-    }
-    Set<String> validated =
-        values.stream().filter(validValues::contains).collect(Collectors.toSet());
-    if (validated.isEmpty()) {
-      return null;
+  @Transactional
+  public void warm(SearchCriteria criteria, Pageable pageable) {
+    resultCache.getFromPrimary(criteria, pageable, () -> searchBackend.search(criteria, pageable));
+  }
+
+  /**
+   * Counts the videos matching the same filters as {@link #search} per month or year of their video
+   * date, for timeline views.
+   */
+  public DateHistogram histogram(
+      String query,
+      Set<String> amendments,
+      Set<String> participants,
+      String state,
+      Double minLng,
+      Double minLat,
+      Double maxLng,
+      Double maxLat,
+      SearchRanges ranges,
+      HistogramInterval interval) {
+
+    long startTime = System.currentTimeMillis();
+
+    SearchCriteria criteria =
+        criteria(
+            query, amendments, participants, state, minLng, minLat, maxLng, maxLat, ranges, null);
+    List<DateBucket> buckets =
+        resultCache.histogram(
+            criteria, interval, () -> searchBackend.histogram(criteria, interval));
+
+    return new DateHistogram(buckets, System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Counts the videos matching {@code query} and the given filters per amendment, participant and
+   * state, for filter panels.
+   */
+  public SearchFacets facets(
+      String query, Set<String> amendments, Set<String> participants, String state) {
+
+    long startTime = System.currentTimeMillis();
+
+    SearchCriteria criteria =
+        criteria(query, amendments, participants, state, null, null, null, null, null, null);
+    List<FacetCounts.Count> counts = searchBackend.facets(criteria);
+
+    return SearchFacets.tally(counts, System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Loads indexed videos by id, for callers that already know which videos they want to show.
+   *
+   * @param videoIds ids to look up; duplicates are ignored
+   * @return the indexed videos in the order their ids were given, skipping ids that are not indexed
+   */
+  public List<SearchVideo> findByIds(List<UUID> videoIds) {
+    Set<UUID> distinct = new LinkedHashSet<>(videoIds);
+    Map<UUID, SearchVideo> found = new HashMap<>();
+    for (SearchVideo video : searchBackend.findByIds(distinct)) {
+      found.put(video.getId(), video);
     }
-    return "{" + String.join(",", validated) + "}";
+    return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+  }
+
+  private SearchCriteria criteria(
+      String query,
+      Set<String> amendments,
+      Set<String> participants,
+      String state,
+      Double minLng,
+      Double minLat,
+      Double maxLng,
+      Double maxLat,
+      SearchRanges ranges,
+      SearchSort sort) {
+    // Unknown names are dropped, so only known enum bits ever reach the query
+    int amendmentsMask = EnumMasks.toMask(EnumMasks.parse(amendments, Amendment.class));
+    int participantsMask = EnumMasks.toMask(EnumMasks.parse(participants, Participant.class));
+
+    // Canonical, so equivalent searches share result cache entries
+    return queryNormalizer.normalize(
+        new SearchCriteria(
+            query,
+            amendmentsMask,
+            participantsMask,
+            state,
+            minLat,
+            maxLat,
+            minLng,
+            maxLng,
+            ranges,
+            sort));
   }
 }
@@ -0,0 +1,34 @@
+package com.accountabilityatlas.searchservice.service;
+
+/** Result orders offered by {@code /search}; every order ends with the most recently indexed. */
+public enum SearchSort {
+  /** Text rank for a query (see {@link RankingProperties}), newest {@code video_date} otherwise. */
+  RELEVANCE("relevance"),
+  /** Newest {@code video_date} first, videos without a date last. */
+  VIDEO_DATE("videoDate"),
+  /** Longest first, videos without a duration last. */
+  DURATION_SECONDS("durationSeconds"),
+  /** Most recently indexed first. */
+  INDEXED_AT("indexedAt");
+
+  private final String parameter;
+
+  SearchSort(String parameter) {
+    this.parameter = parameter;
+  }
+
+  /** The value of the {@code sort} request parameter that selects this order. */
+  public String parameter() {
+    return parameter;
+  }
+
+  /** Returns the order selected by a {@code sort} request parameter, or null if unknown. */
+  public static SearchSort fromParameter(String parameter) {
+    for (SearchSort sort : values()) {
+      if (sort.parameter.equals(parameter)) {
+        return sort;
+      }
+    }
+    return null;
+  }
+}
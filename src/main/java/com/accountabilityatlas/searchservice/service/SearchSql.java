@@ -0,0 +1,132 @@
+package com.accountabilityatlas.searchservice.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native SQL for one {@link SearchCriteria} against {@code search_videos v}.
+ *
+ * <p>Only the filters the criteria use are rendered, rather than {@code :param IS NULL OR ...}
+ * for every filter, so each combination gets a plan of its own and the ORDER BY can line up with
+ * an index: a browse or filtered sort then reads one page off the index and stops.
+ */
+final class SearchSql {
+
+  private static final String TSQUERY = "plainto_tsquery('english', :query)";
+
+  private final String where;
+  private final String orderBy;
+  private final Map<String, Object> filterParameters = new LinkedHashMap<>();
+  private final Map<String, Object> selectParameters;
+
+  SearchSql(SearchCriteria criteria, double recencyWeight) {
+    List<String> predicates = new ArrayList<>();
+    if (criteria.hasQuery()) {
+      predicates.add("v.search_vector @@ " + TSQUERY);
+      filterParameters.put("query", criteria.query());
+    }
+    if (criteria.amendmentsMask() != 0) {
+      predicates.add("(v.amendments_mask & :amendmentsMask) <> 0");
+      filterParameters.put("amendmentsMask", criteria.amendmentsMask());
+    }
+    if (criteria.participantsMask() != 0) {
+      predicates.add("(v.participants_mask & :participantsMask) <> 0");
+      filterParameters.put("participantsMask", criteria.participantsMask());
+    }
+    if (criteria.state() != null) {
+      predicates.add("v.primary_location_state = :state");
+      filterParameters.put("state", criteria.state());
+    }
+    if (criteria.hasBoundingBox()) {
+      predicates.add("v.primary_location_lat BETWEEN :minLat AND :maxLat");
+      predicates.add("v.primary_location_lng BETWEEN :minLng AND :maxLng");
+      filterParameters.put("minLat", criteria.minLat());
+      filterParameters.put("maxLat", criteria.maxLat());
+      filterParameters.put("minLng", criteria.minLng());
+      filterParameters.put("maxLng", criteria.maxLng());
+    }
+    SearchRanges ranges = criteria.ranges();
+    if (ranges.from() != null) {
+      predicates.add("v.video_date >= :from");
+      filterParameters.put("from", ranges.from());
+    }
+    if (ranges.to() != null) {
+      predicates.add("v.video_date <= :to");
+      filterParameters.put("to", ranges.to());
+    }
+    if (ranges.minDuration() != null) {
+      predicates.add("v.duration_seconds >= :minDuration");
+      filterParameters.put("minDuration", ranges.minDuration());
+    }
+    if (ranges.maxDuration() != null) {
+      predicates.add("v.duration_seconds <= :maxDuration");
+      filterParameters.put("maxDuration", ranges.maxDuration());
+    }
+    this.where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    this.selectParameters = new LinkedHashMap<>(filterParameters);
+    this.orderBy = orderBy(criteria, recencyWeight);
+  }
+
+  /** Matching rows in result order; page with the query's first result and max results. */
+  String select() {
+    return "SELECT v.* FROM search.search_videos v" + where + " ORDER BY " + orderBy;
+  }
+
+  String count() {
+    return "SELECT COUNT(*) FROM search.search_videos v" + where;
+  }
+
+  /** Matching rows with a video date, counted per bucket in date order; takes count parameters. */
+  String histogram(HistogramInterval interval) {
+    String dated = (where.isEmpty() ? " WHERE " : where + " AND ") + "v.video_date IS NOT NULL";
+    return "SELECT CAST(date_trunc('"
+        + interval.parameter()
+        + "', v.video_date) AS date) AS bucket, COUNT(*) FROM search.search_videos v"
+        + dated
+        + " GROUP BY bucket ORDER BY bucket";
+  }
+
+  /** Matching rows counted per facet combination, like the rollup; takes count parameters. */
+  String facets() {
+    return "SELECT v.primary_location_state, v.amendments_mask, v.participants_mask, COUNT(*)"
+        + " FROM search.search_videos v"
+        + where
+        + " GROUP BY v.primary_location_state, v.amendments_mask, v.participants_mask";
+  }
+
+  Map<String, Object> selectParameters() {
+    return selectParameters;
+  }
+
+  Map<String, Object> countParameters() {
+    return filterParameters;
+  }
+
+  private String orderBy(SearchCriteria criteria, double recencyWeight) {
+    return switch (criteria.sort()) {
+      case RELEVANCE -> relevance(criteria, recencyWeight);
+      case VIDEO_DATE -> "v.video_date DESC NULLS LAST, v.indexed_at DESC";
+      case DURATION_SECONDS -> "v.duration_seconds DESC NULLS LAST, v.indexed_at DESC";
+      case INDEXED_AT -> "v.indexed_at DESC";
+    };
+  }
+
+  private String relevance(SearchCriteria criteria, double recencyWeight) {
+    // Matches idx_search_videos_static_score, and breaks text rank ties
+    String byStaticScore = "v.static_score DESC, v.indexed_at DESC";
+    if (!criteria.hasQuery()) {
+      return byStaticScore;
+    }
+    if (recencyWeight == 0) {
+      return "ts_rank_cd(v.search_vector, " + TSQUERY + ") DESC, " + byStaticScore;
+    }
+    selectParameters.put("recencyWeight", recencyWeight);
+    // Normalization 32 keeps the rank in (0, 1) and positive, so its log is defined
+    return "ln(GREATEST(ts_rank_cd(v.search_vector, "
+        + TSQUERY
+        + ", 32), 1e-9)) + :recencyWeight * v.static_score DESC, "
+        + byStaticScore;
+  }
+}
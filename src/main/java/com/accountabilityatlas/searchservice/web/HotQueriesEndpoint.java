@@ -0,0 +1,30 @@
+package com.accountabilityatlas.searchservice.web;
+
+import com.accountabilityatlas.searchservice.service.HotQuery;
+import com.accountabilityatlas.searchservice.service.HotQueryProperties;
+import com.accountabilityatlas.searchservice.service.HotQueryTracker;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin endpoint listing the searches this instance sees most often: {@code GET
+ * /actuator/hotqueries?limit=} returns their canonical criteria and estimated request counts, most
+ * frequent first. Not exposed over HTTP by default.
+ */
+@Component
+@Endpoint(id = "hotqueries")
+@RequiredArgsConstructor
+public class HotQueriesEndpoint {
+
+  private final HotQueryTracker tracker;
+  private final HotQueryProperties properties;
+
+  @ReadOperation
+  public List<HotQuery> hotQueries(@Nullable Integer limit) {
+    return tracker.top(limit != null ? limit : properties.topK());
+  }
+}
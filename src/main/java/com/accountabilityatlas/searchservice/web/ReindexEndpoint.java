@@ -0,0 +1,32 @@
+package com.accountabilityatlas.searchservice.web;
+
+import com.accountabilityatlas.searchservice.service.ReindexService;
+import com.accountabilityatlas.searchservice.service.ReindexStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin endpoint for full reindexes: {@code GET /actuator/reindex} reports progress and {@code POST
+ * /actuator/reindex} starts one. Not exposed over HTTP by default; expose it only on a management
+ * port that is not publicly routed.
+ */
+@Component
+@Endpoint(id = "reindex")
+@RequiredArgsConstructor
+public class ReindexEndpoint {
+
+  private final ReindexService reindexService;
+
+  @ReadOperation
+  public ReindexStatus status() {
+    return reindexService.status();
+  }
+
+  @WriteOperation
+  public ReindexStatus start() {
+    return reindexService.start();
+  }
+}
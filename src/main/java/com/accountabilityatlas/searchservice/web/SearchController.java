@@ -1,17 +1,33 @@
 package com.accountabilityatlas.searchservice.web;
 
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.service.DateHistogram;
+import com.accountabilityatlas.searchservice.service.HistogramInterval;
+import com.accountabilityatlas.searchservice.service.SearchBatchExecutor;
+import com.accountabilityatlas.searchservice.service.SearchFacets;
+import com.accountabilityatlas.searchservice.service.SearchRanges;
 import com.accountabilityatlas.searchservice.service.SearchResult;
 import com.accountabilityatlas.searchservice.service.SearchService;
+import com.accountabilityatlas.searchservice.service.SearchSort;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,7 +37,32 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class SearchController {
 
+  /**
+   * Marks {@link StartupWarmup}'s requests, which are not counted as hot queries. Only honoured
+   * when it carries {@link StartupWarmup#TOKEN}, so clients cannot keep their searches out of the
+   * counts.
+   */
+  static final String WARMUP_HEADER = "X-Search-Warmup";
+
+  private static final int MAX_LOOKUP_IDS = 200;
+  private static final String INVALID_BBOX =
+      "Invalid bbox format. Expected: minLng,minLat,maxLng,maxLat";
+  private static final String INVALID_DATE_RANGE = "Invalid date range. from must not be after to";
+  private static final String INVALID_DURATION_RANGE =
+      "Invalid duration range. Expected 0 <= minDuration <= maxDuration";
+  private static final String INVALID_INTERVAL =
+      "Invalid interval. Expected one of: "
+          + Arrays.stream(HistogramInterval.values())
+              .map(HistogramInterval::parameter)
+              .collect(Collectors.joining(", "));
+  private static final String INVALID_SORT =
+      "Invalid sort. Expected one of: "
+          + Arrays.stream(SearchSort.values())
+              .map(SearchSort::parameter)
+              .collect(Collectors.joining(", "));
+
   private final SearchService searchService;
+  private final SearchBatchExecutor batchExecutor;
 
   @GetMapping
   public ResponseEntity<?> search(
@@ -30,49 +71,186 @@ public class SearchController {
       @RequestParam(required = false) Set<String> participants,
       @RequestParam(required = false) String state,
       @RequestParam(required = false) String bbox,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+      @RequestParam(required = false) Integer minDuration,
+      @RequestParam(required = false) Integer maxDuration,
+      @RequestParam(defaultValue = "relevance") String sort,
       @RequestParam(defaultValue = "0") int page,
-      @RequestParam(defaultValue = "20") int size) {
+      @RequestParam(defaultValue = "20") int size,
+      @RequestHeader(name = WARMUP_HEADER, required = false) String warmupToken) {
 
-    if (size > 100) {
-      size = 100;
+    SearchSpec spec =
+        new SearchSpec(
+            q,
+            amendments,
+            participants,
+            state,
+            bbox,
+            from,
+            to,
+            minDuration,
+            maxDuration,
+            sort,
+            page,
+            size);
+    String error = spec.validate();
+    if (error != null) {
+      return ResponseEntity.badRequest().body(error);
     }
-    Pageable pageable = PageRequest.of(page, size);
-
-    Double minLng = null;
-    Double minLat = null;
-    Double maxLng = null;
-    Double maxLat = null;
+    return ResponseEntity.ok(search(spec, !StartupWarmup.isToken(warmupToken)));
+  }
 
-    if (bbox != null && !bbox.isBlank()) {
-      String[] parts = bbox.split(",");
-      if (parts.length != 4) {
-        return ResponseEntity.badRequest()
-            .body("Invalid bbox format. Expected: minLng,minLat,maxLng,maxLat");
+  /**
+   * Runs several searches in one request, such as the carousels of a page, and returns their
+   * responses in the order given. Each search takes the same parameters as {@code GET /search}.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<?> searchBatch(@RequestBody BatchSearchRequest request) {
+    List<SearchSpec> searches = request.searches() != null ? request.searches() : List.of();
+    if (searches.size() > batchExecutor.maxSearches()) {
+      return ResponseEntity.badRequest()
+          .body("Too many searches. At most " + batchExecutor.maxSearches() + " per request");
+    }
+    for (int i = 0; i < searches.size(); i++) {
+      if (searches.get(i) == null) {
+        return ResponseEntity.badRequest().body("searches[" + i + "] is empty");
       }
-      try {
-        minLng = Double.parseDouble(parts[0]);
-        minLat = Double.parseDouble(parts[1]);
-        maxLng = Double.parseDouble(parts[2]);
-        maxLat = Double.parseDouble(parts[3]);
-      } catch (NumberFormatException e) {
-        return ResponseEntity.badRequest()
-            .body("Invalid bbox format. Expected: minLng,minLat,maxLng,maxLat");
+      String error = searches.get(i).validate();
+      if (error != null) {
+        return ResponseEntity.badRequest().body("searches[" + i + "]: " + error);
       }
     }
 
+    List<Supplier<SearchResponse>> tasks =
+        searches.stream().<Supplier<SearchResponse>>map(spec -> () -> search(spec, true)).toList();
+    return ResponseEntity.ok(new BatchSearchResponse(batchExecutor.invokeAll(tasks)));
+  }
+
+  /**
+   * Counts the videos matching the {@code GET /search} filters per month or year of their video
+   * date, in one aggregate query instead of paging through every result.
+   */
+  @GetMapping("/histogram")
+  public ResponseEntity<?> histogram(
+      @RequestParam(required = false) String q,
+      @RequestParam(required = false) Set<String> amendments,
+      @RequestParam(required = false) Set<String> participants,
+      @RequestParam(required = false) String state,
+      @RequestParam(required = false) String bbox,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+      @RequestParam(required = false) Integer minDuration,
+      @RequestParam(required = false) Integer maxDuration,
+      @RequestParam(defaultValue = "month") String interval) {
+
+    HistogramInterval bucketInterval = HistogramInterval.fromParameter(interval);
+    if (bucketInterval == null) {
+      return ResponseEntity.badRequest().body(INVALID_INTERVAL);
+    }
+    SearchSpec spec =
+        new SearchSpec(
+            q,
+            amendments,
+            participants,
+            state,
+            bbox,
+            from,
+            to,
+            minDuration,
+            maxDuration,
+            null,
+            null,
+            null);
+    String error = spec.validate();
+    if (error != null) {
+      return ResponseEntity.badRequest().body(error);
+    }
+
+    double[] box = spec.parseBbox();
+    DateHistogram histogram =
+        searchService.histogram(
+            q,
+            amendments,
+            participants,
+            state,
+            box != null ? box[0] : null,
+            box != null ? box[1] : null,
+            box != null ? box[2] : null,
+            box != null ? box[3] : null,
+            spec.ranges(),
+            bucketInterval);
+
+    return ResponseEntity.ok(
+        new HistogramResponse(
+            bucketInterval.parameter(),
+            histogram.buckets().stream()
+                .map(bucket -> new HistogramBucket(bucket.start(), bucket.count()))
+                .toList(),
+            histogram.queryTimeMs()));
+  }
+
+  /**
+   * Counts the videos matching {@code q} and the given filters per amendment, participant and
+   * state, for building filter UI. Counts per year come from {@code GET /search/histogram}.
+   */
+  @GetMapping("/facets")
+  public ResponseEntity<FacetsResponse> facets(
+      @RequestParam(required = false) String q,
+      @RequestParam(required = false) Set<String> amendments,
+      @RequestParam(required = false) Set<String> participants,
+      @RequestParam(required = false) String state) {
+
+    SearchFacets facets = searchService.facets(q, amendments, participants, state);
+
+    return ResponseEntity.ok(
+        new FacetsResponse(
+            new Facets(facets.amendments(), facets.participants(), facets.states()),
+            facets.totalMatching(),
+            facets.queryTimeMs()));
+  }
+
+  /** Returns indexed videos by id, in the order given, in the same shape as search results. */
+  @GetMapping("/videos")
+  public ResponseEntity<?> findVideos(@RequestParam List<UUID> ids) {
+    if (ids.size() > MAX_LOOKUP_IDS) {
+      return ResponseEntity.badRequest()
+          .body("Too many ids. At most " + MAX_LOOKUP_IDS + " per request");
+    }
+
+    List<SearchVideo> videos = searchService.findByIds(ids);
+
+    Set<UUID> found = videos.stream().map(SearchVideo::getId).collect(Collectors.toSet());
+    List<UUID> missing = ids.stream().distinct().filter(id -> !found.contains(id)).toList();
+    return ResponseEntity.ok(
+        new VideosResponse(videos.stream().map(this::toVideoResult).toList(), missing));
+  }
+
+  private SearchResponse search(SearchSpec spec, boolean counted) {
+    int size = spec.size() != null ? Math.min(spec.size(), 100) : 20;
+    Pageable pageable = PageRequest.of(spec.page() != null ? spec.page() : 0, size);
+    double[] box = spec.parseBbox();
+
     SearchResult result =
         searchService.search(
-            q, amendments, participants, state, minLng, minLat, maxLng, maxLat, pageable);
-
-    SearchResponse response =
-        new SearchResponse(
-            result.videos().stream().map(this::toVideoResult).toList(),
-            new Pagination(
-                result.page(), result.size(), result.totalElements(), result.totalPages()),
-            result.queryTimeMs(),
-            q);
+            spec.q(),
+            spec.amendments(),
+            spec.participants(),
+            spec.state(),
+            box != null ? box[0] : null,
+            box != null ? box[1] : null,
+            box != null ? box[2] : null,
+            box != null ? box[3] : null,
+            spec.ranges(),
+            spec.sortOrder(),
+            pageable,
+            counted);
 
-    return ResponseEntity.ok(response);
+    return new SearchResponse(
+        result.videos().stream().map(this::toVideoResult).toList(),
+        new Pagination(result.page(), result.size(), result.totalElements(), result.totalPages()),
+        result.queryTimeMs(),
+        spec.q());
   }
 
   private VideoSearchResult toVideoResult(SearchVideo video) {
@@ -99,15 +277,99 @@ public class SearchController {
         video.getChannelId(),
         video.getChannelName(),
         video.getVideoDate(),
-        video.getAmendments() != null ? Set.of(video.getAmendments()) : Set.of(),
-        video.getParticipants() != null ? Set.of(video.getParticipants()) : Set.of(),
+        toNames(video.getAmendments()),
+        toNames(video.getParticipants()),
         location != null ? List.of(location) : List.of());
   }
 
+  private static Set<String> toNames(Set<? extends Enum<?>> values) {
+    if (values == null) {
+      return Set.of();
+    }
+    return values.stream().map(Enum::name).collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  // Request DTOs
+  public record BatchSearchRequest(List<SearchSpec> searches) {}
+
+  /** One search of a batch; absent fields take the {@code GET /search} defaults. */
+  public record SearchSpec(
+      String q,
+      Set<String> amendments,
+      Set<String> participants,
+      String state,
+      String bbox,
+      LocalDate from,
+      LocalDate to,
+      Integer minDuration,
+      Integer maxDuration,
+      String sort,
+      Integer page,
+      Integer size) {
+
+    /** Returns what is wrong with this search, or null if it can be run. */
+    String validate() {
+      try {
+        parseBbox();
+      } catch (IllegalArgumentException e) {
+        return INVALID_BBOX;
+      }
+      if (from != null && to != null && from.isAfter(to)) {
+        return INVALID_DATE_RANGE;
+      }
+      if ((minDuration != null && minDuration < 0)
+          || (maxDuration != null && maxDuration < 0)
+          || (minDuration != null && maxDuration != null && minDuration > maxDuration)) {
+        return INVALID_DURATION_RANGE;
+      }
+      if (sort != null && SearchSort.fromParameter(sort) == null) {
+        return INVALID_SORT;
+      }
+      return null;
+    }
+
+    SearchRanges ranges() {
+      return new SearchRanges(from, to, minDuration, maxDuration);
+    }
+
+    SearchSort sortOrder() {
+      return sort != null ? SearchSort.fromParameter(sort) : SearchSort.RELEVANCE;
+    }
+
+    /** Returns minLng, minLat, maxLng and maxLat, or null when no bbox was given. */
+    double[] parseBbox() {
+      if (bbox == null || bbox.isBlank()) {
+        return null;
+      }
+      String[] parts = bbox.split(",");
+      if (parts.length != 4) {
+        throw new IllegalArgumentException(INVALID_BBOX);
+      }
+      double[] box = new double[4];
+      for (int i = 0; i < 4; i++) {
+        box[i] = Double.parseDouble(parts[i]);
+      }
+      return box;
+    }
+  }
+
   // Response DTOs
   public record SearchResponse(
       List<VideoSearchResult> results, Pagination pagination, long queryTime, String query) {}
 
+  public record BatchSearchResponse(List<SearchResponse> results) {}
+
+  public record HistogramResponse(String interval, List<HistogramBucket> buckets, long queryTime) {}
+
+  public record HistogramBucket(LocalDate start, long count) {}
+
+  public record FacetsResponse(Facets facets, long totalMatching, long queryTime) {}
+
+  public record Facets(
+      Map<String, Long> amendments, Map<String, Long> participants, Map<String, Long> states) {}
+
+  public record VideosResponse(List<VideoSearchResult> results, List<UUID> missing) {}
+
   public record VideoSearchResult(
       UUID id,
       String youtubeId,
@@ -0,0 +1,220 @@
+package com.accountabilityatlas.searchservice.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Warms the instance up before it reports ready. Spring Boot only moves readiness to {@code
+ * ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has returned, so the first real requests
+ * no longer pay for lazily opened connections, cold Postgres buffers and interpreted code.
+ *
+ * <p>Three steps, each timed in the log and none of them fatal:
+ *
+ * <ol>
+ *   <li>Open {@code connections} pooled connections at once, then return them.
+ *   <li>Optionally {@code pg_prewarm} {@code search_videos} and every index on it.
+ *   <li>Send a representative mix of search requests to this instance's own HTTP port, so the
+ *       whole path from Tomcat through the controller, Jackson and Hibernate runs, in rounds until
+ *       a round is no faster than the one before. Each round asks for a different page, so result
+ *       pages come from the backend rather than the result cache. The requests carry {@link
+ *       #TOKEN} in {@link SearchController#WARMUP_HEADER}, so they are not counted as hot
+ *       queries.
+ * </ol>
+ */
+@Component
+@Order(1)
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+  /**
+   * Random per process and never sent off the host. A loopback source address alone would not do,
+   * since a proxy on the same host forwards every client from loopback.
+   */
+  static final String TOKEN = UUID.randomUUID().toString();
+
+  private static final List<String> REQUEST_MIX =
+      List.of(
+          "/search",
+          "/search?q=first amendment audit",
+          "/search?q=police&sort=durationSeconds",
+          "/search?state=TX&sort=videoDate",
+          "/search?amendments=FIRST&participants=POLICE",
+          "/search?bbox=-98.0,29.0,-97.0,31.0",
+          "/search?from=2020-01-01&maxDuration=3600&sort=indexedAt",
+          "/search/histogram?interval=year",
+          "/search/facets");
+
+  private static final String PREWARM_SQL =
+      """
+      SELECT format('%I.%I', schemaname, indexname)
+      FROM pg_indexes
+      WHERE schemaname = 'search' AND tablename = 'search_videos'
+      """;
+
+  private final WarmupProperties properties;
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final RestClient.Builder restClientBuilder;
+  private final Environment environment;
+
+  public StartupWarmup(
+      WarmupProperties properties,
+      DataSource dataSource,
+      JdbcTemplate jdbcTemplate,
+      RestClient.Builder restClientBuilder,
+      Environment environment) {
+    this.properties = properties;
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+    this.restClientBuilder = restClientBuilder;
+    this.environment = environment;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!properties.enabled()) {
+      return;
+    }
+    long startTime = System.currentTimeMillis();
+    openConnections();
+    if (properties.prewarmRelations()) {
+      prewarmRelations();
+    }
+    sendRequestMix();
+    log.info("Warm-up finished in {}ms", System.currentTimeMillis() - startTime);
+  }
+
+  private void openConnections() {
+    long startTime = System.currentTimeMillis();
+    List<Connection> connections = new ArrayList<>();
+    try {
+      for (int i = 0; i < properties.connections(); i++) {
+        connections.add(dataSource.getConnection());
+      }
+    } catch (SQLException e) {
+      log.warn("Warm-up opened {} database connections before failing", connections.size(), e);
+    } finally {
+      for (Connection connection : connections) {
+        close(connection);
+      }
+    }
+    log.info(
+        "Warm-up opened {} database connections in {}ms",
+        connections.size(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  private void prewarmRelations() {
+    long startTime = System.currentTimeMillis();
+    try {
+      Boolean installed =
+          jdbcTemplate.queryForObject(
+              "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_prewarm')",
+              Boolean.class);
+      if (!Boolean.TRUE.equals(installed)) {
+        log.info("pg_prewarm is not installed, skipping relation warm-up");
+        return;
+      }
+      List<String> relations = new ArrayList<>(List.of("search.search_videos"));
+      relations.addAll(jdbcTemplate.queryForList(PREWARM_SQL, String.class));
+      long blocks = 0;
+      for (String relation : relations) {
+        Long loaded =
+            jdbcTemplate.queryForObject(
+                "SELECT pg_prewarm(CAST(? AS regclass))", Long.class, relation);
+        blocks += loaded != null ? loaded : 0;
+      }
+      log.info(
+          "Warm-up loaded {} blocks of {} relations into shared buffers in {}ms",
+          blocks,
+          relations.size(),
+          System.currentTimeMillis() - startTime);
+    } catch (DataAccessException e) {
+      log.warn("Warm-up could not prewarm search relations", e);
+    }
+  }
+
+  private void sendRequestMix() {
+    Integer port = environment.getProperty("local.server.port", Integer.class);
+    if (port == null) {
+      log.info("No web server port, skipping request warm-up");
+      return;
+    }
+    RestClient client =
+        restClientBuilder
+            .baseUrl(
+                "http://localhost:"
+                    + port
+                    + environment.getProperty("server.servlet.context-path", ""))
+            .build();
+    long deadline = System.currentTimeMillis() + properties.maxDuration().toMillis();
+    List<Long> roundTimes = new ArrayList<>();
+    while (roundTimes.size() < properties.maxRounds() && System.currentTimeMillis() < deadline) {
+      long roundTime = sendRound(client, roundTimes.size());
+      roundTimes.add(roundTime);
+      int rounds = roundTimes.size();
+      if (rounds > 1 && roundTime >= roundTimes.get(rounds - 2) * properties.settleRatio()) {
+        break;
+      }
+    }
+    log.info(
+        "Warm-up sent {} rounds of {} requests, taking {}ms per round",
+        roundTimes.size(),
+        REQUEST_MIX.size(),
+        roundTimes);
+  }
+
+  private long sendRound(RestClient client, int round) {
+    long startTime = System.nanoTime();
+    int failures = 0;
+    for (String path : REQUEST_MIX) {
+      // Endpoints that do not page ignore it
+      String uri = path + (path.contains("?") ? "&" : "?") + "page=" + round;
+      try {
+        client
+            .get()
+            .uri(uri)
+            .header(SearchController.WARMUP_HEADER, TOKEN)
+            .retrieve()
+            .toBodilessEntity();
+      } catch (RestClientException e) {
+        failures++;
+        log.debug("Warm-up request {} failed: {}", uri, e.getMessage());
+      }
+    }
+    long roundTime = (System.nanoTime() - startTime) / 1_000_000;
+    log.debug("Warm-up round {} took {}ms with {} failed requests", round, roundTime, failures);
+    return roundTime;
+  }
+
+  /** Whether {@code token} is this process's {@link #TOKEN}, compared in constant time. */
+  static boolean isToken(String token) {
+    return token != null
+        && MessageDigest.isEqual(
+            TOKEN.getBytes(StandardCharsets.US_ASCII), token.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void close(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.debug("Failed to return a warm-up connection", e);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.accountabilityatlas.searchservice.web;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Startup warm-up settings.
+ *
+ * @param enabled whether to warm up before the instance reports ready
+ * @param connections database connections opened up front; at most the pool's maximum size
+ * @param prewarmRelations load {@code search_videos} and its indexes into shared buffers with
+ *     {@code pg_prewarm}, if that extension is installed
+ * @param maxRounds most rounds of the request mix; fewer are run once a round is no faster than
+ *     {@code settleRatio} of the one before
+ * @param settleRatio round time relative to the previous round at which response times count as
+ *     settled
+ * @param maxDuration time after which the request mix stops, settled or not
+ */
+@ConfigurationProperties(prefix = "app.search.warmup")
+public record WarmupProperties(
+    boolean enabled,
+    int connections,
+    boolean prewarmRelations,
+    int maxRounds,
+    double settleRatio,
+    Duration maxDuration) {
+
+  public WarmupProperties {
+    if (connections <= 0) {
+      connections = 10;
+    }
+    if (maxRounds <= 0) {
+      maxRounds = 20;
+    }
+    if (settleRatio <= 0) {
+      settleRatio = 0.9;
+    }
+    if (maxDuration == null) {
+      maxDuration = Duration.ofSeconds(60);
+    }
+  }
+}
@@ -1,10 +1,11 @@
 -- Dev seed data: Search index for test videos
 -- Mirrors video-service seed data so videos appear in search results
+-- Amendment/participant bitmasks: see V2__encode_filters_as_bitmasks.sql
 -- Note: In production, this table is populated via SQS events from moderation-service
 
 INSERT INTO search.search_videos (
     id, youtube_id, title, description, channel_name,
-    amendments, participants,
+    amendments_mask, participants_mask,
     primary_location_id, primary_location_name, primary_location_city, primary_location_state,
     primary_location_lat, primary_location_lng
 ) VALUES
@@ -13,7 +14,7 @@ INSERT INTO search.search_videos (
      'Northern California Government Building Audit',
      'First Amendment audit of a government building in Northern California.',
      'Phil',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['POLICE', 'GOVERNMENT']::VARCHAR[],
+     1, 3,  -- FIRST / POLICE+GOVERNMENT
      '20000000-0000-0000-0000-000000000001', 'San Francisco City Hall', 'San Francisco', 'CA',
      37.7793, -122.4193),
 
@@ -21,7 +22,7 @@ INSERT INTO search.search_videos (
      'East Lansing Police Department Audit Analysis',
      'Audit the Audit analysis of ELPD First Amendment audit incident.',
      'Audit the Audit',
-     ARRAY['FIRST', 'FOURTH']::VARCHAR[], ARRAY['POLICE']::VARCHAR[],
+     5, 1,  -- FIRST+FOURTH / POLICE
      '20000000-0000-0000-0000-000000000002', 'Oakland Federal Building', 'Oakland', 'CA',
      37.8044, -122.2712),
 
@@ -29,7 +30,7 @@ INSERT INTO search.search_videos (
      '61st Precinct Brooklyn - Arrest During Audit',
      'SeanPaul Reyes arrested while recording in the lobby of the 61st Precinct in Brooklyn.',
      'Long Island Audit',
-     ARRAY['FIRST', 'FOURTH']::VARCHAR[], ARRAY['POLICE']::VARCHAR[],
+     5, 1,  -- FIRST+FOURTH / POLICE
      '20000000-0000-0000-0000-000000000003', 'San Jose Police HQ', 'San Jose', 'CA',
      37.3382, -121.8863),
 
@@ -37,7 +38,7 @@ INSERT INTO search.search_videos (
      'Utica Michigan Police Confrontation',
      'Steve Jones confronted by Detective Sergeant during First Amendment audit.',
      'Fricn Media',
-     ARRAY['FIRST', 'FOURTH']::VARCHAR[], ARRAY['POLICE']::VARCHAR[],
+     5, 1,  -- FIRST+FOURTH / POLICE
      '20000000-0000-0000-0000-000000000004', 'Fremont City Hall', 'Fremont', 'CA',
      37.5485, -121.9886),
 
@@ -45,7 +46,7 @@ INSERT INTO search.search_videos (
      'Pocahontas City Hall Audit',
      'First Amendment audit at Pocahontas, Arkansas city hall.',
      'The Random Patriot',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['GOVERNMENT']::VARCHAR[],
+     1, 2,  -- FIRST / GOVERNMENT
      '20000000-0000-0000-0000-000000000005', 'Berkeley Post Office', 'Berkeley', 'CA',
      37.8716, -122.2727),
 
@@ -54,7 +55,7 @@ INSERT INTO search.search_videos (
      'San Antonio Strip Mall Encounter',
      'First Amendment audit encounter at a San Antonio strip mall.',
      'Mexican Padilla',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['POLICE', 'BUSINESS']::VARCHAR[],
+     1, 5,  -- FIRST / POLICE+BUSINESS
      '20000000-0000-0000-0000-000000000006', 'San Antonio Strip Mall', 'San Antonio', 'TX',
      29.4241, -98.4936),
 
@@ -62,7 +63,7 @@ INSERT INTO search.search_videos (
      'Leon Valley Police Chief Press Conference',
      'Coverage of Leon Valley Police Department press conference.',
      'News Now Houston',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['POLICE', 'GOVERNMENT']::VARCHAR[],
+     1, 3,  -- FIRST / POLICE+GOVERNMENT
      '20000000-0000-0000-0000-000000000007', 'Leon Valley Police Department', 'Leon Valley', 'TX',
      29.4952, -98.6136),
 
@@ -70,7 +71,7 @@ INSERT INTO search.search_videos (
      'Silverthorne Post Office Audit',
      'First Amendment audit at Silverthorne, Colorado post office that led to settlement.',
      'Amagansett Press',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['GOVERNMENT']::VARCHAR[],
+     1, 2,  -- FIRST / GOVERNMENT
      '20000000-0000-0000-0000-000000000008', 'Silverthorne Post Office', 'Silverthorne', 'CO',
      39.6336, -106.0753),
 
@@ -78,7 +79,7 @@ INSERT INTO search.search_videos (
      'East Lansing PD Incident',
      'Direct footage from East Lansing Police Department First Amendment audit.',
      'Livingston Audits',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['POLICE']::VARCHAR[],
+     1, 1,  -- FIRST / POLICE
      '20000000-0000-0000-0000-000000000009', 'East Lansing Police Department', 'East Lansing', 'MI',
      42.7370, -84.4839),
 
@@ -86,7 +87,7 @@ INSERT INTO search.search_videos (
      'Pocahontas City Hall - Uncut Footage',
      'Full unedited footage from Pocahontas, Arkansas city hall audit.',
      'The Random Patriot',
-     ARRAY['FIRST']::VARCHAR[], ARRAY['GOVERNMENT']::VARCHAR[],
+     1, 2,  -- FIRST / GOVERNMENT
      '20000000-0000-0000-0000-000000000010', 'Pocahontas City Hall', 'Pocahontas', 'AR',
      36.2612, -90.9712)
 ON CONFLICT (id) DO UPDATE SET
@@ -94,8 +95,8 @@ ON CONFLICT (id) DO UPDATE SET
     title = EXCLUDED.title,
     description = EXCLUDED.description,
     channel_name = EXCLUDED.channel_name,
-    amendments = EXCLUDED.amendments,
-    participants = EXCLUDED.participants,
+    amendments_mask = EXCLUDED.amendments_mask,
+    participants_mask = EXCLUDED.participants_mask,
     primary_location_id = EXCLUDED.primary_location_id,
     primary_location_name = EXCLUDED.primary_location_name,
     primary_location_city = EXCLUDED.primary_location_city,
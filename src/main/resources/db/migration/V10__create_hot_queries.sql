@@ -0,0 +1,24 @@
+-- Most frequent searches by canonical criteria, written periodically by every instance so a
+-- restarted or newly started instance can warm its caches with them. One column per
+-- SearchCriteria component; a later write of the same search replaces its count.
+CREATE TABLE search.hot_queries (
+    query TEXT,
+    amendments_mask INTEGER NOT NULL,
+    participants_mask INTEGER NOT NULL,
+    state VARCHAR(50),
+    min_lat DOUBLE PRECISION,
+    max_lat DOUBLE PRECISION,
+    min_lng DOUBLE PRECISION,
+    max_lng DOUBLE PRECISION,
+    video_date_from DATE,
+    video_date_to DATE,
+    min_duration INTEGER,
+    max_duration INTEGER,
+    sort VARCHAR(20) NOT NULL,
+    hits BIGINT NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT uq_hot_queries_criteria UNIQUE NULLS NOT DISTINCT (
+        query, amendments_mask, participants_mask, state,
+        min_lat, max_lat, min_lng, max_lng,
+        video_date_from, video_date_to, min_duration, max_duration, sort)
+);
@@ -0,0 +1,10 @@
+-- Key hot searches on a digest of their criteria instead of the criteria themselves. With the
+-- free-text query in the unique index, one long query exceeded the B-tree row size limit and
+-- failed the whole batch. Existing rows are only a warm-up hint and are rewritten every persist
+-- interval, so they are dropped rather than backfilled.
+DELETE FROM search.hot_queries;
+
+ALTER TABLE search.hot_queries DROP CONSTRAINT uq_hot_queries_criteria;
+ALTER TABLE search.hot_queries ADD COLUMN criteria_hash CHAR(32) NOT NULL;
+ALTER TABLE search.hot_queries
+    ADD CONSTRAINT uq_hot_queries_criteria_hash UNIQUE (criteria_hash);
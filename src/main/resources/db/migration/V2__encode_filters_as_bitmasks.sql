@@ -0,0 +1,28 @@
+-- Replace the VARCHAR(20)[] amendment/participant columns with integer bitmasks.
+-- Bits follow the ordinal of the Amendment and Participant enums:
+--   amendments_mask:   FIRST=1, SECOND=2, FOURTH=4, FIFTH=8
+--   participants_mask: POLICE=1, GOVERNMENT=2, BUSINESS=4, CITIZEN=8
+-- Filters become "(mask & :filter) <> 0" tests, evaluated on rows already narrowed by the
+-- FTS, state and bbox predicates, so the array GIN indexes are no longer needed.
+ALTER TABLE search.search_videos
+    ADD COLUMN amendments_mask INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN participants_mask INTEGER NOT NULL DEFAULT 0;
+
+UPDATE search.search_videos SET
+    amendments_mask =
+        (CASE WHEN 'FIRST' = ANY(amendments) THEN 1 ELSE 0 END) |
+        (CASE WHEN 'SECOND' = ANY(amendments) THEN 2 ELSE 0 END) |
+        (CASE WHEN 'FOURTH' = ANY(amendments) THEN 4 ELSE 0 END) |
+        (CASE WHEN 'FIFTH' = ANY(amendments) THEN 8 ELSE 0 END),
+    participants_mask =
+        (CASE WHEN 'POLICE' = ANY(participants) THEN 1 ELSE 0 END) |
+        (CASE WHEN 'GOVERNMENT' = ANY(participants) THEN 2 ELSE 0 END) |
+        (CASE WHEN 'BUSINESS' = ANY(participants) THEN 4 ELSE 0 END) |
+        (CASE WHEN 'CITIZEN' = ANY(participants) THEN 8 ELSE 0 END);
+
+DROP INDEX search.idx_search_videos_amendments;
+DROP INDEX search.idx_search_videos_participants;
+
+ALTER TABLE search.search_videos
+    DROP COLUMN amendments,
+    DROP COLUMN participants;
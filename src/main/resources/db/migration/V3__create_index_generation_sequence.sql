@@ -0,0 +1,4 @@
+-- Monotonic generation number for changes to search_videos. IndexingService takes the next value
+-- in the same transaction as each write or delete and sends it with the NOTIFY that tells other
+-- instances to invalidate, so caches can be keyed by the latest generation they have applied.
+CREATE SEQUENCE search.index_generation;
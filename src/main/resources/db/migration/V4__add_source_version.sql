@@ -0,0 +1,5 @@
+-- video-service's version of each indexed video. The reconciliation job digests
+-- (id, source_version) pairs over id ranges and compares them with video-service's digests to
+-- find stale rows. Rows indexed before the column existed stay NULL until reconciliation
+-- re-indexes them.
+ALTER TABLE search.search_videos ADD COLUMN source_version BIGINT;
@@ -0,0 +1,7 @@
+-- Timestamp of the newest moderation event applied to each video. IndexingService advances it with
+-- a conditional upsert in the same transaction as the index write, so a redelivered or late event
+-- that is not newer than the one already applied is skipped, whichever instance receives it.
+CREATE TABLE search.moderation_watermarks (
+    video_id UUID PRIMARY KEY,
+    event_at TIMESTAMPTZ NOT NULL
+);
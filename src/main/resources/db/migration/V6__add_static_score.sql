@@ -0,0 +1,28 @@
+-- Query-independent part of a video's ranking: ln(2) * years from 1970 to video_date. That is the
+-- log of a recency decay with a one-year half-life plus a term that depends only on the current
+-- date, the same for every row, so ordering by the column never needs recomputing. A blended
+-- ranking adds ln(text rank) to static_score divided by the half-life in years. It is based on
+-- video_date rather than indexed_at, so re-indexing an old video does not make it look new.
+-- Videos without a date rank as oldest.
+ALTER TABLE search.search_videos
+    ADD COLUMN static_score DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION search.update_static_score()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.static_score :=
+        COALESCE(NEW.video_date - DATE '1970-01-01', 0) * ln(2) / 365.25;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER search_videos_static_score_trigger
+    BEFORE INSERT OR UPDATE OF video_date ON search.search_videos
+    FOR EACH ROW EXECUTE FUNCTION search.update_static_score();
+
+UPDATE search.search_videos
+SET static_score = COALESCE(video_date - DATE '1970-01-01', 0) * ln(2) / 365.25;
+
+-- Empty-query browse walks this index and stops after one page instead of sorting every match
+CREATE INDEX idx_search_videos_static_score
+    ON search.search_videos (static_score DESC, indexed_at DESC);
@@ -0,0 +1,26 @@
+-- One index per sort offered by /search (see SearchSql), alone and after primary_location_state,
+-- the filter most browse pages use. Each matches its ORDER BY exactly, including NULLS LAST and the
+-- indexed_at tie-break, so a sorted page is read off the index and the scan stops at the LIMIT.
+-- The amendment and participant bitmasks cannot be index keys; they are checked on each row the
+-- ordered scan visits, which stays cheap unless the filter is very selective.
+CREATE INDEX idx_search_videos_state_static_score
+    ON search.search_videos (primary_location_state, static_score DESC, indexed_at DESC);
+
+CREATE INDEX idx_search_videos_video_date_sort
+    ON search.search_videos (video_date DESC NULLS LAST, indexed_at DESC);
+CREATE INDEX idx_search_videos_state_video_date_sort
+    ON search.search_videos (primary_location_state, video_date DESC NULLS LAST, indexed_at DESC);
+
+CREATE INDEX idx_search_videos_duration_sort
+    ON search.search_videos (duration_seconds DESC NULLS LAST, indexed_at DESC);
+CREATE INDEX idx_search_videos_state_duration_sort
+    ON search.search_videos
+       (primary_location_state, duration_seconds DESC NULLS LAST, indexed_at DESC);
+
+CREATE INDEX idx_search_videos_indexed_at
+    ON search.search_videos (indexed_at DESC);
+CREATE INDEX idx_search_videos_state_indexed_at
+    ON search.search_videos (primary_location_state, indexed_at DESC);
+
+-- Every state lookup can use one of the composite indexes above
+DROP INDEX search.idx_search_videos_state;
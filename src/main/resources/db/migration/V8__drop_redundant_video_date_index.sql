@@ -0,0 +1,8 @@
+-- The from/to and minDuration/maxDuration filters are range predicates on video_date and
+-- duration_seconds. The V7 sort indexes already serve them as B-tree range scans, alone or after
+-- primary_location_state, which leaves the original ascending video_date index unused.
+--
+-- No BRIN index: rows are written in approval order and reindexes load them in video-service page
+-- order, so video_date is not correlated with the physical layout and nearly every block range
+-- would span the whole date range.
+DROP INDEX search.idx_search_videos_video_date;
@@ -0,0 +1,18 @@
+-- Indexed videos per combination of state, amendments and participants. IndexingService moves a
+-- video between combinations in the same transaction as its write, and a reindex recounts the
+-- table when it swaps in the rebuilt one. Facet panels for the empty query or a single state read
+-- these few hundred rows instead of every video.
+CREATE TABLE search.facet_counts (
+    primary_location_state VARCHAR(50),
+    amendments_mask INTEGER NOT NULL,
+    participants_mask INTEGER NOT NULL,
+    video_count BIGINT NOT NULL,
+    CONSTRAINT uq_facet_counts_combination
+        UNIQUE NULLS NOT DISTINCT (primary_location_state, amendments_mask, participants_mask)
+);
+
+INSERT INTO search.facet_counts
+    (primary_location_state, amendments_mask, participants_mask, video_count)
+SELECT primary_location_state, amendments_mask, participants_mask, COUNT(*)
+FROM search.search_videos
+GROUP BY primary_location_state, amendments_mask, participants_mask;
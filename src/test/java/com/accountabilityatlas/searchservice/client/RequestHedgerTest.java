@@ -0,0 +1,145 @@
+package com.accountabilityatlas.searchservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class RequestHedgerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Test
+  void hedge_whenDisabled_sendsOneRequest() {
+    // Arrange
+    RequestHedger hedger = hedger(false, 1.0);
+
+    // Act
+    String result =
+        hedger.hedge(responses(Mono.delay(Duration.ofMillis(50)).thenReturn("slow"))).block();
+
+    // Assert
+    assertThat(result).isEqualTo("slow");
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void hedge_whenFirstRequestIsSlow_takesHedgeAnswer() {
+    // Arrange
+    RequestHedger hedger = hedger(true, 1.0);
+
+    // Act
+    String result = hedger.hedge(responses(Mono.never(), Mono.just("hedge"))).block();
+
+    // Assert
+    assertThat(result).isEqualTo("hedge");
+    assertThat(requests).hasValue(2);
+    assertThat(hedges("won")).isEqualTo(1);
+  }
+
+  @Test
+  void hedge_whenFirstRequestAnswersInTime_sendsNoHedge() {
+    // Arrange
+    RequestHedger hedger = hedger(true, 1.0);
+
+    // Act
+    String result = hedger.hedge(responses(Mono.just("first"), Mono.just("hedge"))).block();
+
+    // Assert
+    assertThat(result).isEqualTo("first");
+    assertThat(requests).hasValue(1);
+    assertThat(hedges("won") + hedges("lost")).isZero();
+  }
+
+  @Test
+  void hedge_whenBudgetIsSpent_waitsForFirstRequest() {
+    // Arrange
+    RequestHedger hedger = hedger(true, 0.05);
+
+    // Act
+    String result =
+        hedger
+            .hedge(responses(Mono.delay(Duration.ofMillis(50)).thenReturn("slow"), Mono.never()))
+            .block();
+
+    // Assert
+    assertThat(result).isEqualTo("slow");
+    assertThat(requests).hasValue(1);
+    assertThat(hedges("denied")).isEqualTo(1);
+  }
+
+  @Test
+  void hedge_whenFirstRequestFails_reportsItsError() {
+    // Arrange
+    RequestHedger hedger = hedger(true, 1.0);
+    Mono<String> failure = Mono.error(new IllegalStateException("404"));
+
+    // Act & Assert
+    assertThatThrownBy(() -> hedger.hedge(responses(failure, Mono.just("hedge"))).block())
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void hedge_whenHedgeFails_keepsWaitingForFirstRequest() {
+    // Arrange
+    RequestHedger hedger = hedger(true, 1.0);
+    Mono<String> slow = Mono.delay(Duration.ofMillis(50)).thenReturn("slow");
+
+    // Act
+    String result =
+        hedger.hedge(responses(slow, Mono.error(new IllegalStateException("503")))).block();
+
+    // Assert
+    assertThat(result).isEqualTo("slow");
+    assertThat(hedges("lost")).isEqualTo(1);
+  }
+
+  @Test
+  void hedge_afterEnoughResponses_hedgesAtObservedPercentile() {
+    // Arrange
+    RequestHedger hedger =
+        new RequestHedger(
+            new HedgingProperties(true, 0.95, Duration.ofMillis(3), Duration.ofSeconds(1), 1.0, 1),
+            meterRegistry);
+
+    // Act
+    for (int i = 0; i < 32; i++) {
+      hedger.hedge(() -> Mono.just("fast")).block();
+    }
+
+    // Assert
+    assertThat(meterRegistry.get("search.video_service.hedge.delay").gauge().value())
+        .isEqualTo(3.0);
+  }
+
+  private RequestHedger hedger(boolean enabled, double budgetRatio) {
+    // Few samples, so every request waits maxDelay before hedging
+    return new RequestHedger(
+        new HedgingProperties(
+            enabled, 0.95, Duration.ofMillis(1), Duration.ofMillis(10), budgetRatio, 100),
+        meterRegistry);
+  }
+
+  @SafeVarargs
+  private Supplier<Mono<String>> responses(Mono<String>... responses) {
+    Queue<Mono<String>> queue = new ArrayDeque<>(List.of(responses));
+    return () -> {
+      requests.incrementAndGet();
+      return queue.remove();
+    };
+  }
+
+  private double hedges(String result) {
+    return meterRegistry.get("search.video_service.hedges").tag("result", result).counter().count();
+  }
+}
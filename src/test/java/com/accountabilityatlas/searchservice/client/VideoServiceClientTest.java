@@ -4,22 +4,35 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -33,6 +46,7 @@ class VideoServiceClientTest {
   @Mock private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
   @Mock private WebClient.RequestHeadersSpec requestHeadersSpec;
   @Mock private WebClient.ResponseSpec responseSpec;
+  @Captor private ArgumentCaptor<Consumer<HttpHeaders>> headersCaptor;
 
   private VideoServiceClient videoServiceClient;
   private UUID videoId;
@@ -46,16 +60,36 @@ class VideoServiceClientTest {
     when(webClientBuilder.build()).thenReturn(webClient);
     when(webClient.get()).thenReturn(requestHeadersUriSpec);
     when(requestHeadersUriSpec.uri(anyString(), any(Object.class))).thenReturn(requestHeadersSpec);
+    when(requestHeadersSpec.headers(any())).thenReturn(requestHeadersSpec);
     when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
 
-    videoServiceClient = new VideoServiceClient(webClientBuilder, "http://localhost:8082");
+    videoServiceClient =
+        new VideoServiceClient(
+            webClientBuilder,
+            "http://localhost:8082",
+            CircuitBreakerRegistry.of(
+                CircuitBreakerConfig.custom()
+                    .slidingWindowSize(2)
+                    .minimumNumberOfCalls(2)
+                    .recordException(VideoServiceClient::isOutage)
+                    .build()),
+            RetryRegistry.of(
+                RetryConfig.custom()
+                    .maxAttempts(3)
+                    .waitDuration(Duration.ofMillis(1))
+                    .retryOnException(VideoServiceClient::isTransient)
+                    .build()),
+            new RequestHedger(
+                new HedgingProperties(false, 0, null, null, 0, 0), new SimpleMeterRegistry()),
+            new VideoDetailCache(new VideoCacheProperties(true, 10), new SimpleMeterRegistry()));
   }
 
   @Test
   void getVideo_whenVideoExists_returnsVideo() {
     // Arrange
     VideoDetail expectedVideo = createTestVideo(videoId);
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.just(expectedVideo));
+    when(responseSpec.toEntity(VideoDetail.class))
+        .thenReturn(Mono.just(ResponseEntity.ok(expectedVideo)));
 
     // Act
     VideoDetail result = videoServiceClient.getVideo(videoId);
@@ -71,7 +105,7 @@ class VideoServiceClientTest {
     // Arrange
     WebClientResponseException notFound =
         WebClientResponseException.create(404, "Not Found", null, null, null);
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.error(notFound));
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(notFound));
 
     // Act & Assert
     assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
@@ -84,7 +118,7 @@ class VideoServiceClientTest {
     // Arrange
     WebClientResponseException serverError =
         WebClientResponseException.create(500, "Internal Server Error", null, null, null);
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.error(serverError));
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(serverError));
 
     // Act & Assert
     assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
@@ -103,7 +137,7 @@ class VideoServiceClientTest {
     WebClientResponseException unavailable =
         WebClientResponseException.create(
             HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", null, null, null);
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.error(unavailable));
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(unavailable));
 
     // Act & Assert
     assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
@@ -116,6 +150,117 @@ class VideoServiceClientTest {
             });
   }
 
+  @Test
+  void fetchVideo_whenNotModified_returnsCachedCopyAndSendsValidators() {
+    // Arrange
+    HttpHeaders validators = new HttpHeaders();
+    validators.setETag("\"v1\"");
+    when(responseSpec.toEntity(VideoDetail.class))
+        .thenReturn(
+            Mono.just(ResponseEntity.ok().headers(validators).body(createTestVideo(videoId))),
+            Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+    videoServiceClient.fetchVideo(videoId);
+
+    // Act
+    FetchedVideo result = videoServiceClient.fetchVideo(videoId);
+
+    // Assert
+    assertThat(result.notModified()).isTrue();
+    assertThat(result.video().id()).isEqualTo(videoId);
+    verify(requestHeadersSpec, times(2)).headers(headersCaptor.capture());
+    HttpHeaders sent = new HttpHeaders();
+    headersCaptor.getAllValues().get(1).accept(sent);
+    assertThat(sent.getIfNoneMatch()).containsExactly("\"v1\"");
+  }
+
+  @Test
+  void fetchVideo_withoutValidators_doesNotCache() {
+    // Arrange
+    when(responseSpec.toEntity(VideoDetail.class))
+        .thenReturn(Mono.just(ResponseEntity.ok(createTestVideo(videoId))));
+    videoServiceClient.fetchVideo(videoId);
+
+    // Act
+    FetchedVideo result = videoServiceClient.fetchVideo(videoId);
+
+    // Assert
+    assertThat(result.notModified()).isFalse();
+    verify(requestHeadersSpec, times(2)).headers(headersCaptor.capture());
+    HttpHeaders sent = new HttpHeaders();
+    headersCaptor.getAllValues().get(1).accept(sent);
+    assertThat(sent.getIfNoneMatch()).isEmpty();
+  }
+
+  @Test
+  void getVideo_whenServiceUnavailableOnce_retriesAndReturnsVideo() {
+    // Arrange
+    WebClientResponseException unavailable =
+        WebClientResponseException.create(
+            HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", null, null, null);
+    when(responseSpec.toEntity(VideoDetail.class))
+        .thenReturn(
+            Mono.error(unavailable), Mono.just(ResponseEntity.ok(createTestVideo(videoId))));
+
+    // Act
+    VideoDetail result = videoServiceClient.getVideo(videoId);
+
+    // Assert
+    assertThat(result.id()).isEqualTo(videoId);
+    verify(webClient, times(2)).get();
+  }
+
+  @Test
+  void getVideo_whenServerError_doesNotRetryInClient() {
+    // Arrange
+    WebClientResponseException serverError =
+        WebClientResponseException.create(500, "Internal Server Error", null, null, null);
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(serverError));
+
+    // Act
+    assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
+        .isInstanceOf(VideoServiceException.class);
+
+    // Assert
+    verify(webClient, times(1)).get();
+  }
+
+  @Test
+  void getVideo_afterRepeatedOutages_failsFastWithoutCallingVideoService() {
+    // Arrange
+    WebClientResponseException serverError =
+        WebClientResponseException.create(500, "Internal Server Error", null, null, null);
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(serverError));
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
+          .isInstanceOf(VideoServiceException.class);
+    }
+
+    // Act & Assert
+    assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
+        .isInstanceOf(VideoServiceException.class)
+        .hasMessageContaining("circuit breaker is open")
+        .hasCauseInstanceOf(CallNotPermittedException.class)
+        .satisfies(ex -> assertThat(((VideoServiceException) ex).isRetryable()).isTrue());
+    verify(webClient, times(2)).get();
+  }
+
+  @Test
+  void getVideo_afterRepeatedNotFound_keepsCallingVideoService() {
+    // Arrange
+    WebClientResponseException notFound =
+        WebClientResponseException.create(404, "Not Found", null, null, null);
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(notFound));
+
+    // Act
+    for (int i = 0; i < 3; i++) {
+      assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
+          .isInstanceOf(VideoNotFoundException.class);
+    }
+
+    // Assert
+    verify(webClient, times(3)).get();
+  }
+
   @Test
   void getVideo_whenConnectionError_throwsRetryableVideoServiceException() {
     // Arrange
@@ -125,7 +270,7 @@ class VideoServiceClientTest {
             HttpMethod.GET,
             URI.create("http://localhost:8082/videos/" + videoId),
             HttpHeaders.EMPTY);
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.error(connectionError));
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(connectionError));
 
     // Act & Assert
     assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
@@ -143,7 +288,7 @@ class VideoServiceClientTest {
     // Arrange
     WebClientResponseException badRequest =
         WebClientResponseException.create(400, "Bad Request", null, null, null);
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.error(badRequest));
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.error(badRequest));
 
     // Act & Assert
     assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
@@ -158,7 +303,7 @@ class VideoServiceClientTest {
   @Test
   void getVideo_whenResponseIsNull_throwsVideoNotFoundException() {
     // Arrange
-    when(responseSpec.bodyToMono(VideoDetail.class)).thenReturn(Mono.empty());
+    when(responseSpec.toEntity(VideoDetail.class)).thenReturn(Mono.empty());
 
     // Act & Assert
     assertThatThrownBy(() -> videoServiceClient.getVideo(videoId))
@@ -180,6 +325,7 @@ class VideoServiceClientTest {
         List.of("POLICE", "CITIZEN"),
         "APPROVED",
         OffsetDateTime.now(ZoneOffset.UTC),
-        null);
+        null,
+        1L);
   }
 }
@@ -0,0 +1,111 @@
+package com.accountabilityatlas.searchservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRoutingDataSourceTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final DataSource primary = mock(DataSource.class);
+  private final DataSource replica1 = mock(DataSource.class);
+  private final DataSource replica2 = mock(DataSource.class);
+  private final Connection primaryConnection = mock(Connection.class);
+  private final Connection replica1Connection = mock(Connection.class);
+  private final Connection replica2Connection = mock(Connection.class);
+
+  private ReplicaRoutingDataSource routingDataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    when(primary.getConnection()).thenReturn(primaryConnection);
+    when(replica1.getConnection()).thenReturn(replica1Connection);
+    when(replica2.getConnection()).thenReturn(replica2Connection);
+
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    replicas.put("replica-1", replica1);
+    replicas.put("replica-2", replica2);
+    routingDataSource =
+        new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(10), meterRegistry);
+    routingDataSource.afterPropertiesSet();
+  }
+
+  @Test
+  void getConnection_beforeFirstLagCheck_usesPrimary() throws SQLException {
+    // Act
+    Connection connection = routingDataSource.getConnection();
+
+    // Assert
+    assertThat(connection).isSameAs(primaryConnection);
+    assertThat(meterRegistry.counter("search.datasource.replica.fallbacks").count()).isEqualTo(1);
+  }
+
+  @Test
+  void getConnection_withHealthyReplicas_roundRobinsOverThem() throws SQLException {
+    // Arrange
+    stubLag(replica1Connection, 0.5);
+    stubLag(replica2Connection, 0);
+    routingDataSource.checkLag();
+
+    // Act & Assert
+    assertThat(routingDataSource.getConnection()).isSameAs(replica1Connection);
+    assertThat(routingDataSource.getConnection()).isSameAs(replica2Connection);
+    assertThat(routingDataSource.getConnection()).isSameAs(replica1Connection);
+  }
+
+  @Test
+  void getConnection_skipsReplicaBehindMaxLag() throws SQLException {
+    // Arrange
+    stubLag(replica1Connection, 30);
+    stubLag(replica2Connection, 1);
+    routingDataSource.checkLag();
+
+    // Act & Assert
+    assertThat(routingDataSource.getConnection()).isSameAs(replica2Connection);
+    assertThat(routingDataSource.getConnection()).isSameAs(replica2Connection);
+    assertThat(lag("replica-1")).isEqualTo(30);
+  }
+
+  @Test
+  void getConnection_whenLagChecksFail_fallsBackToPrimary() throws SQLException {
+    // Arrange
+    stubLag(replica1Connection, 0);
+    stubLag(replica2Connection, 0);
+    routingDataSource.checkLag();
+    when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+    when(replica2.getConnection()).thenThrow(new SQLException("connection refused"));
+
+    // Act
+    routingDataSource.checkLag();
+
+    // Assert
+    assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    assertThat(lag("replica-2")).isNaN();
+  }
+
+  private double lag(String pool) {
+    return meterRegistry.get("search.datasource.replica.lag").tag("pool", pool).gauge().value();
+  }
+
+  private static void stubLag(Connection connection, double lagSeconds) throws SQLException {
+    Statement statement = mock(Statement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(connection.createStatement()).thenReturn(statement);
+    when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+  }
+}
@@ -0,0 +1,53 @@
+package com.accountabilityatlas.searchservice.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EnumMasksTest {
+
+  @Test
+  void toMask_setsOneBitPerOrdinal() {
+    assertThat(EnumMasks.toMask(EnumSet.of(Amendment.FIRST))).isEqualTo(1);
+    assertThat(EnumMasks.toMask(EnumSet.of(Amendment.FIRST, Amendment.FOURTH))).isEqualTo(5);
+    assertThat(EnumMasks.toMask(EnumSet.allOf(Participant.class))).isEqualTo(15);
+  }
+
+  @Test
+  void toMask_withNullOrEmpty_returnsZero() {
+    assertThat(EnumMasks.toMask((EnumSet<Amendment>) null)).isZero();
+    assertThat(EnumMasks.toMask(EnumSet.noneOf(Amendment.class))).isZero();
+  }
+
+  @Test
+  void fromMask_roundTripsToMask() {
+    EnumSet<Participant> participants = EnumSet.of(Participant.GOVERNMENT, Participant.CITIZEN);
+
+    assertThat(EnumMasks.fromMask(EnumMasks.toMask(participants), Participant.class))
+        .isEqualTo(participants);
+  }
+
+  @Test
+  void fromMask_ignoresUnknownBits() {
+    assertThat(EnumMasks.fromMask(1 | 1 << 20, Amendment.class)).containsExactly(Amendment.FIRST);
+  }
+
+  @Test
+  void parse_dropsUnknownNames() {
+    assertThat(EnumMasks.parse(List.of("FIRST", "INVALID", "};DROP TABLE--"), Amendment.class))
+        .containsExactly(Amendment.FIRST);
+  }
+
+  @Test
+  void parse_withNull_returnsEmptySet() {
+    assertThat(EnumMasks.parse(null, Participant.class)).isEmpty();
+  }
+
+  @Test
+  void converters_mapNullColumnToEmptySet() {
+    assertThat(new AmendmentMaskConverter().convertToEntityAttribute(null)).isEmpty();
+    assertThat(new ParticipantMaskConverter().convertToDatabaseColumn(null)).isZero();
+  }
+}
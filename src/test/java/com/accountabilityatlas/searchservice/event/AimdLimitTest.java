@@ -0,0 +1,57 @@
+package com.accountabilityatlas.searchservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AimdLimitTest {
+
+  private static final ModerationLaneProperties.Adaptive SETTINGS =
+      new ModerationLaneProperties.Adaptive(
+          true, Duration.ofSeconds(5), 1, 6, Duration.ofMillis(100), 0.2, 0.5, 0);
+  private static final long FAST = Duration.ofMillis(10).toNanos();
+  private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+  @Test
+  void update_whenBackloggedAndHealthy_growsByOneUpToMax() {
+    // Arrange
+    AimdLimit limit = new AimdLimit(5, SETTINGS);
+
+    // Act & Assert
+    limit.record(FAST, false);
+    assertThat(limit.update(true, false)).isEqualTo(6);
+    limit.record(FAST, false);
+    assertThat(limit.update(true, false)).isEqualTo(6);
+  }
+
+  @Test
+  void update_whenNotBacklogged_holdsLimit() {
+    // Arrange
+    AimdLimit limit = new AimdLimit(3, SETTINGS);
+    limit.record(FAST, false);
+
+    // Act & Assert
+    assertThat(limit.update(false, false)).isEqualTo(3);
+  }
+
+  @Test
+  void update_whenSlowFailingOrPoolSaturated_halvesDownToMin() {
+    // Arrange
+    AimdLimit limit = new AimdLimit(6, SETTINGS);
+
+    // Act & Assert
+    limit.record(SLOW, false);
+    assertThat(limit.update(true, false)).isEqualTo(3);
+    limit.record(FAST, true);
+    limit.record(FAST, false);
+    assertThat(limit.update(true, false)).isEqualTo(1);
+    assertThat(limit.update(false, true)).isEqualTo(1);
+  }
+
+  @Test
+  void constructor_clampsInitialLimitToBounds() {
+    assertThat(new AimdLimit(50, SETTINGS).limit()).isEqualTo(6);
+    assertThat(new AimdLimit(0, SETTINGS).limit()).isEqualTo(1);
+  }
+}
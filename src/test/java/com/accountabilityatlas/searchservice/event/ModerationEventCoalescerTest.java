@@ -0,0 +1,98 @@
+package com.accountabilityatlas.searchservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ModerationEventCoalescerTest {
+
+  private final UUID videoId = UUID.randomUUID();
+  private final Instant start = Instant.parse("2024-03-01T10:00:00Z");
+  private final List<ModerationEventCoalescer> coalescers = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    coalescers.forEach(ModerationEventCoalescer::close);
+  }
+
+  @Test
+  void awaitNewest_isolatedEvent_isAppliedWithoutWaiting() {
+    // Arrange
+    ModerationEventCoalescer coalescer = coalescer(Duration.ofSeconds(30));
+
+    // Act
+    CompletableFuture<Boolean> apply = coalescer.awaitNewest(approved(start));
+
+    // Assert
+    assertThat(apply).isCompletedWithValue(true);
+  }
+
+  @Test
+  void awaitNewest_burst_appliesOnlyLatestEvent() {
+    // Arrange
+    ModerationEventCoalescer coalescer = coalescer(Duration.ofMillis(500));
+    coalescer.awaitNewest(approved(start));
+
+    // Act
+    CompletableFuture<Boolean> rejection = coalescer.awaitNewest(rejected(start.plusSeconds(1)));
+    CompletableFuture<Boolean> reapproval = coalescer.awaitNewest(approved(start.plusSeconds(2)));
+
+    // Assert
+    assertThat(rejection).isNotDone();
+    assertThat(rejection.join()).isFalse();
+    assertThat(reapproval.join()).isTrue();
+  }
+
+  @Test
+  void awaitNewest_eventOlderThanLatest_isDropped() {
+    // Arrange
+    ModerationEventCoalescer coalescer = coalescer(Duration.ZERO);
+    coalescer.awaitNewest(approved(start));
+
+    // Act
+    CompletableFuture<Boolean> apply = coalescer.awaitNewest(rejected(start.minusSeconds(1)));
+
+    // Assert
+    assertThat(apply).isCompletedWithValue(false);
+  }
+
+  @Test
+  void isDuplicate_forgetsLeastRecentlyProcessedBeyondCapacity() {
+    // Arrange
+    ModerationEventCoalescer coalescer = coalescer(Duration.ZERO, 2);
+    VideoApprovedEvent first = approved(start);
+    coalescer.markProcessed(first);
+    coalescer.markProcessed(approved(start.plusSeconds(1)));
+    coalescer.markProcessed(approved(start.plusSeconds(2)));
+
+    // Act & Assert
+    assertThat(coalescer.isDuplicate(first)).isFalse();
+    assertThat(coalescer.isDuplicate(approved(start.plusSeconds(2)))).isTrue();
+  }
+
+  private ModerationEventCoalescer coalescer(Duration window) {
+    return coalescer(window, 100);
+  }
+
+  private ModerationEventCoalescer coalescer(Duration window, int capacity) {
+    ModerationEventCoalescer coalescer =
+        new ModerationEventCoalescer(new CoalescingProperties(window, capacity));
+    coalescers.add(coalescer);
+    return coalescer;
+  }
+
+  private VideoApprovedEvent approved(Instant timestamp) {
+    return new VideoApprovedEvent(videoId, null, timestamp);
+  }
+
+  private VideoRejectedEvent rejected(Instant timestamp) {
+    return new VideoRejectedEvent(videoId, null, "OFF_TOPIC", timestamp);
+  }
+}
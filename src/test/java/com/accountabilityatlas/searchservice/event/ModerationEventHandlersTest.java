@@ -1,14 +1,23 @@
 package com.accountabilityatlas.searchservice.event;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import com.accountabilityatlas.searchservice.service.IndexingService;
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -16,33 +25,55 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class ModerationEventHandlersTest {
 
   @Mock private IndexingService indexingService;
-  @InjectMocks private ModerationEventHandlers handlers;
+  @Mock private Visibility visibility;
+  private ModerationLanes lanes;
+  private ModerationEventCoalescer coalescer;
+  private ModerationEventHandlers handlers;
+
+  @BeforeEach
+  void setUp() {
+    lanes =
+        new ModerationLanes(
+            new ModerationLaneProperties(1, 1, 1, Duration.ofSeconds(30), null, null),
+            new SimpleMeterRegistry());
+    coalescer = new ModerationEventCoalescer(new CoalescingProperties(Duration.ofMillis(200), 100));
+    handlers = new ModerationEventHandlers(indexingService, coalescer, lanes);
+    lenient()
+        .when(visibility.changeToAsync(anyInt()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    coalescer.close();
+    lanes.close();
+  }
 
   @Test
-  void handleModerationEvent_videoApproved_callsIndexVideo() {
+  void handleModerationEvent_videoApproved_callsApproveVideo() {
     // Arrange
     UUID videoId = UUID.randomUUID();
     VideoApprovedEvent event = new VideoApprovedEvent(videoId, UUID.randomUUID(), Instant.now());
 
     // Act
-    handlers.handleModerationEvent(event);
+    handlers.handleModerationEvent(event, visibility).join();
 
     // Assert
-    verify(indexingService).indexVideo(videoId);
+    verify(indexingService).approveVideo(videoId, event.timestamp());
   }
 
   @Test
-  void handleModerationEvent_videoRejected_callsRemoveVideo() {
+  void handleModerationEvent_videoRejected_callsRejectVideo() {
     // Arrange
     UUID videoId = UUID.randomUUID();
     VideoRejectedEvent event =
         new VideoRejectedEvent(videoId, UUID.randomUUID(), "OFF_TOPIC", Instant.now());
 
     // Act
-    handlers.handleModerationEvent(event);
+    handlers.handleModerationEvent(event, visibility).join();
 
     // Assert
-    verify(indexingService).removeVideo(videoId);
+    verify(indexingService).rejectVideo(videoId, event.timestamp());
   }
 
   @Test
@@ -52,10 +83,14 @@ class ModerationEventHandlersTest {
     VideoApprovedEvent event = new VideoApprovedEvent(videoId, UUID.randomUUID(), Instant.now());
 
     RuntimeException indexingException = new RuntimeException("OpenSearch unavailable");
-    doThrow(indexingException).when(indexingService).indexVideo(videoId);
+    doThrow(indexingException)
+        .when(indexingService)
+        .approveVideo(videoId, event.timestamp());
 
     // Act & Assert
-    assertThatThrownBy(() -> handlers.handleModerationEvent(event)).isSameAs(indexingException);
+    assertThatThrownBy(() -> handlers.handleModerationEvent(event, visibility).join())
+        .isInstanceOf(CompletionException.class)
+        .hasCause(indexingException);
   }
 
   @Test
@@ -66,9 +101,137 @@ class ModerationEventHandlersTest {
         new VideoRejectedEvent(videoId, UUID.randomUUID(), "OFF_TOPIC", Instant.now());
 
     RuntimeException removalException = new RuntimeException("OpenSearch unavailable");
-    doThrow(removalException).when(indexingService).removeVideo(videoId);
+    doThrow(removalException).when(indexingService).rejectVideo(videoId, event.timestamp());
 
     // Act & Assert
-    assertThatThrownBy(() -> handlers.handleModerationEvent(event)).isSameAs(removalException);
+    assertThatThrownBy(() -> handlers.handleModerationEvent(event, visibility).join())
+        .isInstanceOf(CompletionException.class)
+        .hasCause(removalException);
+  }
+
+  @Test
+  void handleModerationEvent_redelivery_isAppliedOnce() {
+    // Arrange
+    UUID videoId = UUID.randomUUID();
+    VideoApprovedEvent event = new VideoApprovedEvent(videoId, UUID.randomUUID(), Instant.now());
+
+    // Act
+    handlers.handleModerationEvent(event, visibility).join();
+    handlers.handleModerationEvent(event, visibility).join();
+
+    // Assert
+    verify(indexingService, times(1)).approveVideo(videoId, event.timestamp());
+  }
+
+  @Test
+  void handleModerationEvent_olderEventAfterNewer_isDropped() {
+    // Arrange
+    UUID videoId = UUID.randomUUID();
+    Instant approvedAt = Instant.parse("2024-03-01T10:00:00Z");
+    VideoApprovedEvent approved = new VideoApprovedEvent(videoId, UUID.randomUUID(), approvedAt);
+    VideoRejectedEvent earlierRejection =
+        new VideoRejectedEvent(
+            videoId, UUID.randomUUID(), "OFF_TOPIC", approvedAt.minusSeconds(60));
+
+    // Act
+    handlers.handleModerationEvent(approved, visibility).join();
+    handlers.handleModerationEvent(earlierRejection, visibility).join();
+
+    // Assert
+    verify(indexingService).approveVideo(videoId, approvedAt);
+    verify(indexingService, never()).rejectVideo(any(), any());
+  }
+
+  @Test
+  void handleModerationEvent_afterFailure_redeliveryIsRetried() {
+    // Arrange
+    UUID videoId = UUID.randomUUID();
+    VideoApprovedEvent event = new VideoApprovedEvent(videoId, UUID.randomUUID(), Instant.now());
+    doThrow(new RuntimeException("Video-service unavailable"))
+        .doNothing()
+        .when(indexingService)
+        .approveVideo(videoId, event.timestamp());
+
+    // Act
+    assertThatThrownBy(() -> handlers.handleModerationEvent(event, visibility).join())
+        .isInstanceOf(CompletionException.class);
+    handlers.handleModerationEvent(event, visibility).join();
+
+    // Assert
+    verify(indexingService, times(2)).approveVideo(videoId, event.timestamp());
+  }
+
+  @Test
+  void handleModerationEvent_burst_appliesOnlyTheLastEventWithoutHoldingTheLane() {
+    // Arrange
+    UUID videoId = UUID.randomUUID();
+    Instant approvedAt = Instant.parse("2024-03-01T10:00:00Z");
+    handlers
+        .handleModerationEvent(
+            new VideoApprovedEvent(videoId, UUID.randomUUID(), approvedAt), visibility)
+        .join();
+    VideoRejectedEvent rejection =
+        new VideoRejectedEvent(videoId, UUID.randomUUID(), "OFF_TOPIC", approvedAt.plusSeconds(1));
+    VideoApprovedEvent reapproval =
+        new VideoApprovedEvent(videoId, UUID.randomUUID(), approvedAt.plusSeconds(2));
+    UUID otherVideoId = UUID.randomUUID();
+    Instant otherApprovedAt = Instant.now();
+
+    // Act
+    CompletableFuture<Void> rejected = handlers.handleModerationEvent(rejection, visibility);
+    CompletableFuture<Void> reapproved = handlers.handleModerationEvent(reapproval, visibility);
+    // The single approval thread is free while the burst waits out its window
+    handlers
+        .handleModerationEvent(
+            new VideoApprovedEvent(otherVideoId, UUID.randomUUID(), otherApprovedAt), visibility)
+        .join();
+    boolean burstStillWaiting = !reapproved.isDone();
+    CompletableFuture.allOf(rejected, reapproved).join();
+
+    // Assert
+    assertThat(burstStillWaiting).isTrue();
+    verify(indexingService).approveVideo(otherVideoId, otherApprovedAt);
+    verify(indexingService, never()).rejectVideo(any(), any());
+    verify(indexingService).approveVideo(videoId, reapproval.timestamp());
+  }
+
+  @Test
+  void handleModerationEvent_approvalLaneFull_defersApprovalAndStillAppliesRejection()
+      throws Exception {
+    // Arrange
+    CountDownLatch release = new CountDownLatch(1);
+    UUID busyVideoId = UUID.randomUUID();
+    doAnswer(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              return null;
+            })
+        .when(indexingService)
+        .approveVideo(eq(busyVideoId), any());
+    CompletableFuture<Void> busy =
+        handlers.handleModerationEvent(
+            new VideoApprovedEvent(busyVideoId, UUID.randomUUID(), Instant.now()), visibility);
+    UUID rejectedVideoId = UUID.randomUUID();
+    VideoRejectedEvent rejection =
+        new VideoRejectedEvent(rejectedVideoId, UUID.randomUUID(), "OFF_TOPIC", Instant.now());
+
+    try {
+      // Act
+      CompletableFuture<Void> overflow =
+          handlers.handleModerationEvent(
+              new VideoApprovedEvent(UUID.randomUUID(), UUID.randomUUID(), Instant.now()),
+              visibility);
+      handlers.handleModerationEvent(rejection, visibility).get(5, TimeUnit.SECONDS);
+
+      // Assert
+      assertThatThrownBy(() -> overflow.get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(LaneFullException.class);
+      verify(visibility).changeToAsync(30);
+      verify(indexingService).rejectVideo(rejectedVideoId, rejection.timestamp());
+      assertThat(busy).isNotDone();
+    } finally {
+      release.countDown();
+    }
+    busy.get(5, TimeUnit.SECONDS);
   }
 }
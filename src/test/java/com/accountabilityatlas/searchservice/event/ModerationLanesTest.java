@@ -0,0 +1,317 @@
+package com.accountabilityatlas.searchservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ModerationLanesTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ModerationLanes lanes =
+      new ModerationLanes(new ModerationLaneProperties(1, 1, 0, null, null, null), meterRegistry);
+  private final Visibility visibility = mock(Visibility.class);
+
+  @BeforeEach
+  void setUp() {
+    when(visibility.changeToAsync(anyInt())).thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    lanes.close();
+  }
+
+  @Test
+  void submit_removalIsAppliedWhileApprovalLaneIsBusy() throws Exception {
+    // Arrange
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> approval =
+        lanes.submit(approved(), visibility, () -> true, () -> await(release));
+    CompletableFuture<Void> queuedApproval =
+        lanes.submit(approved(), visibility, () -> true, () -> {});
+
+    // Act
+    CompletableFuture<Void> removal = lanes.submit(rejected(), visibility, () -> true, () -> {});
+
+    // Assert
+    removal.get(5, TimeUnit.SECONDS);
+    assertThat(approval).isNotDone();
+    assertThat(queuedApproval).isNotDone();
+    release.countDown();
+    CompletableFuture.allOf(approval, queuedApproval).get(5, TimeUnit.SECONDS);
+    assertThat(events("approval", "applied")).isEqualTo(2);
+    assertThat(events("removal", "applied")).isEqualTo(1);
+  }
+
+  @Test
+  void submit_approvalLaneFull_defersApprovalsButNotRemovals() throws Exception {
+    // Arrange
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ModerationLanes boundedLanes =
+        new ModerationLanes(
+            new ModerationLaneProperties(1, 1, 1, Duration.ofSeconds(30), null, null), registry);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try {
+      CompletableFuture<Void> approval =
+          boundedLanes.submit(approved(), visibility, () -> true, () -> await(release));
+
+      // Act
+      CompletableFuture<Void> overflow =
+          boundedLanes.submit(approved(), visibility, () -> true, () -> {});
+      CompletableFuture<Void> removal =
+          boundedLanes.submit(rejected(), visibility, () -> true, () -> {});
+
+      // Assert
+      assertThatThrownBy(overflow::join)
+          .isInstanceOf(CompletionException.class)
+          .hasCauseInstanceOf(LaneFullException.class);
+      removal.get(5, TimeUnit.SECONDS);
+      release.countDown();
+      approval.get(5, TimeUnit.SECONDS);
+      boundedLanes.submit(approved(), visibility, () -> true, () -> {}).get(5, TimeUnit.SECONDS);
+      assertThat(
+              registry
+                  .get("search.moderation.lane.events")
+                  .tag("lane", "approval")
+                  .tag("outcome", "deferred")
+                  .counter()
+                  .count())
+          .isEqualTo(1);
+    } finally {
+      release.countDown();
+      boundedLanes.close();
+    }
+  }
+
+  @Test
+  void submit_recordsDroppedAndFailedEvents() {
+    // Act
+    lanes.submit(rejected(), visibility, () -> false, () -> {}).join();
+    CompletableFuture<Void> failure =
+        lanes.submit(
+            rejected(),
+            visibility,
+            () -> true,
+            () -> {
+              throw new IllegalStateException("database unavailable");
+            });
+
+    // Assert
+    assertThatThrownBy(failure::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(events("removal", "dropped")).isEqualTo(1);
+    assertThat(events("removal", "failed")).isEqualTo(1);
+    assertThat(
+            meterRegistry.get("search.moderation.lane.lag").tag("lane", "removal").timer().count())
+        .isZero();
+  }
+
+  @Test
+  void adjustConcurrency_whenDatabasePoolSaturated_backsOffApprovalLane() throws Exception {
+    // Arrange
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ModerationLanes adaptiveLanes =
+        new ModerationLanes(
+            new ModerationLaneProperties(
+                2,
+                8,
+                0,
+                null,
+                null,
+                new ModerationLaneProperties.Adaptive(true, null, 1, 16, null, 0, 0.5, 0)),
+            registry);
+    AtomicInteger pending = new AtomicInteger(3);
+    Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get)
+        .tag("pool", "primary")
+        .register(registry);
+
+    try {
+      // Act
+      adaptiveLanes.adjustConcurrency();
+
+      // Assert
+      assertThat(limit(registry, "approval")).isEqualTo(4);
+      assertThat(limit(registry, "removal")).isEqualTo(1);
+    } finally {
+      adaptiveLanes.close();
+    }
+  }
+
+  @Test
+  void adjustConcurrency_ignoresTimeSpentAdmittingEvents() throws Exception {
+    // Arrange
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ModerationLanes adaptiveLanes =
+        new ModerationLanes(
+            new ModerationLaneProperties(
+                2,
+                2,
+                0,
+                null,
+                null,
+                new ModerationLaneProperties.Adaptive(
+                    true, null, 1, 16, Duration.ofMillis(50), 0, 0.5, 0)),
+            registry);
+
+    try {
+      // Act
+      adaptiveLanes
+          .submit(
+              approved(),
+              visibility,
+              () -> {
+                // Stands in for a coalescing wait, well over the latency target
+                sleep(Duration.ofMillis(200));
+                return true;
+              },
+              () -> {})
+          .get(5, TimeUnit.SECONDS);
+      adaptiveLanes.adjustConcurrency();
+
+      // Assert
+      assertThat(limit(registry, "approval")).isEqualTo(2);
+    } finally {
+      adaptiveLanes.close();
+    }
+  }
+
+  @Test
+  void submit_whenAdaptiveLimitBacksOff_admitsOnlyQueuedPerThread() throws Exception {
+    // Arrange
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ModerationLanes adaptiveLanes =
+        new ModerationLanes(
+            new ModerationLaneProperties(
+                2,
+                4,
+                0,
+                null,
+                null,
+                new ModerationLaneProperties.Adaptive(true, null, 1, 16, null, 0, 0.5, 2)),
+            registry);
+    Gauge.builder("hikaricp.connections.pending", () -> 1).register(registry);
+    CountDownLatch release = new CountDownLatch(1);
+    List<CompletableFuture<Void>> admitted = new ArrayList<>();
+
+    try {
+      // Act
+      adaptiveLanes.adjustConcurrency();
+      for (int i = 0; i < 4; i++) {
+        admitted.add(
+            adaptiveLanes.submit(approved(), visibility, () -> true, () -> await(release)));
+      }
+      CompletableFuture<Void> excess =
+          adaptiveLanes.submit(approved(), visibility, () -> true, () -> {});
+
+      // Assert
+      assertThat(limit(registry, "approval")).isEqualTo(2);
+      assertThat(excess).isCompletedExceptionally();
+      assertThatThrownBy(excess::join).hasCauseInstanceOf(LaneFullException.class);
+      release.countDown();
+      CompletableFuture.allOf(admitted.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      adaptiveLanes.close();
+    }
+  }
+
+  @Test
+  void renewQueuedVisibility_renewsOnlyEventsWaitingForAThread() throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Visibility running = mock(Visibility.class);
+    CompletableFuture<Void> approval =
+        lanes.submit(
+            approved(),
+            running,
+            () -> true,
+            () -> {
+              started.countDown();
+              await(release);
+            });
+    await(started);
+    CompletableFuture<Void> queuedApproval =
+        lanes.submit(approved(), visibility, () -> true, () -> {});
+    clearInvocations(visibility);
+
+    // Act
+    lanes.renewQueuedVisibility();
+
+    // Assert
+    verify(visibility).changeToAsync(60);
+    verifyNoInteractions(running);
+    release.countDown();
+    CompletableFuture.allOf(approval, queuedApproval).get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void adjustConcurrency_whenDisabled_keepsConfiguredConcurrency() {
+    // Act
+    lanes.adjustConcurrency();
+
+    // Assert
+    assertThat(limit(meterRegistry, "approval")).isEqualTo(1);
+  }
+
+  private static double limit(SimpleMeterRegistry registry, String lane) {
+    return registry.get("search.moderation.lane.limit").tag("lane", lane).gauge().value();
+  }
+
+  private double events(String lane, String outcome) {
+    return meterRegistry
+        .get("search.moderation.lane.events")
+        .tag("lane", lane)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  private static VideoApprovedEvent approved() {
+    return new VideoApprovedEvent(UUID.randomUUID(), UUID.randomUUID(), Instant.now());
+  }
+
+  private static VideoRejectedEvent rejected() {
+    return new VideoRejectedEvent(UUID.randomUUID(), UUID.randomUUID(), "OFF_TOPIC", Instant.now());
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
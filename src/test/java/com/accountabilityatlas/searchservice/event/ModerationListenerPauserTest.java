@@ -0,0 +1,76 @@
+package com.accountabilityatlas.searchservice.event;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import io.awspring.cloud.sqs.listener.MessageListenerContainer;
+import io.awspring.cloud.sqs.listener.MessageListenerContainerRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+@ExtendWith(MockitoExtension.class)
+class ModerationListenerPauserTest {
+
+  @Mock private MessageListenerContainerRegistry containerRegistry;
+  @Mock private MessageListenerContainer<Object> container;
+
+  private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+  private CircuitBreaker circuitBreaker;
+  private ModerationListenerPauser pauser;
+
+  @BeforeEach
+  void setUp() {
+    when(containerRegistry.getListenerContainers())
+        .thenReturn(List.<MessageListenerContainer<?>>of(container));
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("containerRegistry", containerRegistry);
+    ObjectProvider<MessageListenerContainerRegistry> provider =
+        beanFactory.getBeanProvider(MessageListenerContainerRegistry.class);
+    pauser = new ModerationListenerPauser(circuitBreakerRegistry, provider);
+    circuitBreaker = circuitBreakerRegistry.circuitBreaker(VideoServiceClient.RESILIENCE_NAME);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pauser.close();
+  }
+
+  @Test
+  void whenBreakerOpens_stopsRunningListeners() {
+    // Arrange
+    when(container.isRunning()).thenReturn(true);
+
+    // Act
+    circuitBreaker.transitionToOpenState();
+
+    // Assert
+    verify(container, timeout(1000)).stop();
+    verify(container, never()).start();
+  }
+
+  @Test
+  void whenBreakerHalfOpens_restartsStoppedListeners() {
+    // Arrange
+    when(container.isRunning()).thenReturn(true, false);
+    circuitBreaker.transitionToOpenState();
+    verify(container, timeout(1000)).stop();
+
+    // Act
+    circuitBreaker.transitionToHalfOpenState();
+
+    // Assert
+    verify(container, timeout(1000)).start();
+  }
+}
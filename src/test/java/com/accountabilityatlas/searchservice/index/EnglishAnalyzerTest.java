@@ -0,0 +1,42 @@
+package com.accountabilityatlas.searchservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class EnglishAnalyzerTest {
+
+  @ParameterizedTest
+  @CsvSource({
+    "police, polic",
+    "amendment, amend",
+    "amendments, amend",
+    "auditing, audit",
+    "audited, audit",
+    "agreed, agre",
+    "generously, generous",
+    "communication, communic",
+    "sky, sky",
+    "dying, die",
+    "news, news",
+    "a, a"
+  })
+  void stem_matchesPorter2(String word, String expected) {
+    assertThat(EnglishStemmer.stem(word)).isEqualTo(expected);
+  }
+
+  @Test
+  void analyze_lowercasesStemsAndDropsStopWords() {
+    assertThat(EnglishAnalyzer.analyze("First Amendment audit of the 61st Precinct, don't stop!"))
+        .containsExactly("first", "amend", "audit", "61st", "precinct", "stop");
+  }
+
+  @Test
+  void analyze_withNullOrBlank_returnsEmpty() {
+    assertThat(EnglishAnalyzer.analyze(null)).isEmpty();
+    assertThat(EnglishAnalyzer.analyze("  ")).isEmpty();
+    assertThat(EnglishAnalyzer.analyze("the and of")).isEmpty();
+  }
+}
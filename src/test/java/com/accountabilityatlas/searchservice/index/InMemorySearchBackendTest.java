@@ -0,0 +1,282 @@
+package com.accountabilityatlas.searchservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import com.accountabilityatlas.searchservice.service.PostgresSearchBackend;
+import com.accountabilityatlas.searchservice.service.RemoteIndexChangedEvent;
+import com.accountabilityatlas.searchservice.service.RemoteIndexResyncEvent;
+import com.accountabilityatlas.searchservice.service.SearchCriteria;
+import com.accountabilityatlas.searchservice.service.SearchIndexChangedEvent;
+import com.accountabilityatlas.searchservice.service.SearchRanges;
+import com.accountabilityatlas.searchservice.service.SearchSort;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+class InMemorySearchBackendTest {
+
+  private static final SearchCriteria ALL =
+      new SearchCriteria(null, 0, 0, null, null, null, null, null);
+
+  @Mock private SearchVideoRepository searchVideoRepository;
+  @Mock private PostgresSearchBackend postgresSearchBackend;
+  @TempDir Path tempDir;
+
+  private IndexSnapshotProperties snapshotProperties;
+  private InMemorySearchBackend inMemorySearchBackend;
+
+  private final Pageable pageable = PageRequest.of(0, 10);
+
+  @BeforeEach
+  void setUp() {
+    snapshotProperties =
+        new IndexSnapshotProperties(tempDir.resolve("index.snapshot"), null, Duration.ZERO);
+    inMemorySearchBackend =
+        new InMemorySearchBackend(searchVideoRepository, postgresSearchBackend, snapshotProperties);
+  }
+
+  @Test
+  void search_beforeFirstLoad_fallsBackToPostgres() {
+    // Arrange
+    Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
+    when(postgresSearchBackend.search(ALL, pageable)).thenReturn(page);
+
+    // Act
+    Page<SearchVideo> result = inMemorySearchBackend.search(ALL, pageable);
+
+    // Assert
+    assertThat(result).isSameAs(page);
+  }
+
+  @Test
+  void search_withRanges_fallsBackToPostgres() {
+    // Arrange
+    inMemorySearchBackend.reload();
+    SearchCriteria criteria =
+        new SearchCriteria(
+            null,
+            0,
+            0,
+            null,
+            null,
+            null,
+            null,
+            null,
+            new SearchRanges(null, null, 60, null),
+            SearchSort.RELEVANCE);
+    Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
+    when(postgresSearchBackend.search(criteria, pageable)).thenReturn(page);
+
+    // Act
+    Page<SearchVideo> result = inMemorySearchBackend.search(criteria, pageable);
+
+    // Assert
+    assertThat(result).isSameAs(page);
+  }
+
+  @Test
+  void reload_servesLoadedVideosWithoutPostgres() {
+    // Arrange
+    SearchVideo video = video("First Amendment audit");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(video));
+
+    // Act
+    inMemorySearchBackend.reload();
+    Page<SearchVideo> result = inMemorySearchBackend.search(ALL, pageable);
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(video);
+    verify(postgresSearchBackend, never()).search(any(), any());
+  }
+
+  @Test
+  void findByIds_afterLoad_loadsOnlyMissingIdsFromPostgres() {
+    // Arrange
+    SearchVideo indexed = video("First Amendment audit");
+    SearchVideo committedElsewhere = video("Not applied here yet");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(indexed));
+    when(postgresSearchBackend.findByIds(List.of(committedElsewhere.getId())))
+        .thenReturn(List.of(committedElsewhere));
+    inMemorySearchBackend.reload();
+
+    // Act
+    List<SearchVideo> result =
+        inMemorySearchBackend.findByIds(List.of(indexed.getId(), committedElsewhere.getId()));
+
+    // Assert
+    assertThat(result).containsExactlyInAnyOrder(indexed, committedElsewhere);
+  }
+
+  @Test
+  void onSearchIndexChanged_duringLoad_isReplayedOntoLoadedIndex() {
+    // Arrange
+    SearchVideo loaded = video("Loaded from table");
+    SearchVideo indexedDuringLoad = video("Indexed during load");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt")))
+        .thenAnswer(
+            invocation -> {
+              inMemorySearchBackend.onSearchIndexChanged(
+                  SearchIndexChangedEvent.indexed(indexedDuringLoad, 1));
+              inMemorySearchBackend.onSearchIndexChanged(
+                  SearchIndexChangedEvent.removed(loaded.getId(), 2));
+              return List.of(loaded);
+            });
+
+    // Act
+    inMemorySearchBackend.reload();
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).containsExactly(indexedDuringLoad);
+  }
+
+  @Test
+  void onSearchIndexChanged_afterLoad_updatesIndex() {
+    // Arrange
+    SearchVideo video = video("First Amendment audit");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(video));
+    inMemorySearchBackend.reload();
+
+    // Act
+    inMemorySearchBackend.onSearchIndexChanged(SearchIndexChangedEvent.removed(video.getId(), 1));
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).isEmpty();
+  }
+
+  @Test
+  void onRemoteIndexChanged_reReadsRowFromTable() {
+    // Arrange
+    SearchVideo stale = video("Old title");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(stale));
+    inMemorySearchBackend.reload();
+    SearchVideo current = video("New title");
+    current.setId(stale.getId());
+    when(searchVideoRepository.findById(stale.getId())).thenReturn(Optional.of(current));
+
+    // Act
+    inMemorySearchBackend.onRemoteIndexChanged(new RemoteIndexChangedEvent(stale.getId(), 5));
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).containsExactly(current);
+  }
+
+  @Test
+  void onRemoteIndexChanged_whenRowDeleted_removesVideo() {
+    // Arrange
+    SearchVideo video = video("First Amendment audit");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(video));
+    inMemorySearchBackend.reload();
+    when(searchVideoRepository.findById(video.getId())).thenReturn(Optional.empty());
+
+    // Act
+    inMemorySearchBackend.onRemoteIndexChanged(new RemoteIndexChangedEvent(video.getId(), 5));
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).isEmpty();
+  }
+
+  @Test
+  void onRemoteIndexResync_replaysRowsSinceGap() {
+    // Arrange
+    SearchVideo deleted = video("Deleted during gap");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(deleted));
+    inMemorySearchBackend.reload();
+    Instant since = Instant.now();
+    SearchVideo indexed = video("Indexed during gap");
+    when(searchVideoRepository.findByIndexedAtAfterOrderByIndexedAtAsc(since))
+        .thenReturn(List.of(indexed));
+    when(searchVideoRepository.findAllIds()).thenReturn(List.of(indexed.getId()));
+
+    // Act
+    inMemorySearchBackend.onRemoteIndexResync(new RemoteIndexResyncEvent(since));
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).containsExactly(indexed);
+  }
+
+  @Test
+  void run_withoutSnapshot_loadsFromTable() {
+    // Arrange
+    SearchVideo video = video("First Amendment audit");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(video));
+
+    // Act
+    inMemorySearchBackend.run(null);
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).containsExactly(video);
+  }
+
+  @Test
+  void run_withSnapshot_replaysRowsSinceWatermarkAndDropsDeletedVideos() {
+    // Arrange
+    SearchVideo deleted = video("Deleted after snapshot");
+    SearchVideo kept = video("Kept");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(deleted, kept));
+    inMemorySearchBackend.reload();
+    inMemorySearchBackend.writeSnapshot();
+
+    SearchVideo indexedAfter = video("Indexed after snapshot");
+    when(searchVideoRepository.findByIndexedAtAfterOrderByIndexedAtAsc(kept.getIndexedAt()))
+        .thenReturn(List.of(indexedAfter));
+    when(searchVideoRepository.findAllIds())
+        .thenReturn(List.of(kept.getId(), indexedAfter.getId()));
+    InMemorySearchBackend restarted =
+        new InMemorySearchBackend(searchVideoRepository, postgresSearchBackend, snapshotProperties);
+
+    // Act
+    restarted.run(null);
+
+    // Assert
+    assertThat(restarted.search(ALL, pageable))
+        .extracting(SearchVideo::getId)
+        .containsExactly(indexedAfter.getId(), kept.getId());
+    verify(searchVideoRepository, times(1)).findAll(any(Sort.class));
+  }
+
+  @Test
+  void run_withUnreadableSnapshot_loadsFromTable() throws IOException {
+    // Arrange
+    Files.writeString(snapshotProperties.path(), "not a snapshot");
+    SearchVideo video = video("First Amendment audit");
+    when(searchVideoRepository.findAll(Sort.by("indexedAt"))).thenReturn(List.of(video));
+
+    // Act
+    inMemorySearchBackend.run(null);
+
+    // Assert
+    assertThat(inMemorySearchBackend.search(ALL, pageable)).containsExactly(video);
+  }
+
+  private static SearchVideo video(String title) {
+    SearchVideo video = new SearchVideo();
+    video.setId(UUID.randomUUID());
+    video.setTitle(title);
+    video.setIndexedAt(Instant.now());
+    return video;
+  }
+}
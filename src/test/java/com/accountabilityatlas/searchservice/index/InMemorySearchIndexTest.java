@@ -0,0 +1,229 @@
+package com.accountabilityatlas.searchservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.service.SearchCriteria;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+class InMemorySearchIndexTest {
+
+  private InMemorySearchIndex index;
+  private SearchVideo titleMatch;
+  private SearchVideo channelMatch;
+  private SearchVideo descriptionMatch;
+
+  @BeforeEach
+  void setUp() {
+    index = new InMemorySearchIndex();
+    descriptionMatch =
+        video("Walking tour", "Street Views", "Auditing the post office", "TX", 30.27, -97.74);
+    descriptionMatch.setAmendments(EnumSet.of(Amendment.FIRST));
+    descriptionMatch.setParticipants(EnumSet.of(Participant.GOVERNMENT));
+    channelMatch = video("Courthouse visit", "Audit The Audit", null, "CA", 34.05, -118.24);
+    channelMatch.setAmendments(EnumSet.of(Amendment.FOURTH));
+    channelMatch.setParticipants(EnumSet.of(Participant.POLICE));
+    titleMatch = video("First Amendment audit", "Press Pass", null, "TX", 29.42, -98.49);
+    titleMatch.setAmendments(EnumSet.of(Amendment.FIRST, Amendment.FOURTH));
+    titleMatch.setParticipants(EnumSet.of(Participant.POLICE, Participant.CITIZEN));
+
+    index.upsert(descriptionMatch);
+    index.upsert(channelMatch);
+    index.upsert(titleMatch);
+  }
+
+  @Test
+  void search_withQuery_ranksTitleAboveChannelAboveDescription() {
+    // Act
+    Page<SearchVideo> result = index.search(query("audits"), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(titleMatch, channelMatch, descriptionMatch);
+    assertThat(result.getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  void search_withQuery_requiresEveryTerm() {
+    // Act
+    Page<SearchVideo> result = index.search(query("audit amendment"), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(titleMatch);
+  }
+
+  @Test
+  void search_withOnlyStopWordsOrUnknownTerms_returnsEmpty() {
+    assertThat(index.search(query("the of"), PageRequest.of(0, 10))).isEmpty();
+    assertThat(index.search(query("audit zebra"), PageRequest.of(0, 10))).isEmpty();
+  }
+
+  @Test
+  void search_withoutQuery_returnsMostRecentlyIndexedFirst() {
+    // Act
+    Page<SearchVideo> result = index.search(criteria(null, 0, 0, null), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(titleMatch, channelMatch, descriptionMatch);
+  }
+
+  @Test
+  void search_withoutQuery_returnsNewestVideoDateFirst() {
+    // Arrange
+    descriptionMatch.setVideoDate(LocalDate.of(2025, 6, 1));
+    channelMatch.setVideoDate(LocalDate.of(2024, 6, 1));
+    index.upsert(descriptionMatch);
+    index.upsert(channelMatch);
+
+    // Act
+    Page<SearchVideo> result = index.search(criteria(null, 0, 0, null), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(descriptionMatch, channelMatch, titleMatch);
+  }
+
+  @Test
+  void search_withQuery_breaksScoreTiesByNewestVideoDate() {
+    // Arrange
+    SearchVideo older = video("Records request", "Press Pass", null, "TX", null, null);
+    older.setVideoDate(LocalDate.of(2025, 1, 1));
+    SearchVideo newer = video("Records request", "Press Pass", null, "TX", null, null);
+    newer.setVideoDate(LocalDate.of(2025, 2, 1));
+    index.upsert(newer);
+    index.upsert(older);
+
+    // Act
+    Page<SearchVideo> result = index.search(query("records"), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(newer, older);
+  }
+
+  @Test
+  void search_withAmendmentsMask_matchesAnyOverlap() {
+    // Act
+    Page<SearchVideo> result =
+        index.search(
+            criteria(null, EnumMasks.bit(Amendment.FIRST), 0, null), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(titleMatch, descriptionMatch);
+  }
+
+  @Test
+  void search_withParticipantsMaskAndState_intersectsFilters() {
+    // Act
+    Page<SearchVideo> result =
+        index.search(
+            criteria("audit", 0, EnumMasks.bit(Participant.POLICE), "TX"), PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(titleMatch);
+  }
+
+  @Test
+  void search_withUnknownState_returnsEmpty() {
+    assertThat(index.search(criteria(null, 0, 0, "ZZ"), PageRequest.of(0, 10))).isEmpty();
+  }
+
+  @Test
+  void search_withBoundingBox_excludesVideosOutsideOrWithoutLocation() {
+    // Arrange
+    SearchVideo noLocation = video("Audit without a map", null, null, null, null, null);
+    index.upsert(noLocation);
+    SearchCriteria texas = new SearchCriteria("audit", 0, 0, null, 29.0, 31.0, -99.0, -97.0);
+
+    // Act
+    Page<SearchVideo> result = index.search(texas, PageRequest.of(0, 10));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(titleMatch, descriptionMatch);
+  }
+
+  @Test
+  void search_withPageable_returnsRequestedSliceAndTotal() {
+    // Act
+    Page<SearchVideo> result = index.search(query("audit"), PageRequest.of(1, 2));
+
+    // Assert
+    assertThat(result.getContent()).containsExactly(descriptionMatch);
+    assertThat(result.getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  void upsert_replacesPreviousVersion() {
+    // Arrange
+    SearchVideo retitled = video("Library visit", "Press Pass", null, "NM", 35.68, -105.94);
+    retitled.setId(titleMatch.getId());
+
+    // Act
+    index.upsert(retitled);
+
+    // Assert
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.search(query("amendment"), PageRequest.of(0, 10))).isEmpty();
+    assertThat(index.search(criteria(null, 0, 0, "TX"), PageRequest.of(0, 10)))
+        .containsExactly(descriptionMatch);
+    assertThat(index.search(criteria("library", 0, 0, "NM"), PageRequest.of(0, 10)))
+        .containsExactly(retitled);
+  }
+
+  @Test
+  void remove_dropsVideoFromAllStructures() {
+    // Act
+    index.remove(titleMatch.getId());
+
+    // Assert
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.search(query("audit"), PageRequest.of(0, 10)))
+        .containsExactly(channelMatch, descriptionMatch);
+    assertThat(
+            index.search(
+                criteria(null, EnumMasks.bit(Amendment.FOURTH), 0, null), PageRequest.of(0, 10)))
+        .containsExactly(channelMatch);
+  }
+
+  @Test
+  void upsert_afterManyReplacements_compactsAndKeepsResults() {
+    // Act
+    for (int i = 0; i < 600; i++) {
+      index.upsert(titleMatch);
+    }
+
+    // Assert
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.search(query("audit"), PageRequest.of(0, 10)))
+        .containsExactly(titleMatch, channelMatch, descriptionMatch);
+  }
+
+  private static SearchCriteria query(String query) {
+    return criteria(query, 0, 0, null);
+  }
+
+  private static SearchCriteria criteria(
+      String query, int amendmentsMask, int participantsMask, String state) {
+    return new SearchCriteria(
+        query, amendmentsMask, participantsMask, state, null, null, null, null);
+  }
+
+  private static SearchVideo video(
+      String title, String channelName, String description, String state, Double lat, Double lng) {
+    SearchVideo video = new SearchVideo();
+    video.setId(UUID.randomUUID());
+    video.setTitle(title);
+    video.setChannelName(channelName);
+    video.setDescription(description);
+    video.setPrimaryLocationState(state);
+    video.setPrimaryLocationLat(lat);
+    video.setPrimaryLocationLng(lng);
+    return video;
+  }
+}
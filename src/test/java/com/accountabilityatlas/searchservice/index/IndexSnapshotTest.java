@@ -0,0 +1,163 @@
+package com.accountabilityatlas.searchservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.service.SearchCriteria;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+
+class IndexSnapshotTest {
+
+  private static final SearchCriteria ALL =
+      new SearchCriteria(null, 0, 0, null, null, null, null, null);
+
+  @TempDir Path tempDir;
+
+  private Path path;
+  private InMemorySearchIndex index;
+  private SearchVideo audit;
+  private SearchVideo walk;
+
+  @BeforeEach
+  void setUp() {
+    path = tempDir.resolve("snapshots/index.snapshot");
+    index = new InMemorySearchIndex();
+    audit = video("First Amendment audit", "TX", Instant.parse("2026-01-01T10:00:00Z"));
+    audit.setAmendments(EnumSet.of(Amendment.FIRST));
+    audit.setParticipants(EnumSet.of(Participant.POLICE));
+    audit.setDescription("Officers ask for ID");
+    audit.setDurationSeconds(754);
+    audit.setVideoDate(LocalDate.of(2025, 12, 30));
+    audit.setPrimaryLocationId(UUID.randomUUID());
+    audit.setPrimaryLocationLat(30.2672);
+    audit.setPrimaryLocationLng(-97.7431);
+    walk = video("Walking tour", "CA", Instant.parse("2026-01-02T10:00:00.123456Z"));
+    index.upsert(audit);
+    index.upsert(walk);
+  }
+
+  @Test
+  void read_restoresDocumentsFiltersAndWatermark() throws IOException {
+    // Act
+    IndexSnapshot.write(index, path);
+    InMemorySearchIndex restored = IndexSnapshot.read(path);
+
+    // Assert
+    assertThat(restored.watermark()).isEqualTo(walk.getIndexedAt());
+    assertThat(restored.ids()).containsExactlyInAnyOrder(audit.getId(), walk.getId());
+    SearchVideo restoredAudit =
+        restored
+            .search(
+                new SearchCriteria(
+                    "officer", EnumMasks.bit(Amendment.FIRST), 0, "TX", 30.0, 31.0, -98.0, -97.0),
+                PageRequest.of(0, 10))
+            .getContent()
+            .get(0);
+    assertThat(restoredAudit).usingRecursiveComparison().isEqualTo(audit);
+    assertThat(restored.search(ALL, PageRequest.of(0, 10)).getContent())
+        .extracting(SearchVideo::getId)
+        .containsExactly(audit.getId(), walk.getId());
+  }
+
+  @Test
+  void read_omitsRemovedVideos() throws IOException {
+    // Arrange
+    index.remove(audit.getId());
+
+    // Act
+    IndexSnapshot.write(index, path);
+    InMemorySearchIndex restored = IndexSnapshot.read(path);
+
+    // Assert
+    assertThat(restored.ids()).containsExactly(walk.getId());
+    assertThat(restored.search(ALL, PageRequest.of(0, 10))).hasSize(1);
+  }
+
+  @Test
+  void restoredIndex_acceptsUpdatesAndCanBeSnapshottedAgain() throws IOException {
+    // Arrange
+    IndexSnapshot.write(index, path);
+    InMemorySearchIndex restored = IndexSnapshot.read(path);
+    SearchVideo added = video("Courthouse audit", "TX", Instant.parse("2026-01-03T10:00:00Z"));
+    added.setVideoDate(LocalDate.of(2026, 1, 2));
+
+    // Act
+    restored.upsert(added);
+    restored.remove(walk.getId());
+    IndexSnapshot.write(restored, path);
+    InMemorySearchIndex reread = IndexSnapshot.read(path);
+
+    // Assert
+    assertThat(reread.watermark()).isEqualTo(added.getIndexedAt());
+    assertThat(
+            reread.search(
+                new SearchCriteria("audit", 0, 0, "TX", null, null, null, null),
+                PageRequest.of(0, 10)))
+        .extracting(SearchVideo::getId)
+        .containsExactly(added.getId(), audit.getId());
+  }
+
+  @Test
+  void read_withCorruptedPayload_throws() throws IOException {
+    // Arrange
+    IndexSnapshot.write(index, path);
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(path, bytes);
+
+    // Act & Assert
+    assertThatThrownBy(() -> IndexSnapshot.read(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("checksum");
+  }
+
+  @Test
+  void read_withForeignFile_throws() throws IOException {
+    // Arrange
+    Files.createDirectories(path.getParent());
+    Files.write(path, new byte[64]);
+
+    // Act & Assert
+    assertThatThrownBy(() -> IndexSnapshot.read(path))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Not an index snapshot");
+  }
+
+  @Test
+  void write_leavesNoTemporaryFiles() throws IOException {
+    // Act
+    IndexSnapshot.write(index, path);
+    IndexSnapshot.write(index, path);
+
+    // Assert
+    try (Stream<Path> files = Files.list(path.getParent())) {
+      assertThat(files).containsExactly(path);
+    }
+  }
+
+  private static SearchVideo video(String title, String state, Instant indexedAt) {
+    SearchVideo video = new SearchVideo();
+    video.setId(UUID.randomUUID());
+    video.setYoutubeId("dQw4w9WgXcQ");
+    video.setTitle(title);
+    video.setChannelName("Test Channel");
+    video.setPrimaryLocationState(state);
+    video.setIndexedAt(indexedAt);
+    return video;
+  }
+}
@@ -0,0 +1,92 @@
+package com.accountabilityatlas.searchservice.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.accountabilityatlas.searchservice.service.HotQuery;
+import com.accountabilityatlas.searchservice.service.HotQueryStore;
+import com.accountabilityatlas.searchservice.service.SearchCriteria;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = {"spring.cloud.aws.sqs.enabled=false"})
+@Testcontainers
+@ActiveProfiles("test")
+class HotQueryStoreIntegrationTest {
+
+  private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine")
+          .withDatabaseName("search")
+          .withUsername("search")
+          .withPassword("search");
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.flyway.url", postgres::getJdbcUrl);
+    registry.add("spring.flyway.user", postgres::getUsername);
+    registry.add("spring.flyway.password", postgres::getPassword);
+  }
+
+  @Autowired private HotQueryStore hotQueryStore;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("DELETE FROM search.hot_queries");
+  }
+
+  @Test
+  void save_queryLongerThanAnIndexRow_isStoredWithTheRestOfTheBatch() {
+    // Arrange
+    SearchCriteria longQuery = criteria("audit ".repeat(2000).trim());
+    SearchCriteria shortQuery = criteria("audit");
+
+    // Act
+    hotQueryStore.save(
+        List.of(new HotQuery(longQuery, 5), new HotQuery(shortQuery, 3)),
+        NOW,
+        Duration.ofDays(1));
+
+    // Assert
+    assertThat(hotQueryStore.findTop(10))
+        .containsExactly(new HotQuery(longQuery, 5), new HotQuery(shortQuery, 3));
+  }
+
+  @Test
+  void save_sameSearchAgain_replacesItsCount() {
+    // Arrange
+    SearchCriteria audit = criteria("audit");
+    SearchCriteria unfiltered = criteria(null);
+    hotQueryStore.save(
+        List.of(new HotQuery(audit, 5), new HotQuery(unfiltered, 2)), NOW, Duration.ofDays(1));
+
+    // Act
+    hotQueryStore.save(List.of(new HotQuery(audit, 1)), NOW.plusSeconds(60), Duration.ofDays(1));
+
+    // Assert
+    assertThat(hotQueryStore.findTop(10))
+        .containsExactly(new HotQuery(unfiltered, 2), new HotQuery(audit, 1));
+  }
+
+  private static SearchCriteria criteria(String query) {
+    return new SearchCriteria(query, 0, 0, null, null, null, null, null);
+  }
+}
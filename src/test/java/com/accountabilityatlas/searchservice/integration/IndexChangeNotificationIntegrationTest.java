@@ -0,0 +1,119 @@
+package com.accountabilityatlas.searchservice.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.accountabilityatlas.searchservice.service.IndexChangeNotifier;
+import com.accountabilityatlas.searchservice.service.IndexGeneration;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = {"spring.cloud.aws.sqs.enabled=false"})
+@Testcontainers
+@ActiveProfiles("test")
+class IndexChangeNotificationIntegrationTest {
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine")
+          .withDatabaseName("search")
+          .withUsername("search")
+          .withPassword("search");
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.flyway.url", postgres::getJdbcUrl);
+    registry.add("spring.flyway.user", postgres::getUsername);
+    registry.add("spring.flyway.password", postgres::getPassword);
+  }
+
+  @Autowired private IndexChangeNotifier indexChangeNotifier;
+  @Autowired private IndexGeneration indexGeneration;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Test
+  void notifyChanged_deliversPayloadOnCommit() throws Exception {
+    try (Connection listener =
+        DriverManager.getConnection(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+      try (Statement statement = listener.createStatement()) {
+        statement.execute("LISTEN " + IndexChangeNotifier.CHANNEL);
+      }
+      UUID videoId = UUID.randomUUID();
+
+      // Act
+      Long generation =
+          transactionTemplate.execute(status -> indexChangeNotifier.notifyChanged(videoId));
+
+      // Assert
+      PGNotification[] notifications =
+          listener.unwrap(PGConnection.class).getNotifications(5000);
+      assertThat(notifications).hasSize(1);
+      assertThat(notifications[0].getParameter())
+          .isEqualTo(videoId + "," + generation + "," + indexChangeNotifier.instanceId());
+    }
+  }
+
+  @Test
+  void notifyChanged_onRollback_sendsNothing() throws Exception {
+    try (Connection listener =
+        DriverManager.getConnection(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+      try (Statement statement = listener.createStatement()) {
+        statement.execute("LISTEN " + IndexChangeNotifier.CHANNEL);
+      }
+
+      // Act
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            indexChangeNotifier.notifyChanged(UUID.randomUUID());
+            status.setRollbackOnly();
+          });
+
+      // Assert
+      assertThat(listener.unwrap(PGConnection.class).getNotifications(500)).isNullOrEmpty();
+    }
+  }
+
+  @Test
+  void notificationFromAnotherInstance_advancesIndexGeneration() throws Exception {
+    // Arrange
+    long generation = indexGeneration.current() + 1000;
+
+    // Act
+    jdbcTemplate.execute(
+        "NOTIFY "
+            + IndexChangeNotifier.CHANNEL
+            + ", '"
+            + UUID.randomUUID()
+            + ","
+            + generation
+            + ",another-instance'");
+
+    // Assert
+    long deadline = System.currentTimeMillis() + 5000;
+    while (indexGeneration.current() < generation && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertThat(indexGeneration.current()).isEqualTo(generation);
+  }
+}
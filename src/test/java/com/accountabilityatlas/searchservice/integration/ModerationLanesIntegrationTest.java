@@ -0,0 +1,108 @@
+package com.accountabilityatlas.searchservice.integration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.accountabilityatlas.searchservice.event.VideoApprovedEvent;
+import com.accountabilityatlas.searchservice.event.VideoRejectedEvent;
+import com.accountabilityatlas.searchservice.service.IndexingService;
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@SpringBootTest(
+    properties = {
+      "app.sqs.max-concurrent-messages=10",
+      "app.sqs.lanes.approval-concurrency=1",
+      "app.sqs.lanes.approval-capacity=2",
+      "app.sqs.lanes.overflow-delay=PT1S"
+    })
+@Testcontainers
+@ActiveProfiles("test")
+class ModerationLanesIntegrationTest {
+
+  private static final String QUEUE = "moderation-events";
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine")
+          .withDatabaseName("search")
+          .withUsername("search")
+          .withPassword("search");
+
+  @Container
+  static LocalStackContainer localstack =
+      new LocalStackContainer(DockerImageName.parse("localstack/localstack:3.8"))
+          .withServices(LocalStackContainer.Service.SQS);
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.flyway.url", postgres::getJdbcUrl);
+    registry.add("spring.flyway.user", postgres::getUsername);
+    registry.add("spring.flyway.password", postgres::getPassword);
+    registry.add(
+        "spring.cloud.aws.sqs.endpoint",
+        () -> localstack.getEndpointOverride(LocalStackContainer.Service.SQS).toString());
+    registry.add("spring.cloud.aws.region.static", localstack::getRegion);
+    registry.add("spring.cloud.aws.credentials.access-key", localstack::getAccessKey);
+    registry.add("spring.cloud.aws.credentials.secret-key", localstack::getSecretKey);
+  }
+
+  @MockitoBean private IndexingService indexingService;
+  @Autowired private SqsTemplate sqsTemplate;
+
+  // Holds every approval on the approval lane until the test is done
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+  }
+
+  @Test
+  void saturatedApprovalLane_stillReceivesAndAppliesRejections() {
+    // Arrange
+    doAnswer(
+            invocation -> {
+              release.await(30, TimeUnit.SECONDS);
+              return null;
+            })
+        .when(indexingService)
+        .approveVideo(any(), any());
+    // More approvals than the listener has in-flight slots
+    for (int i = 0; i < 12; i++) {
+      sqsTemplate.send(
+          QUEUE, new VideoApprovedEvent(UUID.randomUUID(), UUID.randomUUID(), Instant.now()));
+    }
+    UUID videoId = UUID.randomUUID();
+    VideoRejectedEvent rejection =
+        new VideoRejectedEvent(videoId, UUID.randomUUID(), "OFF_TOPIC", Instant.now());
+
+    // Act
+    sqsTemplate.send(QUEUE, rejection);
+
+    // Assert
+    verify(indexingService, timeout(20_000)).rejectVideo(videoId, rejection.timestamp());
+  }
+}
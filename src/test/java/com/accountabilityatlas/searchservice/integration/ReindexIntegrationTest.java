@@ -0,0 +1,216 @@
+package com.accountabilityatlas.searchservice.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import com.accountabilityatlas.searchservice.repository.ShadowSearchVideoTable;
+import com.accountabilityatlas.searchservice.service.ReindexService;
+import com.accountabilityatlas.searchservice.service.ReindexStatus;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(
+    properties = {"spring.cloud.aws.sqs.enabled=false", "app.search.reindex.page-size=2"})
+@Testcontainers
+@ActiveProfiles("test")
+class ReindexIntegrationTest {
+
+  private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+  private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+  private static final UUID THIRD = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+  private static final UUID FOURTH = UUID.fromString("00000000-0000-0000-0000-00000000000d");
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine")
+          .withDatabaseName("search")
+          .withUsername("search")
+          .withPassword("search");
+
+  // Stands in for video-service's paged listing of approved videos
+  static HttpServer videoService = startVideoService();
+
+  // Run while video-service serves the last page, after the first one is loaded into the shadow
+  static volatile Runnable duringLoad = () -> {};
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.flyway.url", postgres::getJdbcUrl);
+    registry.add("spring.flyway.user", postgres::getUsername);
+    registry.add("spring.flyway.password", postgres::getPassword);
+    registry.add(
+        "app.video-service.base-url",
+        () -> "http://localhost:" + videoService.getAddress().getPort());
+  }
+
+  @Autowired private ReindexService reindexService;
+  @Autowired private SearchVideoRepository searchVideoRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @AfterAll
+  static void stopVideoService() {
+    videoService.stop(0);
+  }
+
+  @BeforeEach
+  void setUp() {
+    duringLoad = () -> {};
+    searchVideoRepository.deleteAll();
+  }
+
+  @Test
+  void reindex_replacesTableWithApprovedVideosAndKeepsIndexes() throws Exception {
+    // Arrange
+    List<String> indexesBefore = indexNames();
+    SearchVideo stale = new SearchVideo();
+    stale.setId(UUID.randomUUID());
+    stale.setYoutubeId("stale000000");
+    stale.setTitle("No longer approved");
+    stale.setIndexedAt(Instant.now());
+    searchVideoRepository.save(stale);
+
+    // Act
+    ReindexStatus status = awaitReindex();
+
+    // Assert
+    assertThat(status.state()).isEqualTo(ReindexStatus.State.SUCCEEDED);
+    assertThat(status.videosLoaded()).isEqualTo(3);
+    assertThat(searchVideoRepository.findAllIds()).containsExactlyInAnyOrder(FIRST, SECOND, THIRD);
+    assertThat(indexNames()).containsExactlyInAnyOrderElementsOf(indexesBefore);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM search.search_videos"
+                    + " WHERE search_vector @@ plainto_tsquery('english', 'audits')",
+                Integer.class))
+        .isEqualTo(2);
+    // Recounted with the swap, so only the loaded videos are counted
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT primary_location_state, amendments_mask, participants_mask, video_count"
+                    + " FROM search.facet_counts"))
+        .containsExactly(
+            Map.of(
+                "primary_location_state", "TX",
+                "amendments_mask", 1,
+                "participants_mask", 1,
+                "video_count", 3L));
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT to_regclass('search.search_videos_shadow') IS NULL", Boolean.class))
+        .isTrue();
+  }
+
+  @Test
+  void reindex_keepsWritesMirroredByAnotherInstanceDuringTheLoad() throws Exception {
+    // Arrange
+    // A separate instance of the table shares nothing with the one the rebuild runs on
+    ShadowSearchVideoTable otherInstance = new ShadowSearchVideoTable(jdbcTemplate);
+    duringLoad =
+        () ->
+            transactionTemplate.executeWithoutResult(
+                tx -> {
+                  SearchVideo indexed = new SearchVideo();
+                  indexed.setId(FOURTH);
+                  indexed.setYoutubeId("yt0000000d");
+                  indexed.setTitle("Approved mid-rebuild");
+                  indexed.setIndexedAt(Instant.now());
+                  searchVideoRepository.save(indexed);
+                  otherInstance.mirror(indexed);
+                  otherInstance.mirrorRemoval(FIRST);
+                });
+
+    // Act
+    ReindexStatus status = awaitReindex();
+
+    // Assert
+    assertThat(status.state()).isEqualTo(ReindexStatus.State.SUCCEEDED);
+    assertThat(searchVideoRepository.findAllIds()).containsExactlyInAnyOrder(SECOND, THIRD, FOURTH);
+    assertThat(otherInstance.isActive()).isFalse();
+  }
+
+  private ReindexStatus awaitReindex() throws InterruptedException {
+    reindexService.start();
+    long deadline = System.currentTimeMillis() + 30_000;
+    while (reindexService.status().state() == ReindexStatus.State.RUNNING
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    return reindexService.status();
+  }
+
+  private List<String> indexNames() {
+    return jdbcTemplate.queryForList(
+        "SELECT indexname FROM pg_indexes WHERE schemaname = 'search'"
+            + " AND tablename = 'search_videos'",
+        String.class);
+  }
+
+  private static HttpServer startVideoService() {
+    try {
+      HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+      server.createContext(
+          "/videos",
+          exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (!query.contains("page=0")) {
+              duringLoad.run();
+            }
+            String body =
+                query.contains("page=0")
+                    ? page(false, video(FIRST, "First Amendment audit"), video(SECOND, "Audit"))
+                    : page(true, video(THIRD, "Courthouse visit"));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+              out.write(bytes);
+            }
+          });
+      server.start();
+      return server;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String page(boolean last, String... videos) {
+    return "{\"content\":[" + String.join(",", videos) + "],\"last\":" + last + "}";
+  }
+
+  private static String video(UUID id, String title) {
+    return """
+        {"id":"%s","youtubeId":"yt%s","title":"%s","channelName":"Press Pass",
+         "amendments":["FIRST"],"participants":["POLICE"],"status":"APPROVED",
+         "locations":[{"id":"%s","locationId":"%s","isPrimary":true,
+           "location":{"id":"%s","displayName":"City Hall","city":"Austin","state":"TX",
+             "coordinates":{"latitude":30.27,"longitude":-97.74}}}]}
+        """
+        .formatted(id, id.toString().substring(27), title, id, id, id);
+  }
+}
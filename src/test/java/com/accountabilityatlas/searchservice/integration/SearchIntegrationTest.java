@@ -1,18 +1,23 @@
 package com.accountabilityatlas.searchservice.integration;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.Participant;
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
 import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -85,8 +90,10 @@ class SearchIntegrationTest {
 
   @Test
   void search_withAmendmentFilter_filtersResults() throws Exception {
-    SearchVideo firstAmendment = createVideoWithAmendments("First Amendment Audit", "FIRST");
-    SearchVideo fourthAmendment = createVideoWithAmendments("Fourth Amendment Test", "FOURTH");
+    SearchVideo firstAmendment =
+        createVideoWithAmendments("First Amendment Audit", Amendment.FIRST);
+    SearchVideo fourthAmendment =
+        createVideoWithAmendments("Fourth Amendment Test", Amendment.FOURTH);
     searchVideoRepository.saveAll(java.util.List.of(firstAmendment, fourthAmendment));
 
     mockMvc
@@ -98,8 +105,9 @@ class SearchIntegrationTest {
 
   @Test
   void search_withParticipantFilter_filtersResults() throws Exception {
-    SearchVideo policeVideo = createVideoWithParticipants("Police Encounter", "POLICE");
-    SearchVideo governmentVideo = createVideoWithParticipants("City Hall Visit", "GOVERNMENT");
+    SearchVideo policeVideo = createVideoWithParticipants("Police Encounter", Participant.POLICE);
+    SearchVideo governmentVideo =
+        createVideoWithParticipants("City Hall Visit", Participant.GOVERNMENT);
     searchVideoRepository.saveAll(java.util.List.of(policeVideo, governmentVideo));
 
     mockMvc
@@ -145,22 +153,22 @@ class SearchIntegrationTest {
         createVideo(
             "Texas Police Audit",
             "Audit in Texas",
-            new String[] {"FIRST"},
-            new String[] {"POLICE"},
+            EnumSet.of(Amendment.FIRST),
+            EnumSet.of(Participant.POLICE),
             "TX");
     SearchVideo wrongState =
         createVideo(
             "California Police Audit",
             "Audit in CA",
-            new String[] {"FIRST"},
-            new String[] {"POLICE"},
+            EnumSet.of(Amendment.FIRST),
+            EnumSet.of(Participant.POLICE),
             "CA");
     SearchVideo wrongAmendment =
         createVideo(
             "Texas Fourth Amendment",
             "Fourth amendment case",
-            new String[] {"FOURTH"},
-            new String[] {"POLICE"},
+            EnumSet.of(Amendment.FOURTH),
+            EnumSet.of(Participant.POLICE),
             "TX");
 
     searchVideoRepository.saveAll(java.util.List.of(match, wrongState, wrongAmendment));
@@ -237,42 +245,196 @@ class SearchIntegrationTest {
         .andExpect(jsonPath("$.results.length()").value(2));
   }
 
+  @Test
+  void search_withoutQuery_listsNewestVideoDateFirst() throws Exception {
+    SearchVideo recent = createVideo("Recent Audit", "Filmed this week");
+    SearchVideo old = createVideo("Old Audit", "Filmed years ago");
+    old.setVideoDate(LocalDate.now().minusYears(5));
+    // Re-indexed after the recent one, which used to put it first
+    old.setIndexedAt(Instant.now().plusSeconds(60));
+    searchVideoRepository.saveAll(java.util.List.of(recent, old));
+
+    mockMvc
+        .perform(get("/search"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].title").value("Recent Audit"))
+        .andExpect(jsonPath("$.results[1].title").value("Old Audit"));
+  }
+
+  @Test
+  void search_withDateAndDurationRanges_returnsOnlyVideosInBothRanges() throws Exception {
+    SearchVideo match = createVideo("Recent Short Audit", "In range");
+    match.setVideoDate(LocalDate.of(2024, 3, 15));
+    match.setDurationSeconds(300);
+    SearchVideo tooOld = createVideo("Old Short Audit", "Before the range");
+    tooOld.setVideoDate(LocalDate.of(2023, 12, 31));
+    tooOld.setDurationSeconds(300);
+    SearchVideo tooLong = createVideo("Recent Long Audit", "Over the duration");
+    tooLong.setVideoDate(LocalDate.of(2024, 3, 31));
+    tooLong.setDurationSeconds(3600);
+    searchVideoRepository.saveAll(java.util.List.of(match, tooOld, tooLong));
+
+    mockMvc
+        .perform(
+            get("/search")
+                .param("from", "2024-01-01")
+                .param("to", "2024-03-31")
+                .param("maxDuration", "600"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(1))
+        .andExpect(jsonPath("$.results[0].title").value("Recent Short Audit"));
+  }
+
+  @Test
+  void histogram_countsMatchingVideosPerMonth() throws Exception {
+    SearchVideo january = createVideoWithState("January Audit", "TX");
+    january.setVideoDate(LocalDate.of(2024, 1, 5));
+    SearchVideo lateJanuary = createVideoWithState("Late January Audit", "TX");
+    lateJanuary.setVideoDate(LocalDate.of(2024, 1, 30));
+    SearchVideo march = createVideoWithState("March Audit", "TX");
+    march.setVideoDate(LocalDate.of(2024, 3, 1));
+    SearchVideo undated = createVideoWithState("Undated Audit", "TX");
+    undated.setVideoDate(null);
+    SearchVideo elsewhere = createVideoWithState("California Audit", "CA");
+    elsewhere.setVideoDate(LocalDate.of(2024, 1, 10));
+    searchVideoRepository.saveAll(
+        java.util.List.of(january, lateJanuary, march, undated, elsewhere));
+
+    mockMvc
+        .perform(get("/search/histogram").param("state", "TX").param("interval", "month"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.buckets.length()").value(2))
+        .andExpect(jsonPath("$.buckets[0].start").value("2024-01-01"))
+        .andExpect(jsonPath("$.buckets[0].count").value(2))
+        .andExpect(jsonPath("$.buckets[1].start").value("2024-03-01"))
+        .andExpect(jsonPath("$.buckets[1].count").value(1));
+  }
+
+  @Test
+  void facets_withQuery_countsMatchingVideosPerValue() throws Exception {
+    SearchVideo texasAudit =
+        createVideo(
+            "Texas Audit", "Description", EnumSet.of(Amendment.FIRST), noParticipants(), "TX");
+    SearchVideo californiaAudit =
+        createVideo(
+            "California Audit",
+            "Description",
+            EnumSet.of(Amendment.FIRST, Amendment.FOURTH),
+            noParticipants(),
+            "CA");
+    SearchVideo unrelated = createVideoWithAmendments("Cooking Tutorial", Amendment.SECOND);
+    searchVideoRepository.saveAll(java.util.List.of(texasAudit, californiaAudit, unrelated));
+
+    mockMvc
+        .perform(get("/search/facets").param("q", "audit"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.facets.amendments.FIRST").value(2))
+        .andExpect(jsonPath("$.facets.amendments.FOURTH").value(1))
+        .andExpect(jsonPath("$.facets.amendments.SECOND").doesNotExist())
+        .andExpect(jsonPath("$.facets.states.TX").value(1))
+        .andExpect(jsonPath("$.totalMatching").value(2));
+  }
+
+  @Test
+  void search_withDurationSort_listsLongestFirstWithinFilters() throws Exception {
+    SearchVideo shortVideo = createVideoWithState("Short Audit", "TX");
+    shortVideo.setDurationSeconds(60);
+    SearchVideo longVideo = createVideoWithState("Long Audit", "TX");
+    longVideo.setDurationSeconds(3600);
+    SearchVideo unknownLength = createVideoWithState("Unknown Audit", "TX");
+    unknownLength.setDurationSeconds(null);
+    SearchVideo elsewhere = createVideoWithState("Longest Audit", "CA");
+    elsewhere.setDurationSeconds(7200);
+    searchVideoRepository.saveAll(
+        java.util.List.of(shortVideo, longVideo, unknownLength, elsewhere));
+
+    mockMvc
+        .perform(get("/search").param("state", "TX").param("sort", "durationSeconds"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(3))
+        .andExpect(jsonPath("$.results[0].title").value("Long Audit"))
+        .andExpect(jsonPath("$.results[1].title").value("Short Audit"))
+        .andExpect(jsonPath("$.results[2].title").value("Unknown Audit"));
+  }
+
   @Test
   void search_withInvalidBbox_returns400() throws Exception {
     mockMvc.perform(get("/search").param("bbox", "invalid")).andExpect(status().isBadRequest());
   }
 
+  @Test
+  void findVideos_returnsRequestedVideosInOrder() throws Exception {
+    SearchVideo first = createVideo("Police Audit Downtown", "A citizen audits the police");
+    SearchVideo second = createVideo("Cooking Tutorial", "How to make pasta");
+    SearchVideo notRequested = createVideo("Courthouse Visit", "Filming in the lobby");
+    searchVideoRepository.saveAll(java.util.List.of(first, second, notRequested));
+    UUID missing = UUID.randomUUID();
+    String ids = second.getId() + "," + missing + "," + first.getId();
+
+    mockMvc
+        .perform(get("/search/videos").param("ids", ids))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(2))
+        .andExpect(jsonPath("$.results[0].title").value("Cooking Tutorial"))
+        .andExpect(jsonPath("$.results[1].title").value("Police Audit Downtown"))
+        .andExpect(jsonPath("$.missing[0]").value(missing.toString()));
+  }
+
+  @Test
+  void searchBatch_runsEverySearch() throws Exception {
+    SearchVideo texasVideo = createVideoWithState("Austin Audit", "TX");
+    SearchVideo californiaVideo = createVideoWithState("LA Audit", "CA");
+    searchVideoRepository.saveAll(java.util.List.of(texasVideo, californiaVideo));
+    String body =
+        """
+        {"searches": [{"state": "CA"}, {"state": "TX"}, {"q": "audit", "size": 1}]}
+        """;
+
+    mockMvc
+        .perform(post("/search/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(3))
+        .andExpect(jsonPath("$.results[0].results[0].title").value("LA Audit"))
+        .andExpect(jsonPath("$.results[1].results[0].title").value("Austin Audit"))
+        .andExpect(jsonPath("$.results[2].results.length()").value(1))
+        .andExpect(jsonPath("$.results[2].pagination.totalElements").value(2));
+  }
+
   @Test
   void actuatorHealth_isAccessible() throws Exception {
     mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
   }
 
   private SearchVideo createVideo(String title, String description) {
-    return createVideo(title, description, new String[] {}, new String[] {}, null);
+    return createVideo(title, description, noAmendments(), noParticipants(), null);
   }
 
-  private SearchVideo createVideoWithAmendments(String title, String... amendments) {
-    return createVideo(title, "Description", amendments, new String[] {}, null);
+  private SearchVideo createVideoWithAmendments(String title, Amendment amendment) {
+    return createVideo(title, "Description", EnumSet.of(amendment), noParticipants(), null);
   }
 
-  private SearchVideo createVideoWithParticipants(String title, String... participants) {
-    return createVideo(title, "Description", new String[] {}, participants, null);
+  private SearchVideo createVideoWithParticipants(String title, Participant participant) {
+    return createVideo(title, "Description", noAmendments(), EnumSet.of(participant), null);
   }
 
   private SearchVideo createVideoWithState(String title, String state) {
-    return createVideo(title, "Description", new String[] {}, new String[] {}, state);
+    return createVideo(title, "Description", noAmendments(), noParticipants(), state);
   }
 
   private SearchVideo createVideoWithLocation(
       String title, String description, double lat, double lng) {
-    SearchVideo video = createVideo(title, description, new String[] {}, new String[] {}, null);
+    SearchVideo video = createVideo(title, description, noAmendments(), noParticipants(), null);
     video.setPrimaryLocationLat(lat);
     video.setPrimaryLocationLng(lng);
     return video;
   }
 
   private SearchVideo createVideo(
-      String title, String description, String[] amendments, String[] participants, String state) {
+      String title,
+      String description,
+      EnumSet<Amendment> amendments,
+      EnumSet<Participant> participants,
+      String state) {
     SearchVideo video = new SearchVideo();
     video.setId(UUID.randomUUID());
     video.setYoutubeId(UUID.randomUUID().toString().substring(0, 11));
@@ -289,4 +451,12 @@ class SearchIntegrationTest {
     video.setIndexedAt(Instant.now());
     return video;
   }
+
+  private static EnumSet<Amendment> noAmendments() {
+    return EnumSet.noneOf(Amendment.class);
+  }
+
+  private static EnumSet<Participant> noParticipants() {
+    return EnumSet.noneOf(Participant.class);
+  }
 }
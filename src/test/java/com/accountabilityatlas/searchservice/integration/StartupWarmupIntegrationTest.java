@@ -0,0 +1,68 @@
+package com.accountabilityatlas.searchservice.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.accountabilityatlas.searchservice.service.HotQuery;
+import com.accountabilityatlas.searchservice.service.HotQueryTracker;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.cloud.aws.sqs.enabled=false",
+      "app.search.hot-queries.enabled=true",
+      "app.search.warmup.enabled=true",
+      "app.search.warmup.max-rounds=2"
+    })
+@Testcontainers
+@ActiveProfiles("test")
+class StartupWarmupIntegrationTest {
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine")
+          .withDatabaseName("search")
+          .withUsername("search")
+          .withPassword("search");
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.flyway.url", postgres::getJdbcUrl);
+    registry.add("spring.flyway.user", postgres::getUsername);
+    registry.add("spring.flyway.password", postgres::getPassword);
+  }
+
+  @Autowired private HotQueryTracker hotQueryTracker;
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Test
+  void warmup_leavesHotQueriesToRealTraffic() {
+    // Act
+    // The warm-up sent its request mix before the context was handed to this test
+    List<HotQuery> afterWarmup = hotQueryTracker.top(100);
+    ResponseEntity<String> response = restTemplate.getForEntity("/search?q=audit", String.class);
+
+    // Assert
+    assertThat(afterWarmup).isEmpty();
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(hotQueryTracker.top(100))
+        .extracting(hotQuery -> hotQuery.criteria().query())
+        .containsExactly("audit");
+  }
+}
@@ -0,0 +1,86 @@
+package com.accountabilityatlas.searchservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ShadowSearchVideoTableTest {
+
+  @Test
+  void encodeCopyRows_writesColumnsInOrderWithNullsAndEscapes() {
+    // Arrange
+    SearchVideo video = new SearchVideo();
+    video.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+    video.setYoutubeId("abc123");
+    video.setTitle("Tab\there");
+    video.setDescription("Line one\nback\\slash");
+    video.setVideoDate(LocalDate.of(2024, 1, 15));
+    video.setAmendments(EnumSet.of(Amendment.FIRST, Amendment.FOURTH));
+    video.setPrimaryLocationLat(30.25);
+    video.setIndexedAt(Instant.parse("2024-02-01T10:15:30Z"));
+
+    // Act
+    String encoded =
+        new String(ShadowSearchVideoTable.encodeCopyRows(List.of(video)), StandardCharsets.UTF_8);
+
+    // Assert
+    assertThat(encoded)
+        .isEqualTo(
+            String.join(
+                    "\t",
+                    "00000000-0000-0000-0000-000000000001",
+                    "abc123",
+                    "Tab\\there",
+                    "Line one\\nback\\\\slash",
+                    "\\N",
+                    "\\N",
+                    "\\N",
+                    "\\N",
+                    "2024-01-15",
+                    "5",
+                    "0",
+                    "\\N",
+                    "\\N",
+                    "\\N",
+                    "\\N",
+                    "30.25",
+                    "\\N",
+                    "2024-02-01T10:15:30Z",
+                    "\\N")
+                + "\n");
+    assertThat(encoded.split("\t")).hasSameSizeAs(ShadowSearchVideoTable.COLUMNS);
+  }
+
+  @Test
+  void onShadow_retargetsIndexAndTriggerDefinitions() {
+    assertThat(
+            ShadowSearchVideoTable.onShadow(
+                "CREATE INDEX idx_search_videos_state ON search.search_videos USING btree"
+                    + " (primary_location_state)"))
+        .isEqualTo(
+            "CREATE INDEX idx_search_videos_state ON search.search_videos_shadow USING btree"
+                + " (primary_location_state)");
+    assertThat(
+            ShadowSearchVideoTable.onShadow(
+                "CREATE TRIGGER t BEFORE INSERT ON search_videos FOR EACH ROW"
+                    + " EXECUTE FUNCTION f()"))
+        .isEqualTo(
+            "CREATE TRIGGER t BEFORE INSERT ON search.search_videos_shadow FOR EACH ROW"
+                + " EXECUTE FUNCTION f()");
+  }
+
+  @Test
+  void onShadow_withUnrecognizedDefinition_throws() {
+    assertThatThrownBy(() -> ShadowSearchVideoTable.onShadow("CREATE INDEX i ON other (x)"))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
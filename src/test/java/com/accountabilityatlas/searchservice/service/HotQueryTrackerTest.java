@@ -0,0 +1,109 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HotQueryTrackerTest {
+
+  private final HotQueryTracker tracker = new HotQueryTracker(properties(true, 2));
+
+  @Test
+  void top_listsMostFrequentSearchesFirst() {
+    // Arrange
+    record(criteria("audit"), 3);
+    record(criteria("police"), 5);
+
+    // Act
+    List<HotQuery> top = tracker.top(10);
+
+    // Assert
+    assertThat(top)
+        .containsExactly(new HotQuery(criteria("police"), 5), new HotQuery(criteria("audit"), 3));
+  }
+
+  @Test
+  void record_whenTopIsFull_replacesTheLeastFrequentOnceOvertaken() {
+    // Arrange
+    record(criteria("audit"), 3);
+    record(criteria("police"), 5);
+
+    // Act
+    record(criteria("courthouse"), 3);
+    List<HotQuery> tied = tracker.top(10);
+    record(criteria("courthouse"), 1);
+
+    // Assert
+    assertThat(tied).extracting(hot -> hot.criteria().query()).containsExactly("police", "audit");
+    assertThat(tracker.top(10))
+        .extracting(hot -> hot.criteria().query())
+        .containsExactly("police", "courthouse");
+  }
+
+  @Test
+  void decay_halvesCountsAndDropsSearchesThatReachZero() {
+    // Arrange
+    record(criteria("audit"), 1);
+    record(criteria("police"), 4);
+
+    // Act
+    tracker.decay();
+    record(criteria("police"), 1);
+
+    // Assert
+    assertThat(tracker.top(10)).containsExactly(new HotQuery(criteria("police"), 3));
+  }
+
+  @Test
+  void seed_addsPersistedCountsToLiveOnes() {
+    // Arrange
+    record(criteria("audit"), 2);
+
+    // Act
+    tracker.seed(List.of(new HotQuery(criteria("audit"), 40)));
+
+    // Assert
+    assertThat(tracker.top(1)).containsExactly(new HotQuery(criteria("audit"), 42));
+  }
+
+  @Test
+  void record_whenDisabled_countsNothing() {
+    // Arrange
+    HotQueryTracker disabled = new HotQueryTracker(properties(false, 2));
+
+    // Act
+    disabled.record(criteria("audit"));
+
+    // Assert
+    assertThat(disabled.top(10)).isEmpty();
+  }
+
+  @Test
+  void sketch_neverUndercountsAmongManyKeys() {
+    // Arrange
+    CountMinSketch sketch = new CountMinSketch(64, 4);
+    for (int i = 0; i < 1000; i++) {
+      sketch.add("query " + i, i % 7 + 1);
+    }
+
+    // Act & Assert
+    for (int i = 0; i < 1000; i++) {
+      assertThat(sketch.estimate("query " + i)).isGreaterThanOrEqualTo(i % 7 + 1);
+    }
+  }
+
+  private void record(SearchCriteria criteria, int times) {
+    for (int i = 0; i < times; i++) {
+      tracker.record(criteria);
+    }
+  }
+
+  private static SearchCriteria criteria(String query) {
+    return new SearchCriteria(query, 0, 0, null, null, null, null, null);
+  }
+
+  private static HotQueryProperties properties(boolean enabled, int topK) {
+    return new HotQueryProperties(enabled, 1024, 4, topK, 0, null, null, null, null);
+  }
+}
@@ -0,0 +1,116 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+class HotQueryWarmerTest {
+
+  private static final SearchCriteria AUDIT =
+      new SearchCriteria("audit", 0, 0, null, null, null, null, null);
+  private static final SearchCriteria POLICE =
+      new SearchCriteria("police", 0, 0, "TX", null, null, null, null);
+
+  @Mock private HotQueryTracker tracker;
+  @Mock private HotQueryStore store;
+  @Mock private SearchService searchService;
+  @Mock private IndexGeneration indexGeneration;
+
+  private final HotQueryProperties properties =
+      new HotQueryProperties(true, 0, 0, 50, 2, null, null, null, Duration.ofHours(6));
+  private HotQueryWarmer warmer;
+
+  @BeforeEach
+  void setUp() {
+    warmer = new HotQueryWarmer(properties, tracker, store, searchService, indexGeneration);
+  }
+
+  @AfterEach
+  void tearDown() {
+    warmer.close();
+  }
+
+  @Test
+  void run_seedsPersistedCountsThenWarmsFirstPages() {
+    // Arrange
+    List<HotQuery> persisted = List.of(new HotQuery(AUDIT, 9));
+    when(store.findTop(50)).thenReturn(persisted);
+    when(tracker.top(2)).thenReturn(persisted);
+
+    // Act
+    warmer.run(null);
+
+    // Assert
+    InOrder inOrder = inOrder(tracker, searchService);
+    inOrder.verify(tracker).seed(persisted);
+    inOrder.verify(searchService).warm(AUDIT, PageRequest.of(0, 20));
+  }
+
+  @Test
+  void warm_whenOneSearchFails_warmsTheRest() {
+    // Arrange
+    when(tracker.top(2)).thenReturn(List.of(new HotQuery(AUDIT, 9), new HotQuery(POLICE, 4)));
+    doThrow(new IllegalStateException("boom")).when(searchService).warm(eq(AUDIT), any());
+
+    // Act
+    warmer.warm();
+
+    // Assert
+    verify(searchService).warm(POLICE, PageRequest.of(0, 20));
+  }
+
+  @Test
+  void rewarmIfIndexChanged_warmsOnlyAfterTheGenerationMoves() {
+    // Arrange
+    when(tracker.top(2)).thenReturn(List.of(new HotQuery(AUDIT, 9)));
+    when(indexGeneration.current()).thenReturn(7L);
+    warmer.warm();
+
+    // Act
+    warmer.rewarmIfIndexChanged();
+    when(indexGeneration.current()).thenReturn(8L);
+    warmer.rewarmIfIndexChanged();
+
+    // Assert
+    verify(searchService, timeout(1000).times(2)).warm(AUDIT, PageRequest.of(0, 20));
+  }
+
+  @Test
+  void rewarmIfIndexChanged_beforeStartupWarmUp_doesNothing() {
+    // Act
+    warmer.rewarmIfIndexChanged();
+
+    // Assert
+    verify(searchService, never()).warm(any(), any());
+  }
+
+  @Test
+  void persist_writesTopSearchesWithRetention() {
+    // Arrange
+    List<HotQuery> top = List.of(new HotQuery(POLICE, 4));
+    when(tracker.top(50)).thenReturn(top);
+
+    // Act
+    warmer.persist();
+
+    // Assert
+    verify(store).save(eq(top), any(), eq(Duration.ofHours(6)));
+  }
+}
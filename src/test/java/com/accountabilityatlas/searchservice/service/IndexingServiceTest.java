@@ -5,15 +5,24 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.accountabilityatlas.searchservice.client.FetchedVideo;
 import com.accountabilityatlas.searchservice.client.VideoDetail;
 import com.accountabilityatlas.searchservice.client.VideoNotFoundException;
 import com.accountabilityatlas.searchservice.client.VideoServiceClient;
 import com.accountabilityatlas.searchservice.client.VideoServiceException;
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.ModerationWatermarks;
 import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import com.accountabilityatlas.searchservice.repository.ShadowSearchVideoTable;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,15 +31,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class IndexingServiceTest {
 
   @Mock private SearchVideoRepository searchVideoRepository;
+  @Mock private ShadowSearchVideoTable shadowTable;
+  @Mock private ModerationWatermarks moderationWatermarks;
+  @Mock private FacetCounts facetCounts;
   @Mock private VideoServiceClient videoServiceClient;
+  @Mock private IndexChangeNotifier indexChangeNotifier;
+  @Mock private ApplicationEventPublisher eventPublisher;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Spy private TransactionTemplate transactionTemplate = new TransactionTemplate();
   @InjectMocks private IndexingService indexingService;
   @Captor private ArgumentCaptor<SearchVideo> searchVideoCaptor;
 
@@ -39,6 +60,7 @@ class IndexingServiceTest {
 
   @BeforeEach
   void setUp() {
+    transactionTemplate.setTransactionManager(transactionManager);
     videoId = UUID.randomUUID();
     approvedVideo = createVideoDetail(videoId, "APPROVED");
   }
@@ -46,13 +68,14 @@ class IndexingServiceTest {
   @Test
   void indexVideo_whenVideoNotFound_skipsIndexing() {
     // Arrange
-    when(videoServiceClient.getVideo(videoId)).thenThrow(new VideoNotFoundException(videoId));
+    when(videoServiceClient.fetchVideo(videoId)).thenThrow(new VideoNotFoundException(videoId));
 
     // Act
     indexingService.indexVideo(videoId);
 
     // Assert
     verify(searchVideoRepository, never()).save(any());
+    verifyNoInteractions(shadowTable, indexChangeNotifier, eventPublisher);
   }
 
   @Test
@@ -60,7 +83,7 @@ class IndexingServiceTest {
     // Arrange
     VideoServiceException serviceException =
         new VideoServiceException(videoId, "Service unavailable", true);
-    when(videoServiceClient.getVideo(videoId)).thenThrow(serviceException);
+    when(videoServiceClient.fetchVideo(videoId)).thenThrow(serviceException);
 
     // Act & Assert
     assertThatThrownBy(() -> indexingService.indexVideo(videoId))
@@ -78,7 +101,7 @@ class IndexingServiceTest {
   void indexVideo_whenVideoNotApproved_skipsIndexing() {
     // Arrange
     VideoDetail pendingVideo = createVideoDetail(videoId, "PENDING");
-    when(videoServiceClient.getVideo(videoId)).thenReturn(pendingVideo);
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(pendingVideo));
 
     // Act
     indexingService.indexVideo(videoId);
@@ -90,8 +113,9 @@ class IndexingServiceTest {
   @Test
   void indexVideo_whenApproved_savesNewVideo() {
     // Arrange
-    when(videoServiceClient.getVideo(videoId)).thenReturn(approvedVideo);
-    when(searchVideoRepository.findById(videoId)).thenReturn(Optional.empty());
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
+    when(indexChangeNotifier.notifyChanged(videoId)).thenReturn(42L);
 
     // Act
     indexingService.indexVideo(videoId);
@@ -105,9 +129,14 @@ class IndexingServiceTest {
     assertThat(saved.getTitle()).isEqualTo("Test Video Title");
     assertThat(saved.getDescription()).isEqualTo("Test description");
     assertThat(saved.getChannelName()).isEqualTo("Test Channel");
-    assertThat(saved.getAmendments()).containsExactly("FIRST", "FOURTH");
-    assertThat(saved.getParticipants()).containsExactly("POLICE", "CITIZEN");
+    assertThat(saved.getAmendments()).containsExactly(Amendment.FIRST, Amendment.FOURTH);
+    assertThat(saved.getParticipants())
+        .containsExactly(Participant.POLICE, Participant.CITIZEN);
+    assertThat(saved.getSourceVersion()).isEqualTo(7L);
     assertThat(saved.getIndexedAt()).isNotNull();
+    verify(shadowTable).mirror(saved);
+    verify(facetCounts).move(null, FacetCounts.Combination.of(saved));
+    verify(eventPublisher).publishEvent(SearchIndexChangedEvent.indexed(saved, 42));
   }
 
   @Test
@@ -116,9 +145,11 @@ class IndexingServiceTest {
     SearchVideo existing = new SearchVideo();
     existing.setId(videoId);
     existing.setTitle("Old Title");
+    existing.setPrimaryLocationState("CA");
+    existing.setAmendments(EnumSet.of(Amendment.FIRST));
 
-    when(videoServiceClient.getVideo(videoId)).thenReturn(approvedVideo);
-    when(searchVideoRepository.findById(videoId)).thenReturn(Optional.of(existing));
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.of(existing));
 
     // Act
     indexingService.indexVideo(videoId);
@@ -129,6 +160,46 @@ class IndexingServiceTest {
 
     assertThat(saved.getId()).isEqualTo(videoId);
     assertThat(saved.getTitle()).isEqualTo("Test Video Title");
+    // Counted under the values it had before this write
+    verify(facetCounts)
+        .move(
+            new FacetCounts.Combination("CA", EnumMasks.bit(Amendment.FIRST), 0),
+            FacetCounts.Combination.of(saved));
+  }
+
+  @Test
+  void indexVideo_whenNotModifiedAndVersionIndexed_skipsWrite() {
+    // Arrange
+    SearchVideo existing = new SearchVideo();
+    existing.setId(videoId);
+    existing.setSourceVersion(approvedVideo.version());
+
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(new FetchedVideo(approvedVideo, true));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.of(existing));
+
+    // Act
+    indexingService.indexVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository, never()).save(any());
+    verifyNoInteractions(shadowTable, facetCounts, indexChangeNotifier, eventPublisher);
+  }
+
+  @Test
+  void indexVideo_whenNotModifiedButIndexedVersionDiffers_writes() {
+    // Arrange
+    SearchVideo existing = new SearchVideo();
+    existing.setId(videoId);
+    existing.setSourceVersion(approvedVideo.version() - 1);
+
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(new FetchedVideo(approvedVideo, true));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.of(existing));
+
+    // Act
+    indexingService.indexVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository).save(existing);
   }
 
   @Test
@@ -137,8 +208,8 @@ class IndexingServiceTest {
     UUID locationId = UUID.randomUUID();
     VideoDetail videoWithLocation = createVideoDetailWithLocation(videoId, locationId);
 
-    when(videoServiceClient.getVideo(videoId)).thenReturn(videoWithLocation);
-    when(searchVideoRepository.findById(videoId)).thenReturn(Optional.empty());
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(videoWithLocation));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
 
     // Act
     indexingService.indexVideo(videoId);
@@ -156,7 +227,7 @@ class IndexingServiceTest {
   }
 
   @Test
-  void indexVideo_withNullAmendments_setsEmptyArray() {
+  void indexVideo_withNullAmendments_setsEmptySet() {
     // Arrange
     VideoDetail videoWithNulls =
         new VideoDetail(
@@ -173,10 +244,11 @@ class IndexingServiceTest {
             null,
             "APPROVED",
             OffsetDateTime.now(ZoneOffset.UTC),
+            null,
             null);
 
-    when(videoServiceClient.getVideo(videoId)).thenReturn(videoWithNulls);
-    when(searchVideoRepository.findById(videoId)).thenReturn(Optional.empty());
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(videoWithNulls));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
 
     // Act
     indexingService.indexVideo(videoId);
@@ -192,25 +264,205 @@ class IndexingServiceTest {
   @Test
   void removeVideo_whenExists_deletesVideo() {
     // Arrange
-    when(searchVideoRepository.existsById(videoId)).thenReturn(true);
+    SearchVideo existing = new SearchVideo();
+    existing.setPrimaryLocationState("TX");
+    existing.setParticipants(EnumSet.of(Participant.POLICE));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.of(existing));
+    when(searchVideoRepository.deleteRowById(videoId)).thenReturn(1);
+    when(indexChangeNotifier.notifyChanged(videoId)).thenReturn(43L);
 
     // Act
     indexingService.removeVideo(videoId);
 
     // Assert
-    verify(searchVideoRepository).deleteById(videoId);
+    verify(searchVideoRepository).deleteRowById(videoId);
+    verify(shadowTable).mirrorRemoval(videoId);
+    verify(facetCounts)
+        .move(new FacetCounts.Combination("TX", 0, EnumMasks.bit(Participant.POLICE)), null);
+    verify(eventPublisher).publishEvent(SearchIndexChangedEvent.removed(videoId, 43));
   }
 
   @Test
   void removeVideo_whenNotExists_doesNothing() {
     // Arrange
-    when(searchVideoRepository.existsById(videoId)).thenReturn(false);
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
+
+    // Act
+    indexingService.removeVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository, never()).deleteRowById(any());
+    verifyNoInteractions(shadowTable, facetCounts, indexChangeNotifier, eventPublisher);
+  }
+
+  @Test
+  void removeVideo_whenRemovedConcurrently_leavesCountsAlone() {
+    // Arrange
+    when(searchVideoRepository.findByIdForUpdate(videoId))
+        .thenReturn(Optional.of(new SearchVideo()));
+    when(searchVideoRepository.deleteRowById(videoId)).thenReturn(0);
 
     // Act
     indexingService.removeVideo(videoId);
 
     // Assert
-    verify(searchVideoRepository, never()).deleteById(any());
+    verifyNoInteractions(shadowTable, facetCounts, indexChangeNotifier, eventPublisher);
+  }
+
+  @Test
+  void approveVideo_whenNewestEvent_indexesVideo() {
+    // Arrange
+    Instant approvedAt = Instant.parse("2024-03-01T10:00:00Z");
+    when(moderationWatermarks.advance(videoId, approvedAt)).thenReturn(true);
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
+
+    // Act
+    indexingService.approveVideo(videoId, approvedAt);
+
+    // Assert
+    verify(searchVideoRepository).save(any());
+  }
+
+  @Test
+  void approveVideo_fetchesBeforeStartingTransaction() {
+    // Arrange
+    Instant approvedAt = Instant.parse("2024-03-01T10:00:00Z");
+    when(moderationWatermarks.advance(videoId, approvedAt)).thenReturn(true);
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
+
+    // Act
+    indexingService.approveVideo(videoId, approvedAt);
+
+    // Assert
+    InOrder inOrder = inOrder(videoServiceClient, transactionManager, moderationWatermarks);
+    inOrder.verify(videoServiceClient).fetchVideo(videoId);
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(moderationWatermarks).advance(videoId, approvedAt);
+  }
+
+  @Test
+  void approveVideo_whenNewerEventAlreadyApplied_skipsFetch() {
+    // Arrange
+    Instant approvedAt = Instant.parse("2024-03-01T10:00:00Z");
+    when(moderationWatermarks.find(videoId)).thenReturn(Optional.of(approvedAt.plusSeconds(1)));
+
+    // Act
+    indexingService.approveVideo(videoId, approvedAt);
+
+    // Assert
+    verifyNoInteractions(videoServiceClient, transactionManager);
+    verify(searchVideoRepository, never()).save(any());
+  }
+
+  @Test
+  void approveVideo_whenNewerEventAppliedWhileFetching_skipsIndexing() {
+    // Arrange
+    Instant approvedAt = Instant.parse("2024-03-01T10:00:00Z");
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+    when(moderationWatermarks.advance(videoId, approvedAt)).thenReturn(false);
+
+    // Act
+    indexingService.approveVideo(videoId, approvedAt);
+
+    // Assert
+    verify(searchVideoRepository, never()).save(any());
+  }
+
+  @Test
+  void rejectVideo_whenNewerEventAlreadyApplied_keepsVideo() {
+    // Arrange
+    Instant rejectedAt = Instant.parse("2024-03-01T10:00:00Z");
+    when(moderationWatermarks.advance(videoId, rejectedAt)).thenReturn(false);
+
+    // Act
+    indexingService.rejectVideo(videoId, rejectedAt);
+
+    // Assert
+    verify(searchVideoRepository, never()).deleteRowById(any());
+  }
+
+  @Test
+  void rejectVideo_withoutTimestamp_removesVideo() {
+    // Arrange
+    when(searchVideoRepository.findByIdForUpdate(videoId))
+        .thenReturn(Optional.of(new SearchVideo()));
+    when(searchVideoRepository.deleteRowById(videoId)).thenReturn(1);
+
+    // Act
+    indexingService.rejectVideo(videoId, null);
+
+    // Assert
+    verify(searchVideoRepository).deleteRowById(videoId);
+    verifyNoInteractions(moderationWatermarks);
+  }
+
+  @Test
+  void reconcileVideo_whenApproved_indexesVideo() {
+    // Arrange
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+    when(searchVideoRepository.findByIdForUpdate(videoId)).thenReturn(Optional.empty());
+
+    // Act
+    indexingService.reconcileVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository).save(searchVideoCaptor.capture());
+    assertThat(searchVideoCaptor.getValue().getId()).isEqualTo(videoId);
+    verify(searchVideoRepository, never()).deleteRowById(any());
+  }
+
+  @Test
+  void reconcileVideo_whenNoLongerApproved_removesVideo() {
+    // Arrange
+    when(videoServiceClient.fetchVideo(videoId))
+        .thenReturn(fetched(createVideoDetail(videoId, "REJECTED")));
+    when(searchVideoRepository.findByIdForUpdate(videoId))
+        .thenReturn(Optional.of(new SearchVideo()));
+    when(searchVideoRepository.deleteRowById(videoId)).thenReturn(1);
+
+    // Act
+    indexingService.reconcileVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository).deleteRowById(videoId);
+    verify(searchVideoRepository, never()).save(any());
+  }
+
+  @Test
+  void reconcileVideo_whenVideoNotFound_removesVideo() {
+    // Arrange
+    when(videoServiceClient.fetchVideo(videoId)).thenThrow(new VideoNotFoundException(videoId));
+    when(searchVideoRepository.findByIdForUpdate(videoId))
+        .thenReturn(Optional.of(new SearchVideo()));
+    when(searchVideoRepository.deleteRowById(videoId)).thenReturn(1);
+
+    // Act
+    indexingService.reconcileVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository).deleteRowById(videoId);
+  }
+
+  @Test
+  void reconcileVideo_whenModerationEventAppliedWhileFetching_skipsRepair() {
+    // Arrange
+    when(moderationWatermarks.find(videoId))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(Instant.parse("2024-03-01T10:00:00Z")));
+    when(videoServiceClient.fetchVideo(videoId)).thenReturn(fetched(approvedVideo));
+
+    // Act
+    indexingService.reconcileVideo(videoId);
+
+    // Assert
+    verify(searchVideoRepository, never()).save(any());
+    verify(searchVideoRepository, never()).deleteRowById(any());
+  }
+
+  private static FetchedVideo fetched(VideoDetail video) {
+    return new FetchedVideo(video, false);
   }
 
   private VideoDetail createVideoDetail(UUID id, String status) {
@@ -228,7 +480,8 @@ class IndexingServiceTest {
         List.of("POLICE", "CITIZEN"),
         status,
         OffsetDateTime.now(ZoneOffset.UTC),
-        null);
+        null,
+        7L);
   }
 
   private VideoDetail createVideoDetailWithLocation(UUID videoId, UUID locationId) {
@@ -252,6 +505,7 @@ class IndexingServiceTest {
         List.of("POLICE"),
         "APPROVED",
         OffsetDateTime.now(ZoneOffset.UTC),
-        List.of(videoLocation));
+        List.of(videoLocation),
+        7L);
   }
 }
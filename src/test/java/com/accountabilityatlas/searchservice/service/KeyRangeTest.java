@@ -0,0 +1,45 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class KeyRangeTest {
+
+  @Test
+  void all_coversWholeKeyspaceWithOpenUpperBound() {
+    // Act
+    KeyRange all = KeyRange.all();
+
+    // Assert
+    assertThat(all.fromUuid()).isEqualTo(new UUID(0, 0));
+    assertThat(all.toUuid()).isNull();
+    assertThat(all.fraction()).isEqualTo(1.0);
+  }
+
+  @Test
+  void halves_splitAtUnsignedMidpoint() {
+    // Act
+    KeyRange lower = KeyRange.all().lowerHalf();
+    KeyRange upper = KeyRange.all().upperHalf();
+
+    // Assert
+    assertThat(lower.toUuid()).hasToString("80000000-0000-0000-0000-000000000000");
+    assertThat(upper.fromUuid()).hasToString("80000000-0000-0000-0000-000000000000");
+    assertThat(upper.toUuid()).isNull();
+    assertThat(upper.lowerHalf().toUuid()).hasToString("c0000000-0000-0000-0000-000000000000");
+    assertThat(lower.fraction() + upper.fraction()).isEqualTo(1.0);
+  }
+
+  @Test
+  void canSplit_isFalseForSingleId() {
+    // Arrange
+    KeyRange single = new KeyRange(BigInteger.TEN, BigInteger.valueOf(11));
+
+    // Assert
+    assertThat(single.canSplit()).isFalse();
+    assertThat(new KeyRange(BigInteger.TEN, BigInteger.valueOf(12)).canSplit()).isTrue();
+  }
+}
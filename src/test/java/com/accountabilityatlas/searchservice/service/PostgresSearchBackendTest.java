@@ -0,0 +1,146 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresSearchBackendTest {
+
+  @Mock private SearchVideoRepository searchVideoRepository;
+  @Mock private FacetCounts facetCounts;
+  @Mock private EntityManager entityManager;
+  @Mock private Query selectQuery;
+  @Mock private Query countQuery;
+
+  @Test
+  void search_bindsFiltersAndPagesTheSelect() {
+    // Arrange
+    SearchCriteria criteria = new SearchCriteria("audit", 1, 0, "TX", null, null, null, null);
+    SearchSql sql = new SearchSql(criteria, 0);
+    when(entityManager.createNativeQuery(sql.select(), SearchVideo.class)).thenReturn(selectQuery);
+    when(selectQuery.getResultList()).thenReturn(List.of(new SearchVideo()));
+
+    // Act
+    Page<SearchVideo> result =
+        backend(RankingProperties.Mode.TEXT).search(criteria, PageRequest.of(2, 20));
+
+    // Assert
+    verify(selectQuery).setParameter("query", "audit");
+    verify(selectQuery).setParameter("amendmentsMask", 1);
+    verify(selectQuery).setParameter("state", "TX");
+    verify(selectQuery).setFirstResult(40);
+    verify(selectQuery).setMaxResults(20);
+    // A short page past the start shows the total already, so no count is run
+    assertThat(result.getTotalElements()).isEqualTo(41);
+    verify(entityManager, never()).createNativeQuery(anyString());
+  }
+
+  @Test
+  void search_whenPageIsFull_countsWithoutTheRecencyWeight() {
+    // Arrange
+    SearchCriteria criteria = new SearchCriteria("audit", 0, 0, null, null, null, null, null);
+    SearchSql sql = new SearchSql(criteria, 0.5);
+    when(entityManager.createNativeQuery(sql.select(), SearchVideo.class)).thenReturn(selectQuery);
+    when(selectQuery.getResultList()).thenReturn(List.of(new SearchVideo()));
+    when(entityManager.createNativeQuery(sql.count())).thenReturn(countQuery);
+    when(countQuery.getSingleResult()).thenReturn(7L);
+
+    // Act
+    Page<SearchVideo> result =
+        backend(RankingProperties.Mode.BLENDED).search(criteria, PageRequest.of(0, 1));
+
+    // Assert
+    verify(selectQuery).setParameter("recencyWeight", 0.5);
+    verify(countQuery).setParameter("query", "audit");
+    verify(countQuery, never()).setParameter("recencyWeight", 0.5);
+    assertThat(result.getTotalElements()).isEqualTo(7);
+  }
+
+  @Test
+  void histogram_mapsRowsToBuckets() {
+    // Arrange
+    SearchCriteria criteria = new SearchCriteria(null, 0, 0, "TX", null, null, null, null);
+    SearchSql sql = new SearchSql(criteria, 0);
+    when(entityManager.createNativeQuery(sql.histogram(HistogramInterval.MONTH)))
+        .thenReturn(selectQuery);
+    when(selectQuery.getResultList())
+        .thenReturn(
+            List.<Object[]>of(
+                new Object[] {Date.valueOf("2024-01-01"), 3L},
+                new Object[] {LocalDate.of(2024, 3, 1), 1L}));
+
+    // Act
+    List<DateBucket> buckets =
+        backend(RankingProperties.Mode.TEXT).histogram(criteria, HistogramInterval.MONTH);
+
+    // Assert
+    verify(selectQuery).setParameter("state", "TX");
+    assertThat(buckets)
+        .containsExactly(
+            new DateBucket(LocalDate.of(2024, 1, 1), 3),
+            new DateBucket(LocalDate.of(2024, 3, 1), 1));
+  }
+
+  @Test
+  void facets_withOnlyRollupFilters_readsTheRollup() {
+    // Arrange
+    SearchCriteria criteria = new SearchCriteria(null, 1, 0, "TX", null, null, null, null);
+    List<FacetCounts.Count> counts =
+        List.of(new FacetCounts.Count(new FacetCounts.Combination("TX", 3, 0), 4));
+    when(facetCounts.find("TX", 1, 0)).thenReturn(counts);
+
+    // Act
+    List<FacetCounts.Count> result = backend(RankingProperties.Mode.TEXT).facets(criteria);
+
+    // Assert
+    assertThat(result).isEqualTo(counts);
+    verifyNoInteractions(entityManager);
+  }
+
+  @Test
+  void facets_withQuery_aggregatesMatchingRows() {
+    // Arrange
+    SearchCriteria criteria = new SearchCriteria("audit", 0, 0, null, null, null, null, null);
+    SearchSql sql = new SearchSql(criteria, 0);
+    when(entityManager.createNativeQuery(sql.facets())).thenReturn(selectQuery);
+    when(selectQuery.getResultList()).thenReturn(List.<Object[]>of(new Object[] {null, 1, 8, 2L}));
+
+    // Act
+    List<FacetCounts.Count> result = backend(RankingProperties.Mode.TEXT).facets(criteria);
+
+    // Assert
+    verify(selectQuery).setParameter("query", "audit");
+    assertThat(result)
+        .containsExactly(new FacetCounts.Count(new FacetCounts.Combination(null, 1, 8), 2));
+    verifyNoInteractions(facetCounts);
+  }
+
+  private PostgresSearchBackend backend(RankingProperties.Mode mode) {
+    // Two years' half-life: half the weight of the one-year decay static_score encodes
+    return new PostgresSearchBackend(
+        searchVideoRepository,
+        facetCounts,
+        entityManager,
+        new RankingProperties(mode, Duration.ofHours(2 * 8766)));
+  }
+}
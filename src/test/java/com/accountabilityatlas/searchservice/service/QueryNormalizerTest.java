@@ -0,0 +1,89 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class QueryNormalizerTest {
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "First Amendment",
+        "first  amendment ",
+        "amendment first",
+        "\tAMENDMENT\nFirst",
+        "the first amendment",
+        "first amendments amendment"
+      })
+  void canonicalQuery_withEquivalentQueries_returnsSameForm(String query) {
+    // Act & Assert
+    assertThat(QueryNormalizer.canonicalQuery(query)).isEqualTo("amendment first");
+  }
+
+  @Test
+  void canonicalQuery_withPunctuation_keepsWordOrder() {
+    // Act & Assert
+    assertThat(QueryNormalizer.canonicalQuery("  Self-Help  Audit ")).isEqualTo("self-help audit");
+  }
+
+  @Test
+  void canonicalQuery_withOnlyStopWords_keepsQuery() {
+    // Act & Assert
+    assertThat(QueryNormalizer.canonicalQuery("The  Who")).isEqualTo("the who");
+  }
+
+  @Test
+  void canonicalQuery_withBlankQuery_returnsNull() {
+    // Act & Assert
+    assertThat(QueryNormalizer.canonicalQuery("   ")).isNull();
+    assertThat(QueryNormalizer.canonicalQuery(null)).isNull();
+  }
+
+  @Test
+  void normalize_withGrid_widensBoundingBoxToGrid() {
+    // Arrange
+    QueryNormalizer normalizer = new QueryNormalizer(new NormalizationProperties(0.01));
+    SearchCriteria criteria =
+        new SearchCriteria(null, 0, 0, null, 37.7749, 37.8044, -122.4194, -122.2712);
+
+    // Act
+    SearchCriteria normalized = normalizer.normalize(criteria);
+
+    // Assert
+    assertThat(normalized.minLat()).isEqualTo(37.77);
+    assertThat(normalized.maxLat()).isEqualTo(37.81);
+    assertThat(normalized.minLng()).isEqualTo(-122.42);
+    assertThat(normalized.maxLng()).isEqualTo(-122.27);
+  }
+
+  @Test
+  void normalize_withNearbyBoxes_returnsEqualCriteria() {
+    // Arrange
+    QueryNormalizer normalizer = new QueryNormalizer(new NormalizationProperties(0.01));
+
+    // Act
+    SearchCriteria first =
+        normalizer.normalize(
+            new SearchCriteria("Audit", 1, 0, "CA", 37.771, 37.809, -122.419, -122.271));
+    SearchCriteria second =
+        normalizer.normalize(
+            new SearchCriteria("audit ", 1, 0, "CA", 37.7749, 37.8044, -122.4194, -122.2712));
+
+    // Assert
+    assertThat(first).isEqualTo(second);
+  }
+
+  @Test
+  void normalize_withoutGrid_keepsExactBoundingBox() {
+    // Arrange
+    QueryNormalizer normalizer = new QueryNormalizer(new NormalizationProperties(0));
+    SearchCriteria criteria =
+        new SearchCriteria(null, 0, 0, null, 37.7749, 37.8044, -122.4194, -122.2712);
+
+    // Act & Assert
+    assertThat(normalizer.normalize(criteria)).isEqualTo(criteria);
+  }
+}
@@ -0,0 +1,219 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.accountabilityatlas.searchservice.client.RangeDigest;
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import com.accountabilityatlas.searchservice.client.VideoServiceException;
+import com.accountabilityatlas.searchservice.client.VideoVersion;
+import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+
+  private static final UUID START = new UUID(0, 0);
+  private static final UUID MIDDLE = UUID.fromString("80000000-0000-0000-0000-000000000000");
+  private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+  private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+  private static final UUID THIRD = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+  private static final UUID FOURTH = UUID.fromString("00000000-0000-0000-0000-00000000000d");
+
+  @Mock private VideoServiceClient videoServiceClient;
+  @Mock private SearchVideoRepository searchVideoRepository;
+  @Mock private IndexingService indexingService;
+  @Mock private AdvisoryLock advisoryLock;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private boolean advisoryLockAvailable = true;
+
+  @BeforeEach
+  void setUp() {
+    when(advisoryLock.runExclusively(anyLong(), any()))
+        .thenAnswer(
+            invocation -> {
+              if (!advisoryLockAvailable) {
+                return false;
+              }
+              invocation.<Runnable>getArgument(1).run();
+              return true;
+            });
+  }
+
+  @Test
+  void reconcile_whenDigestsMatch_comparesOnceAndRepairsNothing() {
+    // Arrange
+    when(searchVideoRepository.digestRange(START.toString(), null)).thenReturn(digest(3, "abc"));
+    when(videoServiceClient.getApprovedDigest(START, null)).thenReturn(new RangeDigest(3, "abc"));
+
+    // Act
+    service(256).reconcile();
+
+    // Assert
+    verify(searchVideoRepository, never()).findVersionsInRange(any(), any());
+    verifyNoInteractions(indexingService);
+    assertThat(meterRegistry.get("search.reconciliation.progress").gauge().value()).isEqualTo(1.0);
+    assertThat(rangeCount("match")).isEqualTo(1);
+  }
+
+  @Test
+  void reconcile_whenRangeDiffers_repairsMissingStaleAndOrphanedIds() {
+    // Arrange
+    when(searchVideoRepository.digestRange(START.toString(), null)).thenReturn(digest(3, "abc"));
+    when(videoServiceClient.getApprovedDigest(START, null)).thenReturn(new RangeDigest(3, "def"));
+    when(searchVideoRepository.findVersionsInRange(START.toString(), null))
+        .thenReturn(List.of(version(FIRST, 1L), version(SECOND, 1L), version(THIRD, 1L)));
+    when(videoServiceClient.getApprovedVersions(START, null))
+        .thenReturn(
+            List.of(
+                new VideoVersion(FIRST, 1L),
+                new VideoVersion(SECOND, 2L),
+                new VideoVersion(FOURTH, 1L)));
+
+    // Act
+    service(256).reconcile();
+
+    // Assert
+    verify(indexingService).reconcileVideo(SECOND);
+    verify(indexingService).reconcileVideo(THIRD);
+    verify(indexingService).reconcileVideo(FOURTH);
+    verify(indexingService, never()).reconcileVideo(FIRST);
+    assertThat(driftCount("missing")).isEqualTo(1);
+    assertThat(driftCount("stale")).isEqualTo(1);
+    assertThat(driftCount("orphaned")).isEqualTo(1);
+    assertThat(meterRegistry.get("search.reconciliation.pending").gauge().value()).isZero();
+  }
+
+  @Test
+  void reconcile_whenMismatchedRangeIsLarge_bisectsDownToDifferingHalf() {
+    // Arrange
+    when(searchVideoRepository.digestRange(START.toString(), null)).thenReturn(digest(3, "abc"));
+    when(videoServiceClient.getApprovedDigest(START, null)).thenReturn(new RangeDigest(4, "def"));
+    when(searchVideoRepository.digestRange(START.toString(), MIDDLE.toString()))
+        .thenReturn(digest(2, "same"));
+    when(videoServiceClient.getApprovedDigest(START, MIDDLE))
+        .thenReturn(new RangeDigest(2, "same"));
+    when(searchVideoRepository.digestRange(MIDDLE.toString(), null)).thenReturn(digest(1, "old"));
+    when(videoServiceClient.getApprovedDigest(MIDDLE, null)).thenReturn(new RangeDigest(2, "new"));
+    UUID added = UUID.fromString("90000000-0000-0000-0000-000000000000");
+    UUID kept = UUID.fromString("a0000000-0000-0000-0000-000000000000");
+    when(searchVideoRepository.findVersionsInRange(MIDDLE.toString(), null))
+        .thenReturn(List.of(version(kept, 5L)));
+    when(videoServiceClient.getApprovedVersions(MIDDLE, null))
+        .thenReturn(List.of(new VideoVersion(added, 1L), new VideoVersion(kept, 5L)));
+
+    // Act
+    service(2).reconcile();
+
+    // Assert
+    verify(searchVideoRepository, never()).findVersionsInRange(START.toString(), null);
+    verify(indexingService).reconcileVideo(added);
+    verify(indexingService, never()).reconcileVideo(kept);
+    assertThat(rangeCount("match")).isEqualTo(1);
+    assertThat(rangeCount("mismatch")).isEqualTo(2);
+    assertThat(meterRegistry.get("search.reconciliation.progress").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  void reconcile_whenVideoServiceUnavailableDuringRepair_abandonsRun() {
+    // Arrange
+    when(searchVideoRepository.digestRange(START.toString(), null)).thenReturn(digest(0, null));
+    when(videoServiceClient.getApprovedDigest(START, null)).thenReturn(new RangeDigest(2, "abc"));
+    when(searchVideoRepository.findVersionsInRange(START.toString(), null)).thenReturn(List.of());
+    when(videoServiceClient.getApprovedVersions(START, null))
+        .thenReturn(List.of(new VideoVersion(FIRST, 1L), new VideoVersion(SECOND, 1L)));
+    doThrow(new VideoServiceException(FIRST, "Service unavailable", true))
+        .when(indexingService)
+        .reconcileVideo(FIRST);
+
+    // Act
+    service(256).reconcile();
+
+    // Assert
+    verify(indexingService, never()).reconcileVideo(SECOND);
+    assertThat(
+            meterRegistry
+                .get("search.reconciliation.repairs")
+                .tag("outcome", "failure")
+                .counter()
+                .count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("search.reconciliation.pending").gauge().value()).isZero();
+  }
+
+  @Test
+  void reconcile_whenAnotherInstanceHoldsTheLock_comparesNothing() {
+    // Arrange
+    advisoryLockAvailable = false;
+
+    // Act
+    service(256).reconcile();
+
+    // Assert
+    verifyNoInteractions(videoServiceClient, searchVideoRepository, indexingService);
+  }
+
+  private ReconciliationService service(int leafSize) {
+    return new ReconciliationService(
+        videoServiceClient,
+        searchVideoRepository,
+        indexingService,
+        advisoryLock,
+        new ReconciliationProperties(true, null, leafSize, 1000, 1000),
+        meterRegistry);
+  }
+
+  private double rangeCount(String result) {
+    return meterRegistry
+        .get("search.reconciliation.ranges")
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+
+  private double driftCount(String kind) {
+    return meterRegistry.get("search.reconciliation.drift").tag("kind", kind).counter().count();
+  }
+
+  private static SearchVideoRepository.RangeDigestView digest(long count, String digest) {
+    return new SearchVideoRepository.RangeDigestView() {
+      @Override
+      public long getCount() {
+        return count;
+      }
+
+      @Override
+      public String getDigest() {
+        return digest;
+      }
+    };
+  }
+
+  private static SearchVideoRepository.VersionView version(UUID id, Long sourceVersion) {
+    return new SearchVideoRepository.VersionView() {
+      @Override
+      public UUID getId() {
+        return id;
+      }
+
+      @Override
+      public Long getSourceVersion() {
+        return sourceVersion;
+      }
+    };
+  }
+}
@@ -0,0 +1,196 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.accountabilityatlas.searchservice.client.VideoDetail;
+import com.accountabilityatlas.searchservice.client.VideoPage;
+import com.accountabilityatlas.searchservice.client.VideoServiceClient;
+import com.accountabilityatlas.searchservice.client.VideoServiceException;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import com.accountabilityatlas.searchservice.repository.ShadowSearchVideoTable;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ReindexServiceTest {
+
+  @Mock private VideoServiceClient videoServiceClient;
+  @Mock private ShadowSearchVideoTable shadowTable;
+  @Mock private FacetCounts facetCounts;
+  @Mock private IndexChangeNotifier indexChangeNotifier;
+  @Mock private AdvisoryLock advisoryLock;
+  @Mock private TransactionTemplate transactionTemplate;
+  @Mock private ApplicationEventPublisher eventPublisher;
+  @Captor private ArgumentCaptor<List<SearchVideo>> rowsCaptor;
+
+  private ReindexService reindexService;
+  private boolean advisoryLockAvailable = true;
+
+  @BeforeEach
+  void setUp() {
+    reindexService =
+        new ReindexService(
+            videoServiceClient,
+            shadowTable,
+            facetCounts,
+            indexChangeNotifier,
+            advisoryLock,
+            transactionTemplate,
+            eventPublisher,
+            new ReindexProperties(2, Duration.ofMillis(1), 2));
+    when(advisoryLock.runExclusively(anyLong(), any()))
+        .thenAnswer(
+            invocation -> {
+              if (!advisoryLockAvailable) {
+                return false;
+              }
+              invocation.<Runnable>getArgument(1).run();
+              return true;
+            });
+  }
+
+  @Test
+  void rebuild_loadsEveryApprovedPageThenIndexesAndSwaps() {
+    // Arrange
+    VideoDetail first = video("APPROVED");
+    VideoDetail second = video("APPROVED");
+    VideoDetail third = video("APPROVED");
+    when(videoServiceClient.getApprovedVideos(0, 2))
+        .thenReturn(new VideoPage(List.of(first, second), false));
+    when(videoServiceClient.getApprovedVideos(1, 2))
+        .thenReturn(new VideoPage(List.of(third, video("REJECTED")), true));
+    stubSwap();
+    when(indexChangeNotifier.notifyRebuilt()).thenReturn(99L);
+
+    // Act
+    reindexService.rebuild();
+
+    // Assert
+    InOrder inOrder = inOrder(shadowTable, facetCounts);
+    inOrder.verify(shadowTable).create();
+    inOrder.verify(shadowTable, times(2)).load(rowsCaptor.capture());
+    inOrder.verify(shadowTable).buildIndexes();
+    inOrder.verify(shadowTable).swap(Duration.ofMillis(1));
+    inOrder.verify(facetCounts).recount();
+    assertThat(rowsCaptor.getAllValues().get(0))
+        .extracting(SearchVideo::getId)
+        .containsExactly(first.id(), second.id());
+    assertThat(rowsCaptor.getAllValues().get(1))
+        .extracting(SearchVideo::getId)
+        .containsExactly(third.id());
+    verify(eventPublisher).publishEvent(new SearchIndexRebuiltEvent(99));
+    assertThat(reindexService.status().state()).isEqualTo(ReindexStatus.State.SUCCEEDED);
+    assertThat(reindexService.status().videosLoaded()).isEqualTo(3);
+  }
+
+  @Test
+  void rebuild_whenVideoServiceFails_dropsShadowAndKeepsLiveTable() {
+    // Arrange
+    when(videoServiceClient.getApprovedVideos(anyInt(), anyInt()))
+        .thenThrow(new VideoServiceException(null, "Video-service error: 400", false));
+
+    // Act
+    reindexService.rebuild();
+
+    // Assert
+    verify(shadowTable).drop();
+    verify(shadowTable, never()).swap(any());
+    assertThat(reindexService.status().state()).isEqualTo(ReindexStatus.State.FAILED);
+    assertThat(reindexService.status().error()).contains("400");
+  }
+
+  @Test
+  void rebuild_whenNoApprovedVideos_refusesToSwapInEmptyTable() {
+    // Arrange
+    when(videoServiceClient.getApprovedVideos(0, 2)).thenReturn(new VideoPage(List.of(), true));
+
+    // Act
+    reindexService.rebuild();
+
+    // Assert
+    verify(shadowTable, never()).load(anyList());
+    verify(shadowTable, never()).swap(any());
+    verify(shadowTable).drop();
+    assertThat(reindexService.status().state()).isEqualTo(ReindexStatus.State.FAILED);
+  }
+
+  @Test
+  void rebuild_whenSwapLockTimesOut_retriesUpToConfiguredAttempts() {
+    // Arrange
+    when(videoServiceClient.getApprovedVideos(0, 2))
+        .thenReturn(new VideoPage(List.of(video("APPROVED")), true));
+    when(transactionTemplate.execute(any()))
+        .thenThrow(new CannotAcquireLockException("lock timeout"))
+        .thenReturn(7L);
+
+    // Act
+    reindexService.rebuild();
+
+    // Assert
+    verify(eventPublisher).publishEvent(new SearchIndexRebuiltEvent(7));
+    assertThat(reindexService.status().state()).isEqualTo(ReindexStatus.State.SUCCEEDED);
+  }
+
+  @Test
+  void rebuild_whenAnotherInstanceHoldsTheLock_doesNotTouchTheShadow() {
+    // Arrange
+    advisoryLockAvailable = false;
+
+    // Act
+    reindexService.rebuild();
+
+    // Assert
+    verify(shadowTable, never()).create();
+    verify(shadowTable, never()).drop();
+    assertThat(reindexService.status().state()).isEqualTo(ReindexStatus.State.FAILED);
+  }
+
+  private void stubSwap() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+  }
+
+  private static VideoDetail video(String status) {
+    return new VideoDetail(
+        UUID.randomUUID(),
+        "abc123",
+        "Title",
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        List.of("FIRST"),
+        List.of(),
+        status,
+        OffsetDateTime.now(),
+        null,
+        1L);
+  }
+}
@@ -0,0 +1,192 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.accountabilityatlas.searchservice.config.ReadReplicaProperties;
+import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+class SearchResultCacheTest {
+
+  private static final ReadReplicaProperties NO_REPLICAS =
+      new ReadReplicaProperties(false, null, null, null, 0, null, null);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final IndexGeneration indexGeneration = new IndexGeneration();
+  private final Pageable pageable = PageRequest.of(0, 20);
+  private final SearchCriteria criteria =
+      new SearchCriteria("audit", 0, 0, "TX", null, null, null, null);
+  private final AtomicInteger searches = new AtomicInteger();
+
+  @Test
+  void get_withSameCriteria_searchesOnce() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1));
+
+    // Act
+    Page<SearchVideo> first = cache.get(criteria, pageable, this::search);
+    SearchCriteria sameCriteria = new SearchCriteria("audit", 0, 0, "TX", null, null, null, null);
+    Page<SearchVideo> second = cache.get(sameCriteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(1);
+    assertThat(second).isSameAs(first);
+    assertThat(requests("hit")).isEqualTo(1);
+    assertThat(requests("miss")).isEqualTo(1);
+  }
+
+  @Test
+  void get_withDifferentPage_searchesAgain() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1));
+    cache.get(criteria, pageable, this::search);
+
+    // Act
+    cache.get(criteria, PageRequest.of(1, 20), this::search);
+
+    // Assert
+    assertThat(searches).hasValue(2);
+  }
+
+  @Test
+  void get_afterIndexChange_searchesAgain() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1));
+    cache.get(criteria, pageable, this::search);
+    indexGeneration.onRemoteIndexChanged(new RemoteIndexChangedEvent(UUID.randomUUID(), 1));
+
+    // Act
+    cache.get(criteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(2);
+  }
+
+  @Test
+  void get_afterTimeToLive_searchesAgain() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofNanos(1));
+    cache.get(criteria, pageable, this::search);
+
+    // Act
+    cache.get(criteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(2);
+  }
+
+  @Test
+  void histogram_withSameCriteriaAsCachedPage_isCachedSeparately() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1));
+    cache.get(criteria, pageable, this::search);
+    List<DateBucket> buckets = List.of(new DateBucket(LocalDate.of(2024, 1, 1), 3));
+
+    // Act
+    List<DateBucket> first = cache.histogram(criteria, HistogramInterval.MONTH, () -> buckets);
+    List<DateBucket> second = cache.histogram(criteria, HistogramInterval.MONTH, List::of);
+
+    // Assert
+    assertThat(first).isSameAs(buckets);
+    assertThat(second).isSameAs(buckets);
+    assertThat(requests("hit")).isEqualTo(1);
+    assertThat(requests("miss")).isEqualTo(2);
+  }
+
+  @Test
+  void get_whenDisabled_alwaysSearches() {
+    // Arrange
+    SearchResultCache cache =
+        new SearchResultCache(
+            new ResultCacheProperties(false, 10, null),
+            NO_REPLICAS,
+            indexGeneration,
+            meterRegistry);
+
+    // Act
+    cache.get(criteria, pageable, this::search);
+    cache.get(criteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(2);
+  }
+
+  @Test
+  void get_withReplicasRightAfterIndexChange_doesNotCache() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1), replicas(Duration.ofMinutes(1)));
+    indexGeneration.onRemoteIndexChanged(new RemoteIndexChangedEvent(UUID.randomUUID(), 1));
+
+    // Act
+    cache.get(criteria, pageable, this::search);
+    cache.get(criteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(2);
+  }
+
+  @Test
+  void get_withReplicasOnceChangeHasReplicated_caches() throws InterruptedException {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1), replicas(Duration.ofMillis(20)));
+    indexGeneration.onRemoteIndexChanged(new RemoteIndexChangedEvent(UUID.randomUUID(), 1));
+    Thread.sleep(50);
+
+    // Act
+    cache.get(criteria, pageable, this::search);
+    cache.get(criteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(1);
+  }
+
+  @Test
+  void getFromPrimary_withReplicasRightAfterIndexChange_caches() {
+    // Arrange
+    SearchResultCache cache = cache(Duration.ofMinutes(1), replicas(Duration.ofMinutes(1)));
+    indexGeneration.onRemoteIndexChanged(new RemoteIndexChangedEvent(UUID.randomUUID(), 1));
+
+    // Act
+    cache.getFromPrimary(criteria, pageable, this::search);
+    cache.get(criteria, pageable, this::search);
+
+    // Assert
+    assertThat(searches).hasValue(1);
+  }
+
+  private SearchResultCache cache(Duration timeToLive) {
+    return cache(timeToLive, NO_REPLICAS);
+  }
+
+  private SearchResultCache cache(Duration timeToLive, ReadReplicaProperties replicas) {
+    return new SearchResultCache(
+        new ResultCacheProperties(true, 10, timeToLive), replicas, indexGeneration, meterRegistry);
+  }
+
+  private static ReadReplicaProperties replicas(Duration maxLag) {
+    return new ReadReplicaProperties(true, null, null, null, 0, maxLag, Duration.ofMillis(1));
+  }
+
+  private Page<SearchVideo> search() {
+    searches.incrementAndGet();
+    return new PageImpl<>(List.of(new SearchVideo()), pageable, 1);
+  }
+
+  private double requests(String result) {
+    return meterRegistry
+        .get("search.result_cache.requests")
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+}
@@ -1,13 +1,22 @@
 package com.accountabilityatlas.searchservice.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.accountabilityatlas.searchservice.config.ReadReplicaProperties;
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.EnumMasks;
+import com.accountabilityatlas.searchservice.domain.Participant;
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
-import com.accountabilityatlas.searchservice.repository.SearchVideoRepository;
+import com.accountabilityatlas.searchservice.repository.FacetCounts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -18,6 +27,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -27,13 +37,23 @@ import org.springframework.data.domain.Pageable;
 @ExtendWith(MockitoExtension.class)
 class SearchServiceTest {
 
-  @Mock private SearchVideoRepository searchVideoRepository;
+  @Mock private SearchBackend searchBackend;
+  @Mock private HotQueryTracker hotQueryTracker;
+
+  @Spy
+  private SearchResultCache resultCache =
+      new SearchResultCache(
+          new ResultCacheProperties(false, 0, null),
+          new ReadReplicaProperties(false, null, null, null, 0, null, null),
+          new IndexGeneration(),
+          new SimpleMeterRegistry());
+
+  @Spy
+  private QueryNormalizer queryNormalizer = new QueryNormalizer(new NormalizationProperties(0));
+
   @InjectMocks private SearchService searchService;
 
-  @Captor private ArgumentCaptor<String> queryCaptor;
-  @Captor private ArgumentCaptor<String> amendmentsCaptor;
-  @Captor private ArgumentCaptor<String> participantsCaptor;
-  @Captor private ArgumentCaptor<String> stateCaptor;
+  @Captor private ArgumentCaptor<SearchCriteria> criteriaCaptor;
 
   private SearchVideo testVideo;
   private Pageable pageable;
@@ -49,178 +69,311 @@ class SearchServiceTest {
   }
 
   @Test
-  void search_withQueryOnly_passesQueryToRepository() {
+  void search_withQueryOnly_passesCanonicalQueryToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(testVideo), pageable, 1);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     SearchResult result =
-        searchService.search("test query", null, null, null, null, null, null, null, pageable);
+        searchService.search(
+            "test query", null, null, null, null, null, null, null, null, null, pageable, true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            queryCaptor.capture(),
-            amendmentsCaptor.capture(),
-            participantsCaptor.capture(),
-            stateCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    assertThat(queryCaptor.getValue()).isEqualTo("test query");
-    assertThat(amendmentsCaptor.getValue()).isNull();
-    assertThat(participantsCaptor.getValue()).isNull();
-    assertThat(stateCaptor.getValue()).isNull();
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().query()).isEqualTo("query test");
+    assertThat(criteriaCaptor.getValue().amendmentsMask()).isZero();
+    assertThat(criteriaCaptor.getValue().participantsMask()).isZero();
+    assertThat(criteriaCaptor.getValue().state()).isNull();
     assertThat(result.videos()).hasSize(1);
     assertThat(result.totalElements()).isEqualTo(1);
+    verify(hotQueryTracker).record(criteriaCaptor.getValue());
+  }
+
+  @Test
+  void warm_searchesWithoutCountingTheRequest() {
+    // Arrange
+    SearchCriteria criteria = new SearchCriteria("audit", 0, 0, null, null, null, null, null);
+    when(searchBackend.search(criteria, pageable))
+        .thenReturn(new PageImpl<>(List.of(testVideo), pageable, 1));
+
+    // Act
+    searchService.warm(criteria, pageable);
+
+    // Assert
+    verify(searchBackend).search(criteria, pageable);
+    verifyNoInteractions(hotQueryTracker);
+  }
+
+  @Test
+  void search_whenNotCounted_leavesTheTrackerAlone() {
+    // Arrange
+    when(searchBackend.search(any(), any())).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+    // Act
+    searchService.search(
+        "audit", null, null, null, null, null, null, null, null, null, pageable, false);
+
+    // Assert
+    verify(searchBackend).search(any(), eq(pageable));
+    verifyNoInteractions(hotQueryTracker);
+  }
+
+  @Test
+  void search_withBlankQuery_passesNullToBackend() {
+    // Arrange
+    Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
+    when(searchBackend.search(any(), any())).thenReturn(page);
+
+    // Act
+    searchService.search(
+        "   ", null, null, null, null, null, null, null, null, null, pageable, true);
+
+    // Assert
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().query()).isNull();
+  }
+
+  @Test
+  void search_withNullQuery_passesNullToBackend() {
+    // Arrange
+    Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
+    when(searchBackend.search(any(), any())).thenReturn(page);
+
+    // Act
+    searchService.search(
+        null, null, null, null, null, null, null, null, null, null, pageable, true);
+
+    // Assert
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().query()).isNull();
+  }
+
+  @Test
+  void search_withAmendments_convertsToBitmask() {
+    // Arrange
+    Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
+    when(searchBackend.search(any(), any())).thenReturn(page);
+
+    // Act
+    searchService.search(
+        null,
+        Set.of("FIRST", "FOURTH"),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        pageable,
+        true);
+
+    // Assert
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().amendmentsMask())
+        .isEqualTo(EnumMasks.toMask(EnumSet.of(Amendment.FIRST, Amendment.FOURTH)));
+  }
+
+  @Test
+  void search_withParticipants_convertsToBitmask() {
+    // Arrange
+    Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
+    when(searchBackend.search(any(), any())).thenReturn(page);
+
+    // Act
+    searchService.search(
+        null,
+        null,
+        Set.of("POLICE", "CITIZEN"),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        pageable,
+        true);
+
+    // Assert
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().participantsMask())
+        .isEqualTo(EnumMasks.toMask(EnumSet.of(Participant.POLICE, Participant.CITIZEN)));
   }
 
   @Test
-  void search_withBlankQuery_passesNullToRepository() {
+  void search_withEmptyAmendments_passesZeroMaskToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
-    searchService.search("   ", null, null, null, null, null, null, null, pageable);
+    searchService.search(
+        null, Set.of(), null, null, null, null, null, null, null, null, pageable, true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            queryCaptor.capture(), any(), any(), any(), any(), any(), any(), any(), eq(pageable));
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
 
-    assertThat(queryCaptor.getValue()).isNull();
+    assertThat(criteriaCaptor.getValue().amendmentsMask()).isZero();
   }
 
   @Test
-  void search_withNullQuery_passesNullToRepository() {
+  void search_withState_passesStateToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
-    searchService.search(null, null, null, null, null, null, null, null, pageable);
+    searchService.search(
+        null, null, null, "TX", null, null, null, null, null, null, pageable, true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            queryCaptor.capture(), any(), any(), any(), any(), any(), any(), any(), eq(pageable));
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
 
-    assertThat(queryCaptor.getValue()).isNull();
+    assertThat(criteriaCaptor.getValue().state()).isEqualTo("TX");
   }
 
   @Test
-  void search_withAmendments_convertsToPostgresArray() {
+  void search_withBoundingBox_passesBoundsToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     searchService.search(
-        null, Set.of("FIRST", "FOURTH"), null, null, null, null, null, null, pageable);
+        null, null, null, null, -98.0, 29.0, -97.0, 31.0, null, null, pageable, true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            amendmentsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    String amendments = amendmentsCaptor.getValue();
-    assertThat(amendments).startsWith("{").contains("FIRST").contains("FOURTH").endsWith("}");
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    SearchCriteria criteria = criteriaCaptor.getValue();
+    assertThat(criteria.hasBoundingBox()).isTrue();
+    assertThat(criteria.minLat()).isEqualTo(29.0);
+    assertThat(criteria.maxLat()).isEqualTo(31.0);
+    assertThat(criteria.minLng()).isEqualTo(-98.0);
+    assertThat(criteria.maxLng()).isEqualTo(-97.0);
   }
 
   @Test
-  void search_withParticipants_convertsToPostgresArray() {
+  void search_withRanges_passesRangesToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
+    SearchRanges ranges = new SearchRanges(LocalDate.of(2024, 1, 1), null, 60, null);
 
     // Act
     searchService.search(
-        null, null, Set.of("POLICE", "CITIZEN"), null, null, null, null, null, pageable);
+        null, null, null, null, null, null, null, null, ranges, null, pageable, true);
+
+    // Assert
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().ranges()).isEqualTo(ranges);
+  }
+
+  @Test
+  void histogram_passesCanonicalCriteriaAndIntervalToBackend() {
+    // Arrange
+    List<DateBucket> buckets = List.of(new DateBucket(LocalDate.of(2024, 1, 1), 2));
+    when(searchBackend.histogram(any(), eq(HistogramInterval.YEAR))).thenReturn(buckets);
+
+    // Act
+    DateHistogram histogram =
+        searchService.histogram(
+            "  Audit ",
+            Set.of("FIRST"),
+            null,
+            "TX",
+            null,
+            null,
+            null,
+            null,
+            null,
+            HistogramInterval.YEAR);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            any(),
-            participantsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    String participants = participantsCaptor.getValue();
-    assertThat(participants).startsWith("{").contains("POLICE").contains("CITIZEN").endsWith("}");
+    verify(searchBackend).histogram(criteriaCaptor.capture(), eq(HistogramInterval.YEAR));
+    SearchCriteria criteria = criteriaCaptor.getValue();
+    assertThat(criteria.query()).isEqualTo("audit");
+    assertThat(criteria.amendmentsMask()).isEqualTo(EnumMasks.toMask(EnumSet.of(Amendment.FIRST)));
+    assertThat(criteria.state()).isEqualTo("TX");
+    assertThat(histogram.buckets()).isEqualTo(buckets);
   }
 
   @Test
-  void search_withEmptyAmendments_passesNullToRepository() {
+  void facets_countsEachVideoUnderEveryValueItHas() {
+    // Arrange
+    int firstAndFourth = EnumMasks.toMask(EnumSet.of(Amendment.FIRST, Amendment.FOURTH));
+    int police = EnumMasks.bit(Participant.POLICE);
+    when(searchBackend.facets(any()))
+        .thenReturn(
+            List.of(
+                new FacetCounts.Count(new FacetCounts.Combination("TX", firstAndFourth, police), 3),
+                new FacetCounts.Count(
+                    new FacetCounts.Combination(null, EnumMasks.bit(Amendment.FIRST), 0), 2)));
+
+    // Act
+    SearchFacets facets = searchService.facets(null, Set.of("FIRST"), null, null);
+
+    // Assert
+    verify(searchBackend).facets(criteriaCaptor.capture());
+    assertThat(criteriaCaptor.getValue().amendmentsMask())
+        .isEqualTo(EnumMasks.bit(Amendment.FIRST));
+    assertThat(facets.amendments()).containsExactly(entry("FIRST", 5L), entry("FOURTH", 3L));
+    assertThat(facets.participants()).containsExactly(entry("POLICE", 3L));
+    // Videos without a primary location count towards the total but no state
+    assertThat(facets.states()).containsExactly(entry("TX", 3L));
+    assertThat(facets.totalMatching()).isEqualTo(5);
+  }
+
+  @Test
+  void search_withSort_passesSortToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
-    searchService.search(null, Set.of(), null, null, null, null, null, null, pageable);
+    searchService.search(
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        SearchSort.VIDEO_DATE,
+        pageable,
+        true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            amendmentsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    assertThat(amendmentsCaptor.getValue()).isNull();
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().sort()).isEqualTo(SearchSort.VIDEO_DATE);
   }
 
   @Test
-  void search_withState_passesStateToRepository() {
+  void search_withoutSort_defaultsToRelevance() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
-    searchService.search(null, null, null, "TX", null, null, null, null, pageable);
+    searchService.search(
+        "audit", null, null, null, null, null, null, null, null, null, pageable, true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(), any(), any(), stateCaptor.capture(), any(), any(), any(), any(), eq(pageable));
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
 
-    assertThat(stateCaptor.getValue()).isEqualTo("TX");
+    assertThat(criteriaCaptor.getValue().sort()).isEqualTo(SearchSort.RELEVANCE);
   }
 
   @Test
@@ -233,13 +386,12 @@ class SearchServiceTest {
 
     Pageable page1 = PageRequest.of(1, 10);
     Page<SearchVideo> page = new PageImpl<>(List.of(video1, video2), page1, 25);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     SearchResult result =
-        searchService.search("test", null, null, null, null, null, null, null, page1);
+        searchService.search(
+            "test", null, null, null, null, null, null, null, null, null, page1, true);
 
     // Assert
     assertThat(result.videos()).hasSize(2);
@@ -253,13 +405,12 @@ class SearchServiceTest {
   void search_recordsQueryTime() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     SearchResult result =
-        searchService.search("test", null, null, null, null, null, null, null, pageable);
+        searchService.search(
+            "test", null, null, null, null, null, null, null, null, null, pageable, true);
 
     // Assert
     assertThat(result.queryTimeMs()).isGreaterThanOrEqualTo(0);
@@ -269,28 +420,23 @@ class SearchServiceTest {
   void search_trimsQueryWhitespace() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
-    searchService.search("  test query  ", null, null, null, null, null, null, null, pageable);
+    searchService.search(
+        "  test query  ", null, null, null, null, null, null, null, null, null, pageable, true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            queryCaptor.capture(), any(), any(), any(), any(), any(), any(), any(), eq(pageable));
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
 
-    assertThat(queryCaptor.getValue()).isEqualTo("test query");
+    assertThat(criteriaCaptor.getValue().query()).isEqualTo("query test");
   }
 
   @Test
   void search_withInvalidAmendments_filtersOutInvalidValues() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     searchService.search(
@@ -302,107 +448,114 @@ class SearchServiceTest {
         null,
         null,
         null,
-        pageable);
+        null,
+        null,
+        pageable,
+        true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            amendmentsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    String amendments = amendmentsCaptor.getValue();
-    assertThat(amendments).isEqualTo("{FIRST}").doesNotContain("INVALID").doesNotContain("DROP");
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().amendmentsMask())
+        .isEqualTo(EnumMasks.bit(Amendment.FIRST));
   }
 
   @Test
-  void search_withAllInvalidAmendments_passesNullToRepository() {
+  void search_withAllInvalidAmendments_passesZeroMaskToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     searchService.search(
-        null, Set.of("INVALID", "ALSO_INVALID"), null, null, null, null, null, null, pageable);
+        null,
+        Set.of("INVALID", "ALSO_INVALID"),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        pageable,
+        true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            amendmentsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    assertThat(amendmentsCaptor.getValue()).isNull();
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().amendmentsMask()).isZero();
   }
 
   @Test
   void search_withInvalidParticipants_filtersOutInvalidValues() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     searchService.search(
-        null, null, Set.of("POLICE", "HACKER", "},{bad}"), null, null, null, null, null, pageable);
+        null,
+        null,
+        Set.of("POLICE", "HACKER", "},{bad}"),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        pageable,
+        true);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            any(),
-            participantsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    String participants = participantsCaptor.getValue();
-    assertThat(participants).isEqualTo("{POLICE}").doesNotContain("HACKER").doesNotContain("bad");
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().participantsMask())
+        .isEqualTo(EnumMasks.bit(Participant.POLICE));
   }
 
   @Test
-  void search_withAllInvalidParticipants_passesNullToRepository() {
+  void search_withAllInvalidParticipants_passesZeroMaskToBackend() {
     // Arrange
     Page<SearchVideo> page = new PageImpl<>(List.of(), pageable, 0);
-    when(searchVideoRepository.searchWithFilters(
-            any(), any(), any(), any(), any(), any(), any(), any(), any()))
-        .thenReturn(page);
+    when(searchBackend.search(any(), any())).thenReturn(page);
 
     // Act
     searchService.search(
-        null, null, Set.of("NOT_A_PARTICIPANT"), null, null, null, null, null, pageable);
+        null,
+        null,
+        Set.of("NOT_A_PARTICIPANT"),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        pageable,
+        true);
+
+    // Assert
+    verify(searchBackend).search(criteriaCaptor.capture(), eq(pageable));
+
+    assertThat(criteriaCaptor.getValue().participantsMask()).isZero();
+  }
+
+  @Test
+  void findByIds_returnsVideosInRequestedOrderSkippingUnindexed() {
+    // Arrange
+    SearchVideo other = new SearchVideo();
+    other.setId(UUID.randomUUID());
+    UUID unindexed = UUID.randomUUID();
+    when(searchBackend.findByIds(any())).thenReturn(List.of(testVideo, other));
+
+    // Act
+    List<UUID> ids = List.of(other.getId(), unindexed, testVideo.getId(), other.getId());
+    List<SearchVideo> result = searchService.findByIds(ids);
 
     // Assert
-    verify(searchVideoRepository)
-        .searchWithFilters(
-            any(),
-            any(),
-            participantsCaptor.capture(),
-            any(),
-            any(),
-            any(),
-            any(),
-            any(),
-            eq(pageable));
-
-    assertThat(participantsCaptor.getValue()).isNull();
+    assertThat(result).containsExactly(other, testVideo);
+    verify(searchBackend).findByIds(Set.of(other.getId(), unindexed, testVideo.getId()));
   }
 }
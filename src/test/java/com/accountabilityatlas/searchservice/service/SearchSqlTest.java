@@ -0,0 +1,160 @@
+package com.accountabilityatlas.searchservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SearchSqlTest {
+
+  @Test
+  void select_withoutFilters_rendersNoWhereClause() {
+    // Act
+    SearchSql sql = new SearchSql(criteria(null, null, SearchSort.RELEVANCE), 0);
+
+    // Assert
+    assertThat(sql.select())
+        .isEqualTo(
+            "SELECT v.* FROM search.search_videos v"
+                + " ORDER BY v.static_score DESC, v.indexed_at DESC");
+    assertThat(sql.selectParameters()).isEmpty();
+  }
+
+  @Test
+  void select_rendersOnlyFiltersInUse() {
+    // Act
+    SearchSql sql =
+        new SearchSql(
+            new SearchCriteria(
+                null, 0, 4, "TX", 29.0, 31.0, -99.0, -97.0, null, SearchSort.RELEVANCE),
+            0);
+
+    // Assert
+    assertThat(sql.count())
+        .isEqualTo(
+            "SELECT COUNT(*) FROM search.search_videos v"
+                + " WHERE (v.participants_mask & :participantsMask) <> 0"
+                + " AND v.primary_location_state = :state"
+                + " AND v.primary_location_lat BETWEEN :minLat AND :maxLat"
+                + " AND v.primary_location_lng BETWEEN :minLng AND :maxLng");
+    assertThat(sql.countParameters())
+        .containsOnlyKeys("participantsMask", "state", "minLat", "maxLat", "minLng", "maxLng");
+  }
+
+  @Test
+  void count_withRanges_bindsInclusiveBounds() {
+    // Act
+    SearchSql sql =
+        new SearchSql(
+            new SearchCriteria(
+                null,
+                0,
+                0,
+                null,
+                null,
+                null,
+                null,
+                null,
+                new SearchRanges(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null, 600),
+                SearchSort.RELEVANCE),
+            0);
+
+    // Assert
+    assertThat(sql.count())
+        .endsWith(
+            " WHERE v.video_date >= :from"
+                + " AND v.video_date <= :to"
+                + " AND v.duration_seconds <= :maxDuration");
+    assertThat(sql.countParameters())
+        .containsEntry("from", LocalDate.of(2024, 1, 1))
+        .containsEntry("to", LocalDate.of(2024, 12, 31))
+        .containsEntry("maxDuration", 600)
+        .doesNotContainKey("minDuration");
+  }
+
+  @Test
+  void histogram_countsDatedMatchesPerBucket() {
+    // Act
+    SearchSql sql = new SearchSql(criteria("audit", null, SearchSort.VIDEO_DATE), 0.5);
+
+    // Assert
+    assertThat(sql.histogram(HistogramInterval.YEAR))
+        .isEqualTo(
+            "SELECT CAST(date_trunc('year', v.video_date) AS date) AS bucket, COUNT(*)"
+                + " FROM search.search_videos v"
+                + " WHERE v.search_vector @@ plainto_tsquery('english', :query)"
+                + " AND v.video_date IS NOT NULL"
+                + " GROUP BY bucket ORDER BY bucket");
+  }
+
+  @Test
+  void histogram_withoutFilters_stillSkipsUndatedVideos() {
+    // Act
+    SearchSql sql = new SearchSql(criteria(null, null, SearchSort.RELEVANCE), 0);
+
+    // Assert
+    assertThat(sql.histogram(HistogramInterval.MONTH))
+        .contains("FROM search.search_videos v WHERE v.video_date IS NOT NULL GROUP BY");
+    assertThat(sql.countParameters()).isEmpty();
+  }
+
+  @Test
+  void facets_groupsMatchesByFacetCombination() {
+    // Act
+    SearchSql sql = new SearchSql(criteria("audit", "TX", SearchSort.RELEVANCE), 0.5);
+
+    // Assert
+    assertThat(sql.facets())
+        .isEqualTo(
+            "SELECT v.primary_location_state, v.amendments_mask, v.participants_mask, COUNT(*)"
+                + " FROM search.search_videos v"
+                + " WHERE v.search_vector @@ plainto_tsquery('english', :query)"
+                + " AND v.primary_location_state = :state"
+                + " GROUP BY v.primary_location_state, v.amendments_mask, v.participants_mask");
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "VIDEO_DATE, 'v.video_date DESC NULLS LAST, v.indexed_at DESC'",
+    "DURATION_SECONDS, 'v.duration_seconds DESC NULLS LAST, v.indexed_at DESC'",
+    "INDEXED_AT, 'v.indexed_at DESC'"
+  })
+  void select_withColumnSort_ordersByThatColumn(SearchSort sort, String orderBy) {
+    // Act
+    SearchSql sql = new SearchSql(criteria("audit", "TX", sort), 0.5);
+
+    // Assert
+    assertThat(sql.select()).endsWith(" ORDER BY " + orderBy);
+    assertThat(sql.selectParameters()).containsOnlyKeys("query", "state");
+  }
+
+  @Test
+  void select_withQueryAndTextRanking_ordersByTextRank() {
+    // Act
+    SearchSql sql = new SearchSql(criteria("audit", null, SearchSort.RELEVANCE), 0);
+
+    // Assert
+    assertThat(sql.select())
+        .endsWith(
+            " ORDER BY ts_rank_cd(v.search_vector, plainto_tsquery('english', :query)) DESC,"
+                + " v.static_score DESC, v.indexed_at DESC");
+    assertThat(sql.selectParameters()).containsOnlyKeys("query");
+  }
+
+  @Test
+  void select_withQueryAndBlendedRanking_bindsRecencyWeightForSelectOnly() {
+    // Act
+    SearchSql sql = new SearchSql(criteria("audit", null, SearchSort.RELEVANCE), 0.5);
+
+    // Assert
+    assertThat(sql.select()).contains("+ :recencyWeight * v.static_score DESC");
+    assertThat(sql.selectParameters()).containsEntry("recencyWeight", 0.5);
+    assertThat(sql.countParameters()).containsOnlyKeys("query");
+  }
+
+  private static SearchCriteria criteria(String query, String state, SearchSort sort) {
+    return new SearchCriteria(query, 0, 0, state, null, null, null, null, null, sort);
+  }
+}
@@ -1,30 +1,51 @@
 package com.accountabilityatlas.searchservice.web;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.accountabilityatlas.searchservice.config.SecurityConfig;
+import com.accountabilityatlas.searchservice.domain.Amendment;
+import com.accountabilityatlas.searchservice.domain.Participant;
 import com.accountabilityatlas.searchservice.domain.SearchVideo;
+import com.accountabilityatlas.searchservice.service.DateBucket;
+import com.accountabilityatlas.searchservice.service.DateHistogram;
+import com.accountabilityatlas.searchservice.service.HistogramInterval;
+import com.accountabilityatlas.searchservice.service.SearchBatchExecutor;
+import com.accountabilityatlas.searchservice.service.SearchFacets;
+import com.accountabilityatlas.searchservice.service.SearchRanges;
 import com.accountabilityatlas.searchservice.service.SearchResult;
 import com.accountabilityatlas.searchservice.service.SearchService;
+import com.accountabilityatlas.searchservice.service.SearchSort;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -35,6 +56,7 @@ class SearchControllerTest {
   @Autowired private MockMvc mockMvc;
 
   @MockitoBean private SearchService searchService;
+  @MockitoBean private SearchBatchExecutor batchExecutor;
 
   @Captor private ArgumentCaptor<Pageable> pageableCaptor;
   @Captor private ArgumentCaptor<Set<String>> amendmentsCaptor;
@@ -52,7 +74,19 @@ class SearchControllerTest {
   @Test
   void search_returnsOkWithEmptyResults() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act & Assert
@@ -67,7 +101,19 @@ class SearchControllerTest {
   @Test
   void search_withQuery_passesQueryToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -75,14 +121,118 @@ class SearchControllerTest {
 
     // Assert
     verify(searchService)
-        .search(eq("police audit"), any(), any(), any(), any(), any(), any(), any(), any());
+        .search(
+            eq("police audit"),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(true));
+  }
+
+  @Test
+  void search_fromStartupWarmup_isNotCounted() throws Exception {
+    // Arrange
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
+        .thenReturn(emptyResult);
+
+    // Act
+    mockMvc
+        .perform(get("/search").header(SearchController.WARMUP_HEADER, StartupWarmup.TOKEN))
+        .andExpect(status().isOk());
+
+    // Assert
+    verify(searchService)
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(false));
+  }
+
+  @Test
+  void search_withWarmupHeaderButWrongToken_isCounted() throws Exception {
+    // Arrange
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
+        .thenReturn(emptyResult);
+
+    // Act
+    mockMvc
+        .perform(get("/search").header(SearchController.WARMUP_HEADER, "true"))
+        .andExpect(status().isOk());
+
+    // Assert
+    verify(searchService)
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(true));
   }
 
   @Test
   void search_withResults_returnsVideoData() throws Exception {
     // Arrange
     SearchResult result = new SearchResult(List.of(testVideo), 1, 1, 0, 20, 10);
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(result);
 
     // Act & Assert
@@ -102,7 +252,19 @@ class SearchControllerTest {
   @Test
   void search_withAmendmentsFilter_passesAmendmentsToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -112,14 +274,38 @@ class SearchControllerTest {
 
     // Assert
     verify(searchService)
-        .search(any(), amendmentsCaptor.capture(), any(), any(), any(), any(), any(), any(), any());
+        .search(
+            any(),
+            amendmentsCaptor.capture(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean());
     assertThat(amendmentsCaptor.getValue()).containsExactlyInAnyOrder("FIRST", "FOURTH");
   }
 
   @Test
   void search_withParticipantsFilter_passesParticipantsToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -130,27 +316,185 @@ class SearchControllerTest {
     // Assert
     verify(searchService)
         .search(
-            any(), any(), participantsCaptor.capture(), any(), any(), any(), any(), any(), any());
+            any(),
+            any(),
+            participantsCaptor.capture(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean());
     assertThat(participantsCaptor.getValue()).containsExactlyInAnyOrder("POLICE", "CITIZEN");
   }
 
   @Test
   void search_withStateFilter_passesStateToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
     mockMvc.perform(get("/search").param("state", "TX")).andExpect(status().isOk());
 
     // Assert
-    verify(searchService).search(any(), any(), any(), eq("TX"), any(), any(), any(), any(), any());
+    verify(searchService)
+        .search(
+            any(),
+            any(),
+            any(),
+            eq("TX"),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean());
+  }
+
+  @Test
+  void search_withDateAndDurationRanges_passesRangesToService() throws Exception {
+    // Arrange
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
+        .thenReturn(emptyResult);
+
+    // Act
+    mockMvc
+        .perform(
+            get("/search")
+                .param("from", "2024-01-01")
+                .param("to", "2024-01-31")
+                .param("minDuration", "60")
+                .param("maxDuration", "600"))
+        .andExpect(status().isOk());
+
+    // Assert
+    SearchRanges ranges =
+        new SearchRanges(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 60, 600);
+    verify(searchService)
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(ranges),
+            any(),
+            any(),
+            anyBoolean());
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "from, 2024-02-01, to, 2024-01-01",
+    "minDuration, 600, maxDuration, 60",
+    "minDuration, -1, maxDuration, 60"
+  })
+  void search_withInvertedOrNegativeRange_returns400(
+      String lowerName, String lower, String upperName, String upper) throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/search").param(lowerName, lower).param(upperName, upper))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(searchService);
+  }
+
+  @Test
+  void search_withSort_passesSortToService() throws Exception {
+    // Arrange
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
+        .thenReturn(emptyResult);
+
+    // Act
+    mockMvc.perform(get("/search").param("sort", "videoDate")).andExpect(status().isOk());
+
+    // Assert
+    verify(searchService)
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(SearchSort.VIDEO_DATE),
+            any(),
+            anyBoolean());
+  }
+
+  @Test
+  void search_withUnknownSort_returns400() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/search").param("sort", "popularity"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string(startsWith("Invalid sort")));
+    verifyNoInteractions(searchService);
   }
 
   @Test
   void search_withPagination_passesPageableToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -160,7 +504,19 @@ class SearchControllerTest {
 
     // Assert
     verify(searchService)
-        .search(any(), any(), any(), any(), any(), any(), any(), any(), pageableCaptor.capture());
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            pageableCaptor.capture(),
+            anyBoolean());
     Pageable pageable = pageableCaptor.getValue();
     assertThat(pageable.getPageNumber()).isEqualTo(2);
     assertThat(pageable.getPageSize()).isEqualTo(50);
@@ -169,7 +525,19 @@ class SearchControllerTest {
   @Test
   void search_withSizeOver100_capsAt100() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -177,14 +545,38 @@ class SearchControllerTest {
 
     // Assert
     verify(searchService)
-        .search(any(), any(), any(), any(), any(), any(), any(), any(), pageableCaptor.capture());
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            pageableCaptor.capture(),
+            anyBoolean());
     assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(100);
   }
 
   @Test
   void search_withDefaultPagination_usesDefaults() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -192,7 +584,19 @@ class SearchControllerTest {
 
     // Assert
     verify(searchService)
-        .search(any(), any(), any(), any(), any(), any(), any(), any(), pageableCaptor.capture());
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            pageableCaptor.capture(),
+            anyBoolean());
     Pageable pageable = pageableCaptor.getValue();
     assertThat(pageable.getPageNumber()).isZero();
     assertThat(pageable.getPageSize()).isEqualTo(20);
@@ -203,7 +607,19 @@ class SearchControllerTest {
     // Arrange
     SearchVideo videoWithLocation = createTestVideoWithLocation();
     SearchResult result = new SearchResult(List.of(videoWithLocation), 1, 1, 0, 20, 5);
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(result);
 
     // Act & Assert
@@ -221,7 +637,19 @@ class SearchControllerTest {
   void search_withNoLocation_returnsEmptyLocationsArray() throws Exception {
     // Arrange
     SearchResult result = new SearchResult(List.of(testVideo), 1, 1, 0, 20, 5);
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(result);
 
     // Act & Assert
@@ -243,7 +671,19 @@ class SearchControllerTest {
     videoNullArrays.setParticipants(null);
 
     SearchResult result = new SearchResult(List.of(videoNullArrays), 1, 1, 0, 20, 5);
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(result);
 
     // Act & Assert
@@ -259,7 +699,19 @@ class SearchControllerTest {
   @Test
   void search_withBbox_passesParsedCoordinatesToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -269,7 +721,108 @@ class SearchControllerTest {
 
     // Assert
     verify(searchService)
-        .search(any(), any(), any(), any(), eq(-122.5), eq(37.0), eq(-121.0), eq(38.0), any());
+        .search(
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(-122.5),
+            eq(37.0),
+            eq(-121.0),
+            eq(38.0),
+            any(),
+            any(),
+            any(),
+            anyBoolean());
+  }
+
+  @Test
+  void histogram_returnsBucketsForFilters() throws Exception {
+    // Arrange
+    when(searchService.histogram(
+            any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+        .thenReturn(
+            new DateHistogram(
+                List.of(
+                    new DateBucket(LocalDate.of(2024, 1, 1), 4),
+                    new DateBucket(LocalDate.of(2024, 2, 1), 1)),
+                7));
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/search/histogram").param("state", "TX").param("from", "2024-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.interval").value("month"))
+        .andExpect(jsonPath("$.buckets.length()").value(2))
+        .andExpect(jsonPath("$.buckets[0].start").value("2024-01-01"))
+        .andExpect(jsonPath("$.buckets[0].count").value(4));
+    verify(searchService)
+        .histogram(
+            any(),
+            any(),
+            any(),
+            eq("TX"),
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(new SearchRanges(LocalDate.of(2024, 1, 1), null, null, null)),
+            eq(HistogramInterval.MONTH));
+  }
+
+  @Test
+  void histogram_withUnknownInterval_returns400() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/search/histogram").param("interval", "week"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string(startsWith("Invalid interval")));
+    verifyNoInteractions(searchService);
+  }
+
+  @Test
+  void facets_returnsCountsPerValue() throws Exception {
+    // Arrange
+    when(searchService.facets(any(), any(), any(), any()))
+        .thenReturn(
+            new SearchFacets(
+                Map.of("FIRST", 6L), Map.of("POLICE", 4L), Map.of("TX", 5L, "CA", 1L), 6, 3));
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/search/facets").param("q", "audit").param("amendments", "FIRST"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.facets.amendments.FIRST").value(6))
+        .andExpect(jsonPath("$.facets.participants.POLICE").value(4))
+        .andExpect(jsonPath("$.facets.states.TX").value(5))
+        .andExpect(jsonPath("$.totalMatching").value(6));
+    verify(searchService).facets("audit", Set.of("FIRST"), null, null);
+  }
+
+  @Test
+  void findVideos_returnsIndexedVideosAndMissingIds() throws Exception {
+    // Arrange
+    UUID missing = UUID.randomUUID();
+    when(searchService.findByIds(List.of(testVideo.getId(), missing)))
+        .thenReturn(List.of(testVideo));
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/search/videos").param("ids", testVideo.getId() + "," + missing))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].id").value(testVideo.getId().toString()))
+        .andExpect(jsonPath("$.results[0].title").value("Test Video"))
+        .andExpect(jsonPath("$.missing[0]").value(missing.toString()));
+  }
+
+  @Test
+  void findVideos_withTooManyIds_returns400() throws Exception {
+    // Arrange
+    String ids =
+        String.join(",", Stream.generate(() -> UUID.randomUUID().toString()).limit(201).toList());
+
+    // Act & Assert
+    mockMvc.perform(get("/search/videos").param("ids", ids)).andExpect(status().isBadRequest());
   }
 
   @Test
@@ -291,7 +844,19 @@ class SearchControllerTest {
   @Test
   void search_withNoBbox_passesNullCoordinatesToService() throws Exception {
     // Arrange
-    when(searchService.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
         .thenReturn(emptyResult);
 
     // Act
@@ -308,7 +873,106 @@ class SearchControllerTest {
             eq((Double) null),
             eq((Double) null),
             eq((Double) null),
-            any());
+            any(),
+            any(),
+            any(),
+            anyBoolean());
+  }
+
+  @Test
+  void searchBatch_returnsEachSearchInOrder() throws Exception {
+    // Arrange
+    when(batchExecutor.maxSearches()).thenReturn(20);
+    when(batchExecutor.invokeAll(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<Supplier<?>>>getArgument(0).stream().map(Supplier::get).toList());
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            eq("TX"),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
+        .thenReturn(new SearchResult(List.of(testVideo), 1, 1, 0, 5, 3));
+    when(searchService.search(
+            any(),
+            any(),
+            any(),
+            eq("CA"),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            anyBoolean()))
+        .thenReturn(emptyResult);
+    String body =
+        """
+        {"searches": [
+          {"state": "TX", "size": 5},
+          {"state": "CA", "amendments": ["FIRST"], "bbox": "-125,32,-114,42"}
+        ]}
+        """;
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/search/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(2))
+        .andExpect(jsonPath("$.results[0].results[0].title").value("Test Video"))
+        .andExpect(jsonPath("$.results[0].pagination.size").value(5))
+        .andExpect(jsonPath("$.results[1].results").isEmpty());
+    verify(searchService)
+        .search(
+            any(),
+            amendmentsCaptor.capture(),
+            any(),
+            eq("CA"),
+            eq(-125.0),
+            eq(32.0),
+            eq(-114.0),
+            eq(42.0),
+            any(),
+            any(),
+            pageableCaptor.capture(),
+            anyBoolean());
+    assertThat(amendmentsCaptor.getValue()).containsExactly("FIRST");
+    assertThat(pageableCaptor.getValue().getPageSize()).isEqualTo(20);
+  }
+
+  @Test
+  void searchBatch_withInvalidBbox_returns400WithoutSearching() throws Exception {
+    // Arrange
+    when(batchExecutor.maxSearches()).thenReturn(20);
+    String body = "{\"searches\": [{\"state\": \"TX\"}, {\"bbox\": \"1,2,3\"}]}";
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/search/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(searchService);
+  }
+
+  @Test
+  void searchBatch_withTooManySearches_returns400() throws Exception {
+    // Arrange
+    when(batchExecutor.maxSearches()).thenReturn(2);
+    String body = "{\"searches\": [{}, {}, {}]}";
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/search/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(searchService);
   }
 
   private SearchVideo createTestVideo() {
@@ -322,8 +986,8 @@ class SearchControllerTest {
     video.setChannelId("UC123");
     video.setChannelName("Test Channel");
     video.setVideoDate(LocalDate.of(2024, 1, 15));
-    video.setAmendments(new String[] {"FIRST"});
-    video.setParticipants(new String[] {"POLICE"});
+    video.setAmendments(EnumSet.of(Amendment.FIRST));
+    video.setParticipants(EnumSet.of(Participant.POLICE));
     video.setIndexedAt(Instant.now());
     return video;
   }
@@ -0,0 +1,77 @@
+package com.accountabilityatlas.searchservice.web;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.ExpectedCount.manyTimes;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+  @Mock private DataSource dataSource;
+  @Mock private Connection connection;
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void run_opensConnectionsAndSendsTheRequestMix() throws SQLException {
+    // Arrange
+    when(dataSource.getConnection()).thenReturn(connection);
+    RestClient.Builder builder = RestClient.builder();
+    MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+    server
+        .expect(manyTimes(), method(HttpMethod.GET))
+        .andExpect(header(SearchController.WARMUP_HEADER, StartupWarmup.TOKEN))
+        .andRespond(withSuccess());
+    MockEnvironment environment = new MockEnvironment().withProperty("local.server.port", "8084");
+
+    // Act
+    warmup(builder, environment).run(null);
+
+    // Assert
+    verify(connection, times(3)).close();
+    server.verify();
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  void run_withoutServerPort_skipsTheRequestMix() throws SQLException {
+    // Arrange
+    when(dataSource.getConnection()).thenReturn(connection);
+    RestClient.Builder builder = RestClient.builder();
+    MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+
+    // Act
+    warmup(builder, new MockEnvironment()).run(null);
+
+    // Assert
+    verify(connection, times(3)).close();
+    server.verify();
+  }
+
+  private StartupWarmup warmup(RestClient.Builder builder, MockEnvironment environment) {
+    return new StartupWarmup(
+        new WarmupProperties(true, 3, false, 1, 0.9, Duration.ofSeconds(10)),
+        dataSource,
+        jdbcTemplate,
+        builder,
+        environment);
+  }
+}